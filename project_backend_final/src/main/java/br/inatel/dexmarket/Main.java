@@ -1,11 +1,17 @@
 package br.inatel.dexmarket;
 
 import br.inatel.dexmarket.controller.TrocaController;
+import br.inatel.dexmarket.model.FiltroBuscaTrocas;
+import br.inatel.dexmarket.model.Pagina;
 import br.inatel.dexmarket.model.Pokemon;
 import br.inatel.dexmarket.model.Proposta;
 import br.inatel.dexmarket.model.Treinador;
 import br.inatel.dexmarket.model.Troca;
 import br.inatel.dexmarket.model.PropostaSimples;
+import br.inatel.dexmarket.observer.BarramentoEventos;
+import br.inatel.dexmarket.observer.EstrategiaEspera;
+import br.inatel.dexmarket.persistence.AgendadorSnapshots;
+import br.inatel.dexmarket.persistence.Journal;
 import br.inatel.dexmarket.repository.*;
 import br.inatel.dexmarket.service.NotificacaoService;
 import br.inatel.dexmarket.service.PropostaService;
@@ -13,12 +19,17 @@ import br.inatel.dexmarket.service.TrocaService;
 import br.inatel.dexmarket.strategy.ValidacaoTrocaNormal;
 import br.inatel.dexmarket.strategy.ValidacaoTrocaRara;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 public class Main {
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
         System.out.println("--- DEX MARKET BACKEND SIMULATION ---");
 
         // 1. Inicialização das Repositories (In-Memory)
@@ -26,15 +37,37 @@ public class Main {
         PropostaRepository propostaRepository = new PropostaRepositoryImpl();
         NotificacaoRepository notificacaoRepository = new NotificacaoRepositoryImpl();
         PokemonRepository pokemonRepository = new PokemonRepositoryImpl();
-        // TreinadorRepository (simulado, pois não existe)
+
+        // Modo durável (opcional): -Ddexmarket.dados=<diretório> grava cada escrita em um journal
+        // e, na inicialização, reproduz o journal para recuperar os dados da execução anterior.
+        String diretorioDados = System.getProperty("dexmarket.dados");
+        if (diretorioDados != null) {
+            Path diretorio = Files.createDirectories(Paths.get(diretorioDados));
+            TrocaRepositoryDuravel trocasDuraveis = new TrocaRepositoryDuravel(trocaRepository, new Journal(diretorio, "trocas"));
+            PropostaRepositoryDuravel propostasDuraveis = new PropostaRepositoryDuravel(propostaRepository, new Journal(diretorio, "propostas"));
+            NotificacaoRepositoryDuravel notificacoesDuraveis = new NotificacaoRepositoryDuravel(notificacaoRepository, new Journal(diretorio, "notificacoes"));
+            PokemonRepositoryDuravel pokemonsDuraveis = new PokemonRepositoryDuravel(pokemonRepository, new Journal(diretorio, "pokemons"));
+            trocaRepository = trocasDuraveis;
+            propostaRepository = propostasDuraveis;
+            notificacaoRepository = notificacoesDuraveis;
+            pokemonRepository = pokemonsDuraveis;
+            // Snapshot de cada repositório quando o journal passar de 4 MB, verificado a cada minuto
+            new AgendadorSnapshots(Arrays.asList(trocasDuraveis, propostasDuraveis, notificacoesDuraveis, pokemonsDuraveis),
+                    1, TimeUnit.MINUTES, 4L * 1024 * 1024);
+        }
+        TreinadorRepository treinadorRepository = new TreinadorRepositoryImpl();
 
         // 2. Inicialização dos Services (Injeção de Dependência Manual)
+        // Observer assíncrono: os Services publicam os eventos de troca e de proposta no barramento e o
+        // NotificacaoService os recebe nas threads consumidoras (ring buffer de 1024 slots)
+        BarramentoEventos barramento = BarramentoEventos.comRingBuffer(2, 1024, EstrategiaEspera.ESTACIONAR);
         NotificacaoService notificacaoService = new NotificacaoService(notificacaoRepository);
-        PropostaService propostaService = new PropostaService(propostaRepository);
-        TrocaService trocaService = new TrocaService(trocaRepository, propostaRepository);
+        barramento.assinar(notificacaoService);
+        PropostaService propostaService = new PropostaService(propostaRepository, trocaRepository, barramento);
+        TrocaService trocaService = new TrocaService(trocaRepository, propostaRepository, barramento);
 
         // 3. Inicialização do Controller (Injeção de Dependência Manual)
-        TrocaController trocaController = new TrocaController(trocaService, propostaService, notificacaoService);
+        TrocaController trocaController = new TrocaController(trocaService, propostaService);
 
         // --- Configuração de Dados Mock ---
         // Treinadores
@@ -49,23 +82,10 @@ public class Main {
         Pokemon p4 = new Pokemon(40, "Psyduck", "Agua", "url_p4", 1, 3);
         Pokemon p5 = new Pokemon(50, "Mewtwo", "Psiquico", "url_p5", 5, 2); // Ultra Raro
 
-        // Simulação de Repositório de Treinadores (para buscar o nome)
-        TreinadorRepository treinadorRepository = new TreinadorRepository() {
-            @Override
-            public Treinador findById(int id) {
-                if (id == 1) return treinador1;
-                if (id == 2) return treinador2;
-                if (id == 3) return treinador3;
-                return null;
-            }
-            // Outros métodos não implementados
-            @Override
-            public Treinador save(Treinador entity) { return entity; }
-            @Override
-            public List<Treinador> findAll() { return Arrays.asList(treinador1, treinador2, treinador3); }
-            @Override
-            public boolean delete(int id) { return true; }
-        };
+        treinadorRepository.save(treinador1);
+        treinadorRepository.save(treinador2);
+        treinadorRepository.save(treinador3);
+        System.out.println("Treinador com email 'MISTY@kanto.com': " + treinadorRepository.findByEmail("MISTY@kanto.com"));
 
         // --- SIMULAÇÃO DE ENDPOINTS ---
 
@@ -100,6 +120,13 @@ public class Main {
         List<Troca> trocasAtivas = trocaController.listarTrocasAtivas();
         System.out.println("Trocas Ativas no MarketPlace: " + trocasAtivas.size());
         trocasAtivas.forEach(t -> System.out.println("  - " + t));
+        Pagina<Troca> primeiraPagina = trocaController.listarTrocasAtivas(null, 1);
+        System.out.println("Primeira página (limite 1): " + primeiraPagina.getItens()
+                + ", próximo cursor: " + primeiraPagina.getProximoCursor());
+        Pagina<Troca> busca = trocaController.buscarTrocas(new FiltroBuscaTrocas().comTipo("Voador").comRaridadeEntre(3, 5), null, 10);
+        System.out.println("Busca (tipo Voador, raridade 3 a 5): " + busca.getItens());
+        System.out.println("Facetas: " + trocaController.contarFacetas());
+        System.out.println("Feed mais raras: " + trocaController.listarTrocasMaisRaras(50));
 
         System.out.println("\n--- 3. POST: Enviar Proposta (Troca 1) ---");
         PropostaSimples proposta1 = new PropostaSimples(troca1.getIdTroca(), 2); // Misty (2) propõe para Ash (1)
@@ -129,6 +156,10 @@ public class Main {
         trocasConcluidasAsh.forEach(t -> System.out.println("  - " + t));
 
         System.out.println("\n--- 7. Notificações (Observer Pattern) ---");
+        // As notificações são geradas (barramento) e gravadas (escritor em lote) de forma assíncrona
+        barramento.aguardarEntregas(5, TimeUnit.SECONDS);
+        notificacaoService.descarregarNotificacoes();
+        System.out.println("Gravação em lote: " + notificacaoService.getEstatisticasGravacao());
         System.out.println("Notificações de Ash (1):");
         notificacaoService.listarNotificacoesDoJogador(1).forEach(n -> System.out.println("  - " + n));
         System.out.println("Notificações de Misty (2):");
@@ -1,8 +1,11 @@
 package br.inatel.dexmarket.controller;
 
+import br.inatel.dexmarket.model.CursorPagina;
+import br.inatel.dexmarket.model.FacetasMarketplace;
+import br.inatel.dexmarket.model.FiltroBuscaTrocas;
+import br.inatel.dexmarket.model.Pagina;
 import br.inatel.dexmarket.model.Proposta;
 import br.inatel.dexmarket.model.Troca;
-import br.inatel.dexmarket.service.NotificacaoService;
 import br.inatel.dexmarket.service.PropostaService;
 import br.inatel.dexmarket.service.TrocaService;
 
@@ -16,13 +19,12 @@ public class TrocaController {
 
     private final TrocaService trocaService;
     private final PropostaService propostaService;
-    private final NotificacaoService notificacaoService;
 
     // **Injeção de Dependência (Manual)**: Garantindo o desacoplamento do Controller para o Service
-    public TrocaController(TrocaService trocaService, PropostaService propostaService, NotificacaoService notificacaoService) {
+    // (as notificações saem dos eventos publicados pelos Services, não do Controller)
+    public TrocaController(TrocaService trocaService, PropostaService propostaService) {
         this.trocaService = trocaService;
         this.propostaService = propostaService;
-        this.notificacaoService = notificacaoService;
     }
 
     // ========== ENDPOINTS SIMULADOS (Retorno de Objetos de Domínio) ==========
@@ -35,6 +37,53 @@ public class TrocaController {
         return trocaService.listarTrocasAtivas();
     }
 
+    /**
+     * 1. (paginado) Uma página das "TrocasAtivas" (MarketPlace).
+     * @param cursor Valor de proximoCursor da página anterior ("millis:id"), ou null para a primeira página.
+     * @param limite Quantidade de trocas na página.
+     * @return Página de Trocas Ativas.
+     */
+    public Pagina<Troca> listarTrocasAtivas(String cursor, int limite) {
+        return trocaService.listarTrocasAtivas(CursorPagina.decodificar(cursor), limite);
+    }
+
+    /**
+     * 1b. Busca no marketplace (filtros por espécie, tipo, raridade e ofertante), paginada.
+     * @param filtro Critérios da busca.
+     * @param cursor Cursor da página anterior (null ou vazio para a primeira página).
+     * @param limite Quantidade de trocas na página.
+     * @return Página de trocas ativas que atendem o filtro.
+     */
+    public Pagina<Troca> buscarTrocas(FiltroBuscaTrocas filtro, String cursor, int limite) {
+        return trocaService.buscarTrocasAtivas(filtro, CursorPagina.decodificar(cursor), limite);
+    }
+
+    /**
+     * 1c. Contagens de trocas ativas por tipo, raridade e espécie (barra lateral do MarketPlace).
+     * @return As contagens atuais.
+     */
+    public FacetasMarketplace contarFacetas() {
+        return trocaService.contarFacetasTrocasAtivas();
+    }
+
+    /**
+     * 1d. Feed das trocas ativas mais recentes.
+     * @param limite Quantidade de trocas no feed.
+     * @return Trocas ativas mais recentes.
+     */
+    public List<Troca> listarTrocasMaisRecentes(int limite) {
+        return trocaService.listarTrocasMaisRecentes(limite);
+    }
+
+    /**
+     * 1e. Feed das trocas ativas com os Pokémons ofertados mais raros.
+     * @param limite Quantidade de trocas no feed.
+     * @return Trocas ativas da maior para a menor raridade ofertada.
+     */
+    public List<Troca> listarTrocasMaisRaras(int limite) {
+        return trocaService.listarTrocasMaisRaras(limite);
+    }
+
     /**
      * 2. Um json que consegue enviar todas as propostas que uma troca ativa {id} recebeu
      * @param idTroca ID da troca.
@@ -68,18 +117,9 @@ public class TrocaController {
      * @return A Proposta criada.
      */
     public Proposta enviarProposta(Proposta proposta) {
-        Proposta novaProposta = propostaService.enviarProposta(proposta);
-
-        // Notificação (Endpoint 4)
-        Troca troca = trocaService.buscarTroca(proposta.getIdTroca());
-        if (troca != null) {
-            notificacaoService.enviarNotificacao(
-                    troca.getIdJogadorOfertante(),
-                    "NovaPropostaRecebida",
-                    "Você recebeu uma nova proposta para a troca #" + troca.getIdTroca()
-            );
-        }
-        return novaProposta;
+        // Notificação (Endpoint 4): o PropostaService publica PROPOSTA_RECEBIDA e o
+        // NotificacaoService notifica o dono da troca fora desta requisição
+        return propostaService.enviarProposta(proposta);
     }
 
     /**
@@ -88,15 +128,8 @@ public class TrocaController {
      * @return A Proposta aceita.
      */
     public Proposta aceitarProposta(int idProposta) {
-        Proposta proposta = trocaService.processarProposta(idProposta, true);
-
-        // Notificação para o proponente
-        notificacaoService.enviarNotificacao(
-                proposta.getIdJogadorProponente(),
-                "PropostaAceita",
-                "Sua proposta #" + idProposta + " foi aceita!"
-        );
-        return proposta;
+        // Notificação para o proponente: publicada pelo TrocaService (PROPOSTA_ACEITA)
+        return trocaService.processarProposta(idProposta, true);
     }
 
     /**
@@ -105,15 +138,8 @@ public class TrocaController {
      * @return A Proposta rejeitada.
      */
     public Proposta rejeitarProposta(int idProposta) {
-        Proposta proposta = trocaService.processarProposta(idProposta, false);
-
-        // Notificação para o proponente
-        notificacaoService.enviarNotificacao(
-                proposta.getIdJogadorProponente(),
-                "PropostaRecusada",
-                "Sua proposta #" + idProposta + " foi recusada."
-        );
-        return proposta;
+        // Notificação para o proponente: publicada pelo TrocaService (PROPOSTA_RECUSADA)
+        return trocaService.processarProposta(idProposta, false);
     }
 
     /**
@@ -0,0 +1,74 @@
+package br.inatel.dexmarket.model;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Classe CatalogoEspecies - Tabela de internação das espécies (fábrica do Flyweight Especie).
+ *
+ * **Padrão Singleton**: existe um único catálogo por processo, para que Pokémons criados em qualquer
+ * lugar (services, codec do journal, desserialização) compartilhem as mesmas instâncias.
+ *
+ * Cada combinação (nome, tipo, urlImagem) recebe um ID denso (0, 1, 2, ...) na primeira vez em que
+ * aparece. A busca de uma espécie já conhecida é uma leitura sem trava do ConcurrentHashMap; só o
+ * cadastro de uma espécie nova (raro) é sincronizado. As espécies nunca são removidas.
+ */
+public final class CatalogoEspecies {
+    private static final CatalogoEspecies INSTANCIA = new CatalogoEspecies();
+
+    private final Map<Especie, Especie> especies = new ConcurrentHashMap<>();
+    // Espécies por ID; substituído (e não alterado) ao crescer, então a leitura não precisa de trava
+    private volatile Especie[] porId = new Especie[64];
+    private int quantidade;
+
+    private CatalogoEspecies() {
+    }
+
+    public static CatalogoEspecies getInstance() {
+        return INSTANCIA;
+    }
+
+    /**
+     * Retorna a espécie compartilhada com os atributos informados, cadastrando-a se ainda não existe.
+     *
+     * @param nome Nome da espécie
+     * @param tipo Tipo da espécie
+     * @param urlImagem URL da imagem da espécie
+     * @return A instância única da espécie
+     */
+    public Especie obter(String nome, String tipo, String urlImagem) {
+        Especie consulta = new Especie(-1, nome, tipo, urlImagem);
+        Especie existente = especies.get(consulta);
+        return existente != null ? existente : cadastrar(consulta);
+    }
+
+    /**
+     * @param idEspecie O ID denso da espécie
+     * @return A espécie, ou null se o ID não foi atribuído
+     */
+    public Especie buscarPorId(int idEspecie) {
+        Especie[] atual = porId;
+        return idEspecie >= 0 && idEspecie < atual.length ? atual[idEspecie] : null;
+    }
+
+    public int size() {
+        return especies.size();
+    }
+
+    private synchronized Especie cadastrar(Especie consulta) {
+        Especie existente = especies.get(consulta);
+        if (existente != null) {
+            return existente;
+        }
+        Especie nova = new Especie(quantidade, consulta.getNome(), consulta.getTipo(), consulta.getUrlImagem());
+        Especie[] atual = porId;
+        if (quantidade == atual.length) {
+            atual = Arrays.copyOf(atual, atual.length * 2);
+        }
+        atual[quantidade++] = nova;
+        porId = atual;
+        especies.put(nova, nova);
+        return nova;
+    }
+}
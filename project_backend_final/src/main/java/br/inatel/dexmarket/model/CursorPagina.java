@@ -0,0 +1,74 @@
+package br.inatel.dexmarket.model;
+
+import java.util.Date;
+
+/**
+ * Classe CursorPagina - Posição de uma listagem paginada por keyset.
+ *
+ * Identifica o último item entregue pela chave de ordenação (dataCriacao, id), e não por um
+ * deslocamento: a próxima página começa logo depois dessa chave, então inserções e remoções
+ * concorrentes não fazem itens se repetirem nem pularem entre páginas.
+ *
+ * Trafega como texto no formato "millis:id" (ver codificar() e decodificar()).
+ */
+public final class CursorPagina {
+    private final long dataCriacao;
+    private final int id;
+
+    public CursorPagina(long dataCriacao, int id) {
+        this.dataCriacao = dataCriacao;
+        this.id = id;
+    }
+
+    /**
+     * Cursor posicionado depois de uma troca.
+     */
+    public static CursorPagina depoisDe(Troca troca) {
+        return new CursorPagina(millis(troca.getDataCriacao()), troca.getIdTroca());
+    }
+
+    /**
+     * Milissegundos usados na ordenação. Trocas sem data de criação vêm antes de todas as outras.
+     */
+    public static long millis(Date data) {
+        return data != null ? data.getTime() : Long.MIN_VALUE;
+    }
+
+    public long getDataCriacao() {
+        return dataCriacao;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String codificar() {
+        return dataCriacao + ":" + id;
+    }
+
+    /**
+     * @param texto Cursor no formato "millis:id" (null ou vazio = primeira página)
+     * @return O cursor, ou null para a primeira página
+     * @throws IllegalArgumentException Se o texto não for um cursor válido
+     */
+    public static CursorPagina decodificar(String texto) {
+        if (texto == null || texto.isEmpty()) {
+            return null;
+        }
+        int separador = texto.indexOf(':');
+        try {
+            if (separador > 0) {
+                return new CursorPagina(Long.parseLong(texto.substring(0, separador)),
+                        Integer.parseInt(texto.substring(separador + 1)));
+            }
+        } catch (NumberFormatException e) {
+            // cai na exceção abaixo
+        }
+        throw new IllegalArgumentException("Cursor de paginação inválido: " + texto);
+    }
+
+    @Override
+    public String toString() {
+        return codificar();
+    }
+}
@@ -0,0 +1,83 @@
+package br.inatel.dexmarket.model;
+
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Classe Especie - Atributos compartilhados por todos os Pokémons de uma mesma espécie.
+ *
+ * **Padrão Flyweight**: nome, tipo e urlImagem se repetem em milhões de Pokémons, então ficam em
+ * uma única instância imutável por combinação, obtida de CatalogoEspecies. Cada Pokemon guarda só
+ * a referência para ela (o estado intrínseco); ID, raridade e dono continuam no próprio Pokemon
+ * (o estado extrínseco).
+ *
+ * Duas espécies são iguais quando nome, tipo e urlImagem são iguais; o ID denso é atribuído pelo
+ * catálogo e não entra na comparação.
+ */
+public final class Especie implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final int idEspecie;
+    private final String nome;
+    private final String tipo;
+    private final String urlImagem;
+
+    Especie(int idEspecie, String nome, String tipo, String urlImagem) {
+        this.idEspecie = idEspecie;
+        this.nome = nome;
+        this.tipo = tipo;
+        this.urlImagem = urlImagem;
+    }
+
+    public int getIdEspecie() {
+        return idEspecie;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public String getTipo() {
+        return tipo;
+    }
+
+    public String getUrlImagem() {
+        return urlImagem;
+    }
+
+    /**
+     * Na desserialização, devolve a instância do catálogo em vez de uma cópia.
+     */
+    private Object readResolve() throws ObjectStreamException {
+        return CatalogoEspecies.getInstance().obter(nome, tipo, urlImagem);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Especie)) {
+            return false;
+        }
+        Especie outra = (Especie) o;
+        return Objects.equals(nome, outra.nome)
+                && Objects.equals(tipo, outra.tipo)
+                && Objects.equals(urlImagem, outra.urlImagem);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(nome, tipo, urlImagem);
+    }
+
+    @Override
+    public String toString() {
+        return "Especie{" +
+                "idEspecie=" + idEspecie +
+                ", nome='" + nome + '\'' +
+                ", tipo='" + tipo + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,45 @@
+package br.inatel.dexmarket.model;
+
+import java.util.Map;
+
+/**
+ * Classe FacetasMarketplace - Contagens de trocas ativas por faceta (barra lateral do marketplace).
+ *
+ * Cada contagem é o número de trocas ativas com PELO MENOS UM Pokémon ofertado com aquele valor
+ * (uma troca com dois Pokémons de Fogo conta uma vez em "fogo"). Tipos duplos contam em cada tipo.
+ * Espécies e tipos aparecem na forma normalizada usada pela busca (FiltroBuscaTrocas.normalizar).
+ * Os mapas vêm ordenados pela chave.
+ */
+public final class FacetasMarketplace {
+    private final Map<String, Integer> porTipo;
+    private final Map<Integer, Integer> porRaridade;
+    private final Map<String, Integer> porEspecie;
+
+    public FacetasMarketplace(Map<String, Integer> porTipo, Map<Integer, Integer> porRaridade,
+                              Map<String, Integer> porEspecie) {
+        this.porTipo = porTipo;
+        this.porRaridade = porRaridade;
+        this.porEspecie = porEspecie;
+    }
+
+    public Map<String, Integer> getPorTipo() {
+        return porTipo;
+    }
+
+    public Map<Integer, Integer> getPorRaridade() {
+        return porRaridade;
+    }
+
+    public Map<String, Integer> getPorEspecie() {
+        return porEspecie;
+    }
+
+    @Override
+    public String toString() {
+        return "FacetasMarketplace{" +
+                "porTipo=" + porTipo +
+                ", porRaridade=" + porRaridade +
+                ", porEspecie=" + porEspecie +
+                '}';
+    }
+}
@@ -0,0 +1,146 @@
+package br.inatel.dexmarket.model;
+
+import java.text.Normalizer;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Classe FiltroBuscaTrocas - Critérios da busca no marketplace.
+ *
+ * Todos os critérios são opcionais e combinados com E; cada um é atendido se ALGUM dos Pokémons
+ * ofertados na troca o satisfaz:
+ *   - especie: nome do Pokémon (sem diferenciar maiúsculas de minúsculas nem acentos);
+ *   - tipo: um dos tipos do Pokémon ("Fogo/Voador" atende "Fogo" e "Voador"; "Psiquico" atende "Psíquico");
+ *   - raridade: faixa [minima, maxima];
+ *   - ofertante: ID do jogador que criou a troca.
+ *
+ * Uso: new FiltroBuscaTrocas().comTipo("Fogo").comRaridadeEntre(3, 5)
+ */
+public final class FiltroBuscaTrocas {
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+
+    private String especie;
+    private String tipo;
+    private Integer raridadeMinima;
+    private Integer raridadeMaxima;
+    private Integer idJogadorOfertante;
+
+    public FiltroBuscaTrocas comEspecie(String especie) {
+        this.especie = normalizar(especie);
+        return this;
+    }
+
+    public FiltroBuscaTrocas comTipo(String tipo) {
+        this.tipo = normalizar(tipo);
+        return this;
+    }
+
+    /**
+     * @throws IllegalArgumentException Se a faixa for vazia (minima maior que maxima)
+     */
+    public FiltroBuscaTrocas comRaridadeEntre(int minima, int maxima) {
+        if (minima > maxima) {
+            throw new IllegalArgumentException("Faixa de raridade inválida: " + minima + " a " + maxima);
+        }
+        this.raridadeMinima = minima;
+        this.raridadeMaxima = maxima;
+        return this;
+    }
+
+    public FiltroBuscaTrocas comOfertante(int idJogadorOfertante) {
+        this.idJogadorOfertante = idJogadorOfertante;
+        return this;
+    }
+
+    /**
+     * @return Nome da espécie normalizado, ou null se o critério não foi informado
+     */
+    public String getEspecie() {
+        return especie;
+    }
+
+    /**
+     * @return Tipo normalizado, ou null se o critério não foi informado
+     */
+    public String getTipo() {
+        return tipo;
+    }
+
+    public Integer getRaridadeMinima() {
+        return raridadeMinima;
+    }
+
+    public Integer getRaridadeMaxima() {
+        return raridadeMaxima;
+    }
+
+    public Integer getIdJogadorOfertante() {
+        return idJogadorOfertante;
+    }
+
+    /**
+     * Confere todos os critérios direto na troca (usado para revalidar o resultado do índice,
+     * já que a troca é mutável).
+     *
+     * @param troca A troca
+     * @return true se a troca atende o filtro
+     */
+    public boolean aceita(Troca troca) {
+        if (idJogadorOfertante != null && idJogadorOfertante != troca.getIdJogadorOfertante()) {
+            return false;
+        }
+        List<Pokemon> ofertados = troca.getPokemonsOfertados();
+        boolean especieOk = especie == null;
+        boolean tipoOk = tipo == null;
+        boolean raridadeOk = raridadeMinima == null;
+        if (ofertados != null) {
+            for (Pokemon pokemon : ofertados) {
+                especieOk |= especie != null && especie.equals(normalizar(pokemon.getNome()));
+                tipoOk |= tipo != null && tiposDe(pokemon).contains(tipo);
+                raridadeOk |= raridadeMinima != null
+                        && pokemon.getRaridade() >= raridadeMinima && pokemon.getRaridade() <= raridadeMaxima;
+            }
+        }
+        return especieOk && tipoOk && raridadeOk;
+    }
+
+    /**
+     * Forma normalizada usada por todos os índices de busca (marketplace e prefixo de nomes): sem espaços
+     * nas pontas, sem acentos (decomposição NFD sem as marcas) e em minúsculas.
+     * "Flabébé" e " FLABEBE " viram "flabebe".
+     */
+    public static String normalizar(String texto) {
+        if (texto == null) {
+            return null;
+        }
+        String semAcentos = MARCAS.matcher(Normalizer.normalize(texto.trim(), Normalizer.Form.NFD)).replaceAll("");
+        return semAcentos.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @return Tipos normalizados de um Pokémon, separando tipos duplos ("Fogo/Voador")
+     */
+    public static List<String> tiposDe(Pokemon pokemon) {
+        String tipo = pokemon.getTipo();
+        if (tipo == null) {
+            return List.of();
+        }
+        String[] partes = tipo.split("/");
+        String[] normalizados = new String[partes.length];
+        for (int i = 0; i < partes.length; i++) {
+            normalizados[i] = normalizar(partes[i]);
+        }
+        return List.of(normalizados);
+    }
+
+    @Override
+    public String toString() {
+        return "FiltroBuscaTrocas{" +
+                "especie='" + especie + '\'' +
+                ", tipo='" + tipo + '\'' +
+                ", raridade=" + raridadeMinima + ".." + raridadeMaxima +
+                ", idJogadorOfertante=" + idJogadorOfertante +
+                '}';
+    }
+}
@@ -0,0 +1,104 @@
+package br.inatel.dexmarket.model;
+
+/**
+ * Enum ModeloNotificacao - Modelos de texto das notificações geradas pelo sistema.
+ *
+ * A notificação guarda só o modelo e os argumentos compactos (ID da troca, ID da proposta, código do
+ * status e quantidade); o texto é montado apenas quando a mensagem é lida (Notificacao.getMensagem()).
+ * Como a maioria das notificações nunca é aberta, a gravação não monta String nenhuma e cada notificação
+ * guardada ocupa menos memória.
+ *
+ * Cada modelo tem o texto no singular e, quando faz sentido, no plural (notificação que agrupou vários
+ * eventos, ver AgrupadorNotificacoes).
+ *
+ * O código do modelo (posição + 1) é gravado pelo CodecBinario: modelos novos entram sempre no fim.
+ */
+public enum ModeloNotificacao {
+    NOVA_PROPOSTA("NovaPropostaRecebida") {
+        @Override
+        String renderizar(Notificacao n) {
+            return n.getQuantidade() > 1
+                    ? "Você recebeu " + n.getQuantidade() + " novas propostas para a troca #" + n.getIdTroca()
+                    : "Você recebeu uma nova proposta para a troca #" + n.getIdTroca();
+        }
+    },
+    PROPOSTA_ACEITA("PropostaAceita") {
+        @Override
+        String renderizar(Notificacao n) {
+            return "Sua proposta #" + n.getIdProposta() + " foi aceita!";
+        }
+    },
+    PROPOSTA_RECUSADA("PropostaRecusada") {
+        @Override
+        String renderizar(Notificacao n) {
+            return n.getQuantidade() > 1
+                    ? n.getQuantidade() + " propostas suas para a troca #" + n.getIdTroca() + " foram recusadas."
+                    : "Sua proposta #" + n.getIdProposta() + " foi recusada.";
+        }
+    },
+    STATUS_TROCA("AtualizacaoTroca") {
+        @Override
+        String renderizar(Notificacao n) {
+            return "Troca #" + n.getIdTroca() + " teve seu status alterado para: " + statusDoCodigo(n.getCodigoStatus());
+        }
+    };
+
+    // Status de troca com código compacto (código = posição + 1; 0 = sem status)
+    private static final String[] STATUS = {"Ativa", "Concluída", "Cancelada"};
+    private static final ModeloNotificacao[] VALORES = values();
+
+    private final String tipo;
+
+    ModeloNotificacao(String tipo) {
+        this.tipo = tipo;
+    }
+
+    /**
+     * @return Tipo gravado na notificação (ex.: "NovaPropostaRecebida")
+     */
+    public String getTipo() {
+        return tipo;
+    }
+
+    abstract String renderizar(Notificacao notificacao);
+
+    /**
+     * @return Código do status, ou 0 se o status não tem código (a mensagem precisa ser montada na hora)
+     */
+    public static int codigoStatus(String status) {
+        for (int i = 0; i < STATUS.length; i++) {
+            if (STATUS[i].equals(status)) {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return O status do código, ou null para 0 ou código desconhecido
+     */
+    public static String statusDoCodigo(int codigo) {
+        return codigo >= 1 && codigo <= STATUS.length ? STATUS[codigo - 1] : null;
+    }
+
+    /**
+     * @return O modelo com o código dado (posição + 1), ou null para 0
+     * @throws IllegalArgumentException Se o código não existir
+     */
+    public static ModeloNotificacao doCodigo(int codigo) {
+        if (codigo == 0) {
+            return null;
+        }
+        if (codigo < 0 || codigo > VALORES.length) {
+            throw new IllegalArgumentException("Modelo de notificação desconhecido: " + codigo);
+        }
+        return VALORES[codigo - 1];
+    }
+
+    /**
+     * @return Código compacto do modelo (posição + 1)
+     */
+    public int getCodigo() {
+        return ordinal() + 1;
+    }
+}
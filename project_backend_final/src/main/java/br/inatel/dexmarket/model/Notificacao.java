@@ -1,18 +1,29 @@
 package br.inatel.dexmarket.model;
 
+import java.io.Serializable;
 import java.util.Date;
 
 /**
  * Classe Notificacao - Entidade do Domínio
  * Representa uma notificação enviada a um jogador sobre eventos de troca.
+ *
+ * A mensagem pode ser um texto livre ou um ModeloNotificacao com argumentos compactos (idTroca,
+ * idProposta, codigoStatus, quantidade); nesse caso o texto só é montado em getMensagem().
  */
-public class Notificacao {
+public class Notificacao implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     private int idNotificacao;
     private int idDestinatario; // ID do jogador que receberá a notificação
     private String tipo; // "PropostaRecebida", "PropostaAceita", "TrocaConcluída", etc.
-    private String mensagem;
+    private String mensagem; // Texto livre (null quando a notificação usa um modelo)
     private Date dataEnvio;
     private boolean lida;
+    private int idTroca; // Troca a que a notificação se refere (0 se nenhuma)
+    private int quantidade = 1; // Quantos eventos iguais foram agrupados nesta notificação
+    private ModeloNotificacao modelo; // Modelo da mensagem (null para texto livre)
+    private int idProposta; // Argumento do modelo (0 se nenhum)
+    private int codigoStatus; // Argumento do modelo: status da troca (ver ModeloNotificacao.codigoStatus)
 
     // Construtores
     public Notificacao() {
@@ -26,6 +37,27 @@ public class Notificacao {
         this.lida = false;
     }
 
+    public Notificacao(int idDestinatario, String tipo, String mensagem, int idTroca) {
+        this(idDestinatario, tipo, mensagem);
+        this.idTroca = idTroca;
+    }
+
+    /**
+     * Notificação com mensagem por modelo (montada só na leitura).
+     *
+     * @param status Status da troca (só usado por STATUS_TROCA; precisa ter código, ver ModeloNotificacao.codigoStatus)
+     * @throws IllegalArgumentException Se o status não tiver código
+     */
+    public Notificacao(int idDestinatario, ModeloNotificacao modelo, int idTroca, int idProposta, String status) {
+        this(idDestinatario, modelo.getTipo(), null, idTroca);
+        this.modelo = modelo;
+        this.idProposta = idProposta;
+        this.codigoStatus = ModeloNotificacao.codigoStatus(status);
+        if (status != null && codigoStatus == 0) {
+            throw new IllegalArgumentException("Status sem código para o modelo " + modelo + ": " + status);
+        }
+    }
+
     // Getters e Setters
     public int getIdNotificacao() {
         return idNotificacao;
@@ -51,12 +83,19 @@ public class Notificacao {
         this.tipo = tipo;
     }
 
+    /**
+     * @return O texto livre ou, se a notificação usa um modelo, o texto montado agora (não é guardado)
+     */
     public String getMensagem() {
-        return mensagem;
+        return modelo != null ? modelo.renderizar(this) : mensagem;
     }
 
+    /**
+     * Define um texto livre (substitui o modelo, se houver).
+     */
     public void setMensagem(String mensagem) {
         this.mensagem = mensagem;
+        this.modelo = null;
     }
 
     public Date getDataEnvio() {
@@ -75,6 +114,52 @@ public class Notificacao {
         this.lida = lida;
     }
 
+    public int getIdTroca() {
+        return idTroca;
+    }
+
+    public void setIdTroca(int idTroca) {
+        this.idTroca = idTroca;
+    }
+
+    public int getQuantidade() {
+        return quantidade;
+    }
+
+    public void setQuantidade(int quantidade) {
+        this.quantidade = quantidade;
+    }
+
+    public ModeloNotificacao getModelo() {
+        return modelo;
+    }
+
+    /**
+     * Define o modelo da mensagem (descarta o texto livre, se houver).
+     */
+    public void setModelo(ModeloNotificacao modelo) {
+        this.modelo = modelo;
+        if (modelo != null) {
+            this.mensagem = null;
+        }
+    }
+
+    public int getIdProposta() {
+        return idProposta;
+    }
+
+    public void setIdProposta(int idProposta) {
+        this.idProposta = idProposta;
+    }
+
+    public int getCodigoStatus() {
+        return codigoStatus;
+    }
+
+    public void setCodigoStatus(int codigoStatus) {
+        this.codigoStatus = codigoStatus;
+    }
+
     // Métodos de negócio
     public void marcarComoLida() {
         this.lida = true;
@@ -86,9 +171,11 @@ public class Notificacao {
                 "idNotificacao=" + idNotificacao +
                 ", idDestinatario=" + idDestinatario +
                 ", tipo='" + tipo + '\'' +
-                ", mensagem='" + mensagem + '\'' +
+                ", mensagem='" + getMensagem() + '\'' +
                 ", dataEnvio=" + dataEnvio +
                 ", lida=" + lida +
+                (idTroca != 0 ? ", idTroca=" + idTroca : "") +
+                (quantidade != 1 ? ", quantidade=" + quantidade : "") +
                 '}';
     }
 }
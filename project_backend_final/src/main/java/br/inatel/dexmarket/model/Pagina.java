@@ -0,0 +1,41 @@
+package br.inatel.dexmarket.model;
+
+import java.util.List;
+
+/**
+ * Classe Pagina - Uma página de uma listagem paginada por keyset.
+ *
+ * @param <T> Tipo dos itens
+ */
+public final class Pagina<T> {
+    private final List<T> itens;
+    private final CursorPagina proximoCursor;
+
+    public Pagina(List<T> itens, CursorPagina proximoCursor) {
+        this.itens = itens;
+        this.proximoCursor = proximoCursor;
+    }
+
+    public List<T> getItens() {
+        return itens;
+    }
+
+    /**
+     * @return Cursor para buscar a página seguinte, ou null se esta é a última
+     */
+    public CursorPagina getProximoCursor() {
+        return proximoCursor;
+    }
+
+    public boolean temProxima() {
+        return proximoCursor != null;
+    }
+
+    @Override
+    public String toString() {
+        return "Pagina{" +
+                "itens=" + itens.size() +
+                ", proximoCursor=" + proximoCursor +
+                '}';
+    }
+}
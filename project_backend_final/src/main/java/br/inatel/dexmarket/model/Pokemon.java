@@ -1,26 +1,30 @@
 package br.inatel.dexmarket.model;
 
+import java.io.Serializable;
+
 /**
  * Classe Pokemon - Entidade do Domínio
  * Representa um Pokémon que pode ser trocado no marketplace.
+ *
+ * Nome, tipo e urlImagem pertencem à espécie e ficam em uma Especie compartilhada
+ * (**Padrão Flyweight**, ver CatalogoEspecies); os getters e setters continuam os mesmos.
  */
-public class Pokemon {
+public class Pokemon implements Serializable {
+    private static final long serialVersionUID = 2L;
+
     private int idPokemon;
-    private String nome;
-    private String tipo;
-    private String urlImagem;
+    private Especie especie;
     private int raridade; // 1 a 5 (1 = comum, 5 = lendário)
     private int idJogadorDono;
 
     // Construtores
     public Pokemon() {
+        this.especie = CatalogoEspecies.getInstance().obter(null, null, null);
     }
 
     public Pokemon(int idPokemon, String nome, String tipo, String urlImagem, int raridade, int idJogadorDono) {
         this.idPokemon = idPokemon;
-        this.nome = nome;
-        this.tipo = tipo;
-        this.urlImagem = urlImagem;
+        this.especie = CatalogoEspecies.getInstance().obter(nome, tipo, urlImagem);
         this.raridade = raridade;
         this.idJogadorDono = idJogadorDono;
     }
@@ -34,28 +38,38 @@ public class Pokemon {
         this.idPokemon = idPokemon;
     }
 
+    public Especie getEspecie() {
+        return especie;
+    }
+
+    public void setEspecie(Especie especie) {
+        this.especie = especie;
+    }
+
     public String getNome() {
-        return nome;
+        return especie.getNome();
     }
 
+    // Os setters de atributos da espécie trocam a referência pela espécie correspondente, sem alterar
+    // a instância compartilhada com outros Pokémons.
     public void setNome(String nome) {
-        this.nome = nome;
+        this.especie = CatalogoEspecies.getInstance().obter(nome, especie.getTipo(), especie.getUrlImagem());
     }
 
     public String getTipo() {
-        return tipo;
+        return especie.getTipo();
     }
 
     public void setTipo(String tipo) {
-        this.tipo = tipo;
+        this.especie = CatalogoEspecies.getInstance().obter(especie.getNome(), tipo, especie.getUrlImagem());
     }
 
     public String getUrlImagem() {
-        return urlImagem;
+        return especie.getUrlImagem();
     }
 
     public void setUrlImagem(String urlImagem) {
-        this.urlImagem = urlImagem;
+        this.especie = CatalogoEspecies.getInstance().obter(especie.getNome(), especie.getTipo(), urlImagem);
     }
 
     public int getRaridade() {
@@ -78,8 +92,8 @@ public class Pokemon {
     public String toString() {
         return "Pokemon{" +
                 "idPokemon=" + idPokemon +
-                ", nome='" + nome + '\'' +
-                ", tipo='" + tipo + '\'' +
+                ", nome='" + getNome() + '\'' +
+                ", tipo='" + getTipo() + '\'' +
                 ", raridade=" + raridade +
                 ", idJogadorDono=" + idJogadorDono +
                 '}';
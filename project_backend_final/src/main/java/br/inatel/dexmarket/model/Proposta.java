@@ -1,5 +1,6 @@
 package br.inatel.dexmarket.model;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
@@ -11,7 +12,9 @@ import java.util.List;
  * **Padrão Factory (Produto Abstrato)**: Esta classe é a classe abstrata que será estendida por diferentes
  * tipos de propostas (PropostaSimples, PropostaComItemExtra, etc.). A criação é delegada à PropostaFactory.
  */
-public abstract class Proposta {
+public abstract class Proposta implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     protected int idProposta;
     protected int idTroca;
     protected int idJogadorProponente;
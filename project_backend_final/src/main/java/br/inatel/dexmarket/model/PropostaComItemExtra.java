@@ -7,6 +7,8 @@ package br.inatel.dexmarket.model;
  * Padrão Factory: Esta é outra implementação concreta que será criada pela PropostaFactory.
  */
 public class PropostaComItemExtra extends Proposta {
+    private static final long serialVersionUID = 1L;
+
     private String itemExtra; // Descrição do item extra (ex: "100 moedas", "Poção Rara")
     private int quantidadeItemExtra;
 
@@ -7,6 +7,7 @@ package br.inatel.dexmarket.model;
  * Padrão Factory: Esta é uma das implementações concretas que será criada pela PropostaFactory.
  */
 public class PropostaSimples extends Proposta {
+    private static final long serialVersionUID = 1L;
 
     public PropostaSimples() {
         super();
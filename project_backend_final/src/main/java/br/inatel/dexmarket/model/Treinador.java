@@ -1,7 +1,9 @@
 package br.inatel.dexmarket.model;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Classe Treinador - Entidade do Domínio
@@ -11,21 +13,23 @@ public class Treinador {
     private int idJogador;
     private String nome;
     private String email;
-    private List<Pokemon> pokemons; // Pokémons que o treinador possui
-    private List<Pokemon> wishlist; // Pokémons que o treinador deseja
+    // Conjuntos com ordem de inserção: remover um Pokémon é O(1) em vez de uma busca linear na lista.
+    // Pokemon não sobrescreve equals, então (como no ArrayList.remove de antes) a comparação é por instância.
+    private final Set<Pokemon> pokemons; // Pokémons que o treinador possui
+    private final Set<Pokemon> wishlist; // Pokémons que o treinador deseja
 
     // Construtores
     public Treinador() {
-        this.pokemons = new ArrayList<>();
-        this.wishlist = new ArrayList<>();
+        this.pokemons = new LinkedHashSet<>();
+        this.wishlist = new LinkedHashSet<>();
     }
 
     public Treinador(int idJogador, String nome, String email) {
         this.idJogador = idJogador;
         this.nome = nome;
         this.email = email;
-        this.pokemons = new ArrayList<>();
-        this.wishlist = new ArrayList<>();
+        this.pokemons = new LinkedHashSet<>();
+        this.wishlist = new LinkedHashSet<>();
     }
 
     // Getters e Setters
@@ -53,20 +57,36 @@ public class Treinador {
         this.email = email;
     }
 
+    /**
+     * @return Cópia dos Pokémons do treinador, na ordem em que foram adicionados
+     */
     public List<Pokemon> getPokemons() {
-        return pokemons;
+        return new ArrayList<>(pokemons);
     }
 
     public void setPokemons(List<Pokemon> pokemons) {
-        this.pokemons = pokemons;
+        this.pokemons.clear();
+        this.pokemons.addAll(pokemons);
     }
 
+    /**
+     * @return Cópia da wishlist do treinador, na ordem em que os Pokémons foram adicionados
+     */
     public List<Pokemon> getWishlist() {
-        return wishlist;
+        return new ArrayList<>(wishlist);
     }
 
     public void setWishlist(List<Pokemon> wishlist) {
-        this.wishlist = wishlist;
+        this.wishlist.clear();
+        this.wishlist.addAll(wishlist);
+    }
+
+    public boolean possuiPokemon(Pokemon pokemon) {
+        return pokemons.contains(pokemon);
+    }
+
+    public boolean desejaPokemon(Pokemon pokemon) {
+        return wishlist.contains(pokemon);
     }
 
     // Métodos de negócio
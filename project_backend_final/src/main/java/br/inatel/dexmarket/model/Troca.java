@@ -1,18 +1,20 @@
 package br.inatel.dexmarket.model;
 
-import br.inatel.dexmarket.observer.Observer;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
 /**
- * Classe Troca - Entidade do Domínio e Subject do Padrão Observer
+ * Classe Troca - Entidade do Domínio
  * Representa uma troca de Pokémons no marketplace.
  * 
- * **Padrão Observer (Subject)**: Esta classe é o Subject que notifica os Observers (ex: NotificacaoService)
- * quando o seu estado muda (ex: quando uma proposta é aceita).
+ * As mudanças de status são publicadas pelo TrocaService (EventoTroca no BarramentoEventos), depois que
+ * a transição foi feita no repositório e fora da trava dele; a entidade não conhece o barramento.
  */
-public class Troca {
+public class Troca implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     private int idTroca;
     private int idJogadorOfertante; // Quem criou a troca
     private List<Pokemon> pokemonsOfertados; // Pokémons que o ofertante está oferecendo
@@ -20,15 +22,11 @@ public class Troca {
     private String status; // "Ativa", "Concluída", "Cancelada"
     private Date dataCriacao;
     private Date dataAtualizacao;
-    
-    // Observer Pattern: Lista de observadores
-    private List<Observer> observers = new ArrayList<>();
 
     // Construtores
     public Troca() {
         this.pokemonsOfertados = new ArrayList<>();
         this.pokemonsDesejados = new ArrayList<>();
-        this.observers = new ArrayList<>();
     }
 
     public Troca(int idJogadorOfertante, String status) {
@@ -38,7 +36,6 @@ public class Troca {
         this.dataAtualizacao = new Date();
         this.pokemonsOfertados = new ArrayList<>();
         this.pokemonsDesejados = new ArrayList<>();
-        this.observers = new ArrayList<>();
     }
 
     // Getters e Setters
@@ -81,8 +78,6 @@ public class Troca {
     public void setStatus(String status) {
         this.status = status;
         this.dataAtualizacao = new Date();
-        // **Padrão Observer em ação**: Notifica todos os observadores quando o status muda
-        notifyObservers();
     }
 
     public Date getDataCriacao() {
@@ -101,36 +96,6 @@ public class Troca {
         this.dataAtualizacao = dataAtualizacao;
     }
 
-    // Observer Pattern: Métodos para gerenciar observadores
-    /**
-     * Adiciona um observador à lista de observadores.
-     * 
-     * @param observer O observador a ser adicionado
-     */
-    public void attach(Observer observer) {
-        if (!observers.contains(observer)) {
-            observers.add(observer);
-        }
-    }
-
-    /**
-     * Remove um observador da lista de observadores.
-     * 
-     * @param observer O observador a ser removido
-     */
-    public void detach(Observer observer) {
-        observers.remove(observer);
-    }
-
-    /**
-     * Notifica todos os observadores sobre uma mudança de estado.
-     */
-    public void notifyObservers() {
-        for (Observer observer : observers) {
-            observer.update(this);
-        }
-    }
-
     // Métodos de negócio
     public void adicionarPokemonOfertado(Pokemon pokemon) {
         this.pokemonsOfertados.add(pokemon);
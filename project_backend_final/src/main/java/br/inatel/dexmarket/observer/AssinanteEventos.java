@@ -0,0 +1,14 @@
+package br.inatel.dexmarket.observer;
+
+/**
+ * Interface AssinanteEventos - Padrão Observer (versão assíncrona)
+ * Recebe os eventos de troca publicados no BarramentoEventos, em uma thread consumidora do barramento.
+ *
+ * Os eventos de uma mesma troca chegam na ordem em que foram publicados.
+ */
+public interface AssinanteEventos {
+    /**
+     * @param evento O evento publicado
+     */
+    void receber(EventoTroca evento);
+}
@@ -0,0 +1,182 @@
+package br.inatel.dexmarket.observer;
+
+import java.io.Closeable;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Classe BarramentoEventos - Barramento assíncrono dos eventos de troca e de proposta.
+ *
+ * **Padrão Observer (assíncrono)**: o TrocaService e o PropostaService publicam o evento e
+ * retornam na hora; as threads consumidoras do barramento entregam o evento aos assinantes
+ * (ex.: NotificacaoService), fora do caminho crítico de quem publicou (ex.: processarProposta).
+ *
+ * **Padrão Strategy**: o transporte até as threads consumidoras é um DespachanteEventos:
+ * - fila bloqueante (construtor): uma ArrayBlockingQueue limitada por consumidor; quando a fila está
+ *   cheia, a PoliticaCheia decide entre bloquear quem publica ou descartar o evento (contado em
+ *   getDescartados());
+ * - ring buffer (comRingBuffer): pré-alocado e sem trava, com consumo em lote; com o buffer cheio
+ *   quem publica espera segundo a EstrategiaEspera.
+ * Nos dois, a thread de um evento é escolhida pelo ID da troca, então os eventos de uma mesma troca
+ * são entregues em ordem mesmo com vários consumidores.
+ *
+ * O barramento é criado pela aplicação e injetado nos Services que publicam (TrocaService e PropostaService).
+ */
+public final class BarramentoEventos implements Closeable {
+
+    /**
+     * O que fazer quando a fila do evento está cheia (transporte por fila bloqueante).
+     */
+    public enum PoliticaCheia {
+        /** Quem publica espera haver espaço (nenhum evento é perdido). */
+        BLOQUEAR,
+        /** O evento é descartado e contado. */
+        DESCARTAR
+    }
+
+    private final DespachanteEventos despachante;
+    private final List<AssinanteEventos> assinantes = new CopyOnWriteArrayList<>();
+    private final Map<Integer, Set<Observer>> observadoresPorTroca = new ConcurrentHashMap<>();
+    private final AtomicLong publicados = new AtomicLong();
+    private final AtomicLong entregues = new AtomicLong();
+    private final AtomicLong descartados = new AtomicLong();
+    private volatile boolean fechado;
+
+    /**
+     * Barramento com uma fila bloqueante por consumidor.
+     *
+     * @param quantidadeConsumidores Threads consumidoras (e filas)
+     * @param capacidadePorConsumidor Tamanho de cada fila
+     * @param politica O que fazer quando a fila está cheia
+     */
+    public BarramentoEventos(int quantidadeConsumidores, int capacidadePorConsumidor, PoliticaCheia politica) {
+        this(entrega -> new DespachanteFila(quantidadeConsumidores, capacidadePorConsumidor, politica, entrega));
+    }
+
+    private BarramentoEventos(Function<Consumer<EventoTroca>, DespachanteEventos> criarDespachante) {
+        this.despachante = criarDespachante.apply(this::entregar);
+    }
+
+    /**
+     * Barramento com um ring buffer pré-alocado compartilhado pelos consumidores.
+     *
+     * @param quantidadeConsumidores Threads consumidoras
+     * @param tamanho Slots do ring buffer (arredondado para a próxima potência de 2)
+     * @param espera Como consumidores sem eventos e produtores com o buffer cheio esperam
+     * @return O barramento
+     */
+    public static BarramentoEventos comRingBuffer(int quantidadeConsumidores, int tamanho, EstrategiaEspera espera) {
+        return new BarramentoEventos(entrega -> new DespachanteRingBuffer(quantidadeConsumidores, tamanho, espera, entrega));
+    }
+
+    public void assinar(AssinanteEventos assinante) {
+        assinantes.add(assinante);
+    }
+
+    public void cancelarAssinatura(AssinanteEventos assinante) {
+        assinantes.remove(assinante);
+    }
+
+    /**
+     * Registra um Observer só para as mudanças de status de uma troca.
+     */
+    public void observarTroca(int idTroca, Observer observer) {
+        observadoresPorTroca.compute(idTroca, (id, observers) -> {
+            Set<Observer> resultado = observers != null ? observers : ConcurrentHashMap.newKeySet();
+            resultado.add(observer);
+            return resultado;
+        });
+    }
+
+    public void deixarDeObservarTroca(int idTroca, Observer observer) {
+        observadoresPorTroca.computeIfPresent(idTroca, (id, observers) -> {
+            observers.remove(observer);
+            return observers.isEmpty() ? null : observers;
+        });
+    }
+
+    /**
+     * Publica um evento e retorna sem esperar a entrega (exceto quando a fila ou o ring buffer está cheio
+     * e o despachante faz quem publica esperar).
+     *
+     * @param evento O evento
+     * @return false se o evento foi descartado (política DESCARTAR ou barramento fechado)
+     */
+    public boolean publicar(EventoTroca evento) {
+        publicados.incrementAndGet();
+        if (fechado || !despachante.despachar(evento)) {
+            descartados.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Espera até todos os eventos publicados terem sido entregues ou descartados.
+     *
+     * @return true se não sobrou evento pendente dentro do prazo
+     */
+    public boolean aguardarEntregas(long tempo, TimeUnit unidade) {
+        long limite = System.nanoTime() + unidade.toNanos(tempo);
+        while (entregues.get() + descartados.get() < publicados.get()) {
+            if (System.nanoTime() - limite >= 0) {
+                return false;
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        return true;
+    }
+
+    public long getPublicados() {
+        return publicados.get();
+    }
+
+    public long getEntregues() {
+        return entregues.get();
+    }
+
+    public long getDescartados() {
+        return descartados.get();
+    }
+
+    /**
+     * Entrega os eventos já despachados e encerra as threads consumidoras.
+     */
+    @Override
+    public void close() {
+        fechado = true;
+        despachante.close();
+    }
+
+    private void entregar(EventoTroca evento) {
+        for (AssinanteEventos assinante : assinantes) {
+            try {
+                assinante.receber(evento);
+            } catch (RuntimeException e) {
+                // Um assinante com erro não pode parar a entrega para os outros nem matar o consumidor
+                System.out.println("[EVENTOS] Falha ao entregar " + evento + ": " + e);
+            }
+        }
+        // Os Observers de uma troca (observarTroca) só recebem as mudanças de status
+        Set<Observer> observers = evento.getTipo() == EventoTroca.Tipo.STATUS_ALTERADO
+                ? observadoresPorTroca.get(evento.getIdTroca()) : null;
+        if (observers != null) {
+            for (Observer observer : observers) {
+                try {
+                    observer.update(evento.getTroca());
+                } catch (RuntimeException e) {
+                    System.out.println("[EVENTOS] Falha ao entregar " + evento + ": " + e);
+                }
+            }
+        }
+        entregues.incrementAndGet();
+    }
+}
@@ -0,0 +1,27 @@
+package br.inatel.dexmarket.observer;
+
+import java.io.Closeable;
+
+/**
+ * Interface DespachanteEventos - Transporte usado pelo BarramentoEventos entre quem publica e as
+ * threads que entregam os eventos.
+ *
+ * **Padrão Strategy**: o barramento não sabe como os eventos chegam às threads consumidoras
+ * (fila bloqueante ou ring buffer); só entrega o que o despachante repassa.
+ *
+ * Contrato: os eventos de uma mesma troca são entregues na ordem em que foram despachados.
+ */
+interface DespachanteEventos extends Closeable {
+
+    /**
+     * @param evento O evento
+     * @return false se o evento não foi aceito (descartado)
+     */
+    boolean despachar(EventoTroca evento);
+
+    /**
+     * Entrega o que já foi despachado e encerra as threads consumidoras.
+     */
+    @Override
+    void close();
+}
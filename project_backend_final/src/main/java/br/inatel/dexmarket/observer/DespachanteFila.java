@@ -0,0 +1,119 @@
+package br.inatel.dexmarket.observer;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Classe DespachanteFila - Despachante com uma ArrayBlockingQueue por thread consumidora.
+ *
+ * A fila de um evento é escolhida pelo ID da troca, então os eventos de uma mesma troca são
+ * entregues em ordem mesmo com vários consumidores. Quando a fila está cheia, a PoliticaCheia decide
+ * entre bloquear quem publica ou descartar o evento. Não há entrega na thread de quem publica: ela
+ * passaria na frente dos eventos da mesma troca ainda na fila e rodaria os assinantes em paralelo com
+ * o consumidor.
+ *
+ * close() fecha a entrada antes de enfileirar o SINAL_FIM e espera os despachos em andamento
+ * terminarem, então nenhum evento aceito fica na fila depois do sinal.
+ */
+final class DespachanteFila implements DespachanteEventos {
+    // Sinaliza o fim para as threads consumidoras (ver close())
+    private static final Object SINAL_FIM = new Object();
+
+    private final BlockingQueue<Object>[] filas;
+    private final Thread[] consumidores;
+    private final BarramentoEventos.PoliticaCheia politica;
+    private final Consumer<EventoTroca> entrega;
+    // Despachos que já passaram pela verificação de fechado e ainda não enfileiraram
+    private final AtomicInteger emAndamento = new AtomicInteger();
+    private volatile boolean fechado;
+
+    @SuppressWarnings("unchecked")
+    DespachanteFila(int quantidadeConsumidores, int capacidadePorConsumidor,
+                    BarramentoEventos.PoliticaCheia politica, Consumer<EventoTroca> entrega) {
+        if (quantidadeConsumidores < 1 || capacidadePorConsumidor < 1) {
+            throw new IllegalArgumentException("O barramento precisa de pelo menos um consumidor e capacidade 1.");
+        }
+        this.politica = politica;
+        this.entrega = entrega;
+        this.filas = (BlockingQueue<Object>[]) new BlockingQueue<?>[quantidadeConsumidores];
+        this.consumidores = new Thread[quantidadeConsumidores];
+        for (int i = 0; i < quantidadeConsumidores; i++) {
+            BlockingQueue<Object> fila = new ArrayBlockingQueue<>(capacidadePorConsumidor);
+            filas[i] = fila;
+            consumidores[i] = new Thread(() -> consumir(fila), "barramento-eventos-" + i);
+            consumidores[i].setDaemon(true);
+            consumidores[i].start();
+        }
+    }
+
+    @Override
+    public boolean despachar(EventoTroca evento) {
+        // Registra o despacho antes de olhar fechado: close() espera este contador zerar
+        emAndamento.incrementAndGet();
+        try {
+            if (fechado) {
+                return false;
+            }
+            BlockingQueue<Object> fila = filas[Math.floorMod(evento.getIdTroca(), filas.length)];
+            if (fila.offer(evento)) {
+                return true;
+            }
+            if (politica != BarramentoEventos.PoliticaCheia.BLOQUEAR) {
+                return false;
+            }
+            try {
+                // Os consumidores continuam rodando até o SINAL_FIM, então esta espera sempre termina
+                fila.put(evento);
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        } finally {
+            emAndamento.decrementAndGet();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (fechado) {
+            return;
+        }
+        fechado = true;
+        while (emAndamento.get() > 0) {
+            Thread.yield();
+        }
+        for (BlockingQueue<Object> fila : filas) {
+            try {
+                fila.put(SINAL_FIM);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        for (Thread consumidor : consumidores) {
+            try {
+                consumidor.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void consumir(BlockingQueue<Object> fila) {
+        try {
+            while (true) {
+                Object item = fila.take();
+                if (item == SINAL_FIM) {
+                    return;
+                }
+                entrega.accept((EventoTroca) item);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package br.inatel.dexmarket.observer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Classe DespachanteRingBuffer - Despachante sem trava, no estilo do Disruptor.
+ *
+ * - Ring buffer pré-alocado: um array de tamanho potência de 2, reaproveitado a cada volta; despachar
+ *   não aloca nó nem disputa trava (a fila bloqueante usa uma ReentrantLock por fila).
+ * - Vários produtores: cada um reserva o próximo número de sequência com um incremento atômico no cursor,
+ *   grava o evento no slot e marca o slot como publicado naquela volta (disponiveis).
+ * - Barreira de sequência: o consumidor só lê até a maior sequência publicada sem buracos, e o produtor
+ *   só sobrescreve um slot depois que todos os consumidores passaram por ele (menor sequência consumida).
+ * - Consumo em lote: cada consumidor pega todas as sequências disponíveis de uma vez e só publica o seu
+ *   progresso no fim do lote.
+ *
+ * Todos os consumidores leem todas as sequências, mas cada um só entrega os eventos da sua partição
+ * (ID da troca módulo a quantidade de consumidores), o que mantém a ordem dos eventos de uma troca.
+ * Com o buffer cheio quem publica espera (nenhum evento é descartado), usando a EstrategiaEspera.
+ *
+ * Fechamento: despachar só reserva uma sequência com o despachante ativo, e toda sequência reservada é
+ * publicada. Os consumidores só terminam depois de close(), sem despachos em andamento e com tudo que
+ * foi publicado já lido, então nenhum evento aceito fica sem entrega nem deixa um buraco na sequência.
+ */
+final class DespachanteRingBuffer implements DespachanteEventos {
+    private final EventoTroca[] slots;
+    private final int mascara;
+    private final int deslocamentoVolta;
+    // Volta (sequência / tamanho) publicada em cada slot; -1 se o slot nunca foi publicado
+    private final AtomicIntegerArray disponiveis;
+    // Última sequência reservada por um produtor
+    private final AtomicLong cursor = new AtomicLong(-1);
+    // Última sequência processada por cada consumidor
+    private final AtomicLong[] sequenciasConsumidores;
+    // Cópia da menor sequência dos consumidores, para o produtor não percorrê-las a cada evento
+    private volatile long menorConsumidaEmCache = -1;
+    private final Thread[] consumidores;
+    private final EstrategiaEspera espera;
+    private final Consumer<EventoTroca> entrega;
+    private volatile boolean ativo = true;
+    // Despachos que já passaram pela verificação de ativo e ainda não publicaram a sua sequência
+    private final AtomicInteger emAndamento = new AtomicInteger();
+
+    /**
+     * @param quantidadeConsumidores Threads consumidoras (partições)
+     * @param tamanho Slots do ring buffer (arredondado para a próxima potência de 2)
+     * @param espera Como as threads esperam quando não há progresso
+     * @param entrega Chamado na thread consumidora para cada evento da sua partição
+     */
+    DespachanteRingBuffer(int quantidadeConsumidores, int tamanho, EstrategiaEspera espera, Consumer<EventoTroca> entrega) {
+        if (quantidadeConsumidores < 1 || tamanho < 1 || tamanho > (1 << 30)) {
+            throw new IllegalArgumentException("O barramento precisa de pelo menos um consumidor e tamanho entre 1 e 2^30.");
+        }
+        int capacidade = Integer.highestOneBit(tamanho) == tamanho ? tamanho : Integer.highestOneBit(tamanho) << 1;
+        this.slots = new EventoTroca[capacidade];
+        this.mascara = capacidade - 1;
+        this.deslocamentoVolta = Integer.numberOfTrailingZeros(capacidade);
+        this.disponiveis = new AtomicIntegerArray(capacidade);
+        for (int i = 0; i < capacidade; i++) {
+            disponiveis.set(i, -1);
+        }
+        this.espera = espera;
+        this.entrega = entrega;
+        this.sequenciasConsumidores = new AtomicLong[quantidadeConsumidores];
+        this.consumidores = new Thread[quantidadeConsumidores];
+        for (int i = 0; i < quantidadeConsumidores; i++) {
+            AtomicLong sequencia = new AtomicLong(-1);
+            int particao = i;
+            sequenciasConsumidores[i] = sequencia;
+            consumidores[i] = new Thread(() -> consumir(particao, sequencia), "barramento-eventos-" + i);
+            consumidores[i].setDaemon(true);
+            consumidores[i].start();
+        }
+    }
+
+    @Override
+    public boolean despachar(EventoTroca evento) {
+        // Registra o despacho antes de olhar ativo: os consumidores não terminam enquanto houver algum
+        emAndamento.incrementAndGet();
+        try {
+            if (!ativo) {
+                return false;
+            }
+            long sequencia = cursor.incrementAndGet();
+            // O slot só pode ser sobrescrito depois que todos os consumidores leram a volta anterior.
+            // A espera sempre termina: os consumidores seguem lendo enquanto este despacho não publicar.
+            long volta = sequencia - slots.length;
+            if (volta > menorConsumidaEmCache) {
+                long menor;
+                for (int tentativas = 0; volta > (menor = menorSequenciaConsumida()); tentativas++) {
+                    espera.esperar(tentativas);
+                }
+                menorConsumidaEmCache = menor;
+            }
+            int indice = (int) sequencia & mascara;
+            slots[indice] = evento;
+            // Escrita com semântica de release: quem ler a volta em disponiveis também vê o evento no slot
+            disponiveis.lazySet(indice, (int) (sequencia >>> deslocamentoVolta));
+            return true;
+        } finally {
+            emAndamento.decrementAndGet();
+        }
+    }
+
+    /**
+     * @return Tamanho real do ring buffer (potência de 2)
+     */
+    int getCapacidade() {
+        return slots.length;
+    }
+
+    @Override
+    public void close() {
+        ativo = false;
+        for (Thread consumidor : consumidores) {
+            try {
+                consumidor.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void consumir(int particao, AtomicLong sequencia) {
+        long proxima = sequencia.get() + 1;
+        while (true) {
+            long ultima = aguardarPublicacao(proxima);
+            if (ultima < proxima) {
+                return;
+            }
+            // Lote: tudo entre proxima e ultima já está publicado
+            for (long s = proxima; s <= ultima; s++) {
+                EventoTroca evento = slots[(int) s & mascara];
+                if (Math.floorMod(evento.getIdTroca(), consumidores.length) == particao) {
+                    entrega.accept(evento);
+                }
+            }
+            sequencia.lazySet(ultima);
+            proxima = ultima + 1;
+        }
+    }
+
+    /**
+     * Barreira de sequência do consumidor: espera a sequência ser publicada.
+     *
+     * @return Maior sequência publicada sem buracos a partir de proxima, ou proxima - 1 se o despachante
+     *         foi fechado e não há mais nada publicado nem para publicar
+     */
+    private long aguardarPublicacao(long proxima) {
+        for (int tentativas = 0; ; tentativas++) {
+            // Lido antes de procurar: fechado e sem despachos em andamento, nenhuma sequência nova será
+            // reservada e todas as reservadas já foram publicadas
+            boolean encerrando = !ativo && emAndamento.get() == 0;
+            long ultima = ultimaPublicada(proxima, cursor.get());
+            if (ultima >= proxima || encerrando) {
+                return ultima;
+            }
+            espera.esperar(tentativas);
+        }
+    }
+
+    private long ultimaPublicada(long desde, long reservada) {
+        for (long s = desde; s <= reservada; s++) {
+            if (disponiveis.get((int) s & mascara) != (int) (s >>> deslocamentoVolta)) {
+                return s - 1;
+            }
+        }
+        return reservada;
+    }
+
+    private long menorSequenciaConsumida() {
+        long menor = Long.MAX_VALUE;
+        for (AtomicLong sequencia : sequenciasConsumidores) {
+            menor = Math.min(menor, sequencia.get());
+        }
+        return menor;
+    }
+}
@@ -0,0 +1,48 @@
+package br.inatel.dexmarket.observer;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Enum EstrategiaEspera - Como uma thread do ring buffer espera (consumidor sem evento novo,
+ * ou quem publica com o buffer cheio).
+ *
+ * **Padrão Strategy**: troca latência por uso de CPU sem mudar o DespachanteRingBuffer.
+ * A cada volta sem progresso a thread chama esperar(tentativas) com o número de voltas até agora.
+ */
+public enum EstrategiaEspera {
+    /** Gira sem liberar a CPU: menor latência, mas ocupa um núcleo por thread parada. */
+    OCUPADA {
+        @Override
+        void esperar(int tentativas) {
+            Thread.onSpinWait();
+        }
+    },
+    /** Gira um pouco e depois cede a CPU a outras threads (Thread.yield). */
+    CEDER {
+        @Override
+        void esperar(int tentativas) {
+            if (tentativas < GIROS) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+    },
+    /** Gira, cede e por fim dorme 0,1 ms por volta: quase não usa CPU quando não há eventos. */
+    ESTACIONAR {
+        @Override
+        void esperar(int tentativas) {
+            if (tentativas < GIROS) {
+                Thread.onSpinWait();
+            } else if (tentativas < 2 * GIROS) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(100_000);
+            }
+        }
+    };
+
+    private static final int GIROS = 100;
+
+    abstract void esperar(int tentativas);
+}
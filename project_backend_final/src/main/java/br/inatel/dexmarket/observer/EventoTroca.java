@@ -0,0 +1,132 @@
+package br.inatel.dexmarket.observer;
+
+import br.inatel.dexmarket.model.Proposta;
+import br.inatel.dexmarket.model.Troca;
+
+/**
+ * Classe EventoTroca - Evento do ciclo de vida de uma troca (mudança de status ou proposta recebida/respondida).
+ *
+ * Os dados do evento (IDs, status, instante) são copiados da troca no momento da publicação e não mudam,
+ * então o assinante lê o estado que gerou o evento mesmo que a troca já tenha mudado de novo quando o
+ * evento é entregue. A exceção é getTroca(): a referência à própria Troca, que é mutável, e que existe
+ * só para os Observers registrados com BarramentoEventos.observarTroca (update(Troca) recebe a troca
+ * no estado atual, não no do evento).
+ */
+public final class EventoTroca {
+
+    public enum Tipo {
+        /** O status da troca mudou (TrocaService, depois do compare-and-set do status). */
+        STATUS_ALTERADO,
+        /** Uma proposta foi enviada para a troca (PropostaService). */
+        PROPOSTA_RECEBIDA,
+        /** Uma proposta da troca foi aceita (TrocaService). */
+        PROPOSTA_ACEITA,
+        /** Uma proposta da troca foi recusada (TrocaService). */
+        PROPOSTA_RECUSADA
+    }
+
+    private final Tipo tipo;
+    private final int idTroca;
+    private final int idJogadorOfertante;
+    private final String statusAnterior;
+    private final String statusNovo;
+    private final int idProposta;
+    private final int idJogadorProponente;
+    private final long instante;
+    private final Troca troca;
+
+    /**
+     * Evento de mudança de status (STATUS_ALTERADO); o status novo é o atual da troca.
+     */
+    public EventoTroca(Troca troca, String statusAnterior) {
+        this(troca, statusAnterior, troca.getStatus());
+    }
+
+    /**
+     * Evento de mudança de status (STATUS_ALTERADO) com os dois status explícitos, para não depender do
+     * status atual da troca (que outra thread pode já ter mudado).
+     */
+    public EventoTroca(Troca troca, String statusAnterior, String statusNovo) {
+        this(Tipo.STATUS_ALTERADO, troca, statusAnterior, statusNovo, 0, 0);
+    }
+
+    private EventoTroca(Tipo tipo, Troca troca, String statusAnterior, String statusNovo, int idProposta, int idJogadorProponente) {
+        this.tipo = tipo;
+        this.idTroca = troca.getIdTroca();
+        this.idJogadorOfertante = troca.getIdJogadorOfertante();
+        this.statusAnterior = statusAnterior;
+        this.statusNovo = statusNovo;
+        this.idProposta = idProposta;
+        this.idJogadorProponente = idJogadorProponente;
+        this.instante = System.currentTimeMillis();
+        this.troca = troca;
+    }
+
+    /**
+     * Evento de proposta (PROPOSTA_RECEBIDA, PROPOSTA_ACEITA ou PROPOSTA_RECUSADA) da troca.
+     *
+     * @throws IllegalArgumentException Se o tipo for STATUS_ALTERADO
+     */
+    public static EventoTroca deProposta(Tipo tipo, Troca troca, Proposta proposta) {
+        if (tipo == Tipo.STATUS_ALTERADO) {
+            throw new IllegalArgumentException("Evento de proposta com tipo inválido: " + tipo);
+        }
+        return new EventoTroca(tipo, troca, troca.getStatus(), troca.getStatus(), proposta.getIdProposta(), proposta.getIdJogadorProponente());
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    public int getIdTroca() {
+        return idTroca;
+    }
+
+    public int getIdJogadorOfertante() {
+        return idJogadorOfertante;
+    }
+
+    public String getStatusAnterior() {
+        return statusAnterior;
+    }
+
+    public String getStatusNovo() {
+        return statusNovo;
+    }
+
+    /**
+     * @return ID da proposta (0 em STATUS_ALTERADO)
+     */
+    public int getIdProposta() {
+        return idProposta;
+    }
+
+    /**
+     * @return ID do jogador que fez a proposta (0 em STATUS_ALTERADO)
+     */
+    public int getIdJogadorProponente() {
+        return idJogadorProponente;
+    }
+
+    public long getInstante() {
+        return instante;
+    }
+
+    /**
+     * @return A troca do evento (mutável: pode já estar em outro estado; use os getters do evento)
+     */
+    public Troca getTroca() {
+        return troca;
+    }
+
+    @Override
+    public String toString() {
+        return "EventoTroca{" +
+                "tipo=" + tipo +
+                ", idTroca=" + idTroca +
+                (idProposta != 0 ? ", idProposta=" + idProposta : "") +
+                ", statusAnterior='" + statusAnterior + '\'' +
+                ", statusNovo='" + statusNovo + '\'' +
+                '}';
+    }
+}
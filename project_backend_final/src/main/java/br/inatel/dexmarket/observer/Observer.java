@@ -11,7 +11,7 @@ import br.inatel.dexmarket.model.Troca;
  */
 public interface Observer {
     /**
-     * Método chamado quando o Subject (Troca) sofre uma alteração.
+     * Método chamado quando o status da Troca observada muda (ver BarramentoEventos.observarTroca).
      * 
      * @param troca A troca que sofreu alteração
      */
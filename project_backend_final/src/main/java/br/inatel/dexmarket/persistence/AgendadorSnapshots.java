@@ -0,0 +1,66 @@
+package br.inatel.dexmarket.persistence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Classe AgendadorSnapshots - Compacta periodicamente os repositórios duráveis.
+ *
+ * A cada intervalo verifica o journal de cada repositório e tira um snapshot dos que passaram do
+ * limite de bytes. Assim o tempo de reprodução na inicialização fica limitado ao tamanho do snapshot
+ * mais, no máximo, um segmento de journal com cerca de limiteBytes.
+ */
+public class AgendadorSnapshots implements Closeable {
+    private final List<Compactavel> repositorios;
+    private final long limiteBytes;
+    private final ScheduledExecutorService executor;
+
+    /**
+     * @param repositorios Repositórios duráveis
+     * @param intervalo Intervalo entre verificações
+     * @param unidade Unidade do intervalo
+     * @param limiteBytes Tamanho do journal a partir do qual um snapshot é tirado
+     */
+    public AgendadorSnapshots(List<Compactavel> repositorios, long intervalo, TimeUnit unidade, long limiteBytes) {
+        this.repositorios = new ArrayList<>(repositorios);
+        this.limiteBytes = limiteBytes;
+        this.executor = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "agendador-snapshots");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.scheduleWithFixedDelay(this::verificar, intervalo, intervalo, unidade);
+    }
+
+    /**
+     * Compacta os repositórios cujo journal passou do limite.
+     */
+    public void verificar() {
+        for (Compactavel repositorio : repositorios) {
+            if (repositorio.bytesNoJournal() < limiteBytes) {
+                continue;
+            }
+            try {
+                repositorio.compactar();
+            } catch (IOException | RuntimeException e) {
+                // O journal continua íntegro; a próxima verificação tenta de novo
+                System.out.println("Falha ao gravar snapshot: " + e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,419 @@
+package br.inatel.dexmarket.persistence;
+
+import br.inatel.dexmarket.model.ModeloNotificacao;
+import br.inatel.dexmarket.model.Notificacao;
+import br.inatel.dexmarket.model.Pokemon;
+import br.inatel.dexmarket.model.Proposta;
+import br.inatel.dexmarket.model.PropostaComItemExtra;
+import br.inatel.dexmarket.model.PropostaSimples;
+import br.inatel.dexmarket.model.Troca;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Classe CodecBinario - Codificação binária compacta das entidades do domínio.
+ *
+ * Cada entidade codificada começa com [versão (byte)][tipo (byte)], seguidos dos campos na ordem
+ * do esquema da versão. Registros de versões anteriores continuam legíveis:
+ * - versão 1: Notificacao sem idTroca e quantidade (lidos como 0 e 1);
+ * - versão 2: Notificacao termina com idTroca e quantidade;
+ * - versão 3: Notificacao termina com idTroca, quantidade, modelo, idProposta e codigoStatus. Com modelo,
+ *   a mensagem é gravada como null e o texto é montado na leitura (ModeloNotificacao). O tipo distingue as entidades e, em especial, as subclasses de Proposta
+ * (PropostaSimples e PropostaComItemExtra), então lerProposta() sabe qual classe instanciar.
+ *
+ * Campos:
+ * - int: varint (7 bits por byte). IDs, raridade e quantidades costumam caber em 1 ou 2 bytes.
+ * - Date: varlong de (millis + 1); 0 representa null.
+ * - String: varint de (bytes UTF-8 + 1), 0 representa null, seguido dos bytes UTF-8.
+ * - boolean: 1 byte.
+ * - List&lt;Pokemon&gt;: varint da quantidade seguido de cada Pokémon sem cabeçalho.
+ *
+ * A codificação e a decodificação trabalham direto no ByteBuffer: o UTF-8 é gerado e lido caractere
+ * a caractere, sem byte[], streams ou objetos intermediários (além dos próprios objetos decodificados).
+ */
+public final class CodecBinario {
+    public static final byte VERSAO = 3;
+
+    public static final byte TIPO_POKEMON = 1;
+    public static final byte TIPO_TROCA = 2;
+    public static final byte TIPO_PROPOSTA_SIMPLES = 3;
+    public static final byte TIPO_PROPOSTA_COM_ITEM_EXTRA = 4;
+    public static final byte TIPO_NOTIFICACAO = 5;
+
+    private static final int TAMANHO_INICIAL_BUFFER = 512;
+    // Buffer reaproveitado por thread em codificar(); cresce quando uma entidade não cabe
+    private static final ThreadLocal<ByteBuffer> BUFFER = ThreadLocal.withInitial(() -> ByteBuffer.allocate(TAMANHO_INICIAL_BUFFER));
+
+    private CodecBinario() {
+    }
+
+    /**
+     * Escreve uma entidade em um ByteBuffer.
+     */
+    @FunctionalInterface
+    public interface Codificador<T> {
+        void codificar(ByteBuffer destino, T entidade);
+    }
+
+    /**
+     * Lê uma entidade de um ByteBuffer, a partir da posição atual.
+     */
+    @FunctionalInterface
+    public interface Decodificador<T> {
+        T decodificar(ByteBuffer origem);
+    }
+
+    /**
+     * Codifica a entidade e devolve exatamente os bytes gerados.
+     *
+     * @param entidade A entidade
+     * @param codificador Ex.: CodecBinario::escreverTroca
+     * @param prefixo Byte gravado antes da entidade (ex.: operação do journal)
+     * @return Bytes do prefixo seguido da entidade
+     */
+    public static <T> byte[] codificar(byte prefixo, T entidade, Codificador<T> codificador) {
+        ByteBuffer buffer = BUFFER.get();
+        while (true) {
+            buffer.clear();
+            try {
+                buffer.put(prefixo);
+                codificador.codificar(buffer, entidade);
+                break;
+            } catch (BufferOverflowException e) {
+                buffer = ByteBuffer.allocate(buffer.capacity() * 2);
+                BUFFER.set(buffer);
+            }
+        }
+        byte[] bytes = new byte[buffer.position()];
+        buffer.flip();
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    // --- Pokemon ---
+
+    public static void escreverPokemon(ByteBuffer destino, Pokemon pokemon) {
+        escreverCabecalho(destino, TIPO_POKEMON);
+        escreverCamposPokemon(destino, pokemon);
+    }
+
+    public static Pokemon lerPokemon(ByteBuffer origem) {
+        lerCabecalho(origem, TIPO_POKEMON);
+        return lerCamposPokemon(origem);
+    }
+
+    // --- Troca ---
+
+    public static void escreverTroca(ByteBuffer destino, Troca troca) {
+        escreverCabecalho(destino, TIPO_TROCA);
+        escreverInt(destino, troca.getIdTroca());
+        escreverInt(destino, troca.getIdJogadorOfertante());
+        escreverTexto(destino, troca.getStatus());
+        escreverData(destino, troca.getDataCriacao());
+        escreverData(destino, troca.getDataAtualizacao());
+        escreverPokemons(destino, troca.getPokemonsOfertados());
+        escreverPokemons(destino, troca.getPokemonsDesejados());
+    }
+
+    public static Troca lerTroca(ByteBuffer origem) {
+        lerCabecalho(origem, TIPO_TROCA);
+        Troca troca = new Troca();
+        troca.setIdTroca(lerInt(origem));
+        troca.setIdJogadorOfertante(lerInt(origem));
+        troca.setStatus(lerTexto(origem));
+        troca.setDataCriacao(lerData(origem));
+        // setStatus atualiza dataAtualizacao, então ela é restaurada depois
+        troca.setDataAtualizacao(lerData(origem));
+        troca.setPokemonsOfertados(lerPokemons(origem));
+        troca.setPokemonsDesejados(lerPokemons(origem));
+        return troca;
+    }
+
+    // --- Proposta ---
+
+    public static void escreverProposta(ByteBuffer destino, Proposta proposta) {
+        boolean comItemExtra = proposta instanceof PropostaComItemExtra;
+        escreverCabecalho(destino, comItemExtra ? TIPO_PROPOSTA_COM_ITEM_EXTRA : TIPO_PROPOSTA_SIMPLES);
+        escreverInt(destino, proposta.getIdProposta());
+        escreverInt(destino, proposta.getIdTroca());
+        escreverInt(destino, proposta.getIdJogadorProponente());
+        escreverTexto(destino, proposta.getStatus());
+        escreverData(destino, proposta.getDataCriacao());
+        escreverData(destino, proposta.getDataAtualizacao());
+        escreverPokemons(destino, proposta.getPokemonsOfertados());
+        if (comItemExtra) {
+            PropostaComItemExtra extra = (PropostaComItemExtra) proposta;
+            escreverTexto(destino, extra.getItemExtra());
+            escreverInt(destino, extra.getQuantidadeItemExtra());
+        }
+    }
+
+    public static Proposta lerProposta(ByteBuffer origem) {
+        byte tipo = lerCabecalho(origem);
+        Proposta proposta;
+        if (tipo == TIPO_PROPOSTA_COM_ITEM_EXTRA) {
+            proposta = new PropostaComItemExtra();
+        } else if (tipo == TIPO_PROPOSTA_SIMPLES) {
+            proposta = new PropostaSimples();
+        } else {
+            throw new IllegalArgumentException("Tipo de proposta desconhecido: " + tipo);
+        }
+        proposta.setIdProposta(lerInt(origem));
+        proposta.setIdTroca(lerInt(origem));
+        proposta.setIdJogadorProponente(lerInt(origem));
+        proposta.setStatus(lerTexto(origem));
+        proposta.setDataCriacao(lerData(origem));
+        proposta.setDataAtualizacao(lerData(origem));
+        proposta.setPokemonsOfertados(lerPokemons(origem));
+        if (proposta instanceof PropostaComItemExtra) {
+            PropostaComItemExtra extra = (PropostaComItemExtra) proposta;
+            extra.setItemExtra(lerTexto(origem));
+            extra.setQuantidadeItemExtra(lerInt(origem));
+        }
+        return proposta;
+    }
+
+    // --- Notificacao ---
+
+    public static void escreverNotificacao(ByteBuffer destino, Notificacao notificacao) {
+        escreverCabecalho(destino, TIPO_NOTIFICACAO);
+        escreverInt(destino, notificacao.getIdNotificacao());
+        escreverInt(destino, notificacao.getIdDestinatario());
+        escreverTexto(destino, notificacao.getTipo());
+        ModeloNotificacao modelo = notificacao.getModelo();
+        // Com modelo só os argumentos são gravados, nunca o texto montado
+        escreverTexto(destino, modelo != null ? null : notificacao.getMensagem());
+        escreverData(destino, notificacao.getDataEnvio());
+        destino.put((byte) (notificacao.isLida() ? 1 : 0));
+        escreverInt(destino, notificacao.getIdTroca());
+        escreverInt(destino, notificacao.getQuantidade());
+        escreverInt(destino, modelo != null ? modelo.getCodigo() : 0);
+        escreverInt(destino, notificacao.getIdProposta());
+        escreverInt(destino, notificacao.getCodigoStatus());
+    }
+
+    public static Notificacao lerNotificacao(ByteBuffer origem) {
+        byte versao = lerCabecalho(origem, TIPO_NOTIFICACAO);
+        Notificacao notificacao = new Notificacao();
+        notificacao.setIdNotificacao(lerInt(origem));
+        notificacao.setIdDestinatario(lerInt(origem));
+        notificacao.setTipo(lerTexto(origem));
+        notificacao.setMensagem(lerTexto(origem));
+        notificacao.setDataEnvio(lerData(origem));
+        notificacao.setLida(origem.get() != 0);
+        if (versao >= 2) {
+            notificacao.setIdTroca(lerInt(origem));
+            notificacao.setQuantidade(lerInt(origem));
+        }
+        if (versao >= 3) {
+            notificacao.setModelo(ModeloNotificacao.doCodigo(lerInt(origem)));
+            notificacao.setIdProposta(lerInt(origem));
+            notificacao.setCodigoStatus(lerInt(origem));
+        }
+        return notificacao;
+    }
+
+    // --- Cabeçalho ---
+
+    private static void escreverCabecalho(ByteBuffer destino, byte tipo) {
+        destino.put(VERSAO);
+        destino.put(tipo);
+    }
+
+    private static byte lerCabecalho(ByteBuffer origem) {
+        lerVersao(origem);
+        return origem.get();
+    }
+
+    /**
+     * @return Versão do registro
+     */
+    private static byte lerCabecalho(ByteBuffer origem, byte tipoEsperado) {
+        byte versao = lerVersao(origem);
+        byte tipo = origem.get();
+        if (tipo != tipoEsperado) {
+            throw new IllegalArgumentException("Tipo inesperado: " + tipo + " (esperado " + tipoEsperado + ")");
+        }
+        return versao;
+    }
+
+    private static byte lerVersao(ByteBuffer origem) {
+        byte versao = origem.get();
+        if (versao < 1 || versao > VERSAO) {
+            throw new IllegalArgumentException("Versão de codificação não suportada: " + versao);
+        }
+        return versao;
+    }
+
+    // --- Campos ---
+
+    private static void escreverCamposPokemon(ByteBuffer destino, Pokemon pokemon) {
+        escreverInt(destino, pokemon.getIdPokemon());
+        escreverTexto(destino, pokemon.getNome());
+        escreverTexto(destino, pokemon.getTipo());
+        escreverTexto(destino, pokemon.getUrlImagem());
+        escreverInt(destino, pokemon.getRaridade());
+        escreverInt(destino, pokemon.getIdJogadorDono());
+    }
+
+    private static Pokemon lerCamposPokemon(ByteBuffer origem) {
+        int id = lerInt(origem);
+        String nome = lerTexto(origem);
+        String tipo = lerTexto(origem);
+        String urlImagem = lerTexto(origem);
+        int raridade = lerInt(origem);
+        int idJogadorDono = lerInt(origem);
+        return new Pokemon(id, nome, tipo, urlImagem, raridade, idJogadorDono);
+    }
+
+    private static void escreverPokemons(ByteBuffer destino, List<Pokemon> pokemons) {
+        if (pokemons == null) {
+            escreverInt(destino, 0);
+            return;
+        }
+        escreverInt(destino, pokemons.size());
+        for (Pokemon pokemon : pokemons) {
+            escreverCamposPokemon(destino, pokemon);
+        }
+    }
+
+    private static List<Pokemon> lerPokemons(ByteBuffer origem) {
+        int quantidade = lerInt(origem);
+        List<Pokemon> pokemons = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            pokemons.add(lerCamposPokemon(origem));
+        }
+        return pokemons;
+    }
+
+    private static void escreverData(ByteBuffer destino, Date data) {
+        escreverLong(destino, data != null ? data.getTime() + 1 : 0);
+    }
+
+    private static Date lerData(ByteBuffer origem) {
+        long valor = lerLong(origem);
+        return valor != 0 ? new Date(valor - 1) : null;
+    }
+
+    // --- Varints ---
+
+    static void escreverInt(ByteBuffer destino, int valor) {
+        while ((valor & ~0x7F) != 0) {
+            destino.put((byte) ((valor & 0x7F) | 0x80));
+            valor >>>= 7;
+        }
+        destino.put((byte) valor);
+    }
+
+    static int lerInt(ByteBuffer origem) {
+        int valor = 0;
+        for (int deslocamento = 0; deslocamento < 35; deslocamento += 7) {
+            byte b = origem.get();
+            valor |= (b & 0x7F) << deslocamento;
+            if (b >= 0) {
+                return valor;
+            }
+        }
+        throw new IllegalArgumentException("Varint inválido");
+    }
+
+    static void escreverLong(ByteBuffer destino, long valor) {
+        while ((valor & ~0x7FL) != 0) {
+            destino.put((byte) ((valor & 0x7F) | 0x80));
+            valor >>>= 7;
+        }
+        destino.put((byte) valor);
+    }
+
+    static long lerLong(ByteBuffer origem) {
+        long valor = 0;
+        for (int deslocamento = 0; deslocamento < 70; deslocamento += 7) {
+            byte b = origem.get();
+            valor |= (long) (b & 0x7F) << deslocamento;
+            if (b >= 0) {
+                return valor;
+            }
+        }
+        throw new IllegalArgumentException("Varint inválido");
+    }
+
+    // --- Texto (UTF-8 direto no buffer) ---
+
+    static void escreverTexto(ByteBuffer destino, String texto) {
+        if (texto == null) {
+            escreverInt(destino, 0);
+            return;
+        }
+        int tamanho = texto.length();
+        escreverInt(destino, tamanhoUtf8(texto) + 1);
+        for (int i = 0; i < tamanho; i++) {
+            char c = texto.charAt(i);
+            if (c < 0x80) {
+                destino.put((byte) c);
+            } else if (c < 0x800) {
+                destino.put((byte) (0xC0 | (c >> 6)));
+                destino.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < tamanho && Character.isLowSurrogate(texto.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, texto.charAt(++i));
+                destino.put((byte) (0xF0 | (codePoint >> 18)));
+                destino.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                destino.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                destino.put((byte) (0x80 | (codePoint & 0x3F)));
+            } else {
+                destino.put((byte) (0xE0 | (c >> 12)));
+                destino.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                destino.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+    static String lerTexto(ByteBuffer origem) {
+        int tamanho = lerInt(origem) - 1;
+        if (tamanho < 0) {
+            return null;
+        }
+        // Cada byte UTF-8 gera no máximo um char, então tamanho chars sempre bastam
+        char[] chars = new char[tamanho];
+        int n = 0;
+        int fim = origem.position() + tamanho;
+        while (origem.position() < fim) {
+            int b = origem.get() & 0xFF;
+            if (b < 0x80) {
+                chars[n++] = (char) b;
+            } else if (b < 0xE0) {
+                chars[n++] = (char) (((b & 0x1F) << 6) | (origem.get() & 0x3F));
+            } else if (b < 0xF0) {
+                chars[n++] = (char) (((b & 0x0F) << 12) | ((origem.get() & 0x3F) << 6) | (origem.get() & 0x3F));
+            } else {
+                int codePoint = ((b & 0x07) << 18) | ((origem.get() & 0x3F) << 12)
+                        | ((origem.get() & 0x3F) << 6) | (origem.get() & 0x3F);
+                chars[n++] = Character.highSurrogate(codePoint);
+                chars[n++] = Character.lowSurrogate(codePoint);
+            }
+        }
+        return new String(chars, 0, n);
+    }
+
+    private static int tamanhoUtf8(String texto) {
+        int bytes = 0;
+        int tamanho = texto.length();
+        for (int i = 0; i < tamanho; i++) {
+            char c = texto.charAt(i);
+            if (c < 0x80) {
+                bytes += 1;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < tamanho && Character.isLowSurrogate(texto.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+}
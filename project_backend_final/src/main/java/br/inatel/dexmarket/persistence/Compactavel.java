@@ -0,0 +1,22 @@
+package br.inatel.dexmarket.persistence;
+
+import java.io.IOException;
+
+/**
+ * Interface Compactavel - Repositório durável cujo journal pode ser encurtado por um snapshot.
+ */
+public interface Compactavel {
+    /**
+     * @return Bytes gravados no journal desde o último snapshot (segmento atual)
+     */
+    long bytesNoJournal();
+
+    /**
+     * Grava um snapshot do repositório e descarta a parte do journal coberta por ele.
+     * As escritas continuam liberadas durante o snapshot.
+     *
+     * @return Quantidade de entidades no snapshot
+     * @throws IOException Se o snapshot não puder ser gravado
+     */
+    int compactar() throws IOException;
+}
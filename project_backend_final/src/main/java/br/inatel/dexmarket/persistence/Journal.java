@@ -0,0 +1,436 @@
+package br.inatel.dexmarket.persistence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Classe Journal - Log de escrita antecipada (write-ahead log) só de anexação.
+ *
+ * Cada registro é gravado como [tamanho (int)][CRC32 (int)][bytes]. Na reinicialização,
+ * reproduzir() entrega os registros válidos na ordem em que foram gravados e descarta uma
+ * eventual cauda incompleta (queda no meio de uma escrita).
+ *
+ * Group commit: anexar() apenas enfileira o registro. Uma thread escritora drena a fila,
+ * grava todos os registros pendentes e faz um único FileChannel.force() para o lote inteiro,
+ * completando os futuros de todos eles. Sob carga, muitos registros dividem o custo de um fsync.
+ *
+ * Segmentos: o journal é dividido em arquivos "nome.NNNNNN.journal". rotacionar() fecha o segmento
+ * atual e passa a gravar no seguinte; depois de um snapshot, os segmentos anteriores a ele podem
+ * ser apagados com descartarSegmentosAnteriores().
+ *
+ * Falha de escrita: se a gravação ou o fsync de um lote falhar, o segmento é truncado de volta para
+ * o tamanho de antes do lote (nenhum registro pela metade fica no meio do arquivo, escondendo os
+ * seguintes na reprodução). Se nem o truncamento for possível, o journal fica em falha e toda
+ * gravação seguinte falha com a mesma causa.
+ */
+public class Journal implements Closeable {
+    private static final int TAMANHO_CABECALHO = 8;
+    private static final int MAXIMO_REGISTROS_POR_LOTE = 4096;
+    private static final String EXTENSAO = ".journal";
+    // Marcador enfileirado por close() para encerrar a thread escritora depois do último registro.
+    // (Interromper a thread não é uma opção: FileChannel é fechado se interrompido no meio de um write.)
+    private static final Pendente FIM = new Pendente(new byte[0]);
+
+    private final Path diretorio;
+    private final String nome;
+    private final BlockingQueue<Pendente> fila = new LinkedBlockingQueue<>();
+    private final Thread escritor;
+    private volatile boolean fechado;
+
+    // Segmento atual: só é trocado pela thread escritora (ou por reproduzir(), antes de qualquer anexar())
+    private FileChannel canal;
+    private volatile long segmentoAtual;
+    // Causa da falha que deixou o segmento atual em estado desconhecido (null enquanto o journal está são)
+    private volatile IOException falha;
+
+    // Estatísticas do group commit
+    private final AtomicLong registrosGravados = new AtomicLong();
+    private final AtomicLong lotesGravados = new AtomicLong();
+    private final AtomicLong bytesNoSegmento = new AtomicLong();
+
+    /**
+     * Abre (ou cria) o journal. Chame reproduzir() antes de anexar novos registros.
+     *
+     * @param diretorio Diretório dos segmentos
+     * @param nome Prefixo dos arquivos (ex.: "trocas")
+     * @throws IOException Se o segmento atual não puder ser aberto
+     */
+    public Journal(Path diretorio, String nome) throws IOException {
+        this.diretorio = diretorio;
+        this.nome = nome;
+        Files.createDirectories(diretorio);
+        TreeMap<Long, Path> segmentos = listarSegmentos();
+        abrirSegmento(segmentos.isEmpty() ? 1 : segmentos.lastKey());
+        this.escritor = new Thread(this::loopEscrita, "journal-" + nome);
+        this.escritor.setDaemon(true);
+        this.escritor.start();
+    }
+
+    /**
+     * Reproduz todos os segmentos.
+     *
+     * @see #reproduzir(long, Consumer)
+     */
+    public int reproduzir(Consumer<ByteBuffer> aplicar) throws IOException {
+        return reproduzir(0, aplicar);
+    }
+
+    /**
+     * Lê os registros válidos dos segmentos a partir de primeiroSegmento, em ordem. Se encontrar um
+     * registro incompleto ou corrompido, trunca o segmento naquele ponto: nada depois dele foi confirmado.
+     * Segmentos anteriores a primeiroSegmento já estão cobertos por um snapshot e são apagados.
+     *
+     * @param primeiroSegmento Primeiro segmento a reproduzir (devolvido por Snapshot.carregar)
+     * @param aplicar Recebe cada registro (o buffer só é válido durante a chamada)
+     * @return Quantidade de registros reproduzidos
+     * @throws IOException Se a leitura falhar
+     */
+    public synchronized int reproduzir(long primeiroSegmento, Consumer<ByteBuffer> aplicar) throws IOException {
+        descartarSegmentosAnteriores(primeiroSegmento);
+        if (segmentoAtual < primeiroSegmento) {
+            // Os segmentos cobertos pelo snapshot já foram apagados: novas escritas vão depois dele
+            canal.close();
+            abrirSegmento(primeiroSegmento);
+        }
+        int quantidade = 0;
+        for (Path segmento : listarSegmentos().values()) {
+            if (segmento.equals(arquivoDoSegmento(segmentoAtual))) {
+                quantidade += reproduzirSegmento(canal, segmento, aplicar);
+                bytesNoSegmento.set(canal.size());
+            } else {
+                try (FileChannel anterior = FileChannel.open(segmento, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                    quantidade += reproduzirSegmento(anterior, segmento, aplicar);
+                }
+            }
+        }
+        return quantidade;
+    }
+
+    /**
+     * Enfileira um registro para gravação. O futuro é completado quando o registro estiver
+     * gravado e sincronizado em disco (junto com os demais registros do mesmo lote).
+     *
+     * @param registro Bytes do registro
+     * @return Futuro completado após o fsync do lote
+     */
+    public CompletableFuture<Void> anexar(byte[] registro) {
+        return enfileirar(new Pendente(registro));
+    }
+
+    /**
+     * Fecha o segmento atual e passa a gravar no próximo. Todo registro anexado antes desta chamada
+     * fica nos segmentos antigos; todo registro anexado depois, no novo.
+     *
+     * @return Número do novo segmento
+     */
+    public long rotacionar() {
+        Pendente rotacao = new Pendente(null);
+        aguardar(enfileirar(rotacao));
+        return rotacao.segmento;
+    }
+
+    /**
+     * Apaga os segmentos anteriores a um número (já cobertos por um snapshot).
+     *
+     * @param segmento Primeiro segmento que deve ser mantido
+     * @throws IOException Se um arquivo não puder ser apagado
+     */
+    public void descartarSegmentosAnteriores(long segmento) throws IOException {
+        for (Path arquivo : listarSegmentos().headMap(segmento).values()) {
+            Files.deleteIfExists(arquivo);
+        }
+    }
+
+    /**
+     * Bloqueia até o registro estar durável.
+     *
+     * @param confirmacao Futuro devolvido por anexar()
+     * @throws UncheckedIOException Se a gravação falhar
+     */
+    public static void aguardar(CompletableFuture<Void> confirmacao) {
+        try {
+            confirmacao.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido aguardando o journal", e);
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof IOException) {
+                throw new UncheckedIOException((IOException) causa);
+            }
+            throw new IllegalStateException("Falha ao gravar no journal", causa);
+        }
+    }
+
+    public long getRegistrosGravados() {
+        return registrosGravados.get();
+    }
+
+    public long getLotesGravados() {
+        return lotesGravados.get();
+    }
+
+    /**
+     * @return Tamanho do segmento atual (cresce até a próxima rotação)
+     */
+    public long getBytesNoSegmento() {
+        return bytesNoSegmento.get();
+    }
+
+    public long getSegmentoAtual() {
+        return segmentoAtual;
+    }
+
+    public Path getDiretorio() {
+        return diretorio;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    /**
+     * Grava o que ainda estiver na fila e fecha o arquivo.
+     */
+    @Override
+    public void close() throws IOException {
+        if (fechado) {
+            return;
+        }
+        fechado = true;
+        fila.add(FIM);
+        try {
+            escritor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        canal.close();
+    }
+
+    // --- Thread escritora (group commit) ---
+
+    private CompletableFuture<Void> enfileirar(Pendente pendente) {
+        if (fechado) {
+            throw new IllegalStateException("Journal fechado: " + nome);
+        }
+        fila.add(pendente);
+        return pendente.confirmacao;
+    }
+
+    private void loopEscrita() {
+        List<Pendente> lote = new ArrayList<>();
+        List<Pendente> registros = new ArrayList<>();
+        boolean encerrar = false;
+        while (!encerrar) {
+            try {
+                lote.add(fila.take());
+            } catch (InterruptedException e) {
+                continue;
+            }
+            fila.drainTo(lote, MAXIMO_REGISTROS_POR_LOTE - 1);
+            // FIM é sempre o último item enfileirado, então nada depois dele fica sem gravar
+            encerrar = lote.remove(FIM);
+            for (Pendente pendente : lote) {
+                if (pendente.registro != null) {
+                    registros.add(pendente);
+                    continue;
+                }
+                // Rotação: grava o que veio antes dela no segmento atual e só então troca de arquivo
+                gravarLote(registros);
+                registros.clear();
+                trocarSegmento(pendente);
+            }
+            gravarLote(registros);
+            registros.clear();
+            lote.clear();
+        }
+        // Registros que chegaram depois de close() não serão gravados
+        List<Pendente> atrasados = new ArrayList<>();
+        fila.drainTo(atrasados);
+        for (Pendente pendente : atrasados) {
+            pendente.confirmacao.completeExceptionally(new IOException("Journal fechado: " + nome));
+        }
+    }
+
+    private void gravarLote(List<Pendente> lote) {
+        if (lote.isEmpty()) {
+            return;
+        }
+        if (falha != null) {
+            for (Pendente pendente : lote) {
+                pendente.confirmacao.completeExceptionally(falha);
+            }
+            return;
+        }
+        long inicioLote = bytesNoSegmento.get();
+        try {
+            ByteBuffer[] buffers = new ByteBuffer[lote.size()];
+            CRC32 crc = new CRC32();
+            long restante = 0;
+            for (int i = 0; i < lote.size(); i++) {
+                byte[] registro = lote.get(i).registro;
+                crc.reset();
+                crc.update(registro);
+                ByteBuffer buffer = ByteBuffer.allocate(TAMANHO_CABECALHO + registro.length);
+                buffer.putInt(registro.length).putInt((int) crc.getValue()).put(registro).flip();
+                buffers[i] = buffer;
+                restante += buffer.remaining();
+            }
+            bytesNoSegmento.addAndGet(restante);
+            while (restante > 0) {
+                restante -= canal.write(buffers);
+            }
+            canal.force(false);
+            registrosGravados.addAndGet(lote.size());
+            lotesGravados.incrementAndGet();
+            for (Pendente pendente : lote) {
+                pendente.confirmacao.complete(null);
+            }
+        } catch (IOException e) {
+            desfazerLote(inicioLote, e);
+            for (Pendente pendente : lote) {
+                pendente.confirmacao.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Volta o segmento atual ao tamanho de antes do lote que falhou; se não conseguir, marca o journal
+     * em falha (o conteúdo do fim do segmento passa a ser desconhecido).
+     */
+    private void desfazerLote(long inicioLote, IOException causa) {
+        try {
+            canal.truncate(inicioLote);
+            canal.position(inicioLote);
+            canal.force(false);
+            bytesNoSegmento.set(inicioLote);
+        } catch (IOException e) {
+            causa.addSuppressed(e);
+            falha = causa;
+            System.out.println("Journal " + nome + ": falha ao desfazer lote, novas gravações serão recusadas: " + e);
+        }
+    }
+
+    private void trocarSegmento(Pendente rotacao) {
+        try {
+            canal.force(true);
+            canal.close();
+            abrirSegmento(segmentoAtual + 1);
+            rotacao.segmento = segmentoAtual;
+            rotacao.confirmacao.complete(null);
+        } catch (IOException e) {
+            rotacao.confirmacao.completeExceptionally(e);
+        }
+    }
+
+    // --- Arquivos ---
+
+    private void abrirSegmento(long segmento) throws IOException {
+        canal = abrirCanal(arquivoDoSegmento(segmento));
+        canal.position(canal.size());
+        bytesNoSegmento.set(canal.size());
+        segmentoAtual = segmento;
+    }
+
+    /**
+     * Abre o arquivo de um segmento para leitura e escrita (sobrescrito nos testes para simular falhas).
+     */
+    FileChannel abrirCanal(Path arquivo) throws IOException {
+        return FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private Path arquivoDoSegmento(long segmento) {
+        return diretorio.resolve(String.format("%s.%06d%s", nome, segmento, EXTENSAO));
+    }
+
+    private TreeMap<Long, Path> listarSegmentos() throws IOException {
+        TreeMap<Long, Path> segmentos = new TreeMap<>();
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(diretorio, nome + ".*" + EXTENSAO)) {
+            for (Path arquivo : arquivos) {
+                String meio = arquivo.getFileName().toString();
+                meio = meio.substring(nome.length() + 1, meio.length() - EXTENSAO.length());
+                try {
+                    segmentos.put(Long.parseLong(meio), arquivo);
+                } catch (NumberFormatException e) {
+                    // Outro arquivo com o mesmo prefixo; não é um segmento deste journal
+                }
+            }
+        }
+        return segmentos;
+    }
+
+    private static int reproduzirSegmento(FileChannel canal, Path arquivo, Consumer<ByteBuffer> aplicar) throws IOException {
+        ByteBuffer cabecalho = ByteBuffer.allocate(TAMANHO_CABECALHO);
+        CRC32 crc = new CRC32();
+        long posicao = 0;
+        int quantidade = 0;
+        long tamanhoArquivo = canal.size();
+        while (posicao + TAMANHO_CABECALHO <= tamanhoArquivo) {
+            cabecalho.clear();
+            lerCompleto(canal, cabecalho, posicao);
+            cabecalho.flip();
+            int tamanho = cabecalho.getInt();
+            int crcEsperado = cabecalho.getInt();
+            if (tamanho < 0 || posicao + TAMANHO_CABECALHO + tamanho > tamanhoArquivo) {
+                break;
+            }
+            ByteBuffer registro = ByteBuffer.allocate(tamanho);
+            lerCompleto(canal, registro, posicao + TAMANHO_CABECALHO);
+            registro.flip();
+            crc.reset();
+            crc.update(registro.duplicate());
+            if ((int) crc.getValue() != crcEsperado) {
+                break;
+            }
+            aplicar.accept(registro.asReadOnlyBuffer());
+            posicao += TAMANHO_CABECALHO + tamanho;
+            quantidade++;
+        }
+        if (posicao < tamanhoArquivo) {
+            System.out.println("Journal " + arquivo.getFileName() + ": descartando cauda incompleta a partir do byte " + posicao);
+            canal.truncate(posicao);
+        }
+        canal.position(posicao);
+        return quantidade;
+    }
+
+    private static void lerCompleto(FileChannel canal, ByteBuffer destino, long posicao) throws IOException {
+        while (destino.hasRemaining()) {
+            int lidos = canal.read(destino, posicao);
+            if (lidos < 0) {
+                throw new IOException("Fim inesperado do journal");
+            }
+            posicao += lidos;
+        }
+    }
+
+    /**
+     * Registro aguardando gravação. Com registro null, é um pedido de rotação de segmento.
+     */
+    private static final class Pendente {
+        private final byte[] registro;
+        private final CompletableFuture<Void> confirmacao = new CompletableFuture<>();
+        private volatile long segmento;
+
+        Pendente(byte[] registro) {
+            this.registro = registro;
+        }
+    }
+}
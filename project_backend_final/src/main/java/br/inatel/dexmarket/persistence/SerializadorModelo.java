@@ -0,0 +1,26 @@
+package br.inatel.dexmarket.persistence;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Classe SerializadorModelo - Formato dos registros gravados no journal e no snapshot.
+ *
+ * Cada registro começa com um byte de operação (SALVAR ou REMOVER).
+ * SALVAR carrega o estado completo da entidade (codificado por CodecBinario), REMOVER só o ID,
+ * então reproduzir os registros em ordem reconstrói exatamente o último estado de cada entidade.
+ */
+public final class SerializadorModelo {
+    public static final byte SALVAR = 1;
+    public static final byte REMOVER = 2;
+
+    private SerializadorModelo() {
+    }
+
+    public static <T> byte[] registroSalvar(T entidade, CodecBinario.Codificador<T> codificador) {
+        return CodecBinario.codificar(SALVAR, entidade, codificador);
+    }
+
+    public static byte[] registroRemover(int id) {
+        return ByteBuffer.allocate(5).put(REMOVER).putInt(id).array();
+    }
+}
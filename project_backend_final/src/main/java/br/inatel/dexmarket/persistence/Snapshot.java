@@ -0,0 +1,156 @@
+package br.inatel.dexmarket.persistence;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Classe Snapshot - Imagem de um repositório em um instante, usada para encurtar o journal.
+ *
+ * Formato: [MAGICO (int)][versão (int)][primeiro segmento do journal (long)], depois os registros
+ * como [tamanho (int)][bytes] (no mesmo formato SALVAR do journal) e, no fim, [-1 (int)]
+ * [quantidade (int)][CRC32 dos registros (int)].
+ *
+ * O arquivo é escrito em "nome.snapshot.tmp", sincronizado e só então renomeado atomicamente para
+ * "nome.snapshot": um snapshot visível está sempre completo. Na carga o arquivo é mapeado em
+ * memória (FileChannel.map) e os registros são lidos direto do mapeamento, sem cópia intermediária.
+ */
+public final class Snapshot {
+    private static final int MAGICO = 0x44585350; // "DXSP"
+    // Versão 2: registros codificados por CodecBinario
+    private static final int VERSAO = 2;
+    private static final int FIM_REGISTROS = -1;
+    private static final String EXTENSAO = ".snapshot";
+
+    private Snapshot() {
+    }
+
+    public static Path arquivo(Path diretorio, String nome) {
+        return diretorio.resolve(nome + EXTENSAO);
+    }
+
+    /**
+     * Carrega o snapshot, se existir.
+     *
+     * @param arquivo Arquivo do snapshot
+     * @param aplicar Recebe cada registro (o buffer só é válido durante a chamada)
+     * @return Primeiro segmento do journal que ainda precisa ser reproduzido (0 se não há snapshot)
+     * @throws IOException Se o snapshot existir mas não puder ser lido ou estiver corrompido
+     */
+    public static long carregar(Path arquivo, Consumer<ByteBuffer> aplicar) throws IOException {
+        if (!Files.exists(arquivo)) {
+            return 0;
+        }
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            MappedByteBuffer mapa = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            if (mapa.getInt() != MAGICO) {
+                throw new IOException("Arquivo não é um snapshot: " + arquivo);
+            }
+            int versao = mapa.getInt();
+            if (versao != VERSAO) {
+                throw new IOException("Versão de snapshot não suportada (" + versao + "): " + arquivo);
+            }
+            long primeiroSegmento = mapa.getLong();
+            CRC32 crc = new CRC32();
+            int quantidade = 0;
+            int tamanho;
+            while ((tamanho = mapa.getInt()) != FIM_REGISTROS) {
+                ByteBuffer registro = mapa.slice();
+                registro.limit(tamanho);
+                crc.update(registro.duplicate());
+                aplicar.accept(registro.asReadOnlyBuffer());
+                mapa.position(mapa.position() + tamanho);
+                quantidade++;
+            }
+            if (mapa.getInt() != quantidade || mapa.getInt() != (int) crc.getValue()) {
+                throw new IOException("Snapshot corrompido: " + arquivo);
+            }
+            return primeiroSegmento;
+        }
+    }
+
+    /**
+     * Começa a escrever um novo snapshot. Ele só substitui o anterior em Escritor.concluir().
+     *
+     * @param arquivo Arquivo do snapshot
+     * @param primeiroSegmento Primeiro segmento do journal NÃO coberto pelo snapshot
+     * @return Escritor do snapshot
+     * @throws IOException Se o arquivo temporário não puder ser criado
+     */
+    public static Escritor escrever(Path arquivo, long primeiroSegmento) throws IOException {
+        return new Escritor(arquivo, primeiroSegmento);
+    }
+
+    /**
+     * Escreve os registros de um snapshot em um arquivo temporário.
+     */
+    public static final class Escritor implements Closeable {
+        private final Path arquivo;
+        private final Path temporario;
+        private final FileChannel canal;
+        private final DataOutputStream saida;
+        private final CRC32 crc = new CRC32();
+        private int quantidade;
+        private boolean concluido;
+
+        private Escritor(Path arquivo, long primeiroSegmento) throws IOException {
+            this.arquivo = arquivo;
+            this.temporario = arquivo.resolveSibling(arquivo.getFileName() + ".tmp");
+            this.canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            this.saida = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(canal), 64 * 1024));
+            saida.writeInt(MAGICO);
+            saida.writeInt(VERSAO);
+            saida.writeLong(primeiroSegmento);
+        }
+
+        public void adicionar(byte[] registro) throws IOException {
+            saida.writeInt(registro.length);
+            saida.write(registro);
+            crc.update(registro);
+            quantidade++;
+        }
+
+        public int getQuantidade() {
+            return quantidade;
+        }
+
+        /**
+         * Sincroniza o snapshot em disco e o coloca no lugar do anterior.
+         *
+         * @throws IOException Se a gravação ou a renomeação falhar
+         */
+        public void concluir() throws IOException {
+            saida.writeInt(FIM_REGISTROS);
+            saida.writeInt(quantidade);
+            saida.writeInt((int) crc.getValue());
+            saida.flush();
+            canal.force(true);
+            canal.close();
+            Files.move(temporario, arquivo, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            concluido = true;
+        }
+
+        /**
+         * Descarta o arquivo temporário se o snapshot não foi concluído.
+         */
+        @Override
+        public void close() throws IOException {
+            if (!concluido) {
+                canal.close();
+                Files.deleteIfExists(temporario);
+            }
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package br.inatel.dexmarket.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Classe ConcurrentIntObjectMap - Versão thread-safe de IntObjectMap.
+ *
+ * As chaves são distribuídas entre segmentos, cada um com seu próprio IntObjectMap e sua própria
+ * StampedLock (lock striping). Escritas só disputam trava quando caem no mesmo segmento.
+ *
+ * get() não trava: faz uma leitura otimista (tryOptimisticRead + validate), que só lê um contador do
+ * segmento, sem escrever nada compartilhado. Assim as leituras continuam sem contenção, como eram antes
+ * do IntObjectMap. Só se uma escrita cruzar a leitura ela é refeita sob a trava de leitura.
+ * Continua sem boxing nem nós por entrada.
+ *
+ * @param <V> Tipo dos valores
+ */
+final class ConcurrentIntObjectMap<V> {
+    private static final int BITS_SEGMENTOS = 4;
+
+    private final Segmento<V>[] segmentos;
+
+    ConcurrentIntObjectMap() {
+        this(16);
+    }
+
+    /**
+     * @param capacidadeEsperada Quantidade total de entradas esperada (dividida entre os segmentos)
+     */
+    @SuppressWarnings("unchecked")
+    ConcurrentIntObjectMap(int capacidadeEsperada) {
+        int quantidade = 1 << BITS_SEGMENTOS;
+        segmentos = (Segmento<V>[]) new Segmento<?>[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            segmentos[i] = new Segmento<>(Math.max(1, capacidadeEsperada / quantidade));
+        }
+    }
+
+    V get(int chave) {
+        Segmento<V> segmento = segmentoPara(chave);
+        StampedLock trava = segmento.trava;
+        long carimbo = trava.tryOptimisticRead();
+        if (carimbo != 0) {
+            V valor = segmento.mapa.getOtimista(chave);
+            if (trava.validate(carimbo)) {
+                return valor;
+            }
+        }
+        // Uma escrita cruzou a leitura: refaz sob a trava de leitura
+        carimbo = trava.readLock();
+        try {
+            return segmento.mapa.get(chave);
+        } finally {
+            trava.unlockRead(carimbo);
+        }
+    }
+
+    boolean containsKey(int chave) {
+        return get(chave) != null;
+    }
+
+    V put(int chave, V valor) {
+        Segmento<V> segmento = segmentoPara(chave);
+        long carimbo = segmento.trava.writeLock();
+        try {
+            return segmento.mapa.put(chave, valor);
+        } finally {
+            segmento.trava.unlockWrite(carimbo);
+        }
+    }
+
+    V replace(int chave, V valor) {
+        Segmento<V> segmento = segmentoPara(chave);
+        long carimbo = segmento.trava.writeLock();
+        try {
+            return segmento.mapa.replace(chave, valor);
+        } finally {
+            segmento.trava.unlockWrite(carimbo);
+        }
+    }
+
+    V remove(int chave) {
+        Segmento<V> segmento = segmentoPara(chave);
+        long carimbo = segmento.trava.writeLock();
+        try {
+            return segmento.mapa.remove(chave);
+        } finally {
+            segmento.trava.unlockWrite(carimbo);
+        }
+    }
+
+    int size() {
+        int total = 0;
+        for (Segmento<V> segmento : segmentos) {
+            long carimbo = segmento.trava.readLock();
+            try {
+                total += segmento.mapa.size();
+            } finally {
+                segmento.trava.unlockRead(carimbo);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Garante espaço para mais entradas, repartindo a reserva entre os segmentos.
+     *
+     * @param adicionais Quantidade de entradas que serão inseridas
+     */
+    void reservar(int adicionais) {
+        int porSegmento = adicionais / segmentos.length + 1;
+        for (Segmento<V> segmento : segmentos) {
+            long carimbo = segmento.trava.writeLock();
+            try {
+                segmento.mapa.reservar(porSegmento);
+            } finally {
+                segmento.trava.unlockWrite(carimbo);
+            }
+        }
+    }
+
+    /**
+     * Percorre os valores segmento a segmento. Cada segmento é lido de forma consistente,
+     * mas o conjunto não é um snapshot atômico do mapa inteiro.
+     *
+     * @param acao Ação executada para cada valor (sob a trava de leitura do segmento, que não é reentrante:
+     *             não deve escrever no mapa)
+     */
+    void forEachValue(Consumer<? super V> acao) {
+        for (Segmento<V> segmento : segmentos) {
+            long carimbo = segmento.trava.readLock();
+            try {
+                segmento.mapa.forEachValue(acao);
+            } finally {
+                segmento.trava.unlockRead(carimbo);
+            }
+        }
+    }
+
+    /**
+     * @return Cópia dos valores atuais
+     */
+    List<V> values() {
+        List<V> valores = new ArrayList<>();
+        forEachValue(valores::add);
+        return valores;
+    }
+
+    /**
+     * Stream preguiçoso dos valores com chave em [inicio, fim), em ordem crescente de chave.
+     *
+     * Não copia nada: cada chave é consultada (get) só quando o stream chega nela, então a memória
+     * usada é constante. O intervalo é fixado na criação; cada valor reflete o estado no momento em
+     * que é visitado. Como o intervalo é um IntStream.range, o stream divide bem em paralelo.
+     * Indicado quando as chaves são densas (IDs sequenciais dos repositórios).
+     *
+     * @param inicio Primeira chave (inclusive)
+     * @param fim Última chave (exclusive)
+     */
+    Stream<V> streamPorChaves(int inicio, int fim) {
+        return IntStream.range(inicio, fim).mapToObj(this::get).filter(Objects::nonNull);
+    }
+
+    /**
+     * Bytes ocupados pelos arrays internos de todos os segmentos (sem contar os objetos armazenados).
+     */
+    long bytesEstrutura() {
+        long total = 0;
+        for (Segmento<V> segmento : segmentos) {
+            long carimbo = segmento.trava.readLock();
+            try {
+                total += segmento.mapa.bytesEstrutura();
+            } finally {
+                segmento.trava.unlockRead(carimbo);
+            }
+        }
+        return total;
+    }
+
+    private Segmento<V> segmentoPara(int chave) {
+        // Usa os bits altos do hash; os bits baixos ficam para a posição dentro do segmento
+        return segmentos[(chave * 0x9E3779B9) >>> (32 - BITS_SEGMENTOS)];
+    }
+
+    private static final class Segmento<V> {
+        private final IntObjectMap<V> mapa;
+        private final StampedLock trava = new StampedLock();
+
+        Segmento(int capacidadeEsperada) {
+            this.mapa = new IntObjectMap<>(capacidadeEsperada);
+        }
+    }
+}
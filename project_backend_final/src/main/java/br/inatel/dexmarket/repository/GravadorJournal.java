@@ -0,0 +1,165 @@
+package br.inatel.dexmarket.repository;
+
+import br.inatel.dexmarket.persistence.CodecBinario;
+import br.inatel.dexmarket.persistence.Journal;
+import br.inatel.dexmarket.persistence.SerializadorModelo;
+import br.inatel.dexmarket.persistence.Snapshot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+
+/**
+ * Classe GravadorJournal - Parte comum dos repositórios duráveis.
+ *
+ * Cada escrita grava no journal o estado ATUAL da entidade (ou a remoção, se ela não existe mais),
+ * lido sob a trava do ID. A trava é a MESMA do repositório em memória (TravadoPorId), então a
+ * entidade nunca é codificada no meio de uma escrita em memória. Assim a ordem dos registros de um mesmo ID no journal é a mesma ordem
+ * das escritas em memória, e o último registro sempre corresponde ao último estado.
+ *
+ * Como todo registro é "estado completo" ou "remoção", reaplicá-lo sobre um estado que já o contém
+ * não muda nada. É isso que permite tirar o snapshot sem parar as escritas (ver compactar()).
+ *
+ * @param <T> Tipo da entidade
+ */
+final class GravadorJournal<T> {
+    private final Journal journal;
+    private final Path arquivoSnapshot;
+    private final CodecBinario.Codificador<T> escritor;
+    private final CodecBinario.Decodificador<T> leitor;
+    private final TravasPorId travas;
+
+    /**
+     * @param delegado Repositório em memória; se ele não expõe as suas travas (TravadoPorId), é porque
+     *                 devolve cópias (ex.: PokemonRepositoryColunar) e o gravador usa travas próprias
+     */
+    GravadorJournal(Journal journal, Object delegado, CodecBinario.Codificador<T> escritor, CodecBinario.Decodificador<T> leitor) {
+        this.journal = journal;
+        this.travas = delegado instanceof TravadoPorId ? ((TravadoPorId) delegado).getTravas() : new TravasPorId();
+        this.arquivoSnapshot = Snapshot.arquivo(journal.getDiretorio(), journal.getNome());
+        this.escritor = escritor;
+        this.leitor = leitor;
+    }
+
+    /**
+     * Carrega o último snapshot e reaplica os segmentos do journal gravados depois dele.
+     *
+     * @param salvar Recebe cada entidade salva
+     * @param remover Recebe cada ID removido
+     * @return Quantidade de registros reproduzidos (snapshot + journal)
+     * @throws IOException Se a leitura falhar
+     */
+    int reproduzir(Consumer<T> salvar, IntConsumer remover) throws IOException {
+        int[] doSnapshot = new int[1];
+        long primeiroSegmento = Snapshot.carregar(arquivoSnapshot, registro -> {
+            aplicar(registro, salvar, remover);
+            doSnapshot[0]++;
+        });
+        return doSnapshot[0] + journal.reproduzir(primeiroSegmento, registro -> aplicar(registro, salvar, remover));
+    }
+
+    /**
+     * Grava o estado atual do ID e espera o registro ficar durável.
+     *
+     * @param id O ID da entidade escrita
+     * @param estadoAtual Busca a entidade no repositório em memória (null se foi removida)
+     */
+    void registrar(int id, IntFunction<T> estadoAtual) {
+        CompletableFuture<Void> confirmacao;
+        synchronized (travas.para(id)) {
+            T entidade = estadoAtual.apply(id);
+            byte[] registro = entidade != null
+                    ? SerializadorModelo.registroSalvar(entidade, escritor)
+                    : SerializadorModelo.registroRemover(id);
+            confirmacao = journal.anexar(registro);
+        }
+        // Espera fora da trava: enquanto o lote é sincronizado, outras escritas entram no mesmo lote
+        Journal.aguardar(confirmacao);
+    }
+
+    /**
+     * Grava o estado atual de vários IDs e espera uma única vez, até o último registro ficar durável.
+     * Como o journal grava em ordem, os registros do lote tendem a cair no mesmo fsync.
+     *
+     * @param ids Os IDs das entidades escritas
+     * @param estadoAtual Busca a entidade no repositório em memória (null se foi removida)
+     */
+    void registrarTodos(int[] ids, IntFunction<T> estadoAtual) {
+        CompletableFuture<?>[] confirmacoes = new CompletableFuture<?>[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            synchronized (travas.para(ids[i])) {
+                T entidade = estadoAtual.apply(ids[i]);
+                byte[] registro = entidade != null
+                        ? SerializadorModelo.registroSalvar(entidade, escritor)
+                        : SerializadorModelo.registroRemover(ids[i]);
+                confirmacoes[i] = journal.anexar(registro);
+            }
+        }
+        Journal.aguardar(CompletableFuture.allOf(confirmacoes));
+    }
+
+    /**
+     * Grava um snapshot do repositório e apaga os segmentos do journal cobertos por ele.
+     *
+     * 1. Rotaciona o journal: tudo que já foi registrado fica nos segmentos antigos, e cada um desses
+     *    registros foi aplicado em memória ANTES de ser registrado.
+     * 2. Percorre o repositório (stream preguiçoso e fracamente consistente, sem bloquear as escritas nem
+     *    copiar a coleção) e grava o estado de cada entidade, lido sob a trava do ID para não pegar um
+     *    objeto pela metade.
+     * 3. Renomeia o snapshot e apaga os segmentos antigos.
+     *
+     * O snapshot contém tudo dos segmentos antigos e talvez parte do novo; como os registros do novo
+     * segmento serão reaplicados sobre ele na carga, o resultado é o mesmo estado final.
+     *
+     * @param todos Cria o stream das entidades atuais (ex.: delegado::streamAll)
+     * @param id Extrai o ID de uma entidade
+     * @param estadoAtual Busca a entidade no repositório em memória (null se foi removida)
+     * @return Quantidade de entidades no snapshot
+     * @throws IOException Se o snapshot não puder ser gravado
+     */
+    synchronized int compactar(Supplier<Stream<T>> todos, ToIntFunction<T> id, IntFunction<T> estadoAtual) throws IOException {
+        long primeiroSegmento = journal.rotacionar();
+        try (Snapshot.Escritor snapshot = Snapshot.escrever(arquivoSnapshot, primeiroSegmento)) {
+            // O stream só é criado depois da rotação, para cobrir tudo que foi para os segmentos antigos
+            for (Iterator<T> entidades = todos.get().iterator(); entidades.hasNext(); ) {
+                int idEntidade = id.applyAsInt(entidades.next());
+                byte[] registro;
+                synchronized (travas.para(idEntidade)) {
+                    T atual = estadoAtual.apply(idEntidade);
+                    registro = atual != null ? SerializadorModelo.registroSalvar(atual, escritor) : null;
+                }
+                if (registro != null) {
+                    snapshot.adicionar(registro);
+                }
+            }
+            snapshot.concluir();
+            journal.descartarSegmentosAnteriores(primeiroSegmento);
+            System.out.println("Snapshot " + journal.getNome() + ": " + snapshot.getQuantidade()
+                    + " registros, journal a partir do segmento " + primeiroSegmento);
+            return snapshot.getQuantidade();
+        }
+    }
+
+    Journal getJournal() {
+        return journal;
+    }
+
+    private void aplicar(ByteBuffer registro, Consumer<T> salvar, IntConsumer remover) {
+        byte operacao = registro.get();
+        if (operacao == SerializadorModelo.SALVAR) {
+            salvar.accept(leitor.decodificar(registro));
+        } else if (operacao == SerializadorModelo.REMOVER) {
+            remover.accept(registro.getInt());
+        } else {
+            throw new IllegalStateException("Operação desconhecida no journal " + journal.getNome() + ": " + operacao);
+        }
+    }
+}
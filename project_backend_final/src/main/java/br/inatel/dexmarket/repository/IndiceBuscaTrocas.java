@@ -0,0 +1,424 @@
+package br.inatel.dexmarket.repository;
+
+import br.inatel.dexmarket.model.FacetasMarketplace;
+import br.inatel.dexmarket.model.FiltroBuscaTrocas;
+import br.inatel.dexmarket.model.Pokemon;
+import br.inatel.dexmarket.model.Troca;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Classe IndiceBuscaTrocas - Índice invertido das trocas ativas, usado pela busca do marketplace.
+ *
+ * Para cada valor de atributo (espécie, tipo, raridade e ofertante) há uma lista de postagem com os IDs
+ * das trocas ativas que o contêm, ordenada por ID. Uma consulta:
+ *   1. monta uma cláusula por critério (a faixa de raridade é a união das listas das raridades da faixa);
+ *   2. ordena as cláusulas pela seletividade (tamanho estimado, mantido em um contador por lista);
+ *   3. percorre a cláusula mais seletiva a partir do cursor e confere cada ID nas demais (contains
+ *      em O(log n)), parando quando a página está cheia.
+ * O custo depende da lista mais seletiva, e não do total de trocas no marketplace.
+ *
+ * O contador de cada lista também é a contagem da faceta correspondente (trocas ativas por tipo,
+ * raridade e espécie): como ele já muda a cada transição de status, facetas() só lê os contadores,
+ * em O(número de facetas) e sem percorrer nenhuma troca.
+ *
+ * Também mantém as trocas ativas ordenadas pela maior raridade ofertada (maisRaras), para o feed
+ * "mais raras" ler só as K primeiras, sem ordenar o marketplace.
+ *
+ * Mantido por TrocaRepositoryImpl sob a trava do ID da troca. Como a Troca é mutável, as chaves com
+ * que cada troca foi indexada ficam guardadas (entradas) para que a remoção use as chaves antigas.
+ */
+final class IndiceBuscaTrocas {
+    private static final String STATUS_INDEXADO = "Ativa";
+
+    private final Map<String, ListaPostagem> porEspecie = new ConcurrentHashMap<>();
+    private final Map<String, ListaPostagem> porTipo = new ConcurrentHashMap<>();
+    // Ordenado para que a faixa de raridade seja um subMap, sem percorrer raridades inexistentes
+    private final ConcurrentSkipListMap<Integer, ListaPostagem> porRaridade = new ConcurrentSkipListMap<>();
+    private final Map<Integer, ListaPostagem> porOfertante = new ConcurrentHashMap<>();
+    // Todas as trocas ativas (cláusula usada quando o filtro não tem nenhum critério)
+    private final ListaPostagem ativas = new ListaPostagem();
+    // Trocas ativas da maior para a menor raridade ofertada (empate: a mais recente primeiro)
+    private final NavigableSet<ChaveRaridade> porRaridadeMaxima = new ConcurrentSkipListSet<>();
+    private final ConcurrentIntObjectMap<EntradaBusca> entradas = new ConcurrentIntObjectMap<>();
+
+    /**
+     * Indexa a troca com seus atributos atuais (ou a retira do índice, se ela não está mais ativa).
+     * Chamado sob a trava do ID.
+     *
+     * @param troca A troca salva ou atualizada
+     */
+    void indexar(Troca troca) {
+        int id = troca.getIdTroca();
+        EntradaBusca nova = STATUS_INDEXADO.equals(troca.getStatus()) ? new EntradaBusca(troca) : null;
+        EntradaBusca anterior = entradas.get(id);
+        if (Objects.equals(anterior, nova)) {
+            return;
+        }
+        remover(id);
+        if (nova == null) {
+            return;
+        }
+        for (String especie : nova.especies) {
+            adicionar(porEspecie, especie, id);
+        }
+        for (String tipo : nova.tipos) {
+            adicionar(porTipo, tipo, id);
+        }
+        for (Integer raridade : nova.raridades) {
+            adicionar(porRaridade, raridade, id);
+        }
+        adicionar(porOfertante, nova.idJogadorOfertante, id);
+        ativas.adicionar(id);
+        porRaridadeMaxima.add(new ChaveRaridade(nova.raridadeMaxima(), id));
+        entradas.put(id, nova);
+    }
+
+    /**
+     * Retira a troca de todas as listas em que foi indexada. Chamado sob a trava do ID.
+     *
+     * @param id O ID da troca
+     */
+    void remover(int id) {
+        EntradaBusca anterior = entradas.remove(id);
+        if (anterior == null) {
+            return;
+        }
+        for (String especie : anterior.especies) {
+            retirar(porEspecie, especie, id);
+        }
+        for (String tipo : anterior.tipos) {
+            retirar(porTipo, tipo, id);
+        }
+        for (Integer raridade : anterior.raridades) {
+            retirar(porRaridade, raridade, id);
+        }
+        retirar(porOfertante, anterior.idJogadorOfertante, id);
+        ativas.remover(id);
+        porRaridadeMaxima.remove(new ChaveRaridade(anterior.raridadeMaxima(), id));
+    }
+
+    /**
+     * Busca os IDs das trocas ativas que atendem o filtro, em ordem crescente de ID.
+     *
+     * @param filtro Os critérios
+     * @param depoisDoId Só retorna IDs maiores que este (0 = desde o início)
+     * @param limite Quantidade máxima de IDs
+     * @return Os IDs encontrados (candidatos: o chamador confere a troca atual)
+     */
+    List<Integer> buscar(FiltroBuscaTrocas filtro, int depoisDoId, int limite) {
+        List<Clausula> clausulas = new ArrayList<>();
+        if (filtro.getEspecie() != null) {
+            clausulas.add(new Clausula(porEspecie.get(filtro.getEspecie())));
+        }
+        if (filtro.getTipo() != null) {
+            clausulas.add(new Clausula(porTipo.get(filtro.getTipo())));
+        }
+        if (filtro.getRaridadeMinima() != null) {
+            clausulas.add(new Clausula(
+                    porRaridade.subMap(filtro.getRaridadeMinima(), true, filtro.getRaridadeMaxima(), true).values()));
+        }
+        if (filtro.getIdJogadorOfertante() != null) {
+            clausulas.add(new Clausula(porOfertante.get(filtro.getIdJogadorOfertante())));
+        }
+        if (clausulas.isEmpty()) {
+            clausulas.add(new Clausula(ativas));
+        }
+        // Mais seletiva primeiro: ela conduz a iteração e as outras só respondem contains
+        clausulas.sort(Comparator.comparingInt(Clausula::tamanho));
+        List<Integer> ids = new ArrayList<>(Math.min(limite, 64));
+        if (clausulas.get(0).tamanho() == 0) {
+            return ids;
+        }
+        Iterator<Integer> candidatos = clausulas.get(0).depoisDe(depoisDoId);
+        while (ids.size() < limite && candidatos.hasNext()) {
+            Integer id = candidatos.next();
+            if (todasContem(clausulas, id)) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Percorre as trocas ativas da maior para a menor raridade ofertada. O iterador é preguiçoso e
+     * fracamente consistente: quem lê só os K primeiros paga O(K).
+     *
+     * @return IDs em ordem do feed "mais raras" (candidatos: o chamador confere a troca atual)
+     */
+    Iterator<Integer> idsMaisRaras() {
+        Iterator<ChaveRaridade> chaves = porRaridadeMaxima.iterator();
+        return new Iterator<Integer>() {
+            @Override
+            public boolean hasNext() {
+                return chaves.hasNext();
+            }
+
+            @Override
+            public Integer next() {
+                return chaves.next().id;
+            }
+        };
+    }
+
+    /**
+     * @return Contagens atuais de trocas ativas por tipo, raridade e espécie
+     */
+    FacetasMarketplace facetas() {
+        return new FacetasMarketplace(contagens(porTipo), contagens(porRaridade), contagens(porEspecie));
+    }
+
+    private static <K> Map<K, Integer> contagens(Map<K, ListaPostagem> listas) {
+        Map<K, Integer> contagens = new TreeMap<>();
+        listas.forEach((chave, lista) -> {
+            int tamanho = lista.tamanho();
+            if (tamanho > 0) {
+                contagens.put(chave, tamanho);
+            }
+        });
+        return contagens;
+    }
+
+    private static boolean todasContem(List<Clausula> clausulas, Integer id) {
+        for (int i = 1; i < clausulas.size(); i++) {
+            if (!clausulas.get(i).contem(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // compute/computeIfPresent tornam "criar lista" e "remover lista vazia" atômicos por chave
+    private static <K> void adicionar(Map<K, ListaPostagem> listas, K chave, int id) {
+        listas.compute(chave, (c, lista) -> {
+            ListaPostagem resultado = lista != null ? lista : new ListaPostagem();
+            resultado.adicionar(id);
+            return resultado;
+        });
+    }
+
+    private static <K> void retirar(Map<K, ListaPostagem> listas, K chave, int id) {
+        listas.computeIfPresent(chave, (c, lista) -> {
+            lista.remover(id);
+            return lista.tamanho() == 0 ? null : lista;
+        });
+    }
+
+    /**
+     * Lista de postagem: IDs ordenados mais um contador de tamanho (o size() do skip list é O(n)).
+     */
+    private static final class ListaPostagem {
+        private final NavigableSet<Integer> ids = new ConcurrentSkipListSet<>();
+        private final AtomicInteger tamanho = new AtomicInteger();
+
+        void adicionar(int id) {
+            if (ids.add(id)) {
+                tamanho.incrementAndGet();
+            }
+        }
+
+        void remover(int id) {
+            if (ids.remove(id)) {
+                tamanho.decrementAndGet();
+            }
+        }
+
+        int tamanho() {
+            return tamanho.get();
+        }
+    }
+
+    /**
+     * Um critério da consulta: união de uma ou mais listas de postagem.
+     */
+    private static final class Clausula {
+        private final List<ListaPostagem> listas = new ArrayList<>();
+        private final int tamanho;
+
+        Clausula(ListaPostagem lista) {
+            if (lista != null) {
+                listas.add(lista);
+            }
+            this.tamanho = lista != null ? lista.tamanho() : 0;
+        }
+
+        Clausula(Collection<ListaPostagem> uniao) {
+            int soma = 0;
+            for (ListaPostagem lista : uniao) {
+                listas.add(lista);
+                soma += lista.tamanho();
+            }
+            this.tamanho = soma;
+        }
+
+        int tamanho() {
+            return tamanho;
+        }
+
+        boolean contem(Integer id) {
+            for (ListaPostagem lista : listas) {
+                if (lista.ids.contains(id)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        Iterator<Integer> depoisDe(int id) {
+            if (listas.size() == 1) {
+                return listas.get(0).ids.tailSet(id, false).iterator();
+            }
+            return new UniaoOrdenada(listas, id);
+        }
+    }
+
+    /**
+     * Intercala (k-way merge) várias listas ordenadas, sem repetir IDs e sem copiá-las.
+     */
+    private static final class UniaoOrdenada implements Iterator<Integer> {
+        private final PriorityQueue<Cabeca> cabecas = new PriorityQueue<>(Comparator.comparingInt(c -> c.atual));
+        private Integer ultimo;
+
+        UniaoOrdenada(List<ListaPostagem> listas, int depoisDoId) {
+            for (ListaPostagem lista : listas) {
+                Iterator<Integer> iterador = lista.ids.tailSet(depoisDoId, false).iterator();
+                if (iterador.hasNext()) {
+                    cabecas.add(new Cabeca(iterador));
+                }
+            }
+            avancarAteDiferente();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !cabecas.isEmpty();
+        }
+
+        @Override
+        public Integer next() {
+            Cabeca cabeca = cabecas.poll();
+            ultimo = cabeca.atual;
+            if (cabeca.iterador.hasNext()) {
+                cabeca.atual = cabeca.iterador.next();
+                cabecas.add(cabeca);
+            }
+            avancarAteDiferente();
+            return ultimo;
+        }
+
+        // Descarta o mesmo ID vindo de outras listas (uma troca com Pokémons de raridades diferentes)
+        private void avancarAteDiferente() {
+            while (ultimo != null && !cabecas.isEmpty() && cabecas.peek().atual <= ultimo) {
+                Cabeca cabeca = cabecas.poll();
+                if (cabeca.iterador.hasNext()) {
+                    cabeca.atual = cabeca.iterador.next();
+                    cabecas.add(cabeca);
+                }
+            }
+        }
+
+        private static final class Cabeca {
+            private final Iterator<Integer> iterador;
+            private int atual;
+
+            Cabeca(Iterator<Integer> iterador) {
+                this.iterador = iterador;
+                this.atual = iterador.next();
+            }
+        }
+    }
+
+    /**
+     * Chaves com que uma troca ativa está indexada.
+     */
+    private static final class EntradaBusca {
+        private final Set<String> especies = new HashSet<>();
+        private final Set<String> tipos = new HashSet<>();
+        private final Set<Integer> raridades = new HashSet<>();
+        private final int idJogadorOfertante;
+
+        EntradaBusca(Troca troca) {
+            this.idJogadorOfertante = troca.getIdJogadorOfertante();
+            if (troca.getPokemonsOfertados() != null) {
+                for (Pokemon pokemon : troca.getPokemonsOfertados()) {
+                    if (pokemon.getNome() != null) {
+                        especies.add(FiltroBuscaTrocas.normalizar(pokemon.getNome()));
+                    }
+                    tipos.addAll(FiltroBuscaTrocas.tiposDe(pokemon));
+                    raridades.add(pokemon.getRaridade());
+                }
+            }
+        }
+
+        // Troca sem Pokémons ofertados fica no fim do feed
+        int raridadeMaxima() {
+            int maxima = Integer.MIN_VALUE;
+            for (Integer raridade : raridades) {
+                maxima = Math.max(maxima, raridade);
+            }
+            return maxima;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof EntradaBusca)) {
+                return false;
+            }
+            EntradaBusca outra = (EntradaBusca) o;
+            return idJogadorOfertante == outra.idJogadorOfertante && especies.equals(outra.especies)
+                    && tipos.equals(outra.tipos) && raridades.equals(outra.raridades);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(especies, tipos, raridades, idJogadorOfertante);
+        }
+    }
+
+    /**
+     * Chave do feed "mais raras": raridade máxima decrescente, depois ID decrescente (mais recente).
+     */
+    private static final class ChaveRaridade implements Comparable<ChaveRaridade> {
+        private final int raridadeMaxima;
+        private final int id;
+
+        ChaveRaridade(int raridadeMaxima, int id) {
+            this.raridadeMaxima = raridadeMaxima;
+            this.id = id;
+        }
+
+        @Override
+        public int compareTo(ChaveRaridade outra) {
+            int porRaridade = Integer.compare(outra.raridadeMaxima, raridadeMaxima);
+            return porRaridade != 0 ? porRaridade : Integer.compare(outra.id, id);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof ChaveRaridade)) {
+                return false;
+            }
+            ChaveRaridade outra = (ChaveRaridade) o;
+            return raridadeMaxima == outra.raridadeMaxima && id == outra.id;
+        }
+
+        @Override
+        public int hashCode() {
+            return raridadeMaxima * 31 + id;
+        }
+    }
+}
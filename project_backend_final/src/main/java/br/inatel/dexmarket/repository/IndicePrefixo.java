@@ -0,0 +1,202 @@
+package br.inatel.dexmarket.repository;
+
+import br.inatel.dexmarket.model.FiltroBuscaTrocas;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Classe IndicePrefixo - Dicionário ordenado de nomes para busca por prefixo (typeahead).
+ *
+ * Guarda os nomes DISTINTOS, normalizados como na busca do marketplace (FiltroBuscaTrocas.normalizar:
+ * sem acentos, minúsculos), em um ConcurrentSkipListMap nome -> (nome como foi cadastrado, IDs dos
+ * Pokémons com ele). Os IDs de cada nome ficam em um int[] ordenado (sem Integer nem nós por ID, ~4 bytes
+ * por Pokémon). Todos os nomes que começam com um prefixo formam um intervalo contíguo do mapa
+ * ([prefixo, prefixo + Character.MAX_VALUE)), então a busca vai direto ao início do intervalo em O(log n)
+ * e lê os nomes em ordem, copiando IDs até ter K: o custo depende de K, nunca do tamanho do catálogo
+ * nem de quantos Pokémons têm cada nome. Um nome sem IDs sai do índice, então cada nome visitado
+ * contribui com pelo menos um ID.
+ *
+ * Mantido pelos repositórios de Pokémon sob a trava do ID: adicionar/retirar a cada escrita, com o nome
+ * anterior do Pokémon quando ele muda. IDs diferentes com o mesmo nome podem ser escritos em paralelo,
+ * por isso cada lista de IDs tem a própria trava.
+ */
+final class IndicePrefixo {
+    private final ConcurrentSkipListMap<String, Nome> nomes = new ConcurrentSkipListMap<>();
+
+    /**
+     * Inclui o ID na lista do nome. Chamado sob a trava do ID.
+     */
+    void adicionar(String nome, int id) {
+        String chave = normalizar(nome);
+        if (chave == null) {
+            return;
+        }
+        while (true) {
+            Nome atual = nomes.computeIfAbsent(chave, c -> new Nome(nome.trim()));
+            synchronized (atual) {
+                // Uma lista esvaziada por retirar() já saiu do mapa: tenta de novo com uma nova
+                if (!atual.removido) {
+                    atual.adicionar(id);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Tira o ID da lista do nome (o nome sai do índice quando ninguém mais o usa).
+     * Chamado sob a trava do ID.
+     */
+    void retirar(String nome, int id) {
+        String chave = normalizar(nome);
+        if (chave == null) {
+            return;
+        }
+        Nome atual = nomes.get(chave);
+        if (atual == null) {
+            return;
+        }
+        synchronized (atual) {
+            if (atual.retirar(id) && atual.tamanho == 0) {
+                atual.removido = true;
+                nomes.remove(chave, atual);
+            }
+        }
+    }
+
+    /**
+     * Troca o nome de um Pokémon (anterior null = Pokémon novo). Chamado sob a trava do ID.
+     */
+    void trocar(String anterior, String novo, int id) {
+        if (anterior != null && novo != null && anterior.equals(novo)) {
+            return;
+        }
+        retirar(anterior, id);
+        adicionar(novo, id);
+    }
+
+    /**
+     * @param prefixo Prefixo digitado (acentos e maiúsculas são ignorados)
+     * @param limite Quantidade máxima de nomes (1 a PokemonRepository.LIMITE_MAXIMO_PREFIXO)
+     * @return Nomes distintos que começam com o prefixo, em ordem alfabética (como foram cadastrados)
+     */
+    List<String> buscarNomes(String prefixo, int limite) {
+        validarLimite(limite);
+        List<String> encontrados = new ArrayList<>(Math.min(limite, 64));
+        for (Nome nome : intervalo(prefixo).values()) {
+            if (encontrados.size() == limite) {
+                break;
+            }
+            encontrados.add(nome.exibicao);
+        }
+        return encontrados;
+    }
+
+    /**
+     * IDs dos primeiros Pokémons do prefixo, lidos só do índice: no máximo "limite" nomes visitados
+     * e "limite" IDs copiados.
+     *
+     * @param prefixo Prefixo digitado (acentos e maiúsculas são ignorados)
+     * @param limite Quantidade máxima de IDs (1 a PokemonRepository.LIMITE_MAXIMO_PREFIXO)
+     * @return Até "limite" IDs, em ordem alfabética de nome e depois de ID
+     */
+    int[] buscarIds(String prefixo, int limite) {
+        validarLimite(limite);
+        int[] ids = new int[limite];
+        int encontrados = 0;
+        for (Nome nome : intervalo(prefixo).values()) {
+            if (encontrados == limite) {
+                break;
+            }
+            encontrados = nome.copiarPrimeiros(ids, encontrados);
+        }
+        return encontrados == limite ? ids : Arrays.copyOf(ids, encontrados);
+    }
+
+    /**
+     * @return Quantidade de nomes distintos no índice
+     */
+    int size() {
+        return nomes.size();
+    }
+
+    private static void validarLimite(int limite) {
+        if (limite < 1 || limite > PokemonRepository.LIMITE_MAXIMO_PREFIXO) {
+            throw new IllegalArgumentException("O limite da busca por prefixo deve estar entre 1 e "
+                    + PokemonRepository.LIMITE_MAXIMO_PREFIXO + ".");
+        }
+    }
+
+    private Map<String, Nome> intervalo(String prefixo) {
+        String chave = normalizar(prefixo);
+        if (chave == null) {
+            return Map.of();
+        }
+        return nomes.subMap(chave, true, chave + Character.MAX_VALUE, false);
+    }
+
+    private static String normalizar(String texto) {
+        return FiltroBuscaTrocas.normalizar(texto);
+    }
+
+    /**
+     * Um nome do índice: como foi cadastrado e os IDs dos Pokémons com ele, em ordem crescente.
+     * Acessado sob a trava do próprio objeto.
+     */
+    private static final class Nome {
+        private static final int CAPACIDADE_MINIMA = 4;
+
+        private final String exibicao;
+        private int[] ids = new int[CAPACIDADE_MINIMA];
+        private int tamanho;
+        // Lista esvaziada e já retirada do mapa: não aceita mais IDs
+        private boolean removido;
+
+        Nome(String exibicao) {
+            this.exibicao = exibicao;
+        }
+
+        void adicionar(int id) {
+            // IDs novos costumam ser os maiores: na maioria das vezes é só um append
+            int posicao = tamanho > 0 && ids[tamanho - 1] < id ? -(tamanho + 1) : Arrays.binarySearch(ids, 0, tamanho, id);
+            if (posicao >= 0) {
+                return;
+            }
+            posicao = -(posicao + 1);
+            if (tamanho == ids.length) {
+                ids = Arrays.copyOf(ids, ids.length * 2);
+            }
+            System.arraycopy(ids, posicao, ids, posicao + 1, tamanho - posicao);
+            ids[posicao] = id;
+            tamanho++;
+        }
+
+        boolean retirar(int id) {
+            int posicao = Arrays.binarySearch(ids, 0, tamanho, id);
+            if (posicao < 0) {
+                return false;
+            }
+            System.arraycopy(ids, posicao + 1, ids, posicao, tamanho - posicao - 1);
+            tamanho--;
+            if (ids.length > CAPACIDADE_MINIMA && tamanho <= ids.length / 4) {
+                ids = Arrays.copyOf(ids, ids.length / 2);
+            }
+            return true;
+        }
+
+        /**
+         * Copia os primeiros IDs para destino a partir de inicio, até encher o array.
+         *
+         * @return A nova quantidade de IDs em destino
+         */
+        synchronized int copiarPrimeiros(int[] destino, int inicio) {
+            int copiados = Math.min(tamanho, destino.length - inicio);
+            System.arraycopy(ids, 0, destino, inicio, copiados);
+            return inicio + copiados;
+        }
+    }
+}
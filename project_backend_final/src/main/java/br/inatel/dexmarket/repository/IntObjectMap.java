@@ -0,0 +1,254 @@
+package br.inatel.dexmarket.repository;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Classe IntObjectMap - Mapa int -> objeto com endereçamento aberto.
+ *
+ * Substitui HashMap&lt;Integer, V&gt; no armazenamento dos repositórios: as chaves ficam em um int[]
+ * e os valores em um Object[] paralelo, então get/put/remove não criam Integer nem nós de lista
+ * (HashMap.Node). Colisões são resolvidas por sondagem linear e a remoção usa "backward shift",
+ * dispensando marcadores de remoção.
+ *
+ * Uma posição está vazia quando o valor é null, por isso valores null não são aceitos.
+ * Não é thread-safe: o acesso concorrente passa por ConcurrentIntObjectMap (ver getOtimista).
+ *
+ * @param <V> Tipo dos valores
+ */
+final class IntObjectMap<V> {
+    private static final int CAPACIDADE_MINIMA = 8;
+    private static final float FATOR_CARGA = 0.75f;
+
+    private int[] chaves;
+    private Object[] valores;
+    private int mascara;
+    private int tamanho;
+    private int limite;
+
+    IntObjectMap() {
+        this(CAPACIDADE_MINIMA);
+    }
+
+    /**
+     * @param capacidadeEsperada Quantidade de entradas que cabem sem redimensionar
+     */
+    IntObjectMap(int capacidadeEsperada) {
+        alocar(capacidadePara(capacidadeEsperada));
+    }
+
+    V get(int chave) {
+        int[] chaves = this.chaves;
+        Object[] valores = this.valores;
+        for (int i = posicaoIdeal(chave); ; i = (i + 1) & mascara) {
+            Object valor = valores[i];
+            if (valor == null) {
+                return null;
+            }
+            if (chaves[i] == chave) {
+                return valorTipado(valor);
+            }
+        }
+    }
+
+    /**
+     * get para leitura otimista, sem trava, concorrente com uma escrita (ver ConcurrentIntObjectMap.get).
+     *
+     * Lê os arrays uma única vez e tira a máscara do próprio array, nunca do campo: mesmo que um
+     * redimensionamento troque os arrays no meio, não há índice fora dos limites, e a sondagem para
+     * depois de uma volta na tabela. O valor devolvido pode estar inconsistente e só vale se a leitura
+     * for validada depois.
+     */
+    V getOtimista(int chave) {
+        int[] chaves = this.chaves;
+        Object[] valores = this.valores;
+        // As capacidades são potências de 2: a menor das duas serve de máscara para os dois arrays
+        int capacidade = Math.min(chaves.length, valores.length);
+        int mascara = capacidade - 1;
+        for (int i = posicaoIdeal(chave, mascara), sondagens = 0; sondagens < capacidade; i = (i + 1) & mascara, sondagens++) {
+            Object valor = valores[i];
+            if (valor == null) {
+                return null;
+            }
+            if (chaves[i] == chave) {
+                return valorTipado(valor);
+            }
+        }
+        return null;
+    }
+
+    boolean containsKey(int chave) {
+        return get(chave) != null;
+    }
+
+    /**
+     * Insere ou substitui o valor da chave.
+     *
+     * @return O valor anterior, ou null se a chave não existia
+     */
+    V put(int chave, V valor) {
+        Objects.requireNonNull(valor, "IntObjectMap não aceita valores null");
+        for (int i = posicaoIdeal(chave); ; i = (i + 1) & mascara) {
+            Object atual = valores[i];
+            if (atual == null) {
+                chaves[i] = chave;
+                valores[i] = valor;
+                if (++tamanho > limite) {
+                    redimensionar(valores.length << 1);
+                }
+                return null;
+            }
+            if (chaves[i] == chave) {
+                valores[i] = valor;
+                return valorTipado(atual);
+            }
+        }
+    }
+
+    /**
+     * Substitui o valor somente se a chave já existir.
+     *
+     * @return O valor anterior, ou null se a chave não existia (nada é inserido)
+     */
+    V replace(int chave, V valor) {
+        Objects.requireNonNull(valor, "IntObjectMap não aceita valores null");
+        int i = localizar(chave);
+        if (i < 0) {
+            return null;
+        }
+        Object anterior = valores[i];
+        valores[i] = valor;
+        return valorTipado(anterior);
+    }
+
+    /**
+     * Remove a chave, reposicionando as entradas seguintes do mesmo agrupamento (backward shift).
+     *
+     * @return O valor removido, ou null se a chave não existia
+     */
+    V remove(int chave) {
+        int i = localizar(chave);
+        if (i < 0) {
+            return null;
+        }
+        Object removido = valores[i];
+        int vazio = i;
+        for (int j = (i + 1) & mascara; valores[j] != null; j = (j + 1) & mascara) {
+            int ideal = posicaoIdeal(chaves[j]);
+            // A entrada em j só pode ocupar o buraco se sua posição ideal não estiver em (vazio, j]
+            boolean idealEntreVazioEJ = vazio <= j
+                    ? (ideal > vazio && ideal <= j)
+                    : (ideal > vazio || ideal <= j);
+            if (!idealEntreVazioEJ) {
+                chaves[vazio] = chaves[j];
+                valores[vazio] = valores[j];
+                vazio = j;
+            }
+        }
+        chaves[vazio] = 0;
+        valores[vazio] = null;
+        tamanho--;
+        return valorTipado(removido);
+    }
+
+    int size() {
+        return tamanho;
+    }
+
+    boolean isEmpty() {
+        return tamanho == 0;
+    }
+
+    /**
+     * Garante espaço para mais entradas sem redimensionamentos intermediários.
+     *
+     * @param adicionais Quantidade de entradas que serão inseridas
+     */
+    void reservar(int adicionais) {
+        int necessaria = capacidadePara(tamanho + adicionais);
+        if (necessaria > valores.length) {
+            redimensionar(necessaria);
+        }
+    }
+
+    void forEachValue(Consumer<? super V> acao) {
+        for (Object valor : valores) {
+            if (valor != null) {
+                acao.accept(valorTipado(valor));
+            }
+        }
+    }
+
+    void clear() {
+        Arrays.fill(chaves, 0);
+        Arrays.fill(valores, null);
+        tamanho = 0;
+    }
+
+    /**
+     * Bytes ocupados pelos arrays internos (sem contar os objetos armazenados).
+     * Considera referências comprimidas (4 bytes) e 16 bytes de cabeçalho por array.
+     */
+    long bytesEstrutura() {
+        return 16L + 4L * chaves.length + 16L + 4L * valores.length;
+    }
+
+    // --- Internos ---
+
+    private int localizar(int chave) {
+        for (int i = posicaoIdeal(chave); ; i = (i + 1) & mascara) {
+            if (valores[i] == null) {
+                return -1;
+            }
+            if (chaves[i] == chave) {
+                return i;
+            }
+        }
+    }
+
+    private int posicaoIdeal(int chave) {
+        return posicaoIdeal(chave, mascara);
+    }
+
+    private static int posicaoIdeal(int chave, int mascara) {
+        // Multiplicação de Fibonacci espalha IDs sequenciais pela tabela
+        int h = chave * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mascara;
+    }
+
+    private void redimensionar(int novaCapacidade) {
+        int[] chavesAntigas = chaves;
+        Object[] valoresAntigos = valores;
+        alocar(novaCapacidade);
+        for (int i = 0; i < valoresAntigos.length; i++) {
+            Object valor = valoresAntigos[i];
+            if (valor != null) {
+                int j = posicaoIdeal(chavesAntigas[i]);
+                while (valores[j] != null) {
+                    j = (j + 1) & mascara;
+                }
+                chaves[j] = chavesAntigas[i];
+                valores[j] = valor;
+            }
+        }
+    }
+
+    private void alocar(int capacidade) {
+        chaves = new int[capacidade];
+        valores = new Object[capacidade];
+        mascara = capacidade - 1;
+        limite = (int) (capacidade * FATOR_CARGA);
+    }
+
+    private static int capacidadePara(int entradas) {
+        int minima = (int) Math.ceil(Math.max(entradas, 1) / FATOR_CARGA) + 1;
+        int capacidade = Integer.highestOneBit(minima - 1) << 1;
+        return Math.max(capacidade, CAPACIDADE_MINIMA);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> V valorTipado(Object valor) {
+        return (V) valor;
+    }
+}
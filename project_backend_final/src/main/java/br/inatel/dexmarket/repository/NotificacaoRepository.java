@@ -2,6 +2,7 @@ package br.inatel.dexmarket.repository;
 
 import br.inatel.dexmarket.model.Notificacao;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Interface NotificacaoRepository - Padrão Repository
@@ -16,6 +17,14 @@ public interface NotificacaoRepository {
      */
     Notificacao save(Notificacao notificacao);
 
+    /**
+     * Salva várias notificações de uma vez (faixa de IDs reservada em uma operação, cada caixa de
+     * entrada e contador de não lidas atualizado uma vez por lote).
+     *
+     * @return A mesma lista, com os IDs preenchidos
+     */
+    List<Notificacao> saveAll(List<Notificacao> notificacoes);
+
     /**
      * Busca uma notificação pelo ID.
      * 
@@ -24,6 +33,14 @@ public interface NotificacaoRepository {
      */
     Notificacao findById(int id);
 
+    List<Notificacao> findAll();
+
+    /**
+     * Stream preguiçoso de todas as notificações, em ordem de ID, sem cópia da coleção.
+     * Fracamente consistente: cada notificação reflete o estado no momento em que é visitada.
+     */
+    Stream<Notificacao> streamAll();
+
     /**
      * Lista todas as notificações de um destinatário.
      * 
@@ -32,6 +49,11 @@ public interface NotificacaoRepository {
      */
     List<Notificacao> findByIdDestinatario(int idDestinatario);
 
+    /**
+     * Stream preguiçoso da caixa de entrada do destinatário, ordenada por dataEnvio, sem cópia.
+     */
+    Stream<Notificacao> streamByIdDestinatario(int idDestinatario);
+
     /**
      * Lista todas as notificações não lidas de um destinatário.
      * 
@@ -40,6 +62,14 @@ public interface NotificacaoRepository {
      */
     List<Notificacao> findByIdDestinatarioAndNaoLidas(int idDestinatario);
 
+    /**
+     * Conta as notificações não lidas de um destinatário, sem carregar as notificações.
+     * 
+     * @param idDestinatario O ID do jogador destinatário
+     * @return Quantidade de notificações não lidas
+     */
+    int countNaoLidas(int idDestinatario);
+
     /**
      * Atualiza uma notificação existente.
      * 
@@ -48,6 +78,11 @@ public interface NotificacaoRepository {
      */
     Notificacao update(Notificacao notificacao);
 
+    /**
+     * @return As notificações que existiam e foram atualizadas
+     */
+    List<Notificacao> updateAll(List<Notificacao> notificacoes);
+
     /**
      * Deleta uma notificação pelo ID.
      * 
@@ -55,4 +90,9 @@ public interface NotificacaoRepository {
      * @return true se foi deletada, false caso contrário
      */
     boolean delete(int id);
+
+    /**
+     * @return Quantidade de notificações que existiam e foram removidas
+     */
+    int deleteAll(int[] ids);
 }
@@ -0,0 +1,131 @@
+package br.inatel.dexmarket.repository;
+
+import br.inatel.dexmarket.model.Notificacao;
+import br.inatel.dexmarket.persistence.Compactavel;
+import br.inatel.dexmarket.persistence.Journal;
+import br.inatel.dexmarket.persistence.CodecBinario;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Classe NotificacaoRepositoryDuravel - NotificacaoRepository persistido em journal.
+ *
+ * **Padrão Decorator**: mesmo esquema de TrocaRepositoryDuravel. A caixa de entrada e o contador
+ * de não lidas são reconstruídos pelo repositório em memória durante a reprodução do journal.
+ */
+public class NotificacaoRepositoryDuravel implements NotificacaoRepository, Compactavel {
+    private final NotificacaoRepository delegado;
+    private final GravadorJournal<Notificacao> gravador;
+
+    /**
+     * @param delegado Repositório em memória (vazio)
+     * @param journal Journal das notificações
+     * @throws IOException Se o journal não puder ser lido
+     */
+    public NotificacaoRepositoryDuravel(NotificacaoRepository delegado, Journal journal) throws IOException {
+        this.delegado = delegado;
+        this.gravador = new GravadorJournal<>(journal, delegado, CodecBinario::escreverNotificacao, CodecBinario::lerNotificacao);
+        int registros = gravador.reproduzir(delegado::save, delegado::delete);
+        System.out.println("Journal de notificações reproduzido: " + registros + " registros");
+    }
+
+    @Override
+    public Notificacao save(Notificacao notificacao) {
+        Notificacao salva = delegado.save(notificacao);
+        gravador.registrar(salva.getIdNotificacao(), delegado::findById);
+        return salva;
+    }
+
+    @Override
+    public List<Notificacao> saveAll(List<Notificacao> notificacoes) {
+        List<Notificacao> salvas = delegado.saveAll(notificacoes);
+        gravador.registrarTodos(ids(salvas), delegado::findById);
+        return salvas;
+    }
+
+    @Override
+    public Notificacao findById(int id) {
+        return delegado.findById(id);
+    }
+
+    @Override
+    public List<Notificacao> findAll() {
+        return delegado.findAll();
+    }
+
+    @Override
+    public Stream<Notificacao> streamAll() {
+        return delegado.streamAll();
+    }
+
+    @Override
+    public Stream<Notificacao> streamByIdDestinatario(int idDestinatario) {
+        return delegado.streamByIdDestinatario(idDestinatario);
+    }
+
+    @Override
+    public List<Notificacao> findByIdDestinatario(int idDestinatario) {
+        return delegado.findByIdDestinatario(idDestinatario);
+    }
+
+    @Override
+    public List<Notificacao> findByIdDestinatarioAndNaoLidas(int idDestinatario) {
+        return delegado.findByIdDestinatarioAndNaoLidas(idDestinatario);
+    }
+
+    @Override
+    public int countNaoLidas(int idDestinatario) {
+        return delegado.countNaoLidas(idDestinatario);
+    }
+
+    @Override
+    public Notificacao update(Notificacao notificacao) {
+        Notificacao atualizada = delegado.update(notificacao);
+        if (atualizada != null) {
+            gravador.registrar(atualizada.getIdNotificacao(), delegado::findById);
+        }
+        return atualizada;
+    }
+
+    @Override
+    public List<Notificacao> updateAll(List<Notificacao> notificacoes) {
+        List<Notificacao> atualizadas = delegado.updateAll(notificacoes);
+        gravador.registrarTodos(ids(atualizadas), delegado::findById);
+        return atualizadas;
+    }
+
+    @Override
+    public boolean delete(int id) {
+        boolean removida = delegado.delete(id);
+        if (removida) {
+            gravador.registrar(id, delegado::findById);
+        }
+        return removida;
+    }
+
+    @Override
+    public int deleteAll(int[] ids) {
+        int removidas = delegado.deleteAll(ids);
+        if (removidas > 0) {
+            // IDs que não existiam viram um registro de remoção inofensivo na reprodução
+            gravador.registrarTodos(ids, delegado::findById);
+        }
+        return removidas;
+    }
+
+    @Override
+    public long bytesNoJournal() {
+        return gravador.getJournal().getBytesNoSegmento();
+    }
+
+    @Override
+    public int compactar() throws IOException {
+        return gravador.compactar(delegado::streamAll, Notificacao::getIdNotificacao, delegado::findById);
+    }
+
+    private static int[] ids(List<Notificacao> notificacoes) {
+        return notificacoes.stream().mapToInt(Notificacao::getIdNotificacao).toArray();
+    }
+}
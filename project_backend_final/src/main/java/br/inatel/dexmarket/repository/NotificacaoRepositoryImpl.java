@@ -5,58 +5,151 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 /**
  * Classe NotificacaoRepositoryImpl - Implementação de NotificacaoRepository
- * Implementação em memória do repositório de Notificações.
+ * Implementação em memória (thread-safe) do repositório de Notificações.
+ *
+ * As notificações ficam organizadas em caixas de entrada por destinatário, ordenadas por dataEnvio,
+ * e cada destinatário tem um contador de não lidas mantido a cada save/update/delete.
+ * Assim, as consultas de um jogador nunca percorrem as notificações dos demais.
+ *
+ * Concorrência: os IDs são alocados atomicamente, as escritas em uma mesma notificação são serializadas por
+ * lock striping (TravasPorId) e as leituras não bloqueiam, percorrendo estruturas concorrentes.
+ * Armazenamento: ConcurrentIntObjectMap (chaves int primitivas, sem Integer nem nós por entrada).
  */
-public class NotificacaoRepositoryImpl implements NotificacaoRepository {
-    private Map<Integer, Notificacao> notificacaoMap = new HashMap<>();
-    private int proximoId = 1;
+public class NotificacaoRepositoryImpl implements NotificacaoRepository, TravadoPorId {
+    private final ConcurrentIntObjectMap<Notificacao> notificacaoMap = new ConcurrentIntObjectMap<>();
+    private final AtomicInteger proximoId = new AtomicInteger(1);
+    private final TravasPorId travas = new TravasPorId();
+
+    // Caixa de entrada por destinatário, ordenada por (dataEnvio, id)
+    private final Map<Integer, NavigableSet<EntradaInbox>> inboxPorDestinatario = new ConcurrentHashMap<>();
+    // Contador de notificações não lidas por destinatário
+    private final Map<Integer, Integer> naoLidasPorDestinatario = new ConcurrentHashMap<>();
+    // Entrada com que cada notificação foi indexada (a Notificacao é mutável)
+    private final ConcurrentIntObjectMap<EntradaInbox> entradasIndexadas = new ConcurrentIntObjectMap<>();
+
+    @Override
+    public TravasPorId getTravas() {
+        return travas;
+    }
 
     @Override
     public Notificacao save(Notificacao notificacao) {
-        if (notificacao.getIdNotificacao() == 0) {
-            notificacao.setIdNotificacao(proximoId++);
-        }
-        notificacaoMap.put(notificacao.getIdNotificacao(), notificacao);
-        System.out.println("Notificação salva: ID " + notificacao.getIdNotificacao() + 
-                         ", Tipo: " + notificacao.getTipo() + 
+        reservarId(notificacao);
+        salvarSobTrava(notificacao);
+        System.out.println("Notificação salva: ID " + notificacao.getIdNotificacao() +
+                         ", Tipo: " + notificacao.getTipo() +
                          ", Destinatário: " + notificacao.getIdDestinatario());
         return notificacao;
     }
 
+    @Override
+    public List<Notificacao> saveAll(List<Notificacao> notificacoes) {
+        notificacaoMap.reservar(notificacoes.size());
+        entradasIndexadas.reservar(notificacoes.size());
+        int proximo = reservarFaixa(notificacoes);
+        List<Notificacao> novas = new ArrayList<>(notificacoes.size());
+        Map<Integer, List<EntradaInbox>> novasPorDestinatario = new HashMap<>();
+        Map<Integer, Integer> naoLidasNovas = new HashMap<>();
+        for (Notificacao notificacao : notificacoes) {
+            if (notificacao.getIdNotificacao() != 0) {
+                // ID explícito: a notificação pode já existir, então segue o caminho normal (com trava)
+                reservarId(notificacao);
+                salvarSobTrava(notificacao);
+                continue;
+            }
+            notificacao.setIdNotificacao(proximo++);
+            novas.add(notificacao);
+            EntradaInbox entrada = new EntradaInbox(notificacao);
+            novasPorDestinatario.computeIfAbsent(entrada.idDestinatario, d -> new ArrayList<>()).add(entrada);
+            if (!entrada.lida) {
+                naoLidasNovas.merge(entrada.idDestinatario, 1, Integer::sum);
+            }
+            entradasIndexadas.put(entrada.idNotificacao, entrada);
+        }
+        // IDs novos ainda não são visíveis: cada caixa de entrada e cada contador recebe uma única
+        // atualização para o lote inteiro, antes de as notificações entrarem no mapa principal
+        novasPorDestinatario.forEach((idDestinatario, entradas) -> inboxPorDestinatario.compute(idDestinatario, (d, inbox) -> {
+            NavigableSet<EntradaInbox> resultado = inbox != null ? inbox : new ConcurrentSkipListSet<>();
+            resultado.addAll(entradas);
+            return resultado;
+        }));
+        naoLidasNovas.forEach((idDestinatario, quantidade) -> naoLidasPorDestinatario.merge(idDestinatario, quantidade, Integer::sum));
+        for (Notificacao notificacao : novas) {
+            notificacaoMap.put(notificacao.getIdNotificacao(), notificacao);
+        }
+        System.out.println("Notificações salvas em lote: " + notificacoes.size());
+        return notificacoes;
+    }
+
     @Override
     public Notificacao findById(int id) {
         return notificacaoMap.get(id);
     }
 
+    @Override
+    public List<Notificacao> findAll() {
+        return notificacaoMap.values();
+    }
+
+    @Override
+    public Stream<Notificacao> streamAll() {
+        return notificacaoMap.streamPorChaves(1, proximoId.get());
+    }
+
+    @Override
+    public Stream<Notificacao> streamByIdDestinatario(int idDestinatario) {
+        NavigableSet<EntradaInbox> inbox = inboxPorDestinatario.get(idDestinatario);
+        if (inbox == null) {
+            return Stream.empty();
+        }
+        return inbox.stream().map(entrada -> notificacaoMap.get(entrada.idNotificacao)).filter(Objects::nonNull);
+    }
+
     @Override
     public List<Notificacao> findByIdDestinatario(int idDestinatario) {
+        NavigableSet<EntradaInbox> inbox = inboxPorDestinatario.get(idDestinatario);
+        if (inbox == null) {
+            return new ArrayList<>();
+        }
         List<Notificacao> notificacoes = new ArrayList<>();
-        for (Notificacao notificacao : notificacaoMap.values()) {
-            if (notificacao.getIdDestinatario() == idDestinatario) {
-                notificacoes.add(notificacao);
-            }
+        for (EntradaInbox entrada : inbox) {
+            adicionarSeExistir(notificacoes, entrada);
         }
         return notificacoes;
     }
 
     @Override
     public List<Notificacao> findByIdDestinatarioAndNaoLidas(int idDestinatario) {
-        List<Notificacao> notificacoes = new ArrayList<>();
-        for (Notificacao notificacao : notificacaoMap.values()) {
-            if (notificacao.getIdDestinatario() == idDestinatario && !notificacao.isLida()) {
-                notificacoes.add(notificacao);
+        NavigableSet<EntradaInbox> inbox = inboxPorDestinatario.get(idDestinatario);
+        List<Notificacao> notificacoes = new ArrayList<>(countNaoLidas(idDestinatario));
+        if (inbox == null) {
+            return notificacoes;
+        }
+        for (EntradaInbox entrada : inbox) {
+            if (!entrada.lida) {
+                adicionarSeExistir(notificacoes, entrada);
             }
         }
         return notificacoes;
     }
 
+    @Override
+    public int countNaoLidas(int idDestinatario) {
+        return naoLidasPorDestinatario.getOrDefault(idDestinatario, 0);
+    }
+
     @Override
     public Notificacao update(Notificacao notificacao) {
-        if (notificacaoMap.containsKey(notificacao.getIdNotificacao())) {
-            notificacaoMap.put(notificacao.getIdNotificacao(), notificacao);
+        if (atualizarSobTrava(notificacao)) {
             System.out.println("Notificação atualizada: ID " + notificacao.getIdNotificacao());
             return notificacao;
         }
@@ -64,14 +157,182 @@ public class NotificacaoRepositoryImpl implements NotificacaoRepository {
         return null;
     }
 
+    @Override
+    public List<Notificacao> updateAll(List<Notificacao> notificacoes) {
+        List<Notificacao> atualizadas = new ArrayList<>(notificacoes.size());
+        for (Notificacao notificacao : notificacoes) {
+            if (atualizarSobTrava(notificacao)) {
+                atualizadas.add(notificacao);
+            }
+        }
+        System.out.println("Notificações atualizadas em lote: " + atualizadas.size() + " de " + notificacoes.size());
+        return atualizadas;
+    }
+
     @Override
     public boolean delete(int id) {
-        if (notificacaoMap.containsKey(id)) {
-            notificacaoMap.remove(id);
+        if (removerSobTrava(id)) {
             System.out.println("Notificação deletada: ID " + id);
             return true;
         }
         System.out.println("Notificação não encontrada para deleção: " + id);
         return false;
     }
+
+    @Override
+    public int deleteAll(int[] ids) {
+        int removidas = 0;
+        for (int id : ids) {
+            if (removerSobTrava(id)) {
+                removidas++;
+            }
+        }
+        System.out.println("Notificações deletadas em lote: " + removidas + " de " + ids.length);
+        return removidas;
+    }
+
+    private void salvarSobTrava(Notificacao notificacao) {
+        synchronized (travas.para(notificacao.getIdNotificacao())) {
+            notificacaoMap.put(notificacao.getIdNotificacao(), notificacao);
+            indexar(notificacao);
+        }
+    }
+
+    private boolean atualizarSobTrava(Notificacao notificacao) {
+        synchronized (travas.para(notificacao.getIdNotificacao())) {
+            if (!notificacaoMap.containsKey(notificacao.getIdNotificacao())) {
+                return false;
+            }
+            notificacaoMap.put(notificacao.getIdNotificacao(), notificacao);
+            indexar(notificacao);
+            return true;
+        }
+    }
+
+    private boolean removerSobTrava(int id) {
+        synchronized (travas.para(id)) {
+            if (notificacaoMap.remove(id) == null) {
+                return false;
+            }
+            desindexar(id);
+            return true;
+        }
+    }
+
+    /**
+     * Reserva, com uma única operação atômica, a faixa de IDs das notificações sem ID do lote. Antes, o gerador
+     * passa do maior ID explícito do lote, para que a faixa reservada nunca inclua um deles.
+     *
+     * @return Primeiro ID da faixa
+     */
+    private int reservarFaixa(List<Notificacao> notificacoes) {
+        int semId = 0;
+        int maiorExplicito = 0;
+        for (Notificacao notificacao : notificacoes) {
+            if (notificacao.getIdNotificacao() == 0) {
+                semId++;
+            } else {
+                maiorExplicito = Math.max(maiorExplicito, notificacao.getIdNotificacao());
+            }
+        }
+        if (maiorExplicito > 0) {
+            proximoId.accumulateAndGet(maiorExplicito + 1, Math::max);
+        }
+        return proximoId.getAndAdd(semId);
+    }
+
+    /**
+     * Atribui um ID novo à notificação, ou avança o gerador se a notificação já vier com ID,
+     * para que IDs gerados depois nunca colidam com ele.
+     *
+     * @param notificacao A notificação a ser salva
+     */
+    private void reservarId(Notificacao notificacao) {
+        if (notificacao.getIdNotificacao() == 0) {
+            notificacao.setIdNotificacao(proximoId.getAndIncrement());
+        } else {
+            proximoId.accumulateAndGet(notificacao.getIdNotificacao() + 1, Math::max);
+        }
+    }
+
+    // A entrada pode ter sido removida entre a leitura da inbox e a consulta ao mapa principal
+    private void adicionarSeExistir(List<Notificacao> notificacoes, EntradaInbox entrada) {
+        Notificacao notificacao = notificacaoMap.get(entrada.idNotificacao);
+        if (notificacao != null) {
+            notificacoes.add(notificacao);
+        }
+    }
+
+    // --- Manutenção das caixas de entrada (sempre sob a trava do ID) ---
+
+    /**
+     * Coloca a notificação na caixa de entrada do destinatário e ajusta o contador de não lidas.
+     *
+     * @param notificacao A notificação salva ou atualizada
+     */
+    private void indexar(Notificacao notificacao) {
+        EntradaInbox nova = new EntradaInbox(notificacao);
+        EntradaInbox anterior = entradasIndexadas.get(nova.idNotificacao);
+        if (anterior != null && anterior.igual(nova)) {
+            return;
+        }
+        desindexar(nova.idNotificacao);
+        inboxPorDestinatario.compute(nova.idDestinatario, (d, inbox) -> {
+            NavigableSet<EntradaInbox> resultado = inbox != null ? inbox : new ConcurrentSkipListSet<>();
+            resultado.add(nova);
+            return resultado;
+        });
+        if (!nova.lida) {
+            naoLidasPorDestinatario.merge(nova.idDestinatario, 1, Integer::sum);
+        }
+        entradasIndexadas.put(nova.idNotificacao, nova);
+    }
+
+    /**
+     * Retira a notificação da caixa de entrada em que ela foi indexada.
+     *
+     * @param id O ID da notificação
+     */
+    private void desindexar(int id) {
+        EntradaInbox anterior = entradasIndexadas.remove(id);
+        if (anterior == null) {
+            return;
+        }
+        // computeIfPresent torna "remover da inbox" e "descartar inbox vazia" atômicos por destinatário
+        inboxPorDestinatario.computeIfPresent(anterior.idDestinatario, (d, inbox) -> {
+            inbox.remove(anterior);
+            return inbox.isEmpty() ? null : inbox;
+        });
+        if (!anterior.lida) {
+            // Remove a chave quando o contador chega a zero
+            naoLidasPorDestinatario.computeIfPresent(anterior.idDestinatario, (d, n) -> n > 1 ? n - 1 : null);
+        }
+    }
+
+    /**
+     * Cópia imutável dos campos indexados de uma notificação, ordenada por (dataEnvio, id).
+     */
+    private static class EntradaInbox implements Comparable<EntradaInbox> {
+        private final int idNotificacao;
+        private final int idDestinatario;
+        private final long dataEnvio;
+        private final boolean lida;
+
+        EntradaInbox(Notificacao notificacao) {
+            this.idNotificacao = notificacao.getIdNotificacao();
+            this.idDestinatario = notificacao.getIdDestinatario();
+            this.dataEnvio = notificacao.getDataEnvio() != null ? notificacao.getDataEnvio().getTime() : 0L;
+            this.lida = notificacao.isLida();
+        }
+
+        boolean igual(EntradaInbox outra) {
+            return idDestinatario == outra.idDestinatario && dataEnvio == outra.dataEnvio && lida == outra.lida;
+        }
+
+        @Override
+        public int compareTo(EntradaInbox outra) {
+            int porData = Long.compare(dataEnvio, outra.dataEnvio);
+            return porData != 0 ? porData : Integer.compare(idNotificacao, outra.idNotificacao);
+        }
+    }
 }
@@ -2,6 +2,7 @@ package br.inatel.dexmarket.repository;
 
 import br.inatel.dexmarket.model.Pokemon;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Interface PokemonRepository - Padrão Repository
@@ -11,6 +12,11 @@ import java.util.List;
  * permitindo trocar a implementação sem afetar o código de negócio.
  */
 public interface PokemonRepository {
+    /**
+     * Maior limite aceito pela busca por prefixo (mesmo teto das páginas de trocas).
+     */
+    int LIMITE_MAXIMO_PREFIXO = 100;
+
     /**
      * Salva um Pokémon no repositório.
      * 
@@ -19,6 +25,14 @@ public interface PokemonRepository {
      */
     Pokemon save(Pokemon pokemon);
 
+    /**
+     * Salva vários pokémons de uma vez (faixa de IDs reservada em uma operação, armazenamento
+     * dimensionado uma vez).
+     *
+     * @return A mesma lista, com os IDs preenchidos
+     */
+    List<Pokemon> saveAll(List<Pokemon> pokemons);
+
     /**
      * Busca um Pokémon pelo ID.
      * 
@@ -34,6 +48,12 @@ public interface PokemonRepository {
      */
     List<Pokemon> findAll();
 
+    /**
+     * Stream preguiçoso de todos os pokémons, em ordem de ID, sem cópia da coleção.
+     * Fracamente consistente: cada pokémon reflete o estado no momento em que é visitado.
+     */
+    Stream<Pokemon> streamAll();
+
     /**
      * Lista todos os Pokémons de um jogador.
      * 
@@ -42,6 +62,31 @@ public interface PokemonRepository {
      */
     List<Pokemon> findByIdJogador(int idJogador);
 
+    Stream<Pokemon> streamByIdJogador(int idJogador);
+
+    /**
+     * Sugestões de nome por prefixo (typeahead), sem diferenciar acentos nem maiúsculas.
+     * Lê só o índice ordenado de nomes distintos, sem percorrer o catálogo.
+     *
+     * @param prefixo O início do nome digitado
+     * @param limite Quantidade máxima de nomes (1 a LIMITE_MAXIMO_PREFIXO)
+     * @return Até "limite" nomes distintos, em ordem alfabética
+     * @throws IllegalArgumentException Se o limite estiver fora do intervalo permitido
+     */
+    List<String> sugerirNomes(String prefixo, int limite);
+
+    /**
+     * Pokémons cujo nome começa com o prefixo, sem diferenciar acentos nem maiúsculas.
+     * O índice de nomes guarda os IDs de cada nome: a busca lê no máximo "limite" IDs dele e só esses
+     * Pokémons são lidos do catálogo, qualquer que seja o tamanho do catálogo.
+     *
+     * @param prefixo O início do nome digitado
+     * @param limite Quantidade máxima de resultados (1 a LIMITE_MAXIMO_PREFIXO)
+     * @return Até "limite" Pokémons, em ordem alfabética de nome e depois de ID
+     * @throws IllegalArgumentException Se o limite estiver fora do intervalo permitido
+     */
+    List<Pokemon> buscarPorPrefixo(String prefixo, int limite);
+
     /**
      * Atualiza um Pokémon existente.
      * 
@@ -50,6 +95,11 @@ public interface PokemonRepository {
      */
     Pokemon update(Pokemon pokemon);
 
+    /**
+     * @return Os pokémons que existiam e foram atualizados
+     */
+    List<Pokemon> updateAll(List<Pokemon> pokemons);
+
     /**
      * Deleta um Pokémon pelo ID.
      * 
@@ -57,4 +107,9 @@ public interface PokemonRepository {
      * @return true se foi deletado, false caso contrário
      */
     boolean delete(int id);
+
+    /**
+     * @return Quantidade de pokémons que existiam e foram removidos
+     */
+    int deleteAll(int[] ids);
 }
@@ -0,0 +1,422 @@
+package br.inatel.dexmarket.repository;
+
+import br.inatel.dexmarket.model.Pokemon;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Classe PokemonRepositoryColunar - Implementação alternativa de PokemonRepository para catálogos grandes.
+ *
+ * Armazenamento em colunas (structure of arrays) fora do heap: em vez de um objeto Pokemon por criatura
+ * (cabeçalho + 3 referências para Strings, muitas delas repetidas), cada atributo fica em uma coluna
+ * de um ByteBuffer direto, indexada pelo próprio ID:
+ *   - raridade e dono: colunas int;
+ *   - nome, tipo e urlImagem: colunas int com o código do valor em um dicionário (cada String
+ *     distinta é guardada uma única vez no heap; 0 representa null);
+ *   - ocupado: coluna byte que indica se o ID existe.
+ * O ID não é armazenado (é a posição), então cada Pokémon ocupa 21 bytes fora do heap.
+ *
+ * Objetos Pokemon só são materializados sob demanda (findById, streams, listas), sempre como CÓPIAS:
+ * alterar o objeto retornado não muda o repositório até update() ser chamado. Consultas como
+ * findByIdJogador percorrem só a coluna do dono e materializam apenas os Pokémons encontrados.
+ *
+ * Os IDs são alocados em ordem crescente (como em PokemonRepositoryImpl), então as colunas são densas;
+ * um ID explícito muito alto faz as colunas crescerem até ele. Os dicionários não encolhem quando
+ * Pokémons são removidos (o número de espécies distintas é pequeno). O índice de nomes da busca por
+ * prefixo (IndicePrefixo) fica no heap, com uma entrada por nome distinto e um int por Pokémon.
+ *
+ * Concorrência: uma ReentrantReadWriteLock (leituras em paralelo, escritas exclusivas), já que o
+ * crescimento das colunas troca todos os buffers de uma vez.
+ */
+public class PokemonRepositoryColunar implements PokemonRepository {
+    private static final int CAPACIDADE_INICIAL = 1024;
+    // Maior quantidade de posições que cabe em uma coluna int de um ByteBuffer
+    private static final int CAPACIDADE_MAXIMA = Integer.MAX_VALUE / Integer.BYTES;
+
+    private final ReentrantReadWriteLock trava = new ReentrantReadWriteLock();
+    private final AtomicInteger proximoId = new AtomicInteger(1);
+
+    private final Dicionario nomes = new Dicionario();
+    private final Dicionario tipos = new Dicionario();
+    private final Dicionario urlsImagem = new Dicionario();
+    // Índice de nomes para a busca por prefixo (alterado só sob a trava de escrita)
+    private final IndicePrefixo indiceNomes = new IndicePrefixo();
+
+    private int capacidade;
+    private int quantidade;
+    private ByteBuffer ocupado;
+    private IntBuffer raridade;
+    private IntBuffer dono;
+    private IntBuffer codigoNome;
+    private IntBuffer codigoTipo;
+    private IntBuffer codigoUrlImagem;
+
+    public PokemonRepositoryColunar() {
+        alocarColunas(CAPACIDADE_INICIAL);
+    }
+
+    @Override
+    public Pokemon save(Pokemon pokemon) {
+        reservarId(pokemon);
+        trava.writeLock().lock();
+        try {
+            gravar(pokemon);
+        } finally {
+            trava.writeLock().unlock();
+        }
+        System.out.println("Pokémon salvo: " + pokemon.getNome() + " (ID: " + pokemon.getIdPokemon() + ")");
+        return pokemon;
+    }
+
+    @Override
+    public List<Pokemon> saveAll(List<Pokemon> pokemons) {
+        int proximo = reservarFaixa(pokemons);
+        for (Pokemon pokemon : pokemons) {
+            if (pokemon.getIdPokemon() == 0) {
+                pokemon.setIdPokemon(proximo++);
+            } else {
+                proximoId.accumulateAndGet(pokemon.getIdPokemon() + 1, Math::max);
+            }
+        }
+        trava.writeLock().lock();
+        try {
+            for (Pokemon pokemon : pokemons) {
+                gravar(pokemon);
+            }
+        } finally {
+            trava.writeLock().unlock();
+        }
+        System.out.println("Pokémons salvos em lote: " + pokemons.size());
+        return pokemons;
+    }
+
+    @Override
+    public Pokemon findById(int id) {
+        trava.readLock().lock();
+        try {
+            return materializar(id);
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Pokemon> findAll() {
+        trava.readLock().lock();
+        try {
+            List<Pokemon> pokemons = new ArrayList<>(quantidade);
+            for (int id = 1; id < capacidade; id++) {
+                Pokemon pokemon = materializar(id);
+                if (pokemon != null) {
+                    pokemons.add(pokemon);
+                }
+            }
+            return pokemons;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Stream<Pokemon> streamAll() {
+        // Cada elemento é materializado (sob a trava de leitura) só quando o stream chega nele
+        return IntStream.range(1, proximoId.get())
+                .mapToObj(this::findById)
+                .filter(Objects::nonNull);
+    }
+
+    @Override
+    public List<Pokemon> findByIdJogador(int idJogador) {
+        trava.readLock().lock();
+        try {
+            List<Pokemon> pokemons = new ArrayList<>();
+            for (int id = 1; id < capacidade; id++) {
+                // Percorre só as colunas ocupado/dono; o Pokémon só é montado se for do jogador
+                if (dono.get(id) == idJogador && ocupado.get(id) != 0) {
+                    pokemons.add(materializar(id));
+                }
+            }
+            return pokemons;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Stream<Pokemon> streamByIdJogador(int idJogador) {
+        return streamAll().filter(pokemon -> pokemon.getIdJogadorDono() == idJogador);
+    }
+
+    @Override
+    public List<String> sugerirNomes(String prefixo, int limite) {
+        return indiceNomes.buscarNomes(prefixo, limite);
+    }
+
+    @Override
+    public List<Pokemon> buscarPorPrefixo(String prefixo, int limite) {
+        trava.readLock().lock();
+        try {
+            // Sob a trava de leitura o índice não muda: materializa exatamente os IDs que ele devolve
+            int[] ids = indiceNomes.buscarIds(prefixo, limite);
+            List<Pokemon> encontrados = new ArrayList<>(ids.length);
+            for (int id : ids) {
+                encontrados.add(materializar(id));
+            }
+            return encontrados;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Pokemon update(Pokemon pokemon) {
+        if (atualizar(pokemon)) {
+            System.out.println("Pokémon atualizado: " + pokemon.getNome());
+            return pokemon;
+        }
+        System.out.println("Pokémon não encontrado para atualização: " + pokemon.getIdPokemon());
+        return null;
+    }
+
+    @Override
+    public List<Pokemon> updateAll(List<Pokemon> pokemons) {
+        List<Pokemon> atualizados = new ArrayList<>(pokemons.size());
+        for (Pokemon pokemon : pokemons) {
+            if (atualizar(pokemon)) {
+                atualizados.add(pokemon);
+            }
+        }
+        System.out.println("Pokémons atualizados em lote: " + atualizados.size() + " de " + pokemons.size());
+        return atualizados;
+    }
+
+    @Override
+    public boolean delete(int id) {
+        if (remover(id)) {
+            System.out.println("Pokémon deletado: ID " + id);
+            return true;
+        }
+        System.out.println("Pokémon não encontrado para deleção: " + id);
+        return false;
+    }
+
+    @Override
+    public int deleteAll(int[] ids) {
+        int removidos = 0;
+        for (int id : ids) {
+            if (remover(id)) {
+                removidos++;
+            }
+        }
+        System.out.println("Pokémons deletados em lote: " + removidos + " de " + ids.length);
+        return removidos;
+    }
+
+    /**
+     * @return Quantidade de Pokémons armazenados
+     */
+    public int size() {
+        trava.readLock().lock();
+        try {
+            return quantidade;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Bytes alocados fora do heap pelas colunas (inclui a capacidade ainda não usada)
+     */
+    public long bytesForaDoHeap() {
+        trava.readLock().lock();
+        try {
+            return (long) capacidade * (1 + 5 * Integer.BYTES);
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Quantidade de valores distintos de nome, tipo e urlImagem guardados nos dicionários
+     */
+    public int valoresNosDicionarios() {
+        trava.readLock().lock();
+        try {
+            return nomes.size() + tipos.size() + urlsImagem.size();
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reserva, com uma única operação atômica, a faixa de IDs dos pokémons sem ID do lote. Antes, o gerador
+     * passa do maior ID explícito do lote, para que a faixa reservada nunca inclua um deles.
+     *
+     * @return Primeiro ID da faixa
+     */
+    private int reservarFaixa(List<Pokemon> pokemons) {
+        int semId = 0;
+        int maiorExplicito = 0;
+        for (Pokemon pokemon : pokemons) {
+            if (pokemon.getIdPokemon() == 0) {
+                semId++;
+            } else {
+                maiorExplicito = Math.max(maiorExplicito, pokemon.getIdPokemon());
+            }
+        }
+        if (maiorExplicito > 0) {
+            proximoId.accumulateAndGet(maiorExplicito + 1, Math::max);
+        }
+        return proximoId.getAndAdd(semId);
+    }
+
+    private void reservarId(Pokemon pokemon) {
+        if (pokemon.getIdPokemon() == 0) {
+            pokemon.setIdPokemon(proximoId.getAndIncrement());
+        } else {
+            // Avança o gerador para que IDs gerados depois nunca colidam com um ID explícito
+            proximoId.accumulateAndGet(pokemon.getIdPokemon() + 1, Math::max);
+        }
+    }
+
+    private boolean atualizar(Pokemon pokemon) {
+        trava.writeLock().lock();
+        try {
+            int id = pokemon.getIdPokemon();
+            if (!existe(id)) {
+                return false;
+            }
+            gravar(pokemon);
+            return true;
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    private boolean remover(int id) {
+        trava.writeLock().lock();
+        try {
+            if (!existe(id)) {
+                return false;
+            }
+            ocupado.put(id, (byte) 0);
+            quantidade--;
+            indiceNomes.retirar(nomes.valor(codigoNome.get(id)), id);
+            return true;
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    // Chamado com a trava de escrita
+    private void gravar(Pokemon pokemon) {
+        int id = pokemon.getIdPokemon();
+        if (id <= 0 || id >= CAPACIDADE_MAXIMA) {
+            throw new IllegalArgumentException("ID de Pokémon fora do intervalo suportado: " + id);
+        }
+        if (id >= capacidade) {
+            crescer(id + 1);
+        }
+        String nomeAnterior = null;
+        if (ocupado.get(id) == 0) {
+            ocupado.put(id, (byte) 1);
+            quantidade++;
+        } else {
+            nomeAnterior = nomes.valor(codigoNome.get(id));
+        }
+        raridade.put(id, pokemon.getRaridade());
+        dono.put(id, pokemon.getIdJogadorDono());
+        codigoNome.put(id, nomes.codigo(pokemon.getNome()));
+        codigoTipo.put(id, tipos.codigo(pokemon.getTipo()));
+        codigoUrlImagem.put(id, urlsImagem.codigo(pokemon.getUrlImagem()));
+        indiceNomes.trocar(nomeAnterior, pokemon.getNome(), id);
+    }
+
+    // Chamado com a trava de leitura ou de escrita
+    private Pokemon materializar(int id) {
+        if (!existe(id)) {
+            return null;
+        }
+        return new Pokemon(id, nomes.valor(codigoNome.get(id)), tipos.valor(codigoTipo.get(id)),
+                urlsImagem.valor(codigoUrlImagem.get(id)), raridade.get(id), dono.get(id));
+    }
+
+    private boolean existe(int id) {
+        return id > 0 && id < capacidade && ocupado.get(id) != 0;
+    }
+
+    private void crescer(int minimo) {
+        int novaCapacidade = capacidade;
+        while (novaCapacidade < minimo) {
+            novaCapacidade = (int) Math.min((long) novaCapacidade * 2, CAPACIDADE_MAXIMA);
+        }
+        ByteBuffer ocupadoAntigo = ocupado;
+        IntBuffer raridadeAntiga = raridade;
+        IntBuffer donoAntigo = dono;
+        IntBuffer nomeAntigo = codigoNome;
+        IntBuffer tipoAntigo = codigoTipo;
+        IntBuffer urlImagemAntiga = codigoUrlImagem;
+        alocarColunas(novaCapacidade);
+        ocupado.put(ocupadoAntigo.duplicate().clear()).clear();
+        copiar(raridadeAntiga, raridade);
+        copiar(donoAntigo, dono);
+        copiar(nomeAntigo, codigoNome);
+        copiar(tipoAntigo, codigoTipo);
+        copiar(urlImagemAntiga, codigoUrlImagem);
+    }
+
+    private void alocarColunas(int novaCapacidade) {
+        capacidade = novaCapacidade;
+        ocupado = ByteBuffer.allocateDirect(novaCapacidade);
+        raridade = colunaInt(novaCapacidade);
+        dono = colunaInt(novaCapacidade);
+        codigoNome = colunaInt(novaCapacidade);
+        codigoTipo = colunaInt(novaCapacidade);
+        codigoUrlImagem = colunaInt(novaCapacidade);
+    }
+
+    private static IntBuffer colunaInt(int capacidade) {
+        return ByteBuffer.allocateDirect(capacidade * Integer.BYTES).order(ByteOrder.nativeOrder()).asIntBuffer();
+    }
+
+    private static void copiar(IntBuffer origem, IntBuffer destino) {
+        destino.put(origem.duplicate().clear()).clear();
+    }
+
+    /**
+     * Dicionário de Strings: cada valor distinto recebe um código int (a partir de 1; 0 é null).
+     * Acessado apenas sob a trava do repositório.
+     */
+    private static final class Dicionario {
+        private final Map<String, Integer> codigos = new HashMap<>();
+        private final List<String> valores = new ArrayList<>();
+
+        int codigo(String valor) {
+            if (valor == null) {
+                return 0;
+            }
+            return codigos.computeIfAbsent(valor, v -> {
+                valores.add(v);
+                return valores.size();
+            });
+        }
+
+        String valor(int codigo) {
+            return codigo == 0 ? null : valores.get(codigo - 1);
+        }
+
+        int size() {
+            return valores.size();
+        }
+    }
+}
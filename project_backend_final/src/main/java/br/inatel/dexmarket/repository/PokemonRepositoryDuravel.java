@@ -0,0 +1,130 @@
+package br.inatel.dexmarket.repository;
+
+import br.inatel.dexmarket.model.Pokemon;
+import br.inatel.dexmarket.persistence.Compactavel;
+import br.inatel.dexmarket.persistence.Journal;
+import br.inatel.dexmarket.persistence.CodecBinario;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Classe PokemonRepositoryDuravel - PokemonRepository persistido em journal.
+ *
+ * **Padrão Decorator**: mesmo esquema de TrocaRepositoryDuravel.
+ */
+public class PokemonRepositoryDuravel implements PokemonRepository, Compactavel {
+    private final PokemonRepository delegado;
+    private final GravadorJournal<Pokemon> gravador;
+
+    /**
+     * @param delegado Repositório em memória (vazio)
+     * @param journal Journal dos pokémons
+     * @throws IOException Se o journal não puder ser lido
+     */
+    public PokemonRepositoryDuravel(PokemonRepository delegado, Journal journal) throws IOException {
+        this.delegado = delegado;
+        this.gravador = new GravadorJournal<>(journal, delegado, CodecBinario::escreverPokemon, CodecBinario::lerPokemon);
+        int registros = gravador.reproduzir(delegado::save, delegado::delete);
+        System.out.println("Journal de pokémons reproduzido: " + registros + " registros");
+    }
+
+    @Override
+    public Pokemon save(Pokemon pokemon) {
+        Pokemon salvo = delegado.save(pokemon);
+        gravador.registrar(salvo.getIdPokemon(), delegado::findById);
+        return salvo;
+    }
+
+    @Override
+    public List<Pokemon> saveAll(List<Pokemon> pokemons) {
+        List<Pokemon> salvos = delegado.saveAll(pokemons);
+        gravador.registrarTodos(ids(salvos), delegado::findById);
+        return salvos;
+    }
+
+    @Override
+    public Pokemon findById(int id) {
+        return delegado.findById(id);
+    }
+
+    @Override
+    public List<Pokemon> findAll() {
+        return delegado.findAll();
+    }
+
+    @Override
+    public Stream<Pokemon> streamAll() {
+        return delegado.streamAll();
+    }
+
+    @Override
+    public List<Pokemon> findByIdJogador(int idJogador) {
+        return delegado.findByIdJogador(idJogador);
+    }
+
+    @Override
+    public Stream<Pokemon> streamByIdJogador(int idJogador) {
+        return delegado.streamByIdJogador(idJogador);
+    }
+
+    @Override
+    public List<String> sugerirNomes(String prefixo, int limite) {
+        return delegado.sugerirNomes(prefixo, limite);
+    }
+
+    @Override
+    public List<Pokemon> buscarPorPrefixo(String prefixo, int limite) {
+        return delegado.buscarPorPrefixo(prefixo, limite);
+    }
+
+    @Override
+    public Pokemon update(Pokemon pokemon) {
+        Pokemon atualizado = delegado.update(pokemon);
+        if (atualizado != null) {
+            gravador.registrar(atualizado.getIdPokemon(), delegado::findById);
+        }
+        return atualizado;
+    }
+
+    @Override
+    public List<Pokemon> updateAll(List<Pokemon> pokemons) {
+        List<Pokemon> atualizados = delegado.updateAll(pokemons);
+        gravador.registrarTodos(ids(atualizados), delegado::findById);
+        return atualizados;
+    }
+
+    @Override
+    public boolean delete(int id) {
+        boolean removido = delegado.delete(id);
+        if (removido) {
+            gravador.registrar(id, delegado::findById);
+        }
+        return removido;
+    }
+
+    @Override
+    public int deleteAll(int[] ids) {
+        int removidos = delegado.deleteAll(ids);
+        if (removidos > 0) {
+            // IDs que não existiam viram um registro de remoção inofensivo na reprodução
+            gravador.registrarTodos(ids, delegado::findById);
+        }
+        return removidos;
+    }
+
+    @Override
+    public long bytesNoJournal() {
+        return gravador.getJournal().getBytesNoSegmento();
+    }
+
+    @Override
+    public int compactar() throws IOException {
+        return gravador.compactar(delegado::streamAll, Pokemon::getIdPokemon, delegado::findById);
+    }
+
+    private static int[] ids(List<Pokemon> pokemons) {
+        return pokemons.stream().mapToInt(Pokemon::getIdPokemon).toArray();
+    }
+}
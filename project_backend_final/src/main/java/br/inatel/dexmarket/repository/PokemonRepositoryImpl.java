@@ -2,31 +2,64 @@ package br.inatel.dexmarket.repository;
 
 import br.inatel.dexmarket.model.Pokemon;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 /**
  * Classe PokemonRepositoryImpl - Implementação de PokemonRepository
- * Implementação em memória do repositório de Pokémons.
+ * Implementação em memória (thread-safe) do repositório de Pokémons.
  * 
  * Nota: Esta é uma implementação simples para fins acadêmicos.
  * Em produção, seria substituída por uma implementação com banco de dados real.
+ *
+ * Armazenamento: ConcurrentIntObjectMap (chaves int primitivas, sem Integer nem nós por entrada).
+ * Concorrência: as escritas em um mesmo Pokémon são serializadas por lock striping (TravasPorId),
+ * mantendo o mapa e o índice de nomes consistentes entre si; as leituras não bloqueiam.
  */
-public class PokemonRepositoryImpl implements PokemonRepository {
-    private Map<Integer, Pokemon> pokemonMap = new HashMap<>();
-    private int proximoId = 1;
+public class PokemonRepositoryImpl implements PokemonRepository, TravadoPorId {
+    private final ConcurrentIntObjectMap<Pokemon> pokemonMap = new ConcurrentIntObjectMap<>();
+    private final AtomicInteger proximoId = new AtomicInteger(1);
+    private final TravasPorId travas = new TravasPorId();
+    // Índice secundário: nomes distintos e seus IDs, para a busca por prefixo
+    private final IndicePrefixo indiceNomes = new IndicePrefixo();
+    // Nome com que cada ID foi contado no índice (o Pokemon é mutável); a String é a da espécie compartilhada
+    private final ConcurrentIntObjectMap<String> nomesIndexados = new ConcurrentIntObjectMap<>();
+
+    @Override
+    public TravasPorId getTravas() {
+        return travas;
+    }
 
     @Override
     public Pokemon save(Pokemon pokemon) {
         if (pokemon.getIdPokemon() == 0) {
-            pokemon.setIdPokemon(proximoId++);
+            pokemon.setIdPokemon(proximoId.getAndIncrement());
+        } else {
+            // Avança o gerador para que IDs gerados depois nunca colidam com um ID explícito
+            proximoId.accumulateAndGet(pokemon.getIdPokemon() + 1, Math::max);
         }
-        pokemonMap.put(pokemon.getIdPokemon(), pokemon);
+        salvarSobTrava(pokemon);
         System.out.println("Pokémon salvo: " + pokemon.getNome() + " (ID: " + pokemon.getIdPokemon() + ")");
         return pokemon;
     }
 
+    @Override
+    public List<Pokemon> saveAll(List<Pokemon> pokemons) {
+        pokemonMap.reservar(pokemons.size());
+        int proximo = reservarFaixa(pokemons);
+        for (Pokemon pokemon : pokemons) {
+            if (pokemon.getIdPokemon() == 0) {
+                pokemon.setIdPokemon(proximo++);
+            } else {
+                proximoId.accumulateAndGet(pokemon.getIdPokemon() + 1, Math::max);
+            }
+            salvarSobTrava(pokemon);
+        }
+        System.out.println("Pokémons salvos em lote: " + pokemons.size());
+        return pokemons;
+    }
+
     @Override
     public Pokemon findById(int id) {
         return pokemonMap.get(id);
@@ -34,24 +67,54 @@ public class PokemonRepositoryImpl implements PokemonRepository {
 
     @Override
     public List<Pokemon> findAll() {
-        return new ArrayList<>(pokemonMap.values());
+        return pokemonMap.values();
+    }
+
+    @Override
+    public Stream<Pokemon> streamAll() {
+        return pokemonMap.streamPorChaves(1, proximoId.get());
     }
 
     @Override
     public List<Pokemon> findByIdJogador(int idJogador) {
         List<Pokemon> pokemons = new ArrayList<>();
-        for (Pokemon pokemon : pokemonMap.values()) {
+        pokemonMap.forEachValue(pokemon -> {
             if (pokemon.getIdJogadorDono() == idJogador) {
                 pokemons.add(pokemon);
             }
-        }
+        });
         return pokemons;
     }
 
+    @Override
+    public Stream<Pokemon> streamByIdJogador(int idJogador) {
+        // Sem índice por dono: filtra o stream de todos, ainda sem materializar a coleção
+        return streamAll().filter(pokemon -> pokemon.getIdJogadorDono() == idJogador);
+    }
+
+    @Override
+    public List<String> sugerirNomes(String prefixo, int limite) {
+        return indiceNomes.buscarNomes(prefixo, limite);
+    }
+
+    @Override
+    public List<Pokemon> buscarPorPrefixo(String prefixo, int limite) {
+        // O índice já devolve os IDs na ordem da resposta: só esses "limite" Pokémons são lidos do mapa
+        int[] ids = indiceNomes.buscarIds(prefixo, limite);
+        List<Pokemon> encontrados = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            Pokemon pokemon = pokemonMap.get(id);
+            // null só se o Pokémon foi removido entre a leitura do índice e a do mapa
+            if (pokemon != null) {
+                encontrados.add(pokemon);
+            }
+        }
+        return encontrados;
+    }
+
     @Override
     public Pokemon update(Pokemon pokemon) {
-        if (pokemonMap.containsKey(pokemon.getIdPokemon())) {
-            pokemonMap.put(pokemon.getIdPokemon(), pokemon);
+        if (atualizarSobTrava(pokemon)) {
             System.out.println("Pokémon atualizado: " + pokemon.getNome());
             return pokemon;
         }
@@ -59,14 +122,95 @@ public class PokemonRepositoryImpl implements PokemonRepository {
         return null;
     }
 
+    @Override
+    public List<Pokemon> updateAll(List<Pokemon> pokemons) {
+        List<Pokemon> atualizados = new ArrayList<>(pokemons.size());
+        for (Pokemon pokemon : pokemons) {
+            if (atualizarSobTrava(pokemon)) {
+                atualizados.add(pokemon);
+            }
+        }
+        System.out.println("Pokémons atualizados em lote: " + atualizados.size() + " de " + pokemons.size());
+        return atualizados;
+    }
+
     @Override
     public boolean delete(int id) {
-        if (pokemonMap.containsKey(id)) {
-            pokemonMap.remove(id);
+        if (removerSobTrava(id)) {
             System.out.println("Pokémon deletado: ID " + id);
             return true;
         }
         System.out.println("Pokémon não encontrado para deleção: " + id);
         return false;
     }
+
+    @Override
+    public int deleteAll(int[] ids) {
+        int removidos = 0;
+        for (int id : ids) {
+            if (removerSobTrava(id)) {
+                removidos++;
+            }
+        }
+        System.out.println("Pokémons deletados em lote: " + removidos + " de " + ids.length);
+        return removidos;
+    }
+
+    /**
+     * Reserva, com uma única operação atômica, a faixa de IDs dos pokémons sem ID do lote. Antes, o gerador
+     * passa do maior ID explícito do lote, para que a faixa reservada nunca inclua um deles.
+     *
+     * @return Primeiro ID da faixa
+     */
+    private int reservarFaixa(List<Pokemon> pokemons) {
+        int semId = 0;
+        int maiorExplicito = 0;
+        for (Pokemon pokemon : pokemons) {
+            if (pokemon.getIdPokemon() == 0) {
+                semId++;
+            } else {
+                maiorExplicito = Math.max(maiorExplicito, pokemon.getIdPokemon());
+            }
+        }
+        if (maiorExplicito > 0) {
+            proximoId.accumulateAndGet(maiorExplicito + 1, Math::max);
+        }
+        return proximoId.getAndAdd(semId);
+    }
+
+    private void salvarSobTrava(Pokemon pokemon) {
+        synchronized (travas.para(pokemon.getIdPokemon())) {
+            pokemonMap.put(pokemon.getIdPokemon(), pokemon);
+            indexar(pokemon);
+        }
+    }
+
+    private boolean atualizarSobTrava(Pokemon pokemon) {
+        synchronized (travas.para(pokemon.getIdPokemon())) {
+            if (pokemonMap.replace(pokemon.getIdPokemon(), pokemon) == null) {
+                return false;
+            }
+            indexar(pokemon);
+            return true;
+        }
+    }
+
+    private boolean removerSobTrava(int id) {
+        synchronized (travas.para(id)) {
+            if (pokemonMap.remove(id) == null) {
+                return false;
+            }
+            indiceNomes.retirar(nomesIndexados.remove(id), id);
+            return true;
+        }
+    }
+
+    // Chamado sob a trava do ID
+    private void indexar(Pokemon pokemon) {
+        String nome = pokemon.getNome();
+        String anterior = nome != null
+                ? nomesIndexados.put(pokemon.getIdPokemon(), nome)
+                : nomesIndexados.remove(pokemon.getIdPokemon());
+        indiceNomes.trocar(anterior, nome, pokemon.getIdPokemon());
+    }
 }
@@ -2,6 +2,7 @@ package br.inatel.dexmarket.repository;
 
 import br.inatel.dexmarket.model.Proposta;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Interface PropostaRepository - Padrão Repository
@@ -16,6 +17,14 @@ public interface PropostaRepository {
      */
     Proposta save(Proposta proposta);
 
+    /**
+     * Salva várias propostas de uma vez (faixa de IDs reservada em uma operação, índices atualizados
+     * uma vez por bucket).
+     *
+     * @return A mesma lista, com os IDs preenchidos
+     */
+    List<Proposta> saveAll(List<Proposta> propostas);
+
     /**
      * Busca uma proposta pelo ID.
      * 
@@ -24,6 +33,14 @@ public interface PropostaRepository {
      */
     Proposta findById(int id);
 
+    List<Proposta> findAll();
+
+    /**
+     * Stream preguiçoso de todas as propostas, em ordem de ID, sem cópia da coleção.
+     * Fracamente consistente: cada proposta reflete o estado no momento em que é visitada.
+     */
+    Stream<Proposta> streamAll();
+
     /**
      * Lista todas as propostas de uma troca.
      * 
@@ -32,6 +49,11 @@ public interface PropostaRepository {
      */
     List<Proposta> findByIdTroca(int idTroca);
 
+    /**
+     * Stream preguiçoso das propostas de uma troca, em ordem de criação, sem cópia.
+     */
+    Stream<Proposta> streamByIdTroca(int idTroca);
+
     /**
      * Lista todas as propostas de um proponente.
      * 
@@ -56,6 +78,22 @@ public interface PropostaRepository {
      */
     Proposta update(Proposta proposta);
 
+    /**
+     * @return As propostas que existiam e foram atualizadas
+     */
+    List<Proposta> updateAll(List<Proposta> propostas);
+
+    /**
+     * Altera o status de uma proposta somente se o status atual for o esperado (compare-and-set).
+     * A verificação e a alteração são atômicas em relação a outras escritas na mesma proposta.
+     *
+     * @param idProposta O ID da proposta
+     * @param statusEsperado O status que a proposta deve ter para a transição acontecer
+     * @param novoStatus O novo status
+     * @return true se a transição foi aplicada, false se a proposta não existe ou já estava em outro status
+     */
+    boolean compareAndSetStatus(int idProposta, String statusEsperado, String novoStatus);
+
     /**
      * Deleta uma proposta pelo ID.
      * 
@@ -63,4 +101,9 @@ public interface PropostaRepository {
      * @return true se foi deletada, false caso contrário
      */
     boolean delete(int id);
+
+    /**
+     * @return Quantidade de propostas que existiam e foram removidas
+     */
+    int deleteAll(int[] ids);
 }
@@ -0,0 +1,140 @@
+package br.inatel.dexmarket.repository;
+
+import br.inatel.dexmarket.model.Proposta;
+import br.inatel.dexmarket.persistence.Compactavel;
+import br.inatel.dexmarket.persistence.Journal;
+import br.inatel.dexmarket.persistence.CodecBinario;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Classe PropostaRepositoryDuravel - PropostaRepository persistido em journal.
+ *
+ * **Padrão Decorator**: mesmo esquema de TrocaRepositoryDuravel. PropostaSimples e
+ * PropostaComItemExtra são distinguidas no journal por um byte de tipo.
+ */
+public class PropostaRepositoryDuravel implements PropostaRepository, Compactavel {
+    private final PropostaRepository delegado;
+    private final GravadorJournal<Proposta> gravador;
+
+    /**
+     * @param delegado Repositório em memória (vazio)
+     * @param journal Journal das propostas
+     * @throws IOException Se o journal não puder ser lido
+     */
+    public PropostaRepositoryDuravel(PropostaRepository delegado, Journal journal) throws IOException {
+        this.delegado = delegado;
+        this.gravador = new GravadorJournal<>(journal, delegado, CodecBinario::escreverProposta, CodecBinario::lerProposta);
+        int registros = gravador.reproduzir(delegado::save, delegado::delete);
+        System.out.println("Journal de propostas reproduzido: " + registros + " registros");
+    }
+
+    @Override
+    public Proposta save(Proposta proposta) {
+        Proposta salva = delegado.save(proposta);
+        gravador.registrar(salva.getIdProposta(), delegado::findById);
+        return salva;
+    }
+
+    @Override
+    public List<Proposta> saveAll(List<Proposta> propostas) {
+        List<Proposta> salvas = delegado.saveAll(propostas);
+        gravador.registrarTodos(ids(salvas), delegado::findById);
+        return salvas;
+    }
+
+    @Override
+    public Proposta findById(int id) {
+        return delegado.findById(id);
+    }
+
+    @Override
+    public List<Proposta> findAll() {
+        return delegado.findAll();
+    }
+
+    @Override
+    public Stream<Proposta> streamAll() {
+        return delegado.streamAll();
+    }
+
+    @Override
+    public Stream<Proposta> streamByIdTroca(int idTroca) {
+        return delegado.streamByIdTroca(idTroca);
+    }
+
+    @Override
+    public List<Proposta> findByIdTroca(int idTroca) {
+        return delegado.findByIdTroca(idTroca);
+    }
+
+    @Override
+    public List<Proposta> findByIdJogadorProponente(int idJogadorProponente) {
+        return delegado.findByIdJogadorProponente(idJogadorProponente);
+    }
+
+    @Override
+    public List<Proposta> findByStatus(String status) {
+        return delegado.findByStatus(status);
+    }
+
+    @Override
+    public Proposta update(Proposta proposta) {
+        Proposta atualizada = delegado.update(proposta);
+        if (atualizada != null) {
+            gravador.registrar(atualizada.getIdProposta(), delegado::findById);
+        }
+        return atualizada;
+    }
+
+    @Override
+    public List<Proposta> updateAll(List<Proposta> propostas) {
+        List<Proposta> atualizadas = delegado.updateAll(propostas);
+        gravador.registrarTodos(ids(atualizadas), delegado::findById);
+        return atualizadas;
+    }
+
+    @Override
+    public boolean compareAndSetStatus(int idProposta, String statusEsperado, String novoStatus) {
+        boolean alterada = delegado.compareAndSetStatus(idProposta, statusEsperado, novoStatus);
+        if (alterada) {
+            gravador.registrar(idProposta, delegado::findById);
+        }
+        return alterada;
+    }
+
+    @Override
+    public boolean delete(int id) {
+        boolean removida = delegado.delete(id);
+        if (removida) {
+            gravador.registrar(id, delegado::findById);
+        }
+        return removida;
+    }
+
+    @Override
+    public int deleteAll(int[] ids) {
+        int removidas = delegado.deleteAll(ids);
+        if (removidas > 0) {
+            // IDs que não existiam viram um registro de remoção inofensivo na reprodução
+            gravador.registrarTodos(ids, delegado::findById);
+        }
+        return removidas;
+    }
+
+    @Override
+    public long bytesNoJournal() {
+        return gravador.getJournal().getBytesNoSegmento();
+    }
+
+    @Override
+    public int compactar() throws IOException {
+        return gravador.compactar(delegado::streamAll, Proposta::getIdProposta, delegado::findById);
+    }
+
+    private static int[] ids(List<Proposta> propostas) {
+        return propostas.stream().mapToInt(Proposta::getIdProposta).toArray();
+    }
+}
@@ -5,52 +5,113 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 /**
  * Classe PropostaRepositoryImpl - Implementação de PropostaRepository
- * Implementação em memória do repositório de Propostas.
+ * Implementação em memória (thread-safe) do repositório de Propostas.
+ *
+ * Concorrência: os IDs são alocados atomicamente, as escritas em uma mesma proposta são serializadas por
+ * lock striping (TravasPorId) e as leituras não bloqueiam, percorrendo estruturas concorrentes.
+ * Armazenamento: ConcurrentIntObjectMap (chaves int primitivas, sem Integer nem nós por entrada).
  */
-public class PropostaRepositoryImpl implements PropostaRepository {
-    private Map<Integer, Proposta> propostaMap = new HashMap<>();
-    private int proximoId = 1;
+public class PropostaRepositoryImpl implements PropostaRepository, TravadoPorId {
+    private final ConcurrentIntObjectMap<Proposta> propostaMap = new ConcurrentIntObjectMap<>();
+    private final AtomicInteger proximoId = new AtomicInteger(1);
+    private final TravasPorId travas = new TravasPorId();
+
+    // Índices secundários (multimapas): troca -> IDs das propostas e proponente -> IDs das propostas.
+    // Os buckets são mantidos ordenados por ID e os IDs são alocados em ordem crescente, então a ordem
+    // do bucket é a ordem de criação das propostas e as consultas não precisam ordenar nada na leitura.
+    private final Map<Integer, Set<Integer>> idsPorTroca = new ConcurrentHashMap<>();
+    private final Map<Integer, Set<Integer>> idsPorProponente = new ConcurrentHashMap<>();
+    // Chaves com que cada proposta foi indexada (a Proposta é mutável).
+    private final ConcurrentIntObjectMap<EntradaIndice> entradasIndexadas = new ConcurrentIntObjectMap<>();
+
+    @Override
+    public TravasPorId getTravas() {
+        return travas;
+    }
 
     @Override
     public Proposta save(Proposta proposta) {
-        if (proposta.getIdProposta() == 0) {
-            proposta.setIdProposta(proximoId++);
-        }
-        propostaMap.put(proposta.getIdProposta(), proposta);
-        System.out.println("Proposta salva: ID " + proposta.getIdProposta() + 
-                         ", Troca: " + proposta.getIdTroca() + 
+        reservarId(proposta);
+        salvarSobTrava(proposta);
+        System.out.println("Proposta salva: ID " + proposta.getIdProposta() +
+                         ", Troca: " + proposta.getIdTroca() +
                          ", Status: " + proposta.getStatus());
         return proposta;
     }
 
+    @Override
+    public List<Proposta> saveAll(List<Proposta> propostas) {
+        propostaMap.reservar(propostas.size());
+        entradasIndexadas.reservar(propostas.size());
+        int proximo = reservarFaixa(propostas);
+        List<Proposta> novas = new ArrayList<>(propostas.size());
+        Map<Integer, List<Integer>> novasPorTroca = new HashMap<>();
+        Map<Integer, List<Integer>> novasPorProponente = new HashMap<>();
+        for (Proposta proposta : propostas) {
+            if (proposta.getIdProposta() != 0) {
+                // ID explícito: a proposta pode já existir, então segue o caminho normal (com trava)
+                reservarId(proposta);
+                salvarSobTrava(proposta);
+                continue;
+            }
+            int id = proximo++;
+            proposta.setIdProposta(id);
+            novas.add(proposta);
+            novasPorTroca.computeIfAbsent(proposta.getIdTroca(), t -> new ArrayList<>()).add(id);
+            novasPorProponente.computeIfAbsent(proposta.getIdJogadorProponente(), j -> new ArrayList<>()).add(id);
+            entradasIndexadas.put(id, new EntradaIndice(proposta.getIdTroca(), proposta.getIdJogadorProponente()));
+        }
+        // IDs novos ainda não são visíveis: os índices recebem um compute por bucket antes do mapa principal
+        novasPorTroca.forEach((idTroca, ids) -> adicionarAoBucket(idsPorTroca, idTroca, ids));
+        novasPorProponente.forEach((idJogador, ids) -> adicionarAoBucket(idsPorProponente, idJogador, ids));
+        for (Proposta proposta : novas) {
+            propostaMap.put(proposta.getIdProposta(), proposta);
+        }
+        System.out.println("Propostas salvas em lote: " + propostas.size());
+        return propostas;
+    }
+
     @Override
     public Proposta findById(int id) {
         return propostaMap.get(id);
     }
 
     @Override
-    public List<Proposta> findByIdTroca(int idTroca) {
-        List<Proposta> propostas = new ArrayList<>();
-        for (Proposta proposta : propostaMap.values()) {
-            if (proposta.getIdTroca() == idTroca) {
-                propostas.add(proposta);
-            }
+    public List<Proposta> findAll() {
+        return propostaMap.values();
+    }
+
+    @Override
+    public Stream<Proposta> streamAll() {
+        return propostaMap.streamPorChaves(1, proximoId.get());
+    }
+
+    @Override
+    public Stream<Proposta> streamByIdTroca(int idTroca) {
+        Set<Integer> ids = idsPorTroca.get(idTroca);
+        if (ids == null) {
+            return Stream.empty();
         }
-        return propostas;
+        return ids.stream().map(propostaMap::get).filter(Objects::nonNull);
+    }
+
+    @Override
+    public List<Proposta> findByIdTroca(int idTroca) {
+        return buscarPorIds(idsPorTroca.get(idTroca));
     }
 
     @Override
     public List<Proposta> findByIdJogadorProponente(int idJogadorProponente) {
-        List<Proposta> propostas = new ArrayList<>();
-        for (Proposta proposta : propostaMap.values()) {
-            if (proposta.getIdJogadorProponente() == idJogadorProponente) {
-                propostas.add(proposta);
-            }
-        }
-        return propostas;
+        return buscarPorIds(idsPorProponente.get(idJogadorProponente));
     }
 
     @Override
@@ -66,8 +127,7 @@ public class PropostaRepositoryImpl implements PropostaRepository {
 
     @Override
     public Proposta update(Proposta proposta) {
-        if (propostaMap.containsKey(proposta.getIdProposta())) {
-            propostaMap.put(proposta.getIdProposta(), proposta);
+        if (atualizarSobTrava(proposta)) {
             System.out.println("Proposta atualizada: ID " + proposta.getIdProposta());
             return proposta;
         }
@@ -75,14 +135,204 @@ public class PropostaRepositoryImpl implements PropostaRepository {
         return null;
     }
 
+    @Override
+    public List<Proposta> updateAll(List<Proposta> propostas) {
+        List<Proposta> atualizadas = new ArrayList<>(propostas.size());
+        for (Proposta proposta : propostas) {
+            if (atualizarSobTrava(proposta)) {
+                atualizadas.add(proposta);
+            }
+        }
+        System.out.println("Propostas atualizadas em lote: " + atualizadas.size() + " de " + propostas.size());
+        return atualizadas;
+    }
+
+    @Override
+    public boolean compareAndSetStatus(int idProposta, String statusEsperado, String novoStatus) {
+        synchronized (travas.para(idProposta)) {
+            Proposta proposta = propostaMap.get(idProposta);
+            if (proposta == null || !statusEsperado.equals(proposta.getStatus())) {
+                return false;
+            }
+            proposta.setStatus(novoStatus);
+        }
+        System.out.println("Proposta atualizada: ID " + idProposta + ", Status: " + statusEsperado + " -> " + novoStatus);
+        return true;
+    }
+
     @Override
     public boolean delete(int id) {
-        if (propostaMap.containsKey(id)) {
-            propostaMap.remove(id);
+        if (removerSobTrava(id)) {
             System.out.println("Proposta deletada: ID " + id);
             return true;
         }
         System.out.println("Proposta não encontrada para deleção: " + id);
         return false;
     }
+
+    @Override
+    public int deleteAll(int[] ids) {
+        int removidas = 0;
+        for (int id : ids) {
+            if (removerSobTrava(id)) {
+                removidas++;
+            }
+        }
+        System.out.println("Propostas deletadas em lote: " + removidas + " de " + ids.length);
+        return removidas;
+    }
+
+    private void salvarSobTrava(Proposta proposta) {
+        synchronized (travas.para(proposta.getIdProposta())) {
+            propostaMap.put(proposta.getIdProposta(), proposta);
+            indexar(proposta);
+        }
+    }
+
+    private boolean atualizarSobTrava(Proposta proposta) {
+        synchronized (travas.para(proposta.getIdProposta())) {
+            if (!propostaMap.containsKey(proposta.getIdProposta())) {
+                return false;
+            }
+            propostaMap.put(proposta.getIdProposta(), proposta);
+            indexar(proposta);
+            return true;
+        }
+    }
+
+    private boolean removerSobTrava(int id) {
+        synchronized (travas.para(id)) {
+            if (propostaMap.remove(id) == null) {
+                return false;
+            }
+            desindexar(id);
+            return true;
+        }
+    }
+
+    /**
+     * Reserva, com uma única operação atômica, a faixa de IDs das propostas sem ID do lote. Antes, o gerador
+     * passa do maior ID explícito do lote, para que a faixa reservada nunca inclua um deles.
+     *
+     * @return Primeiro ID da faixa
+     */
+    private int reservarFaixa(List<Proposta> propostas) {
+        int semId = 0;
+        int maiorExplicito = 0;
+        for (Proposta proposta : propostas) {
+            if (proposta.getIdProposta() == 0) {
+                semId++;
+            } else {
+                maiorExplicito = Math.max(maiorExplicito, proposta.getIdProposta());
+            }
+        }
+        if (maiorExplicito > 0) {
+            proximoId.accumulateAndGet(maiorExplicito + 1, Math::max);
+        }
+        return proximoId.getAndAdd(semId);
+    }
+
+    /**
+     * Atribui um ID novo à proposta, ou avança o gerador se a proposta já vier com ID,
+     * para que IDs gerados depois nunca colidam com ele.
+     *
+     * @param proposta A proposta a ser salva
+     */
+    private void reservarId(Proposta proposta) {
+        if (proposta.getIdProposta() == 0) {
+            proposta.setIdProposta(proximoId.getAndIncrement());
+        } else {
+            proximoId.accumulateAndGet(proposta.getIdProposta() + 1, Math::max);
+        }
+    }
+
+    private List<Proposta> buscarPorIds(Set<Integer> ids) {
+        if (ids == null) {
+            return new ArrayList<>();
+        }
+        List<Proposta> propostas = new ArrayList<>();
+        for (Integer id : ids) {
+            Proposta proposta = propostaMap.get(id);
+            if (proposta != null) {
+                propostas.add(proposta);
+            }
+        }
+        return propostas;
+    }
+
+    // --- Manutenção dos índices (sempre sob a trava do ID) ---
+
+    /**
+     * Coloca a proposta nos buckets da sua troca e do seu proponente. Se nenhuma das chaves mudou,
+     * a proposta mantém sua posição (e portanto a ordem de criação).
+     *
+     * @param proposta A proposta salva ou atualizada
+     */
+    private void indexar(Proposta proposta) {
+        int id = proposta.getIdProposta();
+        EntradaIndice anterior = entradasIndexadas.get(id);
+        if (anterior != null && anterior.mesmaChave(proposta)) {
+            return;
+        }
+        desindexar(id);
+        adicionarAoBucket(idsPorTroca, proposta.getIdTroca(), id);
+        adicionarAoBucket(idsPorProponente, proposta.getIdJogadorProponente(), id);
+        entradasIndexadas.put(id, new EntradaIndice(proposta.getIdTroca(), proposta.getIdJogadorProponente()));
+    }
+
+    /**
+     * Remove a proposta dos buckets em que ela foi indexada.
+     *
+     * @param id O ID da proposta
+     */
+    private void desindexar(int id) {
+        EntradaIndice anterior = entradasIndexadas.remove(id);
+        if (anterior == null) {
+            return;
+        }
+        removerDoBucket(idsPorTroca, anterior.idTroca, id);
+        removerDoBucket(idsPorProponente, anterior.idJogadorProponente, id);
+    }
+
+    // compute/computeIfPresent tornam "criar bucket" e "remover bucket vazio" atômicos por chave,
+    // evitando que um ID seja adicionado a um bucket que outra thread acabou de descartar.
+    private static void adicionarAoBucket(Map<Integer, Set<Integer>> buckets, int chave, int id) {
+        buckets.compute(chave, (c, ids) -> {
+            Set<Integer> resultado = ids != null ? ids : new ConcurrentSkipListSet<>();
+            resultado.add(id);
+            return resultado;
+        });
+    }
+
+    private static void adicionarAoBucket(Map<Integer, Set<Integer>> buckets, int chave, List<Integer> ids) {
+        buckets.compute(chave, (c, bucket) -> {
+            Set<Integer> resultado = bucket != null ? bucket : new ConcurrentSkipListSet<>();
+            resultado.addAll(ids);
+            return resultado;
+        });
+    }
+
+    private static void removerDoBucket(Map<Integer, Set<Integer>> buckets, int chave, int id) {
+        buckets.computeIfPresent(chave, (c, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    /**
+     * Chaves (troca, proponente) com que uma proposta está indexada.
+     */
+    private static class EntradaIndice {
+        private final int idTroca;
+        private final int idJogadorProponente;
+
+        EntradaIndice(int idTroca, int idJogadorProponente) {
+            this.idTroca = idTroca;
+            this.idJogadorProponente = idJogadorProponente;
+        }
+
+        boolean mesmaChave(Proposta proposta) {
+            return idTroca == proposta.getIdTroca() && idJogadorProponente == proposta.getIdJogadorProponente();
+        }
+    }
 }
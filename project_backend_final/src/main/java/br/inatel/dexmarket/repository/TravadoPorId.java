@@ -0,0 +1,14 @@
+package br.inatel.dexmarket.repository;
+
+/**
+ * Interface TravadoPorId - Repositório em memória que serializa as escritas de cada ID com TravasPorId.
+ *
+ * Os repositórios duráveis (GravadorJournal) usam as mesmas travas para ler e codificar a entidade:
+ * a codificação nunca vê um objeto no meio de uma escrita em memória.
+ */
+interface TravadoPorId {
+    /**
+     * @return As travas usadas nas escritas em memória
+     */
+    TravasPorId getTravas();
+}
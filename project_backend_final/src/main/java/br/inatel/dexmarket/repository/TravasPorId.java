@@ -0,0 +1,43 @@
+package br.inatel.dexmarket.repository;
+
+/**
+ * Classe TravasPorId - Lock Striping para os repositórios em memória.
+ *
+ * Cada ID é mapeado para uma de N travas fixas. Escritas na mesma entidade ficam serializadas
+ * (mantendo o registro principal e os índices secundários consistentes entre si), enquanto
+ * escritas em entidades diferentes raramente disputam a mesma trava.
+ */
+final class TravasPorId {
+    private static final int QUANTIDADE_PADRAO = 64;
+
+    private final Object[] travas;
+    private final int mascara;
+
+    TravasPorId() {
+        this(QUANTIDADE_PADRAO);
+    }
+
+    /**
+     * @param quantidade Número de travas (arredondado para a próxima potência de 2)
+     */
+    TravasPorId(int quantidade) {
+        int tamanho = Integer.highestOneBit(Math.max(1, quantidade - 1)) << 1;
+        this.travas = new Object[tamanho];
+        for (int i = 0; i < tamanho; i++) {
+            travas[i] = new Object();
+        }
+        this.mascara = tamanho - 1;
+    }
+
+    /**
+     * Retorna a trava responsável pelo ID informado.
+     *
+     * @param id O ID da entidade
+     * @return O monitor a ser usado em um bloco synchronized
+     */
+    Object para(int id) {
+        // Espalha os bits altos para IDs sequenciais não caírem sempre nas mesmas travas
+        int h = id * 0x9E3779B9;
+        return travas[(h ^ (h >>> 16)) & mascara];
+    }
+}
@@ -9,6 +9,21 @@ import java.util.List;
  */
 public interface TreinadorRepository {
     Treinador findById(int id);
+
+    /**
+     * Busca um treinador pelo email, sem diferenciar maiúsculas de minúsculas
+     * nem espaços nas pontas.
+     *
+     * @param email O email do treinador
+     * @return O treinador, ou null se nenhum usa esse email
+     */
+    Treinador findByEmail(String email);
+
+    /**
+     * Salva (ou substitui, se o ID já existe) um treinador.
+     *
+     * @throws IllegalArgumentException Se o email já pertence a outro treinador
+     */
     Treinador save(Treinador entity);
     List<Treinador> findAll();
     boolean delete(int id);
@@ -0,0 +1,99 @@
+package br.inatel.dexmarket.repository;
+
+import br.inatel.dexmarket.model.Treinador;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Classe TreinadorRepositoryImpl - Implementação de TreinadorRepository
+ * Implementação em memória (thread-safe) do repositório de Treinadores.
+ *
+ * Índices: o principal (ID -> treinador) e um índice único de email (email normalizado -> ID).
+ * A unicidade é garantida pelo putIfAbsent do índice: dois treinadores salvos ao mesmo tempo com
+ * o mesmo email nunca ficam ambos cadastrados.
+ * Concorrência: as escritas em um mesmo treinador são serializadas por lock striping (TravasPorId)
+ * e as leituras não bloqueiam.
+ */
+public class TreinadorRepositoryImpl implements TreinadorRepository {
+    private final ConcurrentIntObjectMap<Treinador> treinadorMap = new ConcurrentIntObjectMap<>();
+    private final AtomicInteger proximoId = new AtomicInteger(1);
+    private final TravasPorId travas = new TravasPorId();
+
+    private final Map<String, Integer> idPorEmail = new ConcurrentHashMap<>();
+    // Email (normalizado) com que cada treinador foi indexado (o Treinador é mutável).
+    private final ConcurrentIntObjectMap<String> emailsIndexados = new ConcurrentIntObjectMap<>();
+
+    @Override
+    public Treinador save(Treinador treinador) {
+        reservarId(treinador);
+        int id = treinador.getIdJogador();
+        String email = normalizar(treinador.getEmail());
+        synchronized (travas.para(id)) {
+            if (email != null) {
+                Integer dono = idPorEmail.putIfAbsent(email, id);
+                if (dono != null && dono != id) {
+                    throw new IllegalArgumentException("Email já cadastrado para outro treinador: " + treinador.getEmail());
+                }
+            }
+            String anterior = email != null ? emailsIndexados.put(id, email) : emailsIndexados.remove(id);
+            if (anterior != null && !anterior.equals(email)) {
+                idPorEmail.remove(anterior, id);
+            }
+            treinadorMap.put(id, treinador);
+        }
+        System.out.println("Treinador salvo: " + treinador.getNome() + " (ID: " + id + ")");
+        return treinador;
+    }
+
+    @Override
+    public Treinador findById(int id) {
+        return treinadorMap.get(id);
+    }
+
+    @Override
+    public Treinador findByEmail(String email) {
+        String normalizado = normalizar(email);
+        if (normalizado == null) {
+            return null;
+        }
+        Integer id = idPorEmail.get(normalizado);
+        return id != null ? treinadorMap.get(id) : null;
+    }
+
+    @Override
+    public List<Treinador> findAll() {
+        return treinadorMap.values();
+    }
+
+    @Override
+    public boolean delete(int id) {
+        synchronized (travas.para(id)) {
+            if (treinadorMap.remove(id) != null) {
+                String email = emailsIndexados.remove(id);
+                if (email != null) {
+                    idPorEmail.remove(email, id);
+                }
+                System.out.println("Treinador deletado: ID " + id);
+                return true;
+            }
+        }
+        System.out.println("Treinador não encontrado para deleção: " + id);
+        return false;
+    }
+
+    private void reservarId(Treinador treinador) {
+        if (treinador.getIdJogador() == 0) {
+            treinador.setIdJogador(proximoId.getAndIncrement());
+        } else {
+            // Avança o gerador para que IDs gerados depois nunca colidam com um ID explícito
+            proximoId.accumulateAndGet(treinador.getIdJogador() + 1, Math::max);
+        }
+    }
+
+    private static String normalizar(String email) {
+        return email != null ? email.trim().toLowerCase(Locale.ROOT) : null;
+    }
+}
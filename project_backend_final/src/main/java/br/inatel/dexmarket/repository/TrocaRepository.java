@@ -1,7 +1,12 @@
 package br.inatel.dexmarket.repository;
 
+import br.inatel.dexmarket.model.CursorPagina;
+import br.inatel.dexmarket.model.FacetasMarketplace;
+import br.inatel.dexmarket.model.FiltroBuscaTrocas;
+import br.inatel.dexmarket.model.Pagina;
 import br.inatel.dexmarket.model.Troca;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Interface TrocaRepository - Padrão Repository
@@ -16,6 +21,15 @@ public interface TrocaRepository {
      */
     Troca save(Troca troca);
 
+    /**
+     * Salva várias trocas de uma vez: a faixa de IDs é reservada em uma única operação, o armazenamento
+     * é dimensionado uma vez e os índices são atualizados uma vez por bucket.
+     *
+     * @param trocas Trocas a salvar (as que vierem sem ID recebem IDs consecutivos, na ordem da lista)
+     * @return A mesma lista, com os IDs preenchidos
+     */
+    List<Troca> saveAll(List<Troca> trocas);
+
     /**
      * Busca uma troca pelo ID.
      * 
@@ -31,6 +45,13 @@ public interface TrocaRepository {
      */
     List<Troca> findAll();
 
+    /**
+     * Stream preguiçoso de todas as trocas, em ordem de ID, sem cópia da coleção.
+     * Fracamente consistente: cada troca reflete o estado no momento em que é visitada,
+     * e trocas criadas depois da criação do stream não aparecem.
+     */
+    Stream<Troca> streamAll();
+
     /**
      * Lista todas as trocas ativas.
      * 
@@ -38,6 +59,57 @@ public interface TrocaRepository {
      */
     List<Troca> findByStatus(String status);
 
+    /**
+     * Stream preguiçoso das trocas com o status, ordenadas por (dataCriacao, id), sem cópia.
+     * Fracamente consistente, como streamAll().
+     */
+    Stream<Troca> streamByStatus(String status);
+
+    /**
+     * Página de trocas com o status informado, ordenadas por (dataCriacao, id).
+     *
+     * @param status Status das trocas
+     * @param depois Cursor devolvido pela página anterior (null para a primeira página)
+     * @param limite Quantidade máxima de trocas na página
+     * @return A página, com o cursor da próxima (null se não houver)
+     */
+    Pagina<Troca> findByStatus(String status, CursorPagina depois, int limite);
+
+    /**
+     * Busca no marketplace: página de trocas ativas que atendem o filtro, em ordem de ID
+     * (a ordem de criação). Do cursor só o ID é usado.
+     *
+     * @param filtro Critérios da busca
+     * @param depois Cursor devolvido pela página anterior (null para a primeira página)
+     * @param limite Quantidade máxima de trocas na página
+     * @return A página, com o cursor da próxima (null se não houver)
+     */
+    Pagina<Troca> buscarAtivas(FiltroBuscaTrocas filtro, CursorPagina depois, int limite);
+
+    /**
+     * Contagens de trocas ativas por tipo, raridade e espécie dos Pokémons ofertados, mantidas a cada
+     * escrita: a leitura é proporcional ao número de facetas, não ao número de trocas.
+     *
+     * @return As contagens atuais
+     */
+    FacetasMarketplace contarFacetasAtivas();
+
+    /**
+     * Feed "mais recentes": lê as K primeiras do índice de status em ordem decrescente, sem ordenar.
+     *
+     * @param limite Quantidade máxima de trocas (K)
+     * @return Trocas ativas da mais recente para a mais antiga
+     */
+    List<Troca> findAtivasMaisRecentes(int limite);
+
+    /**
+     * Feed "mais raras": lê as K primeiras de um índice mantido pela maior raridade ofertada.
+     *
+     * @param limite Quantidade máxima de trocas (K)
+     * @return Trocas ativas da maior para a menor raridade ofertada (empate: a mais recente primeiro)
+     */
+    List<Troca> findAtivasMaisRaras(int limite);
+
     /**
      * Lista todas as trocas de um jogador ofertante.
      * 
@@ -63,6 +135,22 @@ public interface TrocaRepository {
      */
     Troca update(Troca troca);
 
+    /**
+     * @return As trocas que existiam e foram atualizadas
+     */
+    List<Troca> updateAll(List<Troca> trocas);
+
+    /**
+     * Altera o status de uma troca somente se o status atual for o esperado (compare-and-set).
+     * A verificação e a alteração são atômicas em relação a outras escritas na mesma troca.
+     * 
+     * @param idTroca O ID da troca
+     * @param statusEsperado O status que a troca deve ter para a transição acontecer
+     * @param novoStatus O novo status
+     * @return true se a transição foi aplicada, false se a troca não existe ou já estava em outro status
+     */
+    boolean compareAndSetStatus(int idTroca, String statusEsperado, String novoStatus);
+
     /**
      * Deleta uma troca pelo ID.
      * 
@@ -70,4 +158,9 @@ public interface TrocaRepository {
      * @return true se foi deletada, false caso contrário
      */
     boolean delete(int id);
+
+    /**
+     * @return Quantidade de trocas que existiam e foram removidas
+     */
+    int deleteAll(int[] ids);
 }
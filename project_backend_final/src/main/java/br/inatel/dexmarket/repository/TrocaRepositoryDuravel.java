@@ -0,0 +1,172 @@
+package br.inatel.dexmarket.repository;
+
+import br.inatel.dexmarket.model.CursorPagina;
+import br.inatel.dexmarket.model.FacetasMarketplace;
+import br.inatel.dexmarket.model.FiltroBuscaTrocas;
+import br.inatel.dexmarket.model.Pagina;
+import br.inatel.dexmarket.model.Troca;
+import br.inatel.dexmarket.persistence.Compactavel;
+import br.inatel.dexmarket.persistence.Journal;
+import br.inatel.dexmarket.persistence.CodecBinario;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Classe TrocaRepositoryDuravel - TrocaRepository persistido em journal.
+ *
+ * **Padrão Decorator**: envolve outro TrocaRepository (normalmente TrocaRepositoryImpl), que continua
+ * responsável pelos dados em memória e pelos índices. Esta classe só acrescenta a durabilidade:
+ * cada escrita é gravada no journal antes de retornar, e o último snapshot mais o journal são
+ * reproduzidos na construção. compactar() grava um novo snapshot e apaga o journal já coberto por ele.
+ * As leituras vão direto para o repositório em memória.
+ */
+public class TrocaRepositoryDuravel implements TrocaRepository, Compactavel {
+    private final TrocaRepository delegado;
+    private final GravadorJournal<Troca> gravador;
+
+    /**
+     * @param delegado Repositório em memória (vazio)
+     * @param journal Journal das trocas
+     * @throws IOException Se o journal não puder ser lido
+     */
+    public TrocaRepositoryDuravel(TrocaRepository delegado, Journal journal) throws IOException {
+        this.delegado = delegado;
+        this.gravador = new GravadorJournal<>(journal, delegado, CodecBinario::escreverTroca, CodecBinario::lerTroca);
+        int registros = gravador.reproduzir(delegado::save, delegado::delete);
+        System.out.println("Journal de trocas reproduzido: " + registros + " registros");
+    }
+
+    @Override
+    public Troca save(Troca troca) {
+        Troca salva = delegado.save(troca);
+        gravador.registrar(salva.getIdTroca(), delegado::findById);
+        return salva;
+    }
+
+    @Override
+    public List<Troca> saveAll(List<Troca> trocas) {
+        List<Troca> salvas = delegado.saveAll(trocas);
+        gravador.registrarTodos(ids(salvas), delegado::findById);
+        return salvas;
+    }
+
+    @Override
+    public Troca findById(int id) {
+        return delegado.findById(id);
+    }
+
+    @Override
+    public List<Troca> findAll() {
+        return delegado.findAll();
+    }
+
+    @Override
+    public Stream<Troca> streamAll() {
+        return delegado.streamAll();
+    }
+
+    @Override
+    public Stream<Troca> streamByStatus(String status) {
+        return delegado.streamByStatus(status);
+    }
+
+    @Override
+    public List<Troca> findByStatus(String status) {
+        return delegado.findByStatus(status);
+    }
+
+    @Override
+    public Pagina<Troca> findByStatus(String status, CursorPagina depois, int limite) {
+        return delegado.findByStatus(status, depois, limite);
+    }
+
+    @Override
+    public Pagina<Troca> buscarAtivas(FiltroBuscaTrocas filtro, CursorPagina depois, int limite) {
+        return delegado.buscarAtivas(filtro, depois, limite);
+    }
+
+    @Override
+    public List<Troca> findAtivasMaisRecentes(int limite) {
+        return delegado.findAtivasMaisRecentes(limite);
+    }
+
+    @Override
+    public List<Troca> findAtivasMaisRaras(int limite) {
+        return delegado.findAtivasMaisRaras(limite);
+    }
+
+    @Override
+    public FacetasMarketplace contarFacetasAtivas() {
+        return delegado.contarFacetasAtivas();
+    }
+
+    @Override
+    public List<Troca> findByIdJogadorOfertante(int idJogadorOfertante) {
+        return delegado.findByIdJogadorOfertante(idJogadorOfertante);
+    }
+
+    @Override
+    public List<Troca> findByJogadorAndStatus(int idJogador, String status) {
+        return delegado.findByJogadorAndStatus(idJogador, status);
+    }
+
+    @Override
+    public Troca update(Troca troca) {
+        Troca atualizada = delegado.update(troca);
+        if (atualizada != null) {
+            gravador.registrar(atualizada.getIdTroca(), delegado::findById);
+        }
+        return atualizada;
+    }
+
+    @Override
+    public List<Troca> updateAll(List<Troca> trocas) {
+        List<Troca> atualizadas = delegado.updateAll(trocas);
+        gravador.registrarTodos(ids(atualizadas), delegado::findById);
+        return atualizadas;
+    }
+
+    @Override
+    public boolean compareAndSetStatus(int idTroca, String statusEsperado, String novoStatus) {
+        boolean alterada = delegado.compareAndSetStatus(idTroca, statusEsperado, novoStatus);
+        if (alterada) {
+            gravador.registrar(idTroca, delegado::findById);
+        }
+        return alterada;
+    }
+
+    @Override
+    public boolean delete(int id) {
+        boolean removida = delegado.delete(id);
+        if (removida) {
+            gravador.registrar(id, delegado::findById);
+        }
+        return removida;
+    }
+
+    @Override
+    public int deleteAll(int[] ids) {
+        int removidas = delegado.deleteAll(ids);
+        if (removidas > 0) {
+            // IDs que não existiam viram um registro de remoção inofensivo na reprodução
+            gravador.registrarTodos(ids, delegado::findById);
+        }
+        return removidas;
+    }
+
+    @Override
+    public long bytesNoJournal() {
+        return gravador.getJournal().getBytesNoSegmento();
+    }
+
+    @Override
+    public int compactar() throws IOException {
+        return gravador.compactar(delegado::streamAll, Troca::getIdTroca, delegado::findById);
+    }
+
+    private static int[] ids(List<Troca> trocas) {
+        return trocas.stream().mapToInt(Troca::getIdTroca).toArray();
+    }
+}
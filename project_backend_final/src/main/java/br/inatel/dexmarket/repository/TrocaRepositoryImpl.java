@@ -1,34 +1,118 @@
 package br.inatel.dexmarket.repository;
 
+import br.inatel.dexmarket.model.CursorPagina;
+import br.inatel.dexmarket.model.FacetasMarketplace;
+import br.inatel.dexmarket.model.FiltroBuscaTrocas;
+import br.inatel.dexmarket.model.Pagina;
 import br.inatel.dexmarket.model.Troca;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 /**
  * Classe TrocaRepositoryImpl - Implementação de TrocaRepository
- * Implementação em memória do repositório de Trocas.
- * 
+ * Implementação em memória (thread-safe) do repositório de Trocas.
+ *
  * **Padrão Singleton (Implícito)**: Embora a classe não implemente o Singleton de forma estrita (com getInstance()),
  * no contexto da simulação (Main.java e Testes), uma única instância deste repositório é criada e injetada
  * nos Services, garantindo que todos os Services compartilhem o mesmo estado de dados em memória.
  * Em um ambiente Spring, o Spring faria isso automaticamente com a anotação @Singleton ou @Service.
+ *
+ * Concorrência: os IDs são alocados atomicamente, as escritas em uma mesma troca são serializadas por
+ * lock striping (TravasPorId) e as leituras não bloqueiam, percorrendo estruturas concorrentes.
+ * Armazenamento: ConcurrentIntObjectMap (chaves int primitivas, sem Integer nem nós por entrada).
  */
-public class TrocaRepositoryImpl implements TrocaRepository {
-    private Map<Integer, Troca> trocaMap = new HashMap<>();
-    private int proximoId = 1;
+public class TrocaRepositoryImpl implements TrocaRepository, TravadoPorId {
+    private final ConcurrentIntObjectMap<Troca> trocaMap = new ConcurrentIntObjectMap<>();
+    private final AtomicInteger proximoId = new AtomicInteger(1);
+    private final TravasPorId travas = new TravasPorId();
+
+    // Índice secundário: status -> trocas com aquele status, ordenadas por (dataCriacao, id).
+    // Mantido por save/update/delete para que findByStatus percorra apenas as trocas do status pedido,
+    // e ordenado para que a paginação por keyset comece direto no cursor (tailSet) em O(log n).
+    private final Map<String, NavigableSet<ChaveOrdenacao>> trocasPorStatus = new ConcurrentHashMap<>();
+    // Índice composto: jogador ofertante -> status -> IDs das trocas.
+    // Atende findByJogadorAndStatus e, somando os buckets do jogador, findByIdJogadorOfertante.
+    private final Map<Integer, Map<String, Set<Integer>>> idsPorJogadorEStatus = new ConcurrentHashMap<>();
+    // Chaves com que cada troca foi indexada. Necessário porque a Troca é mutável:
+    // quando update() é chamado, o objeto já carrega o status novo e não o antigo.
+    private final ConcurrentIntObjectMap<EntradaIndice> entradasIndexadas = new ConcurrentIntObjectMap<>();
+    // Índice invertido das trocas ativas (espécie, tipo, raridade e ofertante dos Pokémons ofertados)
+    private final IndiceBuscaTrocas indiceBusca = new IndiceBuscaTrocas();
+
+    @Override
+    public TravasPorId getTravas() {
+        return travas;
+    }
 
     @Override
     public Troca save(Troca troca) {
-        if (troca.getIdTroca() == 0) {
-            troca.setIdTroca(proximoId++);
-        }
-        trocaMap.put(troca.getIdTroca(), troca);
+        reservarId(troca);
+        salvarSobTrava(troca);
         System.out.println("Troca salva: ID " + troca.getIdTroca() + ", Status: " + troca.getStatus());
         return troca;
     }
 
+    @Override
+    public List<Troca> saveAll(List<Troca> trocas) {
+        trocaMap.reservar(trocas.size());
+        entradasIndexadas.reservar(trocas.size());
+        int proximo = reservarFaixa(trocas);
+        List<Troca> novas = new ArrayList<>(trocas.size());
+        Map<String, List<ChaveOrdenacao>> chavesPorStatus = new HashMap<>();
+        Map<Integer, Map<String, List<Integer>>> idsPorJogador = new HashMap<>();
+        for (Troca troca : trocas) {
+            if (troca.getIdTroca() != 0) {
+                // ID explícito: a troca pode já existir, então segue o caminho normal (com trava)
+                reservarId(troca);
+                salvarSobTrava(troca);
+                continue;
+            }
+            int id = proximo++;
+            troca.setIdTroca(id);
+            novas.add(troca);
+            indiceBusca.indexar(troca);
+            String status = troca.getStatus();
+            if (status == null) {
+                continue;
+            }
+            ChaveOrdenacao chave = new ChaveOrdenacao(CursorPagina.millis(troca.getDataCriacao()), id);
+            chavesPorStatus.computeIfAbsent(status, s -> new ArrayList<>()).add(chave);
+            idsPorJogador.computeIfAbsent(troca.getIdJogadorOfertante(), j -> new HashMap<>())
+                    .computeIfAbsent(status, s -> new ArrayList<>()).add(id);
+            entradasIndexadas.put(id, new EntradaIndice(troca.getIdJogadorOfertante(), status, chave.dataCriacao));
+        }
+        // Os IDs novos ainda não são visíveis para ninguém, então os índices podem ser atualizados
+        // um bucket por vez (um compute por bucket, não por troca) antes de as trocas entrarem no mapa.
+        chavesPorStatus.forEach((status, chaves) -> trocasPorStatus.compute(status, (s, bucket) -> {
+            NavigableSet<ChaveOrdenacao> resultado = bucket != null ? bucket : new ConcurrentSkipListSet<>();
+            resultado.addAll(chaves);
+            return resultado;
+        }));
+        idsPorJogador.forEach((idJogador, porStatus) -> idsPorJogadorEStatus.compute(idJogador, (j, buckets) -> {
+            Map<String, Set<Integer>> resultado = buckets != null ? buckets : new ConcurrentHashMap<>();
+            porStatus.forEach((status, ids) -> resultado.compute(status, (s, bucket) -> {
+                Set<Integer> idsDoBucket = bucket != null ? bucket : new ConcurrentSkipListSet<>();
+                idsDoBucket.addAll(ids);
+                return idsDoBucket;
+            }));
+            return resultado;
+        }));
+        for (Troca troca : novas) {
+            trocaMap.put(troca.getIdTroca(), troca);
+        }
+        System.out.println("Trocas salvas em lote: " + trocas.size());
+        return trocas;
+    }
+
     @Override
     public Troca findById(int id) {
         return trocaMap.get(id);
@@ -36,14 +120,37 @@ public class TrocaRepositoryImpl implements TrocaRepository {
 
     @Override
     public List<Troca> findAll() {
-        return new ArrayList<>(trocaMap.values());
+        return trocaMap.values();
+    }
+
+    @Override
+    public Stream<Troca> streamAll() {
+        return trocaMap.streamPorChaves(1, proximoId.get());
+    }
+
+    @Override
+    public Stream<Troca> streamByStatus(String status) {
+        NavigableSet<ChaveOrdenacao> bucket = trocasPorStatus.get(status);
+        if (bucket == null) {
+            return Stream.empty();
+        }
+        // O iterador do skip list é fracamente consistente: não lança ConcurrentModificationException
+        // e não copia o bucket. O status é conferido de novo porque a troca pode ter mudado.
+        return bucket.stream()
+                .map(chave -> trocaMap.get(chave.id))
+                .filter(troca -> troca != null && status.equals(troca.getStatus()));
     }
 
     @Override
     public List<Troca> findByStatus(String status) {
+        NavigableSet<ChaveOrdenacao> bucket = trocasPorStatus.get(status);
+        if (bucket == null) {
+            return new ArrayList<>();
+        }
         List<Troca> trocas = new ArrayList<>();
-        for (Troca troca : trocaMap.values()) {
-            if (troca.getStatus().equals(status)) {
+        for (ChaveOrdenacao chave : bucket) {
+            Troca troca = trocaMap.get(chave.id);
+            if (troca != null && status.equals(troca.getStatus())) {
                 trocas.add(troca);
             }
         }
@@ -51,10 +158,72 @@ public class TrocaRepositoryImpl implements TrocaRepository {
     }
 
     @Override
-    public List<Troca> findByIdJogadorOfertante(int idJogadorOfertante) {
-        List<Troca> trocas = new ArrayList<>();
-        for (Troca troca : trocaMap.values()) {
-            if (troca.getIdJogadorOfertante() == idJogadorOfertante) {
+    public Pagina<Troca> findByStatus(String status, CursorPagina depois, int limite) {
+        NavigableSet<ChaveOrdenacao> bucket = trocasPorStatus.get(status);
+        if (bucket == null) {
+            return new Pagina<>(new ArrayList<>(), null);
+        }
+        NavigableSet<ChaveOrdenacao> restantes = depois == null
+                ? bucket
+                : bucket.tailSet(new ChaveOrdenacao(depois.getDataCriacao(), depois.getId()), false);
+        List<Troca> trocas = new ArrayList<>(limite);
+        CursorPagina ultimo = null;
+        for (ChaveOrdenacao chave : restantes) {
+            Troca troca = trocaMap.get(chave.id);
+            if (troca == null || !status.equals(troca.getStatus())) {
+                continue;
+            }
+            if (trocas.size() == limite) {
+                // Existe pelo menos mais uma troca depois desta página
+                return new Pagina<>(trocas, ultimo);
+            }
+            trocas.add(troca);
+            // O cursor usa a chave indexada (e não a Troca, que é mutável) para ser estável
+            ultimo = new CursorPagina(chave.dataCriacao, chave.id);
+        }
+        return new Pagina<>(trocas, null);
+    }
+
+    @Override
+    public Pagina<Troca> buscarAtivas(FiltroBuscaTrocas filtro, CursorPagina depois, int limite) {
+        int depoisDoId = depois != null ? depois.getId() : 0;
+        List<Troca> trocas = new ArrayList<>(limite);
+        while (trocas.size() <= limite) {
+            // Pede um a mais que o limite para saber se existe próxima página
+            List<Integer> ids = indiceBusca.buscar(filtro, depoisDoId, limite + 1 - trocas.size());
+            if (ids.isEmpty()) {
+                break;
+            }
+            for (Integer id : ids) {
+                // A troca pode ter mudado depois de indexada: confere o estado atual
+                Troca troca = trocaMap.get(id);
+                if (troca != null && "Ativa".equals(troca.getStatus()) && filtro.aceita(troca)) {
+                    trocas.add(troca);
+                }
+            }
+            depoisDoId = ids.get(ids.size() - 1);
+        }
+        if (trocas.size() > limite) {
+            trocas.remove(limite);
+            return new Pagina<>(trocas, CursorPagina.depoisDe(trocas.get(limite - 1)));
+        }
+        return new Pagina<>(trocas, null);
+    }
+
+    @Override
+    public List<Troca> findAtivasMaisRecentes(int limite) {
+        List<Troca> trocas = new ArrayList<>(limite);
+        NavigableSet<ChaveOrdenacao> bucket = trocasPorStatus.get("Ativa");
+        if (bucket == null) {
+            return trocas;
+        }
+        // O skip list percorrido ao contrário já está na ordem do feed: O(K), sem ordenar
+        for (ChaveOrdenacao chave : bucket.descendingSet()) {
+            if (trocas.size() == limite) {
+                break;
+            }
+            Troca troca = trocaMap.get(chave.id);
+            if (troca != null && "Ativa".equals(troca.getStatus())) {
                 trocas.add(troca);
             }
         }
@@ -62,23 +231,49 @@ public class TrocaRepositoryImpl implements TrocaRepository {
     }
 
     @Override
-    public List<Troca> findByJogadorAndStatus(int idJogador, String status) {
-        List<Troca> trocas = new ArrayList<>();
-        for (Troca troca : trocaMap.values()) {
-            // Verifica se o jogador é o ofertante OU se o jogador é o proponente da proposta aceita (simulação)
-            // Como não temos a informação do proponente aceito na Troca, vamos considerar apenas o ofertante.
-            // Em um sistema real, a Troca teria o ID do proponente vencedor.
-            if (troca.getStatus().equals(status) && troca.getIdJogadorOfertante() == idJogador) {
+    public List<Troca> findAtivasMaisRaras(int limite) {
+        List<Troca> trocas = new ArrayList<>(limite);
+        for (Iterator<Integer> ids = indiceBusca.idsMaisRaras(); trocas.size() < limite && ids.hasNext(); ) {
+            Troca troca = trocaMap.get(ids.next());
+            if (troca != null && "Ativa".equals(troca.getStatus())) {
                 trocas.add(troca);
             }
         }
         return trocas;
     }
 
+    @Override
+    public FacetasMarketplace contarFacetasAtivas() {
+        return indiceBusca.facetas();
+    }
+
+    @Override
+    public List<Troca> findByIdJogadorOfertante(int idJogadorOfertante) {
+        Map<String, Set<Integer>> idsPorStatusDoJogador = idsPorJogadorEStatus.get(idJogadorOfertante);
+        if (idsPorStatusDoJogador == null) {
+            return new ArrayList<>();
+        }
+        List<Troca> trocas = new ArrayList<>();
+        for (Map.Entry<String, Set<Integer>> bucket : idsPorStatusDoJogador.entrySet()) {
+            trocas.addAll(buscarPorIds(bucket.getValue(), bucket.getKey()));
+        }
+        return trocas;
+    }
+
+    @Override
+    public List<Troca> findByJogadorAndStatus(int idJogador, String status) {
+        // Como não temos a informação do proponente aceito na Troca, consideramos apenas o ofertante.
+        // Em um sistema real, a Troca teria o ID do proponente vencedor.
+        Map<String, Set<Integer>> idsPorStatusDoJogador = idsPorJogadorEStatus.get(idJogador);
+        if (idsPorStatusDoJogador == null) {
+            return new ArrayList<>();
+        }
+        return buscarPorIds(idsPorStatusDoJogador.get(status), status);
+    }
+
     @Override
     public Troca update(Troca troca) {
-        if (trocaMap.containsKey(troca.getIdTroca())) {
-            trocaMap.put(troca.getIdTroca(), troca);
+        if (atualizarSobTrava(troca)) {
             System.out.println("Troca atualizada: ID " + troca.getIdTroca());
             return troca;
         }
@@ -86,14 +281,283 @@ public class TrocaRepositoryImpl implements TrocaRepository {
         return null;
     }
 
+    @Override
+    public List<Troca> updateAll(List<Troca> trocas) {
+        List<Troca> atualizadas = new ArrayList<>(trocas.size());
+        for (Troca troca : trocas) {
+            if (atualizarSobTrava(troca)) {
+                atualizadas.add(troca);
+            }
+        }
+        System.out.println("Trocas atualizadas em lote: " + atualizadas.size() + " de " + trocas.size());
+        return atualizadas;
+    }
+
     @Override
     public boolean delete(int id) {
-        if (trocaMap.containsKey(id)) {
-            trocaMap.remove(id);
+        if (removerSobTrava(id)) {
             System.out.println("Troca deletada: ID " + id);
             return true;
         }
         System.out.println("Troca não encontrada para deleção: " + id);
         return false;
     }
+
+    @Override
+    public int deleteAll(int[] ids) {
+        int removidas = 0;
+        for (int id : ids) {
+            if (removerSobTrava(id)) {
+                removidas++;
+            }
+        }
+        System.out.println("Trocas deletadas em lote: " + removidas + " de " + ids.length);
+        return removidas;
+    }
+
+    @Override
+    public boolean compareAndSetStatus(int idTroca, String statusEsperado, String novoStatus) {
+        synchronized (travas.para(idTroca)) {
+            Troca troca = trocaMap.get(idTroca);
+            if (troca == null || !statusEsperado.equals(troca.getStatus())) {
+                return false;
+            }
+            troca.setStatus(novoStatus);
+            indexar(troca);
+        }
+        System.out.println("Troca atualizada: ID " + idTroca + ", Status: " + statusEsperado + " -> " + novoStatus);
+        return true;
+    }
+
+    private void salvarSobTrava(Troca troca) {
+        synchronized (travas.para(troca.getIdTroca())) {
+            trocaMap.put(troca.getIdTroca(), troca);
+            indexar(troca);
+        }
+    }
+
+    private boolean atualizarSobTrava(Troca troca) {
+        synchronized (travas.para(troca.getIdTroca())) {
+            if (!trocaMap.containsKey(troca.getIdTroca())) {
+                return false;
+            }
+            trocaMap.put(troca.getIdTroca(), troca);
+            indexar(troca);
+            return true;
+        }
+    }
+
+    private boolean removerSobTrava(int id) {
+        synchronized (travas.para(id)) {
+            if (trocaMap.remove(id) == null) {
+                return false;
+            }
+            desindexar(id);
+            return true;
+        }
+    }
+
+    /**
+     * Reserva, com uma única operação atômica, a faixa de IDs das trocas sem ID do lote. Antes, o gerador
+     * passa do maior ID explícito do lote, para que a faixa reservada nunca inclua um deles.
+     *
+     * @return Primeiro ID da faixa
+     */
+    private int reservarFaixa(List<Troca> trocas) {
+        int semId = 0;
+        int maiorExplicito = 0;
+        for (Troca troca : trocas) {
+            if (troca.getIdTroca() == 0) {
+                semId++;
+            } else {
+                maiorExplicito = Math.max(maiorExplicito, troca.getIdTroca());
+            }
+        }
+        if (maiorExplicito > 0) {
+            proximoId.accumulateAndGet(maiorExplicito + 1, Math::max);
+        }
+        return proximoId.getAndAdd(semId);
+    }
+
+    /**
+     * Atribui um ID novo à troca, ou avança o gerador se a troca já vier com ID,
+     * para que IDs gerados depois nunca colidam com ele.
+     *
+     * @param troca A troca a ser salva
+     */
+    private void reservarId(Troca troca) {
+        if (troca.getIdTroca() == 0) {
+            troca.setIdTroca(proximoId.getAndIncrement());
+        } else {
+            proximoId.accumulateAndGet(troca.getIdTroca() + 1, Math::max);
+        }
+    }
+
+    /**
+     * Resolve os IDs de um bucket do índice, conferindo o status atual de cada troca
+     * (ela pode ter sido alterada sem passar por update()).
+     *
+     * @param ids IDs do bucket (pode ser null)
+     * @param status Status esperado
+     * @return Lista de trocas do bucket
+     */
+    private List<Troca> buscarPorIds(Set<Integer> ids, String status) {
+        if (ids == null) {
+            return new ArrayList<>();
+        }
+        List<Troca> trocas = new ArrayList<>();
+        for (Integer id : ids) {
+            Troca troca = trocaMap.get(id);
+            if (troca != null && status.equals(troca.getStatus())) {
+                trocas.add(troca);
+            }
+        }
+        return trocas;
+    }
+
+    // --- Manutenção dos índices (sempre sob a trava do ID) ---
+
+    /**
+     * Atualiza todos os índices com o estado atual da troca.
+     *
+     * @param troca A troca salva ou atualizada
+     */
+    private void indexar(Troca troca) {
+        indexarStatus(troca);
+        indiceBusca.indexar(troca);
+    }
+
+    /**
+     * Remove a troca de todos os índices.
+     *
+     * @param id O ID da troca
+     */
+    private void desindexar(int id) {
+        desindexarStatus(id);
+        indiceBusca.remover(id);
+    }
+
+    /**
+     * Coloca a troca nos buckets do seu status e ofertante atuais, retirando-a dos buckets anteriores
+     * se alguma das chaves mudou.
+     *
+     * @param troca A troca salva ou atualizada
+     */
+    private void indexarStatus(Troca troca) {
+        int id = troca.getIdTroca();
+        EntradaIndice anterior = entradasIndexadas.get(id);
+        if (anterior != null && anterior.mesmaChave(troca)) {
+            return;
+        }
+        desindexarStatus(id);
+        String status = troca.getStatus();
+        if (status == null) {
+            return;
+        }
+        int idJogador = troca.getIdJogadorOfertante();
+        ChaveOrdenacao chave = new ChaveOrdenacao(CursorPagina.millis(troca.getDataCriacao()), id);
+        trocasPorStatus.compute(status, (s, bucket) -> {
+            NavigableSet<ChaveOrdenacao> resultado = bucket != null ? bucket : new ConcurrentSkipListSet<>();
+            resultado.add(chave);
+            return resultado;
+        });
+        idsPorJogadorEStatus.compute(idJogador, (j, buckets) -> {
+            Map<String, Set<Integer>> resultado = buckets != null ? buckets : new ConcurrentHashMap<>();
+            adicionarAoBucket(resultado, status, id);
+            return resultado;
+        });
+        entradasIndexadas.put(id, new EntradaIndice(idJogador, status, chave.dataCriacao));
+    }
+
+    /**
+     * Remove a troca dos buckets de status e ofertante em que ela foi indexada.
+     *
+     * @param id O ID da troca
+     */
+    private void desindexarStatus(int id) {
+        EntradaIndice anterior = entradasIndexadas.remove(id);
+        if (anterior == null) {
+            return;
+        }
+        ChaveOrdenacao chave = new ChaveOrdenacao(anterior.dataCriacao, id);
+        trocasPorStatus.computeIfPresent(anterior.status, (s, bucket) -> {
+            bucket.remove(chave);
+            return bucket.isEmpty() ? null : bucket;
+        });
+        idsPorJogadorEStatus.computeIfPresent(anterior.idJogadorOfertante, (j, buckets) -> {
+            removerDoBucket(buckets, anterior.status, id);
+            return buckets.isEmpty() ? null : buckets;
+        });
+    }
+
+    // compute/computeIfPresent tornam "criar bucket" e "remover bucket vazio" atômicos por chave,
+    // evitando que um ID seja adicionado a um bucket que outra thread acabou de descartar.
+    private static void adicionarAoBucket(Map<String, Set<Integer>> buckets, String status, int id) {
+        buckets.compute(status, (s, ids) -> {
+            Set<Integer> resultado = ids != null ? ids : new ConcurrentSkipListSet<>();
+            resultado.add(id);
+            return resultado;
+        });
+    }
+
+    private static void removerDoBucket(Map<String, Set<Integer>> buckets, String status, int id) {
+        buckets.computeIfPresent(status, (s, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    /**
+     * Chaves (ofertante, status, dataCriacao) com que uma troca está indexada.
+     */
+    private static class EntradaIndice {
+        private final int idJogadorOfertante;
+        private final String status;
+        private final long dataCriacao;
+
+        EntradaIndice(int idJogadorOfertante, String status, long dataCriacao) {
+            this.idJogadorOfertante = idJogadorOfertante;
+            this.status = status;
+            this.dataCriacao = dataCriacao;
+        }
+
+        boolean mesmaChave(Troca troca) {
+            return idJogadorOfertante == troca.getIdJogadorOfertante() && status.equals(troca.getStatus())
+                    && dataCriacao == CursorPagina.millis(troca.getDataCriacao());
+        }
+    }
+
+    /**
+     * Chave de ordenação do índice de status: (dataCriacao, id). O ID desempata trocas criadas
+     * no mesmo milissegundo, então a ordem é total e o cursor nunca é ambíguo.
+     */
+    private static final class ChaveOrdenacao implements Comparable<ChaveOrdenacao> {
+        private final long dataCriacao;
+        private final int id;
+
+        ChaveOrdenacao(long dataCriacao, int id) {
+            this.dataCriacao = dataCriacao;
+            this.id = id;
+        }
+
+        @Override
+        public int compareTo(ChaveOrdenacao outra) {
+            int porData = Long.compare(dataCriacao, outra.dataCriacao);
+            return porData != 0 ? porData : Integer.compare(id, outra.id);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof ChaveOrdenacao)) {
+                return false;
+            }
+            ChaveOrdenacao outra = (ChaveOrdenacao) o;
+            return dataCriacao == outra.dataCriacao && id == outra.id;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(dataCriacao) * 31 + id;
+        }
+    }
 }
@@ -0,0 +1,173 @@
+package br.inatel.dexmarket.service;
+
+import br.inatel.dexmarket.model.Notificacao;
+
+import java.io.Closeable;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Classe AgrupadorNotificacoes - Junta notificações repetidas antes da gravação.
+ *
+ * Notificações do mesmo tipo, para o mesmo destinatário e sobre a mesma troca, que chegam dentro de
+ * uma janela viram uma só, com a quantidade de eventos agrupados (ex.: "Você recebeu 37 novas propostas
+ * para a troca #12" em vez de 37 linhas). Isso reduz tanto as gravações quanto o tamanho das caixas de
+ * entrada lidas depois.
+ *
+ * A janela começa na primeira notificação de cada chave; ao fim dela, a notificação agrupada (a mais
+ * recente, com a quantidade somada) segue para a saída. Nas notificações por modelo o texto no plural
+ * sai do próprio ModeloNotificacao; nas de texto livre fica a mensagem da mais recente.
+ * Notificações sem troca (idTroca 0) não são agrupadas e seguem na hora.
+ */
+public final class AgrupadorNotificacoes implements Closeable {
+    private final Consumer<Notificacao> saida;
+    private final long janelaNanos;
+    private final ConcurrentHashMap<Chave, Acumulado> pendentes = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService agendador;
+
+    // Estatísticas
+    private final AtomicLong recebidas = new AtomicLong();
+    private final AtomicLong emitidas = new AtomicLong();
+
+    /**
+     * @param saida Recebe as notificações já agrupadas (ex.: EscritorNotificacoesEmLote::enfileirar)
+     * @param janela Quanto tempo as notificações de uma chave são acumuladas
+     * @param unidade Unidade da janela
+     */
+    public AgrupadorNotificacoes(Consumer<Notificacao> saida, long janela, TimeUnit unidade) {
+        if (janela < 0) {
+            throw new IllegalArgumentException("Janela de agrupamento inválida: " + janela);
+        }
+        this.saida = saida;
+        this.janelaNanos = unidade.toNanos(janela);
+        this.agendador = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "agrupador-notificacoes");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Acumula a notificação na janela da sua chave (ou a repassa na hora, se não tiver troca).
+     *
+     * @param notificacao A notificação
+     */
+    public void adicionar(Notificacao notificacao) {
+        recebidas.incrementAndGet();
+        if (notificacao.getIdTroca() == 0 || janelaNanos == 0) {
+            emitir(notificacao, 1);
+            return;
+        }
+        Chave chave = new Chave(notificacao);
+        boolean[] abriuJanela = new boolean[1];
+        pendentes.compute(chave, (c, acumulado) -> {
+            if (acumulado == null) {
+                abriuJanela[0] = true;
+                return new Acumulado(notificacao);
+            }
+            acumulado.adicionar(notificacao);
+            return acumulado;
+        });
+        if (abriuJanela[0]) {
+            agendador.schedule(() -> fecharJanela(chave), janelaNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Repassa na hora tudo que está acumulado, sem esperar o fim das janelas.
+     */
+    public void descarregar() {
+        for (Chave chave : pendentes.keySet()) {
+            fecharJanela(chave);
+        }
+    }
+
+    /**
+     * @return Notificações recebidas por adicionar()
+     */
+    public long getRecebidas() {
+        return recebidas.get();
+    }
+
+    /**
+     * @return Notificações repassadas à saída (recebidas - emitidas = linhas economizadas)
+     */
+    public long getEmitidas() {
+        return emitidas.get();
+    }
+
+    /**
+     * Repassa o que está acumulado e encerra a thread do agendador.
+     */
+    @Override
+    public void close() {
+        agendador.shutdownNow();
+        descarregar();
+    }
+
+    private void fecharJanela(Chave chave) {
+        // Quem chegar depois da remoção abre uma nova janela para a chave
+        Acumulado acumulado = pendentes.remove(chave);
+        if (acumulado != null) {
+            emitir(acumulado.maisRecente, acumulado.quantidade);
+        }
+    }
+
+    private void emitir(Notificacao notificacao, int quantidade) {
+        if (quantidade > 1) {
+            notificacao.setQuantidade(quantidade);
+        }
+        emitidas.incrementAndGet();
+        try {
+            saida.accept(notificacao);
+        } catch (RuntimeException e) {
+            System.out.println("[NOTIFICACOES] Falha ao repassar " + notificacao + ": " + e);
+        }
+    }
+
+    // Alterado só dentro de pendentes.compute (trava do bin da chave)
+    private static final class Acumulado {
+        private Notificacao maisRecente;
+        private int quantidade;
+
+        Acumulado(Notificacao notificacao) {
+            this.maisRecente = notificacao;
+            this.quantidade = notificacao.getQuantidade();
+        }
+
+        void adicionar(Notificacao notificacao) {
+            maisRecente = notificacao;
+            quantidade += notificacao.getQuantidade();
+        }
+    }
+
+    private static final class Chave {
+        private final int idDestinatario;
+        private final String tipo;
+        private final int idTroca;
+
+        Chave(Notificacao notificacao) {
+            this.idDestinatario = notificacao.getIdDestinatario();
+            this.tipo = notificacao.getTipo();
+            this.idTroca = notificacao.getIdTroca();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Chave)) return false;
+            Chave outra = (Chave) o;
+            return idDestinatario == outra.idDestinatario && idTroca == outra.idTroca && Objects.equals(tipo, outra.tipo);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(idDestinatario, tipo, idTroca);
+        }
+    }
+}
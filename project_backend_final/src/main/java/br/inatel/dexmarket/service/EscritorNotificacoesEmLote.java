@@ -0,0 +1,267 @@
+package br.inatel.dexmarket.service;
+
+import br.inatel.dexmarket.model.Notificacao;
+import br.inatel.dexmarket.repository.NotificacaoRepository;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Classe EscritorNotificacoesEmLote - Agrupa as notificações de várias threads em poucos saveAll.
+ *
+ * Mesma ideia do group commit do Journal: enfileirar() só coloca a notificação na fila; uma thread
+ * escritora junta as pendentes e grava o lote inteiro com um único NotificacaoRepository.saveAll
+ * (uma reserva de IDs, uma atualização por caixa de entrada e, no repositório durável, uma única
+ * espera pelo fsync). Quando uma troca movimentada é concluída, as muitas notificações pequenas viram
+ * poucas escritas.
+ *
+ * O lote é gravado quando chega a tamanhoMaximoLote notificações ou quando a mais antiga do lote
+ * completa esperaMaxima na fila, o que vier primeiro.
+ *
+ * Estatísticas: notificações e lotes gravados, latência (da fila até o saveAll) média e máxima, e vazão
+ * desde a criação do escritor (ver getResumo()).
+ */
+public final class EscritorNotificacoesEmLote implements Closeable {
+    // Marcador enfileirado por close() para encerrar a thread escritora depois da última notificação
+    private static final Pendente FIM = new Pendente(null);
+
+    private final NotificacaoRepository notificacaoRepository;
+    private final int tamanhoMaximoLote;
+    private final long esperaMaximaNanos;
+    private final BlockingQueue<Pendente> fila = new LinkedBlockingQueue<>();
+    private final Thread escritor;
+    private final long criadoEm = System.nanoTime();
+    private volatile boolean fechado;
+
+    // Estatísticas
+    private final AtomicLong notificacoesGravadas = new AtomicLong();
+    private final AtomicLong lotesGravados = new AtomicLong();
+    private final AtomicLong latenciaTotalNanos = new AtomicLong();
+    private final AtomicLong latenciaMaximaNanos = new AtomicLong();
+
+    /**
+     * @param notificacaoRepository Repositório onde os lotes são gravados
+     * @param tamanhoMaximoLote Grava assim que o lote tiver esta quantidade de notificações
+     * @param esperaMaxima Tempo máximo que uma notificação espera na fila até o lote ser gravado
+     * @param unidade Unidade de esperaMaxima
+     */
+    public EscritorNotificacoesEmLote(NotificacaoRepository notificacaoRepository, int tamanhoMaximoLote,
+                                      long esperaMaxima, TimeUnit unidade) {
+        if (tamanhoMaximoLote < 1 || esperaMaxima < 0) {
+            throw new IllegalArgumentException("Lote de notificações inválido: " + tamanhoMaximoLote + " / " + esperaMaxima);
+        }
+        this.notificacaoRepository = notificacaoRepository;
+        this.tamanhoMaximoLote = tamanhoMaximoLote;
+        this.esperaMaximaNanos = unidade.toNanos(esperaMaxima);
+        this.escritor = new Thread(this::loopEscrita, "escritor-notificacoes");
+        this.escritor.setDaemon(true);
+        this.escritor.start();
+    }
+
+    /**
+     * Enfileira uma notificação e retorna sem esperar a gravação.
+     *
+     * @param notificacao A notificação
+     * @return Futuro completado com a notificação salva (com ID) depois do saveAll do lote
+     * @throws IllegalStateException Se o escritor já foi fechado
+     */
+    public CompletableFuture<Notificacao> enfileirar(Notificacao notificacao) {
+        return enfileirar(new Pendente(notificacao)).salva;
+    }
+
+    /**
+     * Enfileira uma notificação e espera o lote dela ser gravado.
+     *
+     * @param notificacao A notificação
+     * @return A notificação salva (com ID)
+     */
+    public Notificacao gravar(Notificacao notificacao) {
+        return aguardar(enfileirar(notificacao));
+    }
+
+    /**
+     * Grava na hora o que já está na fila, sem esperar o lote encher nem o prazo, e espera a gravação.
+     */
+    public void descarregar() {
+        aguardar(enfileirar(new Pendente(null)).salva);
+    }
+
+    public long getNotificacoesGravadas() {
+        return notificacoesGravadas.get();
+    }
+
+    public long getLotesGravados() {
+        return lotesGravados.get();
+    }
+
+    /**
+     * @return Latência média (da fila até o fim do saveAll), em microssegundos
+     */
+    public long getLatenciaMediaMicros() {
+        long gravadas = notificacoesGravadas.get();
+        return gravadas == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(latenciaTotalNanos.get() / gravadas);
+    }
+
+    /**
+     * @return Maior latência observada, em microssegundos
+     */
+    public long getLatenciaMaximaMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(latenciaMaximaNanos.get());
+    }
+
+    /**
+     * @return Notificações gravadas por segundo desde a criação do escritor
+     */
+    public double getVazaoPorSegundo() {
+        double segundos = (System.nanoTime() - criadoEm) / 1e9;
+        return segundos > 0 ? notificacoesGravadas.get() / segundos : 0;
+    }
+
+    /**
+     * @return Estatísticas em uma linha (para log)
+     */
+    public String getResumo() {
+        long lotes = lotesGravados.get();
+        return String.format("%d notificações em %d lotes (média %.1f por lote), latência média %d us, máxima %d us, %.0f notificações/s",
+                notificacoesGravadas.get(), lotes, lotes == 0 ? 0.0 : (double) notificacoesGravadas.get() / lotes,
+                getLatenciaMediaMicros(), getLatenciaMaximaMicros(), getVazaoPorSegundo());
+    }
+
+    /**
+     * Grava o que está na fila e encerra a thread escritora.
+     */
+    @Override
+    public void close() {
+        if (fechado) {
+            return;
+        }
+        fechado = true;
+        fila.add(FIM);
+        try {
+            escritor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Pendente enfileirar(Pendente pendente) {
+        if (fechado) {
+            throw new IllegalStateException("Escritor de notificações fechado.");
+        }
+        fila.add(pendente);
+        return pendente;
+    }
+
+    private void loopEscrita() {
+        List<Pendente> lote = new ArrayList<>();
+        boolean encerrar = false;
+        while (!encerrar) {
+            Pendente primeira;
+            try {
+                primeira = fila.take();
+            } catch (InterruptedException e) {
+                continue;
+            }
+            // O prazo do lote conta a partir da notificação mais antiga
+            long prazo = primeira.enfileiradaEm + esperaMaximaNanos;
+            Pendente pendente = primeira;
+            while (true) {
+                if (pendente == FIM) {
+                    encerrar = true;
+                    break;
+                }
+                lote.add(pendente);
+                if (pendente.notificacao == null || lote.size() >= tamanhoMaximoLote) {
+                    // Pedido de descarregar() ou lote cheio: grava agora
+                    break;
+                }
+                Pendente seguinte = fila.poll();
+                if (seguinte == null) {
+                    long restante = prazo - System.nanoTime();
+                    if (restante <= 0) {
+                        break;
+                    }
+                    try {
+                        seguinte = fila.poll(restante, TimeUnit.NANOSECONDS);
+                    } catch (InterruptedException e) {
+                        break;
+                    }
+                    if (seguinte == null) {
+                        break;
+                    }
+                }
+                pendente = seguinte;
+            }
+            gravarLote(lote);
+            lote.clear();
+        }
+        // Notificações que chegaram depois de close() não serão gravadas
+        List<Pendente> atrasadas = new ArrayList<>();
+        fila.drainTo(atrasadas);
+        for (Pendente atrasada : atrasadas) {
+            atrasada.salva.completeExceptionally(new IllegalStateException("Escritor de notificações fechado."));
+        }
+    }
+
+    private void gravarLote(List<Pendente> lote) {
+        List<Notificacao> notificacoes = new ArrayList<>(lote.size());
+        for (Pendente pendente : lote) {
+            if (pendente.notificacao != null) {
+                notificacoes.add(pendente.notificacao);
+            }
+        }
+        if (!notificacoes.isEmpty()) {
+            try {
+                notificacaoRepository.saveAll(notificacoes);
+            } catch (RuntimeException e) {
+                System.out.println("[NOTIFICACOES] Falha ao gravar lote de " + notificacoes.size() + ": " + e);
+                for (Pendente pendente : lote) {
+                    pendente.salva.completeExceptionally(e);
+                }
+                return;
+            }
+            long agora = System.nanoTime();
+            for (Pendente pendente : lote) {
+                if (pendente.notificacao != null) {
+                    long latencia = agora - pendente.enfileiradaEm;
+                    latenciaTotalNanos.addAndGet(latencia);
+                    latenciaMaximaNanos.accumulateAndGet(latencia, Math::max);
+                }
+            }
+            notificacoesGravadas.addAndGet(notificacoes.size());
+            lotesGravados.incrementAndGet();
+        }
+        for (Pendente pendente : lote) {
+            pendente.salva.complete(pendente.notificacao);
+        }
+    }
+
+    private static Notificacao aguardar(CompletableFuture<Notificacao> salva) {
+        try {
+            return salva.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido aguardando a gravação da notificação", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha ao gravar a notificação", e.getCause());
+        }
+    }
+
+    private static final class Pendente {
+        // null em um pedido de descarregar()
+        private final Notificacao notificacao;
+        private final long enfileiradaEm = System.nanoTime();
+        private final CompletableFuture<Notificacao> salva = new CompletableFuture<>();
+
+        Pendente(Notificacao notificacao) {
+            this.notificacao = notificacao;
+        }
+    }
+}
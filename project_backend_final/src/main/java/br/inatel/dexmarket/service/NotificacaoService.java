@@ -1,11 +1,15 @@
 package br.inatel.dexmarket.service;
 
+import br.inatel.dexmarket.model.ModeloNotificacao;
 import br.inatel.dexmarket.model.Notificacao;
 import br.inatel.dexmarket.model.Troca;
+import br.inatel.dexmarket.observer.AssinanteEventos;
+import br.inatel.dexmarket.observer.EventoTroca;
 import br.inatel.dexmarket.observer.Observer;
 import br.inatel.dexmarket.repository.NotificacaoRepository;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Classe NotificacaoService - Observer e Service
@@ -13,13 +17,35 @@ import java.util.List;
  * Também gerencia a lógica de negócio relacionada a notificações.
  * 
  * **Padrão Observer (Observer)**: Esta classe é um Observer que reage quando uma Troca muda de status.
+ * Assinada no BarramentoEventos, recebe os eventos nas threads do barramento (fora de processarProposta).
+ * As notificações geradas por eventos passam pelo AgrupadorNotificacoes (eventos repetidos da mesma
+ * troca viram uma notificação só) e são gravadas em lote pelo EscritorNotificacoesEmLote.
  */
-public class NotificacaoService implements Observer {
+public class NotificacaoService implements Observer, AssinanteEventos {
+    private static final long JANELA_AGRUPAMENTO_SEGUNDOS = 2;
+
     private NotificacaoRepository notificacaoRepository;
+    private EscritorNotificacoesEmLote escritor;
+    private AgrupadorNotificacoes agrupador;
 
-    // Construtor com injeção de dependência
+    // Construtor com injeção de dependência (lotes de até 256 notificações ou 10 ms)
     public NotificacaoService(NotificacaoRepository notificacaoRepository) {
+        this(notificacaoRepository, new EscritorNotificacoesEmLote(notificacaoRepository, 256, 10, TimeUnit.MILLISECONDS));
+    }
+
+    public NotificacaoService(NotificacaoRepository notificacaoRepository, EscritorNotificacoesEmLote escritor) {
+        this(notificacaoRepository, escritor, JANELA_AGRUPAMENTO_SEGUNDOS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * @param janelaAgrupamento Tempo em que notificações iguais (destinatário, tipo e troca) são juntadas (0 desliga)
+     * @param unidade Unidade da janela
+     */
+    public NotificacaoService(NotificacaoRepository notificacaoRepository, EscritorNotificacoesEmLote escritor,
+                              long janelaAgrupamento, TimeUnit unidade) {
         this.notificacaoRepository = notificacaoRepository;
+        this.escritor = escritor;
+        this.agrupador = new AgrupadorNotificacoes(escritor::enfileirar, janelaAgrupamento, unidade);
     }
 
     /**
@@ -29,18 +55,46 @@ public class NotificacaoService implements Observer {
      */
     @Override
     public void update(Troca troca) {
-        String mensagem = "Troca #" + troca.getIdTroca() + " teve seu status alterado para: " + troca.getStatus();
-        System.out.println("[OBSERVER] " + mensagem);
-        
-        // Cria uma notificação para o jogador ofertante
-        Notificacao notificacao = new Notificacao(
-            troca.getIdJogadorOfertante(),
-            "AtualizacaoTroca",
-            mensagem
-        );
+        receber(new EventoTroca(troca, troca.getStatus()));
+    }
+
+    /**
+     * **Padrão Observer em ação**: Evento entregue pelo BarramentoEventos.
+     * Usa os dados gravados no evento, e não o estado atual da troca, que pode já ter mudado de novo.
+     * 
+     * @param evento O evento da troca
+     */
+    @Override
+    public void receber(EventoTroca evento) {
+        // Só o modelo e os IDs: o texto é montado quando (e se) a notificação for lida
+        Notificacao notificacao;
+        switch (evento.getTipo()) {
+            case PROPOSTA_RECEBIDA:
+                // Para o dono da troca
+                notificacao = new Notificacao(evento.getIdJogadorOfertante(), ModeloNotificacao.NOVA_PROPOSTA,
+                        evento.getIdTroca(), evento.getIdProposta(), null);
+                break;
+            case PROPOSTA_ACEITA:
+                notificacao = new Notificacao(evento.getIdJogadorProponente(), ModeloNotificacao.PROPOSTA_ACEITA,
+                        evento.getIdTroca(), evento.getIdProposta(), null);
+                break;
+            case PROPOSTA_RECUSADA:
+                notificacao = new Notificacao(evento.getIdJogadorProponente(), ModeloNotificacao.PROPOSTA_RECUSADA,
+                        evento.getIdTroca(), evento.getIdProposta(), null);
+                break;
+            default:
+                // Cria uma notificação para o jogador ofertante (texto livre se o status não tiver código)
+                notificacao = ModeloNotificacao.codigoStatus(evento.getStatusNovo()) != 0
+                        ? new Notificacao(evento.getIdJogadorOfertante(), ModeloNotificacao.STATUS_TROCA,
+                                evento.getIdTroca(), 0, evento.getStatusNovo())
+                        : new Notificacao(evento.getIdJogadorOfertante(), "AtualizacaoTroca",
+                                "Troca #" + evento.getIdTroca() + " teve seu status alterado para: " + evento.getStatusNovo(),
+                                evento.getIdTroca());
+        }
         
-        // Salva a notificação no repositório
-        notificacaoRepository.save(notificacao);
+        // Agrupa com as notificações iguais da janela e depois enfileira para o próximo lote;
+        // a thread do barramento não espera a gravação
+        agrupador.adicionar(notificacao);
     }
 
     /**
@@ -53,7 +107,23 @@ public class NotificacaoService implements Observer {
      */
     public Notificacao enviarNotificacao(int idDestinatario, String tipo, String mensagem) {
         Notificacao notificacao = new Notificacao(idDestinatario, tipo, mensagem);
-        return notificacaoRepository.save(notificacao);
+        // Espera o lote ser gravado: chamadas simultâneas dividem o mesmo saveAll
+        return escritor.gravar(notificacao);
+    }
+
+    /**
+     * Grava na hora as notificações que ainda estão esperando o próximo lote.
+     */
+    public void descarregarNotificacoes() {
+        agrupador.descarregar();
+        escritor.descarregar();
+    }
+
+    /**
+     * @return Estatísticas do agrupamento e do escritor em lote (quantidade, lotes, latência e vazão)
+     */
+    public String getEstatisticasGravacao() {
+        return agrupador.getRecebidas() + " geradas, " + agrupador.getEmitidas() + " após agrupamento; " + escritor.getResumo();
     }
 
     /**
@@ -86,6 +156,16 @@ public class NotificacaoService implements Observer {
         return notificacaoRepository.findByIdDestinatarioAndNaoLidas(idJogador);
     }
 
+    /**
+     * Conta as notificações não lidas de um jogador (badge de notificações).
+     * 
+     * @param idJogador ID do jogador
+     * @return Quantidade de notificações não lidas
+     */
+    public int contarNotificacoesNaoLidas(int idJogador) {
+        return notificacaoRepository.countNaoLidas(idJogador);
+    }
+
     /**
      * Marca uma notificação como lida.
      * 
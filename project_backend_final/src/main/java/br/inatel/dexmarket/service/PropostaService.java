@@ -1,7 +1,11 @@
 package br.inatel.dexmarket.service;
 
 import br.inatel.dexmarket.model.Proposta;
+import br.inatel.dexmarket.model.Troca;
+import br.inatel.dexmarket.observer.BarramentoEventos;
+import br.inatel.dexmarket.observer.EventoTroca;
 import br.inatel.dexmarket.repository.PropostaRepository;
+import br.inatel.dexmarket.repository.TrocaRepository;
 import br.inatel.dexmarket.factory.PropostaFactory;
 
 import java.util.List;
@@ -12,13 +16,27 @@ import java.util.List;
  * 
  * **Padrão Factory (Cliente)**: Utiliza a PropostaFactory para criar diferentes tipos de propostas.
  * Padrão Repository: Utiliza repositório para acesso a dados.
+ * **Padrão Observer**: Publica PROPOSTA_RECEBIDA no BarramentoEventos quando uma proposta é enviada.
  */
 public class PropostaService {
-    private PropostaRepository propostaRepository;
+    private final PropostaRepository propostaRepository;
+    private final TrocaRepository trocaRepository;
+    private final BarramentoEventos barramento;
 
-    // Construtor com injeção de dependência
-    public PropostaService(PropostaRepository propostaRepository) {
+    /**
+     * Construtor com injeção de dependência.
+     *
+     * @param trocaRepository Usado para achar o dono da troca nos eventos de proposta
+     * @param barramento Onde os eventos de proposta são publicados
+     * @throws IllegalArgumentException Se alguma dependência for null
+     */
+    public PropostaService(PropostaRepository propostaRepository, TrocaRepository trocaRepository, BarramentoEventos barramento) {
+        if (propostaRepository == null || trocaRepository == null || barramento == null) {
+            throw new IllegalArgumentException("O PropostaService precisa dos repositórios de propostas e de trocas e do barramento de eventos.");
+        }
         this.propostaRepository = propostaRepository;
+        this.trocaRepository = trocaRepository;
+        this.barramento = barramento;
     }
 
     /**
@@ -37,8 +55,8 @@ public class PropostaService {
             throw new IllegalArgumentException("Proposta simples inválida");
         }
 
-        // Salva a proposta no repositório
-        return propostaRepository.save(proposta);
+        // Salva a proposta no repositório (só para troca ativa)
+        return salvarParaTrocaAtiva(proposta);
     }
 
     /**
@@ -62,8 +80,8 @@ public class PropostaService {
             throw new IllegalArgumentException("Proposta com item extra inválida");
         }
 
-        // Salva a proposta no repositório
-        return propostaRepository.save(proposta);
+        // Salva a proposta no repositório (só para troca ativa)
+        return salvarParaTrocaAtiva(proposta);
     }
 
     /**
@@ -85,8 +103,8 @@ public class PropostaService {
             throw new IllegalArgumentException("Proposta inválida: " + tipo);
         }
 
-        // Salva a proposta no repositório
-        return propostaRepository.save(proposta);
+        // Salva a proposta no repositório (só para troca ativa)
+        return salvarParaTrocaAtiva(proposta);
     }
 
     /**
@@ -114,14 +132,50 @@ public class PropostaService {
      * 
      * @param proposta A proposta a ser enviada.
      * @return A proposta criada.
+     * @throws IllegalArgumentException Se a proposta for inválida ou a troca não existir.
+     * @throws IllegalStateException Se a troca não estiver (ou deixar de estar) ativa.
      */
     public Proposta enviarProposta(Proposta proposta) {
         // Validação básica (ex: se a proposta é válida)
         if (!proposta.validar()) {
             throw new IllegalArgumentException("Proposta inválida.");
         }
+        Proposta salva = salvarParaTrocaAtiva(proposta);
+
+        // **Padrão Observer**: o dono da troca é notificado de forma assíncrona
+        barramento.publicar(EventoTroca.deProposta(EventoTroca.Tipo.PROPOSTA_RECEBIDA,
+                trocaRepository.findById(salva.getIdTroca()), salva));
+        return salva;
+    }
+
+    /**
+     * Salva a proposta como pendente, só se a troca existir e estiver ativa.
+     *
+     * A troca pode ser concluída entre a verificação e o save. Por isso o status é conferido de novo
+     * depois do save: o TrocaService conclui a troca (compare-and-set) ANTES de rejeitar as pendentes,
+     * então uma proposta salva tarde demais para aquela passada vê a troca já concluída aqui e é
+     * rejeitada por este mesmo método. Nenhuma proposta fica pendente em uma troca concluída.
+     *
+     * @throws IllegalArgumentException Se a troca não existir.
+     * @throws IllegalStateException Se a troca não estiver ativa.
+     */
+    private Proposta salvarParaTrocaAtiva(Proposta proposta) {
+        Troca troca = trocaRepository.findById(proposta.getIdTroca());
+        if (troca == null) {
+            throw new IllegalArgumentException("Troca #" + proposta.getIdTroca() + " não encontrada.");
+        }
+        if (!"Ativa".equals(troca.getStatus())) {
+            throw new IllegalStateException("Troca #" + troca.getIdTroca() + " não está ativa. Proposta recusada.");
+        }
         proposta.setStatus("Pendente");
-        return propostaRepository.save(proposta);
+        Proposta salva = propostaRepository.save(proposta);
+        Troca atual = trocaRepository.findById(salva.getIdTroca());
+        if (atual == null || !"Ativa".equals(atual.getStatus())) {
+            salva.setStatus("Rejeitada");
+            propostaRepository.update(salva);
+            throw new IllegalStateException("Troca #" + salva.getIdTroca() + " não está mais ativa. Proposta rejeitada.");
+        }
+        return salva;
     }
 
     /**
@@ -1,29 +1,49 @@
 package br.inatel.dexmarket.service;
 
+import br.inatel.dexmarket.model.CursorPagina;
+import br.inatel.dexmarket.model.FacetasMarketplace;
+import br.inatel.dexmarket.model.FiltroBuscaTrocas;
+import br.inatel.dexmarket.model.Pagina;
 import br.inatel.dexmarket.model.Proposta;
 import br.inatel.dexmarket.model.Troca;
+import br.inatel.dexmarket.observer.BarramentoEventos;
+import br.inatel.dexmarket.observer.EventoTroca;
 import br.inatel.dexmarket.repository.PropostaRepository;
 import br.inatel.dexmarket.repository.TrocaRepository;
 import br.inatel.dexmarket.strategy.ValidacaoTrocaNormal;
 import br.inatel.dexmarket.strategy.ValidacaoTrocaStrategy;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * Classe TrocaService - Camada Service (Lógica de Negócio)
  * Responsável por implementar as regras de negócio para Trocas.
  * 
  * Padrão Strategy: Utiliza uma estratégia de validação de troca.
+ * **Padrão Observer (Subject)**: publica no BarramentoEventos injetado as mudanças de status das trocas
+ * e as respostas às propostas, sempre depois da escrita no repositório e fora das travas dele.
  */
 public class TrocaService {
+    // Limite de itens por página da listagem do marketplace
+    public static final int LIMITE_MAXIMO_PAGINA = 100;
 
     private final TrocaRepository trocaRepository;
     private final PropostaRepository propostaRepository;
+    private final BarramentoEventos barramento;
     private ValidacaoTrocaStrategy estrategiaValidacao;
 
-    public TrocaService(TrocaRepository trocaRepository, PropostaRepository propostaRepository) {
+    /**
+     * @param barramento Onde os eventos de troca e de proposta são publicados
+     * @throws IllegalArgumentException Se o barramento for null
+     */
+    public TrocaService(TrocaRepository trocaRepository, PropostaRepository propostaRepository, BarramentoEventos barramento) {
+        if (barramento == null) {
+            throw new IllegalArgumentException("O TrocaService precisa de um barramento de eventos.");
+        }
         this.trocaRepository = trocaRepository;
         this.propostaRepository = propostaRepository;
+        this.barramento = barramento;
         // **Padrão Strategy**: Inicializa com a estratégia padrão (ValidacaoTrocaNormal)
         this.estrategiaValidacao = new ValidacaoTrocaNormal();
     }
@@ -49,10 +69,25 @@ public class TrocaService {
         if (!estrategiaValidacao.validar(troca)) {
             throw new IllegalArgumentException("Troca inválida de acordo com a estratégia de validação.");
         }
-        // O Observer Pattern será ativado ao salvar a troca, se o status mudar.
         return trocaRepository.save(troca);
     }
 
+    /**
+     * Cria várias trocas de uma vez. Todas são validadas (em paralelo) antes de qualquer uma ser
+     * salva: se alguma for inválida, nenhuma é criada.
+     *
+     * @param trocas As trocas a criar
+     * @return As trocas salvas, com os IDs preenchidos
+     */
+    public List<Troca> criarTrocas(List<Troca> trocas) {
+        // A estratégia é lida uma vez, para o lote inteiro ser validado pela mesma regra
+        ValidacaoTrocaStrategy estrategia = estrategiaValidacao;
+        if (!trocas.parallelStream().allMatch(estrategia::validar)) {
+            throw new IllegalArgumentException("Lote contém troca inválida de acordo com a estratégia de validação.");
+        }
+        return trocaRepository.saveAll(trocas);
+    }
+
     /**
      * Lista todas as trocas ativas no marketplace.
      * (Endpoint 1: Pagina MarketPlace)
@@ -62,6 +97,70 @@ public class TrocaService {
         return trocaRepository.findByStatus("Ativa");
     }
 
+    /**
+     * Lista uma página das trocas ativas no marketplace, das mais antigas para as mais recentes.
+     * (Endpoint 1 paginado: o custo é proporcional ao tamanho da página, não ao total de trocas)
+     * @param depois Cursor devolvido pela página anterior (null para a primeira página).
+     * @param limite Quantidade de trocas na página (1 a LIMITE_MAXIMO_PAGINA).
+     * @return A página de trocas ativas.
+     * @throws IllegalArgumentException Se o limite estiver fora do intervalo permitido.
+     */
+    public Pagina<Troca> listarTrocasAtivas(CursorPagina depois, int limite) {
+        validarLimite(limite);
+        return trocaRepository.findByStatus("Ativa", depois, limite);
+    }
+
+    /**
+     * Busca no marketplace por espécie, tipo, faixa de raridade e ofertante dos Pokémons ofertados.
+     * Usa o índice invertido do repositório: o custo depende do critério mais seletivo, não do total de trocas.
+     * @param filtro Critérios da busca (todos opcionais).
+     * @param depois Cursor devolvido pela página anterior (null para a primeira página).
+     * @param limite Quantidade de trocas na página (1 a LIMITE_MAXIMO_PAGINA).
+     * @return A página de trocas ativas que atendem o filtro, em ordem de criação.
+     * @throws IllegalArgumentException Se o limite estiver fora do intervalo permitido.
+     */
+    public Pagina<Troca> buscarTrocasAtivas(FiltroBuscaTrocas filtro, CursorPagina depois, int limite) {
+        validarLimite(limite);
+        return trocaRepository.buscarAtivas(filtro, depois, limite);
+    }
+
+    /**
+     * Feed da página inicial: as trocas ativas mais recentes (lidas em O(K) do índice ordenado).
+     * @param limite Quantidade de trocas (1 a LIMITE_MAXIMO_PAGINA).
+     * @return Trocas ativas da mais recente para a mais antiga.
+     * @throws IllegalArgumentException Se o limite estiver fora do intervalo permitido.
+     */
+    public List<Troca> listarTrocasMaisRecentes(int limite) {
+        validarLimite(limite);
+        return trocaRepository.findAtivasMaisRecentes(limite);
+    }
+
+    /**
+     * Feed da página inicial: as trocas ativas com os Pokémons ofertados mais raros (lidas em O(K)).
+     * @param limite Quantidade de trocas (1 a LIMITE_MAXIMO_PAGINA).
+     * @return Trocas ativas da maior para a menor raridade ofertada.
+     * @throws IllegalArgumentException Se o limite estiver fora do intervalo permitido.
+     */
+    public List<Troca> listarTrocasMaisRaras(int limite) {
+        validarLimite(limite);
+        return trocaRepository.findAtivasMaisRaras(limite);
+    }
+
+    /**
+     * Contagens da barra lateral do marketplace: trocas ativas por tipo, raridade e espécie.
+     * Os contadores são mantidos pelo repositório a cada mudança de status, então a leitura não agrupa trocas.
+     * @return As contagens atuais.
+     */
+    public FacetasMarketplace contarFacetasTrocasAtivas() {
+        return trocaRepository.contarFacetasAtivas();
+    }
+
+    private static void validarLimite(int limite) {
+        if (limite < 1 || limite > LIMITE_MAXIMO_PAGINA) {
+            throw new IllegalArgumentException("O limite da página deve estar entre 1 e " + LIMITE_MAXIMO_PAGINA + ".");
+        }
+    }
+
     /**
      * Lista todas as propostas recebidas por uma troca ativa.
      * (Endpoint 2)
@@ -89,6 +188,8 @@ public class TrocaService {
      * @param idProposta ID da proposta.
      * @param aceitar Se a proposta deve ser aceita (true) ou rejeitada (false).
      * @return A proposta processada.
+     * @throws IllegalStateException Se a proposta não estiver pendente (já aceita ou rejeitada), ou se for
+     *         aceita mas a troca já não estiver ativa.
      */
     public Proposta processarProposta(int idProposta, boolean aceitar) {
         Proposta proposta = propostaRepository.findById(idProposta);
@@ -101,23 +202,58 @@ public class TrocaService {
             throw new IllegalArgumentException("Troca associada à proposta não encontrada.");
         }
 
+        // Só uma proposta pendente pode ser processada: o compare-and-set da proposta garante que repetir
+        // o pedido (retry, clique duplo) ou aceitar e rejeitar ao mesmo tempo não muda uma proposta já decidida
+        String novoStatus = aceitar ? "Aceita" : "Rejeitada";
+        if (!propostaRepository.compareAndSetStatus(idProposta, "Pendente", novoStatus)) {
+            throw new IllegalStateException("Proposta #" + idProposta + " não está pendente (status: "
+                    + proposta.getStatus() + ").");
+        }
+
         if (aceitar) {
             // Lógica de aceitar proposta:
-            // 1. Mudar status da troca para "Concluída"
-            // 2. Mudar status da proposta para "Aceita"
-            // 3. **Padrão Observer**: A classe Troca (Subject) notifica seus Observers (NotificacaoService)
-            //    quando o status muda para "Concluída". (A implementação do Observer está na classe Troca).
-            troca.setStatus("Concluída");
-            trocaRepository.save(troca);
-            proposta.setStatus("Aceita");
-            propostaRepository.save(proposta);
-        } else {
-            proposta.setStatus("Rejeitada");
-            propostaRepository.save(proposta);
+            // 1. A proposta já passou de "Pendente" para "Aceita" (acima).
+            // 2. Mudar status da troca de "Ativa" para "Concluída" com compare-and-set: se várias propostas
+            //    da mesma troca forem aceitas ao mesmo tempo, apenas uma consegue fazer a transição.
+            //    A atomicidade vem das travas por troca do repositório, então trocas diferentes não disputam trava.
+            //    A perdedora volta de "Aceita" para "Rejeitada".
+            // 3. Rejeitar as demais propostas pendentes da troca
+            // 4. **Padrão Observer**: publica a mudança de status (STATUS_ALTERADO) só depois que o
+            //    compare-and-set retornou, fora da trava da troca: um assinante lento não segura a trava.
+            // 5. Publica PROPOSTA_ACEITA para o proponente (ver abaixo).
+            if (!trocaRepository.compareAndSetStatus(troca.getIdTroca(), "Ativa", "Concluída")) {
+                propostaRepository.compareAndSetStatus(idProposta, "Aceita", "Rejeitada");
+                throw new IllegalStateException("Troca #" + troca.getIdTroca() + " não está mais ativa. Proposta rejeitada.");
+            }
+            barramento.publicar(new EventoTroca(troca, "Ativa", "Concluída"));
+            rejeitarPropostasPendentes(troca.getIdTroca(), idProposta);
         }
+        // **Padrão Observer**: o proponente é notificado de forma assíncrona
+        barramento.publicar(EventoTroca.deProposta(
+                aceitar ? EventoTroca.Tipo.PROPOSTA_ACEITA : EventoTroca.Tipo.PROPOSTA_RECUSADA, troca, proposta));
         return proposta;
     }
 
+    /**
+     * Rejeita, em lote, as propostas ainda pendentes de uma troca que acabou de ser concluída.
+     * @param idTroca ID da troca concluída.
+     * @param idPropostaAceita ID da proposta vencedora (não é alterada).
+     */
+    private void rejeitarPropostasPendentes(int idTroca, int idPropostaAceita) {
+        // Uma única passada pelo índice da troca junta as perdedoras, gravadas depois com um único updateAll
+        // (propostas enviadas depois desta passada são rejeitadas pelo PropostaService, que vê a troca concluída)
+        List<Proposta> perdedoras = propostaRepository.streamByIdTroca(idTroca)
+                .filter(pendente -> pendente.getIdProposta() != idPropostaAceita && "Pendente".equals(pendente.getStatus()))
+                .collect(Collectors.toList());
+        if (perdedoras.isEmpty()) {
+            return;
+        }
+        for (Proposta perdedora : perdedoras) {
+            perdedora.setStatus("Rejeitada");
+        }
+        propostaRepository.updateAll(perdedoras);
+    }
+
     // --- Strategy Pattern Setter ---
 
     /**
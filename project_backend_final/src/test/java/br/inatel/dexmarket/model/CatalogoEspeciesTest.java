@@ -0,0 +1,51 @@
+package br.inatel.dexmarket.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CatalogoEspeciesTest {
+
+    @Test
+    void pokemonsDaMesmaEspecie_DevemCompartilharInstancia() {
+        Pokemon p1 = new Pokemon(1, new String("Pikachu"), "Eletrico", "url_pikachu", 1, 1);
+        Pokemon p2 = new Pokemon(2, new String("Pikachu"), "Eletrico", "url_pikachu", 3, 2);
+
+        assertSame(p1.getEspecie(), p2.getEspecie());
+        assertSame(p1.getEspecie(), CatalogoEspecies.getInstance().buscarPorId(p1.getEspecie().getIdEspecie()));
+    }
+
+    @Test
+    void setNome_DeveTrocarEspecieSemAlterarOutrosPokemons() {
+        Pokemon p1 = new Pokemon(1, "Eevee", "Normal", "url_eevee", 1, 1);
+        Pokemon p2 = new Pokemon(2, "Eevee", "Normal", "url_eevee", 1, 2);
+
+        p1.setNome("Vaporeon");
+
+        assertEquals("Vaporeon", p1.getNome());
+        assertEquals("Normal", p1.getTipo());
+        assertEquals("Eevee", p2.getNome());
+        assertNotSame(p1.getEspecie(), p2.getEspecie());
+    }
+
+    @Test
+    void desserializacao_DeveReusarEspecieDoCatalogo() throws Exception {
+        Pokemon original = new Pokemon(1, "Snorlax", "Normal", "url_snorlax", 2, 1);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream saida = new ObjectOutputStream(bytes)) {
+            saida.writeObject(original);
+        }
+
+        Pokemon copia;
+        try (ObjectInputStream entrada = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            copia = (Pokemon) entrada.readObject();
+        }
+
+        assertSame(original.getEspecie(), copia.getEspecie());
+    }
+}
@@ -0,0 +1,174 @@
+package br.inatel.dexmarket.observer;
+
+import br.inatel.dexmarket.model.Troca;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BarramentoEventosTest {
+
+    @Test
+    void eventosDaMesmaTroca_DevemChegarNaOrdemDePublicacao() {
+        List<String> recebidos = Collections.synchronizedList(new ArrayList<>());
+        try (BarramentoEventos barramento = new BarramentoEventos(4, 16, BarramentoEventos.PoliticaCheia.BLOQUEAR)) {
+            barramento.assinar(evento -> {
+                if (evento.getIdTroca() == 7) {
+                    recebidos.add(evento.getStatusNovo());
+                }
+            });
+            Troca troca = new Troca(1, "Ativa");
+            troca.setIdTroca(7);
+            for (int i = 0; i < 100; i++) {
+                barramento.publicar(new EventoTroca(comStatus(troca, "S" + i), "S" + (i - 1)));
+            }
+
+            assertTrue(barramento.aguardarEntregas(5, TimeUnit.SECONDS));
+            assertEquals(100, recebidos.size());
+            for (int i = 0; i < 100; i++) {
+                assertEquals("S" + i, recebidos.get(i));
+            }
+        }
+    }
+
+    @Test
+    void filaCheia_ComPoliticaDescartar_DeveContarDescartados() throws InterruptedException {
+        CountDownLatch liberar = new CountDownLatch(1);
+        CountDownLatch primeiroRecebido = new CountDownLatch(1);
+        try (BarramentoEventos barramento = new BarramentoEventos(1, 2, BarramentoEventos.PoliticaCheia.DESCARTAR)) {
+            barramento.assinar(evento -> {
+                primeiroRecebido.countDown();
+                try {
+                    liberar.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            Troca troca = new Troca(1, "Ativa");
+            troca.setIdTroca(1);
+            // O primeiro ocupa o consumidor; os dois seguintes enchem a fila; o resto é descartado
+            barramento.publicar(new EventoTroca(troca, "Ativa"));
+            assertTrue(primeiroRecebido.await(5, TimeUnit.SECONDS));
+            int aceitos = 0;
+            for (int i = 0; i < 10; i++) {
+                aceitos += barramento.publicar(new EventoTroca(troca, "Ativa")) ? 1 : 0;
+            }
+            liberar.countDown();
+
+            assertEquals(2, aceitos);
+            assertEquals(8, barramento.getDescartados());
+            assertTrue(barramento.aguardarEntregas(5, TimeUnit.SECONDS));
+            assertEquals(3, barramento.getEntregues());
+        }
+    }
+
+    @Test
+    void fila_CloseComProdutoresAtivos_DeveEntregarTudoQueFoiAceito() throws InterruptedException {
+        fecharComProdutoresAtivos(new BarramentoEventos(2, 4, BarramentoEventos.PoliticaCheia.BLOQUEAR));
+    }
+
+    @Test
+    void ringBuffer_CloseComProdutoresAtivos_DeveEntregarTudoQueFoiAceito() throws InterruptedException {
+        // Buffer de 4 slots: os produtores esperam slot livre bem na hora do close
+        fecharComProdutoresAtivos(BarramentoEventos.comRingBuffer(2, 4, EstrategiaEspera.CEDER));
+    }
+
+    @Test
+    void ringBuffer_VariosProdutores_DeveEntregarTudoEmOrdemPorTroca() throws InterruptedException {
+        int produtores = 4;
+        int porProdutor = 5_000;
+        // Buffer pequeno para forçar várias voltas e produtores esperando os consumidores
+        try (BarramentoEventos barramento = BarramentoEventos.comRingBuffer(3, 64, EstrategiaEspera.CEDER)) {
+            List<List<String>> recebidosPorTroca = new ArrayList<>();
+            for (int i = 0; i < produtores; i++) {
+                recebidosPorTroca.add(Collections.synchronizedList(new ArrayList<>()));
+            }
+            barramento.assinar(evento -> recebidosPorTroca.get(evento.getIdTroca()).add(evento.getStatusNovo()));
+            Thread[] threads = new Thread[produtores];
+            for (int p = 0; p < produtores; p++) {
+                int idTroca = p;
+                threads[p] = new Thread(() -> {
+                    Troca troca = new Troca(1, "Ativa");
+                    troca.setIdTroca(idTroca);
+                    for (int i = 0; i < porProdutor; i++) {
+                        barramento.publicar(new EventoTroca(comStatus(troca, "S" + i), null));
+                    }
+                });
+                threads[p].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            assertTrue(barramento.aguardarEntregas(10, TimeUnit.SECONDS));
+            assertEquals(produtores * porProdutor, barramento.getEntregues());
+            for (List<String> recebidos : recebidosPorTroca) {
+                assertEquals(porProdutor, recebidos.size());
+                for (int i = 0; i < porProdutor; i++) {
+                    assertEquals("S" + i, recebidos.get(i));
+                }
+            }
+        }
+    }
+
+    @Test
+    void ringBuffer_Close_DeveEntregarOQueJaFoiPublicado() {
+        List<EventoTroca> eventos = Collections.synchronizedList(new ArrayList<>());
+        BarramentoEventos barramento = BarramentoEventos.comRingBuffer(1, 8, EstrategiaEspera.ESTACIONAR);
+        barramento.assinar(eventos::add);
+        Troca troca = new Troca(1, "Ativa");
+        troca.setIdTroca(1);
+        for (int i = 0; i < 20; i++) {
+            assertTrue(barramento.publicar(new EventoTroca(troca, "Ativa")));
+        }
+
+        barramento.close();
+
+        assertEquals(20, eventos.size());
+        assertFalse(barramento.publicar(new EventoTroca(troca, "Ativa")));
+        assertEquals(1, barramento.getDescartados());
+    }
+
+    private static void fecharComProdutoresAtivos(BarramentoEventos barramento) throws InterruptedException {
+        List<EventoTroca> eventos = Collections.synchronizedList(new ArrayList<>());
+        barramento.assinar(eventos::add);
+        AtomicInteger aceitos = new AtomicInteger();
+        CountDownLatch publicando = new CountDownLatch(3);
+        Thread[] produtores = new Thread[3];
+        for (int p = 0; p < produtores.length; p++) {
+            int idTroca = p;
+            produtores[p] = new Thread(() -> {
+                Troca troca = new Troca(1, "Ativa");
+                troca.setIdTroca(idTroca);
+                publicando.countDown();
+                for (int i = 0; i < 20_000; i++) {
+                    if (barramento.publicar(new EventoTroca(troca, "Ativa"))) {
+                        aceitos.incrementAndGet();
+                    }
+                }
+            });
+            produtores[p].start();
+        }
+        assertTrue(publicando.await(5, TimeUnit.SECONDS));
+
+        barramento.close();
+        for (Thread produtor : produtores) {
+            produtor.join();
+        }
+
+        assertEquals(aceitos.get(), eventos.size());
+        assertEquals(aceitos.get(), barramento.getEntregues());
+    }
+
+    private static Troca comStatus(Troca troca, String status) {
+        Troca copia = new Troca(troca.getIdJogadorOfertante(), status);
+        copia.setIdTroca(troca.getIdTroca());
+        return copia;
+    }
+}
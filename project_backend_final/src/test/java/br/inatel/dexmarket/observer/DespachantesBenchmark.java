@@ -0,0 +1,81 @@
+package br.inatel.dexmarket.observer;
+
+import br.inatel.dexmarket.model.Troca;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Benchmark (JMH) - Vazão do despacho de eventos: fila bloqueante x ring buffer, com 2 threads publicando
+ * e 1 consumidor. Cada operação é um publicar(); como o transporte é limitado (1024), a vazão medida
+ * é a de ponta a ponta, limitada pelo consumidor.
+ *
+ * Não é um teste: rode com (o exec:java do pom está fixo no Main)
+ *   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=cp.txt -Dmdep.includeScope=test
+ *   java -cp target/test-classes:target/classes:$(cat cp.txt) br.inatel.dexmarket.observer.DespachantesBenchmark
+ *
+ * Resultado de referência (JDK 17, máquina com 1 CPU, 1 fork, média de 5 iterações):
+ *   fila (ArrayBlockingQueue):      ~12 milhões de eventos/s (erro ~3,7 milhões)
+ *   ring buffer (CEDER):            ~28 milhões de eventos/s (erro ~6,9 milhões)
+ * Os dois passam com folga de 1 milhão de eventos/s; o ring buffer entrega ~2,3x mais.
+ * Com 1 CPU as threads se revezam no mesmo núcleo (não foi medido com mais núcleos).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(2)
+@Fork(1)
+public class DespachantesBenchmark {
+
+    @Param({"fila", "ringBuffer"})
+    public String transporte;
+
+    private DespachanteEventos despachante;
+    private final LongAdder entregues = new LongAdder();
+    private EventoTroca evento;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        Troca troca = new Troca(1, "Ativa");
+        troca.setIdTroca(1);
+        evento = new EventoTroca(troca, "Ativa");
+        despachante = "fila".equals(transporte)
+                ? new DespachanteFila(1, 1024, BarramentoEventos.PoliticaCheia.BLOQUEAR, e -> entregues.increment())
+                : new DespachanteRingBuffer(1, 1024, EstrategiaEspera.CEDER, e -> entregues.increment());
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        despachante.close();
+    }
+
+    @Benchmark
+    public boolean publicar() {
+        return despachante.despachar(evento);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DespachantesBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,112 @@
+package br.inatel.dexmarket.persistence;
+
+import br.inatel.dexmarket.model.Pokemon;
+import br.inatel.dexmarket.model.Troca;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark (JMH) - CodecBinario x serialização Java para uma Troca com 3 Pokémons ofertados e 2 desejados.
+ *
+ * Não é um teste: rode com
+ *   mvn -q test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=br.inatel.dexmarket.persistence.CodecBinarioBenchmark
+ *
+ * Resultado de referência (JDK 17, máquina com 1 CPU, 1 fork, média de 5 iterações):
+ *   tamanho:        codec 275 bytes, serialização Java 858 bytes
+ *   codificar:      codec ~1,0 us/op, serialização Java ~5,1 us/op
+ *   decodificar:    codec ~1,1 us/op, serialização Java ~27 us/op (variância alta)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecBinarioBenchmark {
+
+    private Troca troca;
+    private ByteBuffer buffer;
+    private ByteBuffer codificada;
+    private byte[] serializada;
+
+    @Setup
+    public void preparar() throws IOException {
+        troca = trocaExemplo();
+        buffer = ByteBuffer.allocate(4096);
+        CodecBinario.escreverTroca(buffer, troca);
+        buffer.flip();
+        codificada = ByteBuffer.allocate(buffer.remaining()).put(buffer);
+        codificada.flip();
+        serializada = serializarJava(troca);
+    }
+
+    @Benchmark
+    public ByteBuffer codecCodificar() {
+        buffer.clear();
+        CodecBinario.escreverTroca(buffer, troca);
+        return buffer;
+    }
+
+    @Benchmark
+    public Troca codecDecodificar() {
+        return CodecBinario.lerTroca(codificada.duplicate());
+    }
+
+    @Benchmark
+    public byte[] javaSerializar() throws IOException {
+        return serializarJava(troca);
+    }
+
+    @Benchmark
+    public Object javaDesserializar() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream entrada = new ObjectInputStream(new ByteArrayInputStream(serializada))) {
+            return entrada.readObject();
+        }
+    }
+
+    static Troca trocaExemplo() {
+        Troca troca = new Troca(1, "Ativa");
+        troca.setIdTroca(4242);
+        troca.adicionarPokemonOfertado(new Pokemon(10, "Pikachu", "Eletrico", "https://img.dexmarket/10.png", 1, 1));
+        troca.adicionarPokemonOfertado(new Pokemon(30, "Starmie", "Agua/Psiquico", "https://img.dexmarket/30.png", 2, 1));
+        troca.adicionarPokemonOfertado(new Pokemon(40, "Psyduck", "Agua", "https://img.dexmarket/40.png", 1, 1));
+        troca.adicionarPokemonDesejado(new Pokemon(20, "Charizard", "Fogo/Voador", "https://img.dexmarket/20.png", 3, 2));
+        troca.adicionarPokemonDesejado(new Pokemon(50, "Mewtwo", "Psiquico", "https://img.dexmarket/50.png", 5, 2));
+        return troca;
+    }
+
+    private static byte[] serializarJava(Object objeto) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+        try (ObjectOutputStream saida = new ObjectOutputStream(bytes)) {
+            saida.writeObject(objeto);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        CodecBinarioBenchmark tamanhos = new CodecBinarioBenchmark();
+        tamanhos.preparar();
+        System.out.println("Bytes por troca - codec: " + tamanhos.codificada.remaining()
+                + ", serialização Java: " + tamanhos.serializada.length);
+        new Runner(new OptionsBuilder().include(CodecBinarioBenchmark.class.getSimpleName()).build()).run();
+    }
+}
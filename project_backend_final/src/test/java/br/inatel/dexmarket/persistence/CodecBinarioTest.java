@@ -0,0 +1,154 @@
+package br.inatel.dexmarket.persistence;
+
+import br.inatel.dexmarket.model.ModeloNotificacao;
+import br.inatel.dexmarket.model.Notificacao;
+import br.inatel.dexmarket.model.Pokemon;
+import br.inatel.dexmarket.model.Proposta;
+import br.inatel.dexmarket.model.PropostaComItemExtra;
+import br.inatel.dexmarket.model.PropostaSimples;
+import br.inatel.dexmarket.model.Troca;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CodecBinarioTest {
+
+    private final ByteBuffer buffer = ByteBuffer.allocate(4096);
+
+    @Test
+    void troca_IdaEVolta_DevePreservarCamposEPokemons() {
+        Troca original = CodecBinarioBenchmark.trocaExemplo();
+        original.setStatus("Concluída");
+
+        CodecBinario.escreverTroca(buffer, original);
+        buffer.flip();
+        Troca lida = CodecBinario.lerTroca(buffer);
+
+        assertFalse(buffer.hasRemaining());
+        assertEquals(original.getIdTroca(), lida.getIdTroca());
+        assertEquals(original.getIdJogadorOfertante(), lida.getIdJogadorOfertante());
+        assertEquals("Concluída", lida.getStatus());
+        assertEquals(original.getDataCriacao(), lida.getDataCriacao());
+        assertEquals(original.getDataAtualizacao(), lida.getDataAtualizacao());
+        assertEquals(3, lida.getPokemonsOfertados().size());
+        Pokemon mewtwo = lida.getPokemonsDesejados().get(1);
+        assertEquals("Mewtwo", mewtwo.getNome());
+        assertEquals(5, mewtwo.getRaridade());
+        assertEquals(2, mewtwo.getIdJogadorDono());
+    }
+
+    @Test
+    void proposta_DeveRecuperarSubclassePeloTipo() {
+        PropostaComItemExtra comItem = new PropostaComItemExtra(7, 2, "Poção Máxima", 3);
+        comItem.setIdProposta(1);
+        PropostaSimples simples = new PropostaSimples(7, 3);
+        simples.setIdProposta(2);
+
+        CodecBinario.escreverProposta(buffer, comItem);
+        CodecBinario.escreverProposta(buffer, simples);
+        buffer.flip();
+        Proposta primeira = CodecBinario.lerProposta(buffer);
+        Proposta segunda = CodecBinario.lerProposta(buffer);
+
+        assertTrue(primeira instanceof PropostaComItemExtra);
+        assertEquals("Poção Máxima", ((PropostaComItemExtra) primeira).getItemExtra());
+        assertEquals(3, ((PropostaComItemExtra) primeira).getQuantidadeItemExtra());
+        assertTrue(segunda instanceof PropostaSimples);
+        assertEquals(3, segunda.getIdJogadorProponente());
+        assertEquals("Pendente", segunda.getStatus());
+    }
+
+    @Test
+    void notificacao_ComTextoUnicodeENulos_DeveVoltarIgual() {
+        Notificacao original = new Notificacao(9, null, "Troca concluída ✔ com 🐉 Dragonite");
+        original.setIdNotificacao(Integer.MAX_VALUE);
+        original.setDataEnvio(null);
+        original.setLida(true);
+
+        CodecBinario.escreverNotificacao(buffer, original);
+        buffer.flip();
+        Notificacao lida = CodecBinario.lerNotificacao(buffer);
+
+        assertEquals(Integer.MAX_VALUE, lida.getIdNotificacao());
+        assertNull(lida.getTipo());
+        assertEquals(original.getMensagem(), lida.getMensagem());
+        assertNull(lida.getDataEnvio());
+        assertTrue(lida.isLida());
+    }
+
+    @Test
+    void notificacao_ComTrocaEQuantidade_DeveVoltarIgual() {
+        Notificacao original = new Notificacao(1, "NovaPropostaRecebida", "Você recebeu 37 novas propostas para a troca #12", 12);
+        original.setQuantidade(37);
+
+        CodecBinario.escreverNotificacao(buffer, original);
+        buffer.flip();
+        Notificacao lida = CodecBinario.lerNotificacao(buffer);
+
+        assertEquals(12, lida.getIdTroca());
+        assertEquals(37, lida.getQuantidade());
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    void notificacao_GravadaNaVersao1_DeveSerLidaComValoresPadrao() {
+        // [versão 1][tipo][id 3][destinatário 2][tipo null][mensagem "oi"][data null][não lida]
+        buffer.put(new byte[]{1, CodecBinario.TIPO_NOTIFICACAO, 3, 2, 0, 3, 'o', 'i', 0, 0});
+        buffer.flip();
+
+        Notificacao lida = CodecBinario.lerNotificacao(buffer);
+
+        assertEquals(3, lida.getIdNotificacao());
+        assertEquals(2, lida.getIdDestinatario());
+        assertEquals("oi", lida.getMensagem());
+        assertEquals(0, lida.getIdTroca());
+        assertEquals(1, lida.getQuantidade());
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    void notificacaoPorModelo_DeveGravarSoArgumentosEMontarTextoNaLeitura() {
+        Notificacao original = new Notificacao(4, ModeloNotificacao.STATUS_TROCA, 12, 0, "Concluída");
+        Notificacao comTexto = new Notificacao(4, "AtualizacaoTroca", original.getMensagem(), 12);
+
+        CodecBinario.escreverNotificacao(buffer, original);
+        int tamanhoPorModelo = buffer.position();
+        buffer.flip();
+        Notificacao lida = CodecBinario.lerNotificacao(buffer);
+        ByteBuffer outro = ByteBuffer.allocate(1024);
+        CodecBinario.escreverNotificacao(outro, comTexto);
+
+        assertEquals(ModeloNotificacao.STATUS_TROCA, lida.getModelo());
+        assertEquals("AtualizacaoTroca", lida.getTipo());
+        assertEquals("Troca #12 teve seu status alterado para: Concluída", lida.getMensagem());
+        assertTrue(tamanhoPorModelo < outro.position());
+    }
+
+    @Test
+    void notificacao_GravadaNaVersao2_DeveSerLidaComoTextoLivre() {
+        // [versão 2][tipo][id 3][destinatário 2][tipo null][mensagem "oi"][data null][não lida][troca 7][quantidade 4]
+        buffer.put(new byte[]{2, CodecBinario.TIPO_NOTIFICACAO, 3, 2, 0, 3, 'o', 'i', 0, 0, 7, 4});
+        buffer.flip();
+
+        Notificacao lida = CodecBinario.lerNotificacao(buffer);
+
+        assertNull(lida.getModelo());
+        assertEquals("oi", lida.getMensagem());
+        assertEquals(7, lida.getIdTroca());
+        assertEquals(4, lida.getQuantidade());
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    void ler_ComVersaoOuTipoDesconhecido_DeveLancarExcecao() {
+        CodecBinario.escreverPokemon(buffer, new Pokemon(1, "Mew", "Psiquico", "url", 5, 1));
+        buffer.flip();
+        assertThrows(IllegalArgumentException.class, () -> CodecBinario.lerTroca(buffer.duplicate()));
+
+        ByteBuffer versaoFutura = buffer.duplicate();
+        versaoFutura.put(0, (byte) (CodecBinario.VERSAO + 1));
+        assertThrows(IllegalArgumentException.class, () -> CodecBinario.lerPokemon(versaoFutura));
+    }
+}
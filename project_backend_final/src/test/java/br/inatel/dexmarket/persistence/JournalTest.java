@@ -0,0 +1,264 @@
+package br.inatel.dexmarket.persistence;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JournalTest {
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void reproduzir_AposReabrir_DeveEntregarRegistrosNaOrdem() throws IOException {
+        try (Journal journal = new Journal(diretorio, "teste")) {
+            journal.reproduzir(registro -> fail("Journal novo deveria estar vazio"));
+            Journal.aguardar(journal.anexar(bytes("a")));
+            Journal.aguardar(journal.anexar(bytes("b")));
+        }
+        try (Journal journal = new Journal(diretorio, "teste")) {
+            assertEquals(List.of("a", "b"), lerTodos(journal));
+            Journal.aguardar(journal.anexar(bytes("c")));
+        }
+        try (Journal journal = new Journal(diretorio, "teste")) {
+            assertEquals(List.of("a", "b", "c"), lerTodos(journal));
+        }
+    }
+
+    @Test
+    void reproduzir_ComCaudaIncompleta_DeveDescartarCauda() throws IOException {
+        try (Journal journal = new Journal(diretorio, "teste")) {
+            Journal.aguardar(journal.anexar(bytes("completo")));
+        }
+        // Simula uma queda no meio da escrita: cabeçalho anunciando 100 bytes, só 3 gravados
+        try (FileChannel canal = FileChannel.open(diretorio.resolve("teste.000001.journal"), StandardOpenOption.APPEND)) {
+            canal.write(ByteBuffer.allocate(11).putInt(100).putInt(0).put(new byte[3]).flip());
+        }
+        try (Journal journal = new Journal(diretorio, "teste")) {
+            assertEquals(List.of("completo"), lerTodos(journal));
+            Journal.aguardar(journal.anexar(bytes("depois")));
+        }
+        try (Journal journal = new Journal(diretorio, "teste")) {
+            assertEquals(List.of("completo", "depois"), lerTodos(journal));
+        }
+    }
+
+    @Test
+    void anexar_VariosRegistrosPendentes_DeveAgruparEmLotes() throws IOException {
+        try (Journal journal = new Journal(diretorio, "teste")) {
+            List<CompletableFuture<Void>> confirmacoes = new ArrayList<>();
+            for (int i = 0; i < 2000; i++) {
+                confirmacoes.add(journal.anexar(bytes("r" + i)));
+            }
+            confirmacoes.forEach(Journal::aguardar);
+
+            assertEquals(2000, journal.getRegistrosGravados());
+            assertTrue(journal.getLotesGravados() < 2000, "Registros pendentes deveriam dividir o mesmo fsync");
+        }
+    }
+
+    @Test
+    void rotacionar_DeveSepararRegistrosPorSegmento() throws IOException {
+        try (Journal journal = new Journal(diretorio, "teste")) {
+            Journal.aguardar(journal.anexar(bytes("antigo")));
+            long novoSegmento = journal.rotacionar();
+            Journal.aguardar(journal.anexar(bytes("novo")));
+
+            assertEquals(2, novoSegmento);
+            assertEquals(List.of("antigo", "novo"), lerTodos(journal, 0));
+            assertEquals(List.of("novo"), lerTodos(journal, novoSegmento));
+
+            journal.descartarSegmentosAnteriores(novoSegmento);
+            assertEquals(List.of("novo"), lerTodos(journal, 0));
+        }
+    }
+
+    @Test
+    void anexar_ComFalhaNoMeioDaEscrita_DeveTruncarLoteParaNaoEsconderOsSeguintes() throws IOException {
+        CanalComFalha[] canal = new CanalComFalha[1];
+        try (Journal journal = new Journal(diretorio, "teste") {
+            @Override
+            FileChannel abrirCanal(Path arquivo) throws IOException {
+                canal[0] = new CanalComFalha(super.abrirCanal(arquivo));
+                return canal[0];
+            }
+        }) {
+            journal.reproduzir(registro -> { });
+            Journal.aguardar(journal.anexar(bytes("antes")));
+            long tamanhoAntes = journal.getBytesNoSegmento();
+            canal[0].falharEscrita = true;
+
+            assertThrows(UncheckedIOException.class, () -> Journal.aguardar(journal.anexar(bytes("perdido"))));
+            assertEquals(tamanhoAntes, journal.getBytesNoSegmento());
+            canal[0].falharEscrita = false;
+            Journal.aguardar(journal.anexar(bytes("depois")));
+        }
+        try (Journal journal = new Journal(diretorio, "teste")) {
+            assertEquals(List.of("antes", "depois"), lerTodos(journal));
+        }
+    }
+
+    @Test
+    void anexar_SemConseguirTruncarAposFalha_DeveRecusarGravacoesSeguintes() throws IOException {
+        CanalComFalha[] canal = new CanalComFalha[1];
+        try (Journal journal = new Journal(diretorio, "teste") {
+            @Override
+            FileChannel abrirCanal(Path arquivo) throws IOException {
+                canal[0] = new CanalComFalha(super.abrirCanal(arquivo));
+                return canal[0];
+            }
+        }) {
+            journal.reproduzir(registro -> { });
+            canal[0].falharEscrita = true;
+            canal[0].falharTruncamento = true;
+
+            assertThrows(UncheckedIOException.class, () -> Journal.aguardar(journal.anexar(bytes("perdido"))));
+            canal[0].falharEscrita = false;
+            assertThrows(UncheckedIOException.class, () -> Journal.aguardar(journal.anexar(bytes("depois"))));
+        }
+    }
+
+    private static byte[] bytes(String texto) {
+        return texto.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> lerTodos(Journal journal) throws IOException {
+        return lerTodos(journal, 0);
+    }
+
+    private static List<String> lerTodos(Journal journal, long primeiroSegmento) throws IOException {
+        List<String> registros = new ArrayList<>();
+        journal.reproduzir(primeiroSegmento, registro -> {
+            byte[] conteudo = new byte[registro.remaining()];
+            registro.get(conteudo);
+            registros.add(new String(conteudo, StandardCharsets.UTF_8));
+        });
+        return registros;
+    }
+
+    /**
+     * Canal que repassa tudo ao arquivo real, mas pode falhar no meio de uma escrita em lote (depois de
+     * gravar metade do primeiro registro) e no truncamento.
+     */
+    private static final class CanalComFalha extends FileChannel {
+        private final FileChannel real;
+        private volatile boolean falharEscrita;
+        private volatile boolean falharTruncamento;
+
+        CanalComFalha(FileChannel real) {
+            this.real = real;
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            if (falharEscrita) {
+                ByteBuffer metade = srcs[offset].duplicate();
+                metade.limit(metade.position() + metade.remaining() / 2);
+                real.write(metade);
+                throw new IOException("Falha simulada de escrita");
+            }
+            return real.write(srcs, offset, length);
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            if (falharTruncamento) {
+                throw new IOException("Falha simulada de truncamento");
+            }
+            real.truncate(size);
+            return this;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return real.read(dst);
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+            return real.read(dsts, offset, length);
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            return real.write(src);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return real.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            real.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return real.size();
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            real.force(metaData);
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return real.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+            return real.transferFrom(src, position, count);
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return real.read(dst, position);
+        }
+
+        @Override
+        public int write(ByteBuffer src, long position) throws IOException {
+            return real.write(src, position);
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return real.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return real.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return real.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            real.close();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package br.inatel.dexmarket.repository;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
+
+/**
+ * Comparação de memória entre o armazenamento antigo dos repositórios (HashMap / ConcurrentHashMap com
+ * chaves Integer) e o ConcurrentIntObjectMap. Todas as entradas apontam para o mesmo valor, então a
+ * diferença medida é só a da estrutura (nós, Integer e arrays).
+ *
+ * Execução (após mvn test-compile):
+ *   java -cp target/classes:target/test-classes br.inatel.dexmarket.repository.ComparacaoFootprintArmazenamento [entradas]
+ */
+public class ComparacaoFootprintArmazenamento {
+
+    private static final Object VALOR = new Object();
+
+    public static void main(String[] args) {
+        int entradas = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        System.out.println("Entradas: " + entradas);
+
+        medir("HashMap<Integer, V>", entradas, n -> {
+            Map<Integer, Object> mapa = new HashMap<>();
+            for (int i = 1; i <= n; i++) {
+                mapa.put(i, VALOR);
+            }
+            return mapa;
+        });
+        medir("ConcurrentHashMap<Integer, V>", entradas, n -> {
+            Map<Integer, Object> mapa = new ConcurrentHashMap<>();
+            for (int i = 1; i <= n; i++) {
+                mapa.put(i, VALOR);
+            }
+            return mapa;
+        });
+        medir("ConcurrentIntObjectMap<V>", entradas, n -> {
+            ConcurrentIntObjectMap<Object> mapa = new ConcurrentIntObjectMap<>();
+            for (int i = 1; i <= n; i++) {
+                mapa.put(i, VALOR);
+            }
+            return mapa;
+        });
+    }
+
+    private static void medir(String nome, int entradas, IntFunction<Object> construir) {
+        long antes = memoriaUsada();
+        Object mapa = construir.apply(entradas);
+        long depois = memoriaUsada();
+        double bytesPorEntrada = (double) (depois - antes) / entradas;
+        System.out.printf("%-32s %8.1f MB  %6.1f bytes/entrada%n",
+                nome, (depois - antes) / (1024.0 * 1024.0), bytesPorEntrada);
+        // Mantém o mapa vivo até depois da medição
+        if (mapa.hashCode() == 42) {
+            System.out.print("");
+        }
+    }
+
+    private static long memoriaUsada() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,90 @@
+package br.inatel.dexmarket.repository;
+
+import br.inatel.dexmarket.model.Pokemon;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Comparação de memória por Pokémon entre PokemonRepositoryImpl (um objeto Pokemon no heap por criatura)
+ * e PokemonRepositoryColunar (colunas fora do heap + dicionários de Strings). Os Pokémons repetem
+ * 151 espécies, como em um catálogo real; as Strings de cada Pokémon são instâncias próprias (como
+ * viriam de uma requisição ou do journal), então a duplicação também é medida.
+ *
+ * Resultado de referência (2.000.000 Pokémons, -Xmx2g), com o índice de nomes da busca por prefixo:
+ *   PokemonRepositoryImpl     ~  71 bytes/Pokémon no heap com a espécie compartilhada
+ *                             (Especie/CatalogoEspecies); ~16 deles são o nome indexado de cada ID,
+ *                             guardado porque o Pokemon é mutável, e ~5 são o ID na lista do nome no
+ *                             índice (int[] por nome distinto; antes, um objeto por Pokémon: ~174
+ *                             bytes/Pokémon no total)
+ *   PokemonRepositoryColunar  ~  22 bytes/Pokémon fora do heap (21 + capacidade das colunas
+ *                             arredondada para potência de 2) e ~5 no heap (as listas de IDs do índice;
+ *                             dicionários e nomes só crescem com os valores distintos; antes ~125
+ *                             bytes/Pokémon)
+ *
+ * Execução (após mvn test-compile):
+ *   java -cp target/classes:target/test-classes br.inatel.dexmarket.repository.ComparacaoFootprintPokemons [pokemons]
+ */
+public class ComparacaoFootprintPokemons {
+
+    private static final int ESPECIES = 151;
+
+    public static void main(String[] args) {
+        int quantidade = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        System.out.println("Pokémons: " + quantidade);
+
+        long antes = memoriaUsada();
+        PokemonRepositoryImpl emObjetos = new PokemonRepositoryImpl();
+        preencher(emObjetos, quantidade);
+        long depois = memoriaUsada();
+        imprimir("PokemonRepositoryImpl (heap)", depois - antes, quantidade);
+        manterVivo(emObjetos);
+        emObjetos = null;
+
+        antes = memoriaUsada();
+        PokemonRepositoryColunar colunar = new PokemonRepositoryColunar();
+        preencher(colunar, quantidade);
+        depois = memoriaUsada();
+        imprimir("PokemonRepositoryColunar (heap)", depois - antes, quantidade);
+        imprimir("PokemonRepositoryColunar (fora do heap)", colunar.bytesForaDoHeap(), quantidade);
+        manterVivo(colunar);
+    }
+
+    private static void preencher(PokemonRepository repositorio, int quantidade) {
+        int lote = 100_000;
+        for (int inicio = 0; inicio < quantidade; inicio += lote) {
+            List<Pokemon> pokemons = new ArrayList<>(lote);
+            for (int i = inicio; i < Math.min(quantidade, inicio + lote); i++) {
+                int especie = i % ESPECIES;
+                // new String: cada Pokémon com a própria cópia, como viria de fora
+                pokemons.add(new Pokemon(0, new String("Especie " + especie), new String("Tipo " + (especie % 18)),
+                        new String("https://img.dexmarket/" + especie + ".png"), 1 + especie % 5, 1 + i % 1000));
+            }
+            repositorio.saveAll(pokemons);
+        }
+    }
+
+    private static void imprimir(String nome, long bytes, int quantidade) {
+        System.out.printf("%-42s %8.1f MB  %6.1f bytes/Pokémon%n",
+                nome, bytes / (1024.0 * 1024.0), (double) bytes / quantidade);
+    }
+
+    private static void manterVivo(Object objeto) {
+        if (objeto.hashCode() == 42) {
+            System.out.print("");
+        }
+    }
+
+    private static long memoriaUsada() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,78 @@
+package br.inatel.dexmarket.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IndicePrefixoTest {
+
+    @Test
+    void buscarIds_DeveSeguirOrdemDeNomeEDeIdEPararNoLimite() {
+        IndicePrefixo indice = new IndicePrefixo();
+        for (int id = 1_000; id >= 1; id--) {
+            indice.adicionar("Pikachu", id);
+        }
+        indice.adicionar("Pichu", 5_000);
+        indice.adicionar("Pichu", 4_000);
+        indice.adicionar("Raichu", 7);
+
+        assertArrayEquals(new int[]{4_000, 5_000, 1, 2, 3}, indice.buscarIds("pi", 5));
+        assertArrayEquals(new int[]{1, 2}, indice.buscarIds("PIKA", 2));
+        assertArrayEquals(new int[]{7}, indice.buscarIds("rai", 10));
+        assertEquals(0, indice.buscarIds("zub", 10).length);
+    }
+
+    @Test
+    void retirarETrocar_DevemTirarOIdEONomeVazio() {
+        IndicePrefixo indice = new IndicePrefixo();
+        indice.adicionar("Eevee", 1);
+        indice.adicionar("Eevee", 2);
+
+        indice.trocar("Eevee", "Espeon", 1);
+        indice.retirar("Eevee", 2);
+
+        assertEquals(List.of("Espeon"), indice.buscarNomes("e", 10));
+        assertArrayEquals(new int[]{1}, indice.buscarIds("e", 10));
+        assertEquals(1, indice.size());
+    }
+
+    @Test
+    void adicionarERetirarConcorrentesNoMesmoNome_NaoDevemPerderIds() throws Exception {
+        IndicePrefixo indice = new IndicePrefixo();
+        int threads = 4;
+        int porThread = 5_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> tarefas = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int primeiro = t * porThread + 1;
+            tarefas.add(executor.submit(() -> {
+                // Cada thread esvazia e recria o nome várias vezes, disputando com as outras
+                for (int id = primeiro; id < primeiro + porThread; id++) {
+                    indice.adicionar("Ditto", id);
+                    if (id % 2 == 0) {
+                        indice.retirar("Ditto", id);
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> tarefa : tarefas) {
+            tarefa.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        int[] ids = indice.buscarIds("ditto", PokemonRepository.LIMITE_MAXIMO_PREFIXO);
+        assertEquals(PokemonRepository.LIMITE_MAXIMO_PREFIXO, ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            assertEquals(2 * i + 1, ids[i]);
+        }
+        assertEquals(1, indice.size());
+    }
+}
@@ -0,0 +1,101 @@
+package br.inatel.dexmarket.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IntObjectMapTest {
+
+    @Test
+    void operacoesAleatorias_DevemSeComportarComoHashMap() {
+        IntObjectMap<String> mapa = new IntObjectMap<>();
+        Map<Integer, String> referencia = new HashMap<>();
+        Random random = new Random(42);
+
+        // Chaves em um intervalo pequeno forçam colisões, remoções no meio de agrupamentos e redimensionamentos
+        for (int i = 0; i < 200_000; i++) {
+            int chave = random.nextInt(2_000) - 1_000;
+            switch (random.nextInt(3)) {
+                case 0:
+                    assertEquals(referencia.put(chave, "v" + i), mapa.put(chave, "v" + i));
+                    break;
+                case 1:
+                    assertEquals(referencia.remove(chave), mapa.remove(chave));
+                    break;
+                default:
+                    assertEquals(referencia.get(chave), mapa.get(chave));
+            }
+        }
+
+        assertEquals(referencia.size(), mapa.size());
+        for (Map.Entry<Integer, String> entrada : referencia.entrySet()) {
+            assertEquals(entrada.getValue(), mapa.get(entrada.getKey()));
+        }
+    }
+
+    @Test
+    void replace_ChaveInexistente_NaoDeveInserir() {
+        IntObjectMap<String> mapa = new IntObjectMap<>();
+
+        assertNull(mapa.replace(7, "sete"));
+        assertFalse(mapa.containsKey(7));
+
+        mapa.put(7, "sete");
+        assertEquals("sete", mapa.replace(7, "SETE"));
+        assertEquals("SETE", mapa.get(7));
+    }
+
+    @Test
+    void concurrentIntObjectMap_ValuesDeveConterTodasAsEntradas() {
+        ConcurrentIntObjectMap<Integer> mapa = new ConcurrentIntObjectMap<>();
+        for (int i = 1; i <= 10_000; i++) {
+            mapa.put(i, i);
+        }
+        for (int i = 1; i <= 10_000; i += 2) {
+            mapa.remove(i);
+        }
+
+        assertEquals(5_000, mapa.size());
+        assertEquals(5_000, mapa.values().size());
+        assertTrue(mapa.values().stream().allMatch(v -> v % 2 == 0));
+    }
+
+    @Test
+    void concurrentIntObjectMap_GetDuranteEscritas_NuncaDeveVerValorErrado() throws Exception {
+        ConcurrentIntObjectMap<Integer> mapa = new ConcurrentIntObjectMap<>(16);
+        for (int i = 1; i <= 1_000; i++) {
+            mapa.put(i, i);
+        }
+        AtomicBoolean escrevendo = new AtomicBoolean(true);
+        // Inserções e remoções acima de 1000 forçam redimensionamentos e backward shifts nos segmentos
+        Thread escritor = new Thread(() -> {
+            for (int rodada = 0; rodada < 20; rodada++) {
+                for (int i = 1_001; i <= 20_000; i++) {
+                    mapa.put(i, i);
+                }
+                for (int i = 1_001; i <= 20_000; i++) {
+                    mapa.remove(i);
+                }
+            }
+            escrevendo.set(false);
+        });
+        escritor.start();
+
+        long leituras = 0;
+        while (escrevendo.get()) {
+            for (int i = 1; i <= 1_000; i++) {
+                assertEquals(Integer.valueOf(i), mapa.get(i));
+            }
+            leituras += 1_000;
+        }
+        escritor.join();
+
+        assertTrue(leituras > 0);
+        assertEquals(1_000, mapa.size());
+    }
+}
@@ -0,0 +1,72 @@
+package br.inatel.dexmarket.repository;
+
+import br.inatel.dexmarket.model.Notificacao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NotificacaoRepositoryImplTest {
+
+    private NotificacaoRepository notificacaoRepository;
+
+    @BeforeEach
+    void setUp() {
+        notificacaoRepository = new NotificacaoRepositoryImpl();
+    }
+
+    private Notificacao criarNotificacao(int idDestinatario, long dataEnvio) {
+        Notificacao notificacao = new Notificacao(idDestinatario, "AtualizacaoTroca", "mensagem");
+        notificacao.setDataEnvio(new Date(dataEnvio));
+        return notificacaoRepository.save(notificacao);
+    }
+
+    @Test
+    void findByIdDestinatario_DeveRetornarInboxOrdenadaPorDataEnvio() {
+        Notificacao n1 = criarNotificacao(1, 3000);
+        Notificacao n2 = criarNotificacao(1, 1000);
+        criarNotificacao(2, 2000);
+
+        List<Notificacao> inbox = notificacaoRepository.findByIdDestinatario(1);
+
+        assertEquals(2, inbox.size());
+        assertEquals(n2.getIdNotificacao(), inbox.get(0).getIdNotificacao());
+        assertEquals(n1.getIdNotificacao(), inbox.get(1).getIdNotificacao());
+    }
+
+    @Test
+    void countNaoLidas_AposMarcarComoLidaEDeletar_DeveAcompanharInbox() {
+        Notificacao n1 = criarNotificacao(1, 1000);
+        Notificacao n2 = criarNotificacao(1, 2000);
+        criarNotificacao(1, 3000);
+        assertEquals(3, notificacaoRepository.countNaoLidas(1));
+
+        n1.marcarComoLida();
+        notificacaoRepository.update(n1);
+        notificacaoRepository.delete(n2.getIdNotificacao());
+
+        assertEquals(1, notificacaoRepository.countNaoLidas(1));
+        assertEquals(1, notificacaoRepository.findByIdDestinatarioAndNaoLidas(1).size());
+        assertEquals(0, notificacaoRepository.countNaoLidas(2));
+    }
+
+    @Test
+    void saveAll_ComIdsExplicitosENovosNoMesmoLote_NaoDeveReservarIdExplicito() {
+        Notificacao explicita = new Notificacao(1, "AtualizacaoTroca", "mensagem");
+        explicita.setIdNotificacao(2);
+        List<Notificacao> lote = List.of(new Notificacao(1, "AtualizacaoTroca", "mensagem"), explicita,
+                new Notificacao(1, "AtualizacaoTroca", "mensagem"));
+
+        notificacaoRepository.saveAll(lote);
+
+        assertEquals(3, lote.stream().mapToInt(Notificacao::getIdNotificacao).distinct().count());
+        assertEquals(2, explicita.getIdNotificacao());
+        for (Notificacao notificacao : lote) {
+            assertSame(notificacao, notificacaoRepository.findById(notificacao.getIdNotificacao()));
+        }
+        assertEquals(3, notificacaoRepository.findByIdDestinatario(1).size());
+    }
+}
@@ -0,0 +1,87 @@
+package br.inatel.dexmarket.repository;
+
+import br.inatel.dexmarket.model.Pokemon;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PokemonRepositoryColunarTest {
+
+    private PokemonRepositoryColunar pokemonRepository;
+
+    @BeforeEach
+    void setUp() {
+        pokemonRepository = new PokemonRepositoryColunar();
+    }
+
+    @Test
+    void findById_DeveMaterializarCopiaComTodosOsAtributos() {
+        Pokemon salvo = pokemonRepository.save(new Pokemon(0, "Pikachu", "Eletrico", null, 2, 7));
+
+        Pokemon encontrado = pokemonRepository.findById(salvo.getIdPokemon());
+        encontrado.setNome("Raichu");
+
+        assertNotSame(salvo, encontrado);
+        assertEquals("Eletrico", encontrado.getTipo());
+        assertNull(encontrado.getUrlImagem());
+        assertEquals(2, encontrado.getRaridade());
+        assertEquals(7, encontrado.getIdJogadorDono());
+        // A cópia alterada não muda o repositório até o update
+        assertEquals("Pikachu", pokemonRepository.findById(salvo.getIdPokemon()).getNome());
+        pokemonRepository.update(encontrado);
+        assertEquals("Raichu", pokemonRepository.findById(salvo.getIdPokemon()).getNome());
+    }
+
+    @Test
+    void saveAll_AlemDaCapacidadeInicial_DeveCrescerColunasEReusarDicionario() {
+        List<Pokemon> lote = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            lote.add(new Pokemon(0, "Especie " + (i % 10), "Tipo", "url", 1, i % 3));
+        }
+
+        pokemonRepository.saveAll(lote);
+
+        assertEquals(5000, pokemonRepository.size());
+        assertEquals(12, pokemonRepository.valoresNosDicionarios());
+        assertEquals("Especie 9", pokemonRepository.findById(lote.get(4999).getIdPokemon()).getNome());
+        assertEquals(1667, pokemonRepository.findByIdJogador(0).size());
+    }
+
+    @Test
+    void delete_DeveRemoverDasConsultasEDoStream() {
+        Pokemon p1 = pokemonRepository.save(new Pokemon(0, "Bulbasaur", "Planta", "url", 1, 1));
+        Pokemon p2 = pokemonRepository.save(new Pokemon(0, "Squirtle", "Agua", "url", 1, 1));
+
+        assertTrue(pokemonRepository.delete(p1.getIdPokemon()));
+        assertFalse(pokemonRepository.delete(p1.getIdPokemon()));
+
+        assertNull(pokemonRepository.findById(p1.getIdPokemon()));
+        assertEquals(List.of(p2.getIdPokemon()),
+                pokemonRepository.streamByIdJogador(1).map(Pokemon::getIdPokemon).collect(Collectors.toList()));
+        assertNull(pokemonRepository.update(p1));
+    }
+
+    @Test
+    void buscarPorPrefixo_DeveIgnorarAcentosEMaiusculasERespeitarLimite() {
+        pokemonRepository.save(new Pokemon(0, "Flabébé", "Fada", "url", 1, 1));
+        pokemonRepository.save(new Pokemon(0, "Flareon", "Fogo", "url", 2, 1));
+        Pokemon floette = pokemonRepository.save(new Pokemon(0, "Floette", "Fada", "url", 2, 1));
+        pokemonRepository.save(new Pokemon(0, "Pikachu", "Eletrico", "url", 1, 1));
+
+        List<String> fla = pokemonRepository.buscarPorPrefixo("FLA", 10).stream()
+                .map(Pokemon::getNome).collect(Collectors.toList());
+        List<Pokemon> fl = pokemonRepository.buscarPorPrefixo("fl", 2);
+        pokemonRepository.delete(floette.getIdPokemon());
+
+        assertEquals(List.of("Flabébé", "Flareon"), fla);
+        assertEquals(2, fl.size());
+        assertEquals(List.of("Flabébé", "Flareon"), pokemonRepository.sugerirNomes("fl", 10));
+        assertEquals(1, pokemonRepository.buscarPorPrefixo("flabe", 10).size());
+        assertTrue(pokemonRepository.buscarPorPrefixo("flo", 10).isEmpty());
+    }
+}
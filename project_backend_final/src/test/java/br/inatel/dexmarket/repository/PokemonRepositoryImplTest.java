@@ -0,0 +1,97 @@
+package br.inatel.dexmarket.repository;
+
+import br.inatel.dexmarket.model.Pokemon;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PokemonRepositoryImplTest {
+
+    private PokemonRepository pokemonRepository;
+
+    @BeforeEach
+    void setUp() {
+        pokemonRepository = new PokemonRepositoryImpl();
+    }
+
+    @Test
+    void buscarPorPrefixo_DeveRetornarEmOrdemAlfabetica() {
+        Pokemon charmeleon = pokemonRepository.save(new Pokemon(0, "Charmeleon", "Fogo", "url", 2, 1));
+        Pokemon charizard = pokemonRepository.save(new Pokemon(0, "Charizard", "Fogo/Voador", "url", 3, 1));
+        Pokemon charmander = pokemonRepository.save(new Pokemon(0, "Charmander", "Fogo", "url", 1, 1));
+        pokemonRepository.save(new Pokemon(0, "Chikorita", "Planta", "url", 1, 1));
+
+        assertEquals(List.of(charizard, charmander, charmeleon), pokemonRepository.buscarPorPrefixo("char", 10));
+        assertEquals(List.of(charizard), pokemonRepository.buscarPorPrefixo("CHAR", 1));
+    }
+
+    @Test
+    void buscarPorPrefixo_NaoDevePercorrerOCatalogo() {
+        // Conta quantas vezes o nome de um Pokémon do catálogo é lido depois de salvo
+        AtomicInteger leiturasDeNome = new AtomicInteger();
+        List<Pokemon> pikachus = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            pikachus.add(new Pokemon(0, "Pikachu", "Eletrico", "url", 1, 1) {
+                @Override
+                public String getNome() {
+                    leiturasDeNome.incrementAndGet();
+                    return super.getNome();
+                }
+            });
+        }
+        pokemonRepository.saveAll(pikachus);
+        Pokemon zubat = pokemonRepository.save(new Pokemon(0, "Zubat", "Veneno/Voador", "url", 1, 2));
+        leiturasDeNome.set(0);
+
+        List<Pokemon> primeiros = pokemonRepository.buscarPorPrefixo("pik", 10);
+        List<Pokemon> raro = pokemonRepository.buscarPorPrefixo("zub", 10);
+
+        // Os 10 primeiros IDs do nome, e o nome raro (último ID) sem varrer os 50.000 antes dele
+        assertEquals(pikachus.subList(0, 10), primeiros);
+        assertEquals(List.of(zubat), raro);
+        assertEquals(0, leiturasDeNome.get());
+    }
+
+    @Test
+    void sugerirNomes_ComPokemonsRepetidos_DeveRetornarNomesDistintos() {
+        for (int i = 0; i < 3; i++) {
+            pokemonRepository.save(new Pokemon(0, "Pikachu", "Eletrico", "url", 1, 1 + i));
+        }
+        pokemonRepository.save(new Pokemon(0, "Pichu", "Eletrico", "url", 1, 1));
+        Pokemon raichu = pokemonRepository.save(new Pokemon(0, "Raichu", "Eletrico", "url", 2, 1));
+
+        assertEquals(List.of("Pichu", "Pikachu"), pokemonRepository.sugerirNomes("pi", 10));
+        assertEquals(List.of("Pichu"), pokemonRepository.sugerirNomes("PI", 1));
+        assertEquals(3, pokemonRepository.buscarPorPrefixo("pik", 10).size());
+
+        pokemonRepository.delete(raichu.getIdPokemon());
+        assertTrue(pokemonRepository.sugerirNomes("rai", 10).isEmpty());
+    }
+
+    @Test
+    void buscarPorPrefixo_ComLimiteForaDoIntervalo_DeveLancarExcecao() {
+        pokemonRepository.save(new Pokemon(0, "Pikachu", "Eletrico", "url", 1, 1));
+
+        assertThrows(IllegalArgumentException.class, () -> pokemonRepository.buscarPorPrefixo("pi", 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> pokemonRepository.buscarPorPrefixo("pi", PokemonRepository.LIMITE_MAXIMO_PREFIXO + 1));
+        assertThrows(IllegalArgumentException.class, () -> pokemonRepository.sugerirNomes("pi", -1));
+        assertEquals(1, pokemonRepository.buscarPorPrefixo("pi", PokemonRepository.LIMITE_MAXIMO_PREFIXO).size());
+    }
+
+    @Test
+    void buscarPorPrefixo_AposRenomearPokemon_DeveUsarNomeNovo() {
+        Pokemon eevee = pokemonRepository.save(new Pokemon(0, "Eevee", "Normal", "url", 1, 1));
+
+        eevee.setNome("Espeon");
+        pokemonRepository.update(eevee);
+
+        assertTrue(pokemonRepository.buscarPorPrefixo("eev", 10).isEmpty());
+        assertEquals(List.of(eevee), pokemonRepository.buscarPorPrefixo("esp", 10));
+    }
+}
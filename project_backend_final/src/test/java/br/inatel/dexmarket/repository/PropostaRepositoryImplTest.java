@@ -0,0 +1,67 @@
+package br.inatel.dexmarket.repository;
+
+import br.inatel.dexmarket.model.Proposta;
+import br.inatel.dexmarket.model.PropostaSimples;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PropostaRepositoryImplTest {
+
+    private PropostaRepository propostaRepository;
+
+    @BeforeEach
+    void setUp() {
+        propostaRepository = new PropostaRepositoryImpl();
+    }
+
+    @Test
+    void findByIdTroca_DeveRetornarPropostasNaOrdemDeCriacao() {
+        Proposta p1 = propostaRepository.save(new PropostaSimples(1, 2));
+        propostaRepository.save(new PropostaSimples(2, 2));
+        Proposta p3 = propostaRepository.save(new PropostaSimples(1, 3));
+
+        // Atualizar sem mudar a troca não deve alterar a ordem
+        p1.setStatus("Rejeitada");
+        propostaRepository.update(p1);
+
+        List<Proposta> propostas = propostaRepository.findByIdTroca(1);
+
+        assertEquals(2, propostas.size());
+        assertEquals(p1.getIdProposta(), propostas.get(0).getIdProposta());
+        assertEquals(p3.getIdProposta(), propostas.get(1).getIdProposta());
+    }
+
+    @Test
+    void findByIdJogadorProponente_AposDelete_NaoDeveRetornarPropostaDeletada() {
+        Proposta p1 = propostaRepository.save(new PropostaSimples(1, 2));
+        Proposta p2 = propostaRepository.save(new PropostaSimples(2, 2));
+
+        propostaRepository.delete(p1.getIdProposta());
+
+        List<Proposta> propostas = propostaRepository.findByIdJogadorProponente(2);
+
+        assertEquals(1, propostas.size());
+        assertEquals(p2.getIdProposta(), propostas.get(0).getIdProposta());
+        assertTrue(propostaRepository.findByIdTroca(1).isEmpty());
+    }
+
+    @Test
+    void saveAll_ComIdsExplicitosENovosNoMesmoLote_NaoDeveReservarIdExplicito() {
+        Proposta explicita = new PropostaSimples(1, 3);
+        explicita.setIdProposta(2);
+        List<Proposta> lote = List.of(new PropostaSimples(1, 2), explicita, new PropostaSimples(1, 4));
+
+        propostaRepository.saveAll(lote);
+
+        assertEquals(3, lote.stream().mapToInt(Proposta::getIdProposta).distinct().count());
+        assertEquals(2, explicita.getIdProposta());
+        for (Proposta proposta : lote) {
+            assertSame(proposta, propostaRepository.findById(proposta.getIdProposta()));
+        }
+        assertEquals(3, propostaRepository.findByIdTroca(1).size());
+    }
+}
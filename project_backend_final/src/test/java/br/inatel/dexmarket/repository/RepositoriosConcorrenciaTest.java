@@ -0,0 +1,161 @@
+package br.inatel.dexmarket.repository;
+
+import br.inatel.dexmarket.model.Notificacao;
+import br.inatel.dexmarket.model.Pokemon;
+import br.inatel.dexmarket.model.Proposta;
+import br.inatel.dexmarket.model.PropostaSimples;
+import br.inatel.dexmarket.model.Troca;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes de estresse dos repositórios em memória: várias threads escrevendo ao mesmo tempo
+ * não podem perder escritas, repetir IDs nem deixar os índices secundários inconsistentes.
+ */
+public class RepositoriosConcorrenciaTest {
+
+    private static final int THREADS = 32;
+    private static final int OPERACOES_POR_THREAD = 200;
+
+    /**
+     * Executa a tarefa em THREADS threads liberadas ao mesmo tempo e devolve os resultados de cada uma.
+     */
+    private <T> List<T> executarEmParalelo(Callable<T> tarefa) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch largada = new CountDownLatch(1);
+        try {
+            List<Future<T>> futuros = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futuros.add(executor.submit(() -> {
+                    largada.await();
+                    return tarefa.call();
+                }));
+            }
+            largada.countDown();
+            List<T> resultados = new ArrayList<>();
+            for (Future<T> futuro : futuros) {
+                resultados.add(futuro.get(60, TimeUnit.SECONDS));
+            }
+            return resultados;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void trocaRepository_SavesEUpdatesConcorrentes_NaoDevemPerderEscritasNemRepetirIds() throws Exception {
+        TrocaRepository trocaRepository = new TrocaRepositoryImpl();
+
+        List<List<Integer>> idsPorThread = executarEmParalelo(() -> {
+            List<Integer> ids = new ArrayList<>();
+            for (int i = 0; i < OPERACOES_POR_THREAD; i++) {
+                Troca troca = trocaRepository.save(new Troca(i % 8, "Ativa"));
+                ids.add(troca.getIdTroca());
+                // Metade das trocas é concluída logo em seguida, disputando os mesmos buckets
+                if (i % 2 == 0) {
+                    troca.setStatus("Concluída");
+                    trocaRepository.update(troca);
+                }
+            }
+            return ids;
+        });
+
+        Set<Integer> idsUnicos = new HashSet<>();
+        idsPorThread.forEach(idsUnicos::addAll);
+        int total = THREADS * OPERACOES_POR_THREAD;
+
+        assertEquals(total, idsUnicos.size());
+        assertEquals(total, trocaRepository.findAll().size());
+        assertEquals(total / 2, trocaRepository.findByStatus("Ativa").size());
+        assertEquals(total / 2, trocaRepository.findByStatus("Concluída").size());
+        int somaPorJogador = 0;
+        for (int jogador = 0; jogador < 8; jogador++) {
+            somaPorJogador += trocaRepository.findByIdJogadorOfertante(jogador).size();
+        }
+        assertEquals(total, somaPorJogador);
+    }
+
+    @Test
+    void propostaRepository_SavesConcorrentesNaMesmaTroca_DevemTodosSerIndexados() throws Exception {
+        PropostaRepository propostaRepository = new PropostaRepositoryImpl();
+
+        List<List<Integer>> idsPorThread = executarEmParalelo(() -> {
+            List<Integer> ids = new ArrayList<>();
+            for (int i = 0; i < OPERACOES_POR_THREAD; i++) {
+                Proposta proposta = propostaRepository.save(new PropostaSimples(1, i));
+                ids.add(proposta.getIdProposta());
+            }
+            return ids;
+        });
+
+        Set<Integer> idsUnicos = new HashSet<>();
+        idsPorThread.forEach(idsUnicos::addAll);
+        int total = THREADS * OPERACOES_POR_THREAD;
+
+        assertEquals(total, idsUnicos.size());
+        List<Proposta> propostas = propostaRepository.findByIdTroca(1);
+        assertEquals(total, propostas.size());
+        for (int i = 1; i < propostas.size(); i++) {
+            assertTrue(propostas.get(i - 1).getIdProposta() < propostas.get(i).getIdProposta());
+        }
+    }
+
+    @Test
+    void notificacaoRepository_SavesELeiturasConcorrentes_DevemManterContadorDeNaoLidas() throws Exception {
+        NotificacaoRepository notificacaoRepository = new NotificacaoRepositoryImpl();
+
+        executarEmParalelo(() -> {
+            for (int i = 0; i < OPERACOES_POR_THREAD; i++) {
+                Notificacao notificacao = notificacaoRepository.save(new Notificacao(1, "Teste", "mensagem"));
+                if (i % 4 == 0) {
+                    notificacao.marcarComoLida();
+                    notificacaoRepository.update(notificacao);
+                }
+            }
+            return null;
+        });
+
+        int total = THREADS * OPERACOES_POR_THREAD;
+        int lidas = THREADS * (OPERACOES_POR_THREAD / 4);
+
+        assertEquals(total, notificacaoRepository.findByIdDestinatario(1).size());
+        assertEquals(total - lidas, notificacaoRepository.countNaoLidas(1));
+        assertEquals(total - lidas, notificacaoRepository.findByIdDestinatarioAndNaoLidas(1).size());
+    }
+
+    @Test
+    void pokemonRepository_SavesEDeletesConcorrentes_NaoDevemRepetirIds() throws Exception {
+        PokemonRepository pokemonRepository = new PokemonRepositoryImpl();
+
+        List<List<Integer>> idsPorThread = executarEmParalelo(() -> {
+            List<Integer> ids = new ArrayList<>();
+            for (int i = 0; i < OPERACOES_POR_THREAD; i++) {
+                Pokemon pokemon = pokemonRepository.save(new Pokemon(0, "Pikachu", "Eletrico", "url", 1, 1));
+                ids.add(pokemon.getIdPokemon());
+                if (i % 2 == 0) {
+                    assertTrue(pokemonRepository.delete(pokemon.getIdPokemon()));
+                }
+            }
+            return ids;
+        });
+
+        Set<Integer> idsUnicos = new HashSet<>();
+        idsPorThread.forEach(idsUnicos::addAll);
+        int total = THREADS * OPERACOES_POR_THREAD;
+
+        assertEquals(total, idsUnicos.size());
+        assertEquals(total / 2, pokemonRepository.findAll().size());
+    }
+}
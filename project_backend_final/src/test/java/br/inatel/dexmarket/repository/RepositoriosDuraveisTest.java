@@ -0,0 +1,140 @@
+package br.inatel.dexmarket.repository;
+
+import br.inatel.dexmarket.model.Notificacao;
+import br.inatel.dexmarket.model.Pokemon;
+import br.inatel.dexmarket.model.Proposta;
+import br.inatel.dexmarket.model.PropostaComItemExtra;
+import br.inatel.dexmarket.model.Troca;
+import br.inatel.dexmarket.persistence.Journal;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RepositoriosDuraveisTest {
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void trocas_AposReabrir_DevemVoltarComUltimoEstado() throws IOException {
+        int idConcluida;
+        int idDeletada;
+        try (Journal journal = new Journal(diretorio, "trocas")) {
+            TrocaRepository repositorio = new TrocaRepositoryDuravel(new TrocaRepositoryImpl(), journal);
+            Troca concluida = new Troca(1, "Ativa");
+            concluida.adicionarPokemonOfertado(new Pokemon(10, "Pikachu", "Eletrico", "url", 1, 1));
+            idConcluida = repositorio.save(concluida).getIdTroca();
+            idDeletada = repositorio.save(new Troca(2, "Ativa")).getIdTroca();
+            assertTrue(repositorio.compareAndSetStatus(idConcluida, "Ativa", "Concluída"));
+            assertTrue(repositorio.delete(idDeletada));
+        }
+
+        try (Journal journal = new Journal(diretorio, "trocas")) {
+            TrocaRepository repositorio = new TrocaRepositoryDuravel(new TrocaRepositoryImpl(), journal);
+            Troca recuperada = repositorio.findById(idConcluida);
+            assertNotNull(recuperada);
+            assertEquals("Concluída", recuperada.getStatus());
+            assertEquals("Pikachu", recuperada.getPokemonsOfertados().get(0).getNome());
+            assertEquals(1, repositorio.findByJogadorAndStatus(1, "Concluída").size());
+            assertNull(repositorio.findById(idDeletada));
+
+            // O gerador de IDs continua depois dos IDs recuperados
+            assertTrue(repositorio.save(new Troca(3, "Ativa")).getIdTroca() > idConcluida);
+        }
+    }
+
+    @Test
+    void propostasENotificacoes_AposReabrir_DevemVoltarComUltimoEstado() throws IOException {
+        try (Journal journalPropostas = new Journal(diretorio, "propostas");
+             Journal journalNotificacoes = new Journal(diretorio, "notificacoes")) {
+            PropostaRepository propostas = new PropostaRepositoryDuravel(new PropostaRepositoryImpl(), journalPropostas);
+            NotificacaoRepository notificacoes = new NotificacaoRepositoryDuravel(new NotificacaoRepositoryImpl(), journalNotificacoes);
+            int idAceita = propostas.save(new PropostaComItemExtra(7, 2, "Poção", 3)).getIdProposta();
+            assertTrue(propostas.compareAndSetStatus(idAceita, "Pendente", "Aceita"));
+            assertFalse(propostas.compareAndSetStatus(idAceita, "Pendente", "Rejeitada"));
+            notificacoes.save(new Notificacao(1, "Proposta", "Nova proposta"));
+            Notificacao lida = notificacoes.save(new Notificacao(1, "Proposta", "Outra proposta"));
+            lida.marcarComoLida();
+            notificacoes.update(lida);
+        }
+
+        try (Journal journalPropostas = new Journal(diretorio, "propostas");
+             Journal journalNotificacoes = new Journal(diretorio, "notificacoes")) {
+            PropostaRepository propostas = new PropostaRepositoryDuravel(new PropostaRepositoryImpl(), journalPropostas);
+            NotificacaoRepository notificacoes = new NotificacaoRepositoryDuravel(new NotificacaoRepositoryImpl(), journalNotificacoes);
+
+            Proposta proposta = propostas.findByIdTroca(7).get(0);
+            assertTrue(proposta instanceof PropostaComItemExtra);
+            assertEquals("Poção", ((PropostaComItemExtra) proposta).getItemExtra());
+            assertEquals(3, ((PropostaComItemExtra) proposta).getQuantidadeItemExtra());
+            assertEquals("Aceita", proposta.getStatus());
+            assertEquals(2, notificacoes.findByIdDestinatario(1).size());
+            assertEquals(1, notificacoes.countNaoLidas(1));
+        }
+    }
+
+    @Test
+    void compactar_DeveApagarJournalAntigoESobreviverAReabertura() throws IOException {
+        int idMantida;
+        try (Journal journal = new Journal(diretorio, "trocas")) {
+            TrocaRepositoryDuravel repositorio = new TrocaRepositoryDuravel(new TrocaRepositoryImpl(), journal);
+            idMantida = repositorio.save(new Troca(1, "Ativa")).getIdTroca();
+            int idRemovida = repositorio.save(new Troca(2, "Ativa")).getIdTroca();
+            repositorio.delete(idRemovida);
+
+            assertEquals(1, repositorio.compactar());
+            assertEquals(0, repositorio.bytesNoJournal());
+            assertFalse(Files.exists(diretorio.resolve("trocas.000001.journal")));
+
+            // Escrita depois do snapshot: fica só no journal novo
+            repositorio.compareAndSetStatus(idMantida, "Ativa", "Cancelada");
+        }
+
+        try (Journal journal = new Journal(diretorio, "trocas")) {
+            TrocaRepository repositorio = new TrocaRepositoryDuravel(new TrocaRepositoryImpl(), journal);
+            assertEquals(1, repositorio.findAll().size());
+            assertEquals("Cancelada", repositorio.findById(idMantida).getStatus());
+        }
+    }
+
+    @Test
+    void compactar_ComEscritasConcorrentes_NaoDevePerderNenhumaEscrita() throws Exception {
+        int threads = 8;
+        int porThread = 200;
+        try (Journal journal = new Journal(diretorio, "trocas")) {
+            TrocaRepositoryDuravel repositorio = new TrocaRepositoryDuravel(new TrocaRepositoryImpl(), journal);
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int jogador = t;
+                tarefas.add(executor.submit(() -> {
+                    for (int i = 0; i < porThread; i++) {
+                        repositorio.save(new Troca(jogador, "Ativa"));
+                    }
+                }));
+            }
+            while (tarefas.stream().anyMatch(tarefa -> !tarefa.isDone())) {
+                repositorio.compactar();
+            }
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get();
+            }
+            executor.shutdown();
+        }
+
+        try (Journal journal = new Journal(diretorio, "trocas")) {
+            TrocaRepository repositorio = new TrocaRepositoryDuravel(new TrocaRepositoryImpl(), journal);
+            assertEquals(threads * porThread, repositorio.findAll().size());
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package br.inatel.dexmarket.repository;
+
+import br.inatel.dexmarket.model.Pokemon;
+import br.inatel.dexmarket.model.Treinador;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TreinadorRepositoryImplTest {
+
+    private TreinadorRepository treinadorRepository;
+
+    @BeforeEach
+    void setUp() {
+        treinadorRepository = new TreinadorRepositoryImpl();
+    }
+
+    @Test
+    void findByEmail_DeveIgnorarMaiusculasEEspacos() {
+        Treinador ash = treinadorRepository.save(new Treinador(0, "Ash Ketchum", "ash@kanto.com"));
+
+        assertTrue(ash.getIdJogador() > 0);
+        assertSame(ash, treinadorRepository.findByEmail("  ASH@Kanto.com "));
+        assertNull(treinadorRepository.findByEmail("misty@kanto.com"));
+    }
+
+    @Test
+    void save_EmailDeOutroTreinador_DeveLancarExcecao() {
+        treinadorRepository.save(new Treinador(1, "Ash Ketchum", "ash@kanto.com"));
+
+        assertThrows(IllegalArgumentException.class, () ->
+                treinadorRepository.save(new Treinador(2, "Impostor", "Ash@Kanto.com")));
+        assertNull(treinadorRepository.findById(2));
+    }
+
+    @Test
+    void save_AposTrocaDeEmailEDelete_DeveLiberarEmailAntigo() {
+        Treinador ash = treinadorRepository.save(new Treinador(1, "Ash Ketchum", "ash@kanto.com"));
+
+        ash.setEmail("ash@johto.com");
+        treinadorRepository.save(ash);
+        Treinador misty = treinadorRepository.save(new Treinador(2, "Misty", "ash@kanto.com"));
+        treinadorRepository.delete(ash.getIdJogador());
+
+        assertSame(misty, treinadorRepository.findByEmail("ash@kanto.com"));
+        assertNull(treinadorRepository.findByEmail("ash@johto.com"));
+    }
+
+    @Test
+    void removerPokemon_DeveManterOrdemDosDemais() {
+        Treinador ash = new Treinador(1, "Ash Ketchum", "ash@kanto.com");
+        Pokemon pikachu = new Pokemon(10, "Pikachu", "Eletrico", "url", 1, 1);
+        Pokemon bulbasaur = new Pokemon(11, "Bulbasaur", "Planta", "url", 1, 1);
+        Pokemon charmander = new Pokemon(12, "Charmander", "Fogo", "url", 1, 1);
+        ash.adicionarPokemon(pikachu);
+        ash.adicionarPokemon(bulbasaur);
+        ash.adicionarPokemon(charmander);
+
+        ash.removerPokemon(bulbasaur);
+
+        assertEquals(List.of(pikachu, charmander), ash.getPokemons());
+        assertFalse(ash.possuiPokemon(bulbasaur));
+    }
+}
@@ -0,0 +1,349 @@
+package br.inatel.dexmarket.repository;
+
+import br.inatel.dexmarket.model.CursorPagina;
+import br.inatel.dexmarket.model.FacetasMarketplace;
+import br.inatel.dexmarket.model.FiltroBuscaTrocas;
+import br.inatel.dexmarket.model.Pagina;
+import br.inatel.dexmarket.model.Pokemon;
+import br.inatel.dexmarket.model.Troca;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TrocaRepositoryImplTest {
+
+    private TrocaRepository trocaRepository;
+
+    @BeforeEach
+    void setUp() {
+        trocaRepository = new TrocaRepositoryImpl();
+    }
+
+    // --- Testes do Índice de Status ---
+
+    @Test
+    void findByStatus_AposMudancaDeStatus_DeveMoverTrocaDeIndice() {
+        Troca t1 = trocaRepository.save(new Troca(1, "Ativa"));
+        Troca t2 = trocaRepository.save(new Troca(2, "Ativa"));
+
+        t1.setStatus("Concluída");
+        trocaRepository.update(t1);
+
+        List<Troca> ativas = trocaRepository.findByStatus("Ativa");
+        List<Troca> concluidas = trocaRepository.findByStatus("Concluída");
+
+        assertEquals(1, ativas.size());
+        assertEquals(t2.getIdTroca(), ativas.get(0).getIdTroca());
+        assertEquals(1, concluidas.size());
+        assertEquals(t1.getIdTroca(), concluidas.get(0).getIdTroca());
+    }
+
+    @Test
+    void findByStatus_AposDelete_NaoDeveRetornarTrocaDeletada() {
+        Troca t1 = trocaRepository.save(new Troca(1, "Ativa"));
+
+        trocaRepository.delete(t1.getIdTroca());
+
+        assertTrue(trocaRepository.findByStatus("Ativa").isEmpty());
+    }
+
+    @Test
+    void findByStatus_StatusSemTrocas_DeveRetornarListaVazia() {
+        trocaRepository.save(new Troca(1, "Ativa"));
+
+        assertTrue(trocaRepository.findByStatus("Cancelada").isEmpty());
+    }
+
+    // --- Testes do Índice (Jogador, Status) ---
+
+    @Test
+    void findByJogadorAndStatus_DeveRetornarSomenteTrocasDoJogadorNoStatus() {
+        Troca t1 = trocaRepository.save(new Troca(1, "Ativa"));
+        Troca t2 = trocaRepository.save(new Troca(1, "Ativa"));
+        trocaRepository.save(new Troca(2, "Concluída"));
+
+        t2.setStatus("Concluída");
+        trocaRepository.update(t2);
+
+        List<Troca> concluidas = trocaRepository.findByJogadorAndStatus(1, "Concluída");
+        List<Troca> ativas = trocaRepository.findByJogadorAndStatus(1, "Ativa");
+
+        assertEquals(1, concluidas.size());
+        assertEquals(t2.getIdTroca(), concluidas.get(0).getIdTroca());
+        assertEquals(1, ativas.size());
+        assertEquals(t1.getIdTroca(), ativas.get(0).getIdTroca());
+    }
+
+    @Test
+    void findByIdJogadorOfertante_DeveSomarTodosOsStatusDoJogador() {
+        trocaRepository.save(new Troca(1, "Ativa"));
+        trocaRepository.save(new Troca(1, "Cancelada"));
+        trocaRepository.save(new Troca(2, "Ativa"));
+
+        assertEquals(2, trocaRepository.findByIdJogadorOfertante(1).size());
+        assertEquals(1, trocaRepository.findByIdJogadorOfertante(2).size());
+        assertTrue(trocaRepository.findByIdJogadorOfertante(3).isEmpty());
+    }
+
+    // --- Testes da Paginação por Keyset ---
+
+    @Test
+    void findByStatusPaginado_DevePercorrerTodasAsTrocasEmOrdemDeCriacao() {
+        for (int i = 0; i < 7; i++) {
+            Troca troca = new Troca(1, "Ativa");
+            troca.setDataCriacao(new Date(1000L * (7 - i))); // criadas fora da ordem dos IDs
+            trocaRepository.save(troca);
+        }
+        trocaRepository.save(new Troca(2, "Cancelada"));
+
+        List<Troca> vistas = new ArrayList<>();
+        CursorPagina cursor = null;
+        int paginas = 0;
+        do {
+            Pagina<Troca> pagina = trocaRepository.findByStatus("Ativa", cursor, 3);
+            vistas.addAll(pagina.getItens());
+            cursor = pagina.getProximoCursor();
+            paginas++;
+        } while (cursor != null);
+
+        assertEquals(3, paginas);
+        assertEquals(7, vistas.size());
+        for (int i = 1; i < vistas.size(); i++) {
+            assertTrue(vistas.get(i - 1).getDataCriacao().before(vistas.get(i).getDataCriacao()));
+        }
+    }
+
+    @Test
+    void findByStatusPaginado_ComMudancasEntrePaginas_NaoDeveRepetirNemPular() {
+        List<Troca> trocas = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Troca troca = new Troca(1, "Ativa");
+            troca.setDataCriacao(new Date(1000L * (i + 1)));
+            trocas.add(trocaRepository.save(troca));
+        }
+
+        Pagina<Troca> primeira = trocaRepository.findByStatus("Ativa", null, 2);
+        // Entre as páginas: a primeira troca sai do marketplace e uma nova é criada
+        trocaRepository.compareAndSetStatus(trocas.get(0).getIdTroca(), "Ativa", "Concluída");
+        Troca nova = new Troca(3, "Ativa");
+        nova.setDataCriacao(new Date(5000L));
+        trocaRepository.save(nova);
+        Pagina<Troca> segunda = trocaRepository.findByStatus("Ativa", primeira.getProximoCursor(), 2);
+        Pagina<Troca> terceira = trocaRepository.findByStatus("Ativa", segunda.getProximoCursor(), 2);
+
+        assertEquals(List.of(trocas.get(0), trocas.get(1)), primeira.getItens());
+        assertEquals(List.of(trocas.get(2), trocas.get(3)), segunda.getItens());
+        assertEquals(List.of(nova), terceira.getItens());
+        assertFalse(terceira.temProxima());
+    }
+
+    // --- Testes dos Streams ---
+
+    @Test
+    void streamAll_EmParalelo_DeveVisitarCadaTrocaUmaVez() {
+        for (int i = 0; i < 1000; i++) {
+            trocaRepository.save(new Troca(i % 10, i % 2 == 0 ? "Ativa" : "Cancelada"));
+        }
+        trocaRepository.delete(500);
+
+        assertEquals(999, trocaRepository.streamAll().parallel().mapToInt(Troca::getIdTroca).distinct().count());
+        assertEquals(500, trocaRepository.streamByStatus("Ativa").count());
+    }
+
+    @Test
+    void streamByStatus_ComEscritasDuranteAPassada_NaoDeveFalharNemDevolverStatusErrado() {
+        for (int i = 0; i < 100; i++) {
+            trocaRepository.save(new Troca(1, "Ativa"));
+        }
+
+        List<Troca> vistas = new ArrayList<>();
+        trocaRepository.streamByStatus("Ativa").forEach(troca -> {
+            vistas.add(troca);
+            // Conclui a próxima troca antes de o stream chegar nela
+            trocaRepository.compareAndSetStatus(troca.getIdTroca() + 1, "Ativa", "Concluída");
+        });
+
+        assertEquals(50, vistas.size());
+        assertTrue(vistas.stream().allMatch(troca -> "Ativa".equals(troca.getStatus())));
+    }
+
+    // --- Testes das Operações em Lote ---
+
+    @Test
+    void saveAll_DeveAtribuirIdsDistintosEIndexarTodas() {
+        List<Troca> lote = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            lote.add(new Troca(i % 2 + 1, i < 6 ? "Ativa" : "Concluída"));
+        }
+
+        trocaRepository.saveAll(lote);
+
+        assertEquals(10, lote.stream().mapToInt(Troca::getIdTroca).distinct().count());
+        assertEquals(6, trocaRepository.findByStatus("Ativa").size());
+        assertEquals(4, trocaRepository.findByStatus("Concluída").size());
+        assertEquals(5, trocaRepository.findByIdJogadorOfertante(1).size());
+        assertEquals(lote.get(3), trocaRepository.findById(lote.get(3).getIdTroca()));
+    }
+
+    @Test
+    void updateAllEDeleteAll_DevemIgnorarIdsInexistentes() {
+        Troca t1 = trocaRepository.save(new Troca(1, "Ativa"));
+        Troca t2 = trocaRepository.save(new Troca(2, "Ativa"));
+        Troca inexistente = new Troca(3, "Ativa");
+        inexistente.setIdTroca(999);
+
+        t1.setStatus("Concluída");
+        List<Troca> atualizadas = trocaRepository.updateAll(List.of(t1, inexistente));
+        int removidas = trocaRepository.deleteAll(new int[]{t2.getIdTroca(), 999});
+
+        assertEquals(List.of(t1), atualizadas);
+        assertEquals(1, removidas);
+        assertTrue(trocaRepository.findByStatus("Ativa").isEmpty());
+        assertEquals(1, trocaRepository.findByStatus("Concluída").size());
+    }
+
+    // --- Testes da Busca (Índice Invertido) ---
+
+    private Troca salvarTrocaAtiva(int idOfertante, String nome, String tipo, int raridade) {
+        Troca troca = new Troca(idOfertante, "Ativa");
+        troca.adicionarPokemonOfertado(new Pokemon(0, nome, tipo, "url", raridade, idOfertante));
+        return trocaRepository.save(troca);
+    }
+
+    @Test
+    void buscarAtivas_DeveCombinarTipoDuploFaixaDeRaridadeEOfertante() {
+        Troca charizard = salvarTrocaAtiva(1, "Charizard", "Fogo/Voador", 3);
+        salvarTrocaAtiva(1, "Charmander", "Fogo", 1);
+        Troca pidgeot = salvarTrocaAtiva(2, "Pidgeot", "Normal/Voador", 4);
+        salvarTrocaAtiva(2, "Pidgey", "Normal/Voador", 1);
+
+        Pagina<Troca> voadoresRaros = trocaRepository.buscarAtivas(
+                new FiltroBuscaTrocas().comTipo("voador").comRaridadeEntre(3, 5), null, 10);
+        Pagina<Troca> fogoDoJogador1 = trocaRepository.buscarAtivas(
+                new FiltroBuscaTrocas().comTipo("Fogo").comOfertante(1), null, 10);
+        Pagina<Troca> porEspecie = trocaRepository.buscarAtivas(
+                new FiltroBuscaTrocas().comEspecie(" PIDGEOT "), null, 10);
+
+        assertEquals(List.of(charizard, pidgeot), voadoresRaros.getItens());
+        assertEquals(2, fogoDoJogador1.getItens().size());
+        assertEquals(List.of(pidgeot), porEspecie.getItens());
+    }
+
+    @Test
+    void buscarAtivas_DeveIgnorarAcentosComoABuscaPorPrefixo() {
+        Troca flabebe = salvarTrocaAtiva(1, "Flabébé", "Fada", 2);
+        Troca abra = salvarTrocaAtiva(2, "Abra", "Psíquico", 1);
+
+        assertEquals(List.of(flabebe), trocaRepository.buscarAtivas(
+                new FiltroBuscaTrocas().comEspecie("FLABEBE"), null, 10).getItens());
+        assertEquals(List.of(abra), trocaRepository.buscarAtivas(
+                new FiltroBuscaTrocas().comTipo("psiquico"), null, 10).getItens());
+    }
+
+    @Test
+    void buscarAtivas_DevePaginarPorCursorSemRepetirTrocas() {
+        List<Troca> todas = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            todas.add(salvarTrocaAtiva(1, "Eevee", "Normal", 1 + i % 5));
+        }
+
+        List<Troca> lidas = new ArrayList<>();
+        CursorPagina cursor = null;
+        do {
+            Pagina<Troca> pagina = trocaRepository.buscarAtivas(new FiltroBuscaTrocas().comRaridadeEntre(1, 5), cursor, 3);
+            lidas.addAll(pagina.getItens());
+            cursor = pagina.getProximoCursor();
+        } while (cursor != null);
+
+        assertEquals(todas, lidas);
+    }
+
+    @Test
+    void buscarAtivas_TrocaConcluidaOuAlterada_DeveSairDoIndice() {
+        Troca t1 = salvarTrocaAtiva(1, "Mewtwo", "Psiquico", 5);
+        Troca t2 = salvarTrocaAtiva(2, "Mewtwo", "Psiquico", 5);
+
+        trocaRepository.compareAndSetStatus(t1.getIdTroca(), "Ativa", "Concluída");
+        t2.getPokemonsOfertados().clear();
+        t2.adicionarPokemonOfertado(new Pokemon(0, "Abra", "Psiquico", "url", 1, 2));
+        trocaRepository.update(t2);
+
+        assertTrue(trocaRepository.buscarAtivas(new FiltroBuscaTrocas().comEspecie("Mewtwo"), null, 10).getItens().isEmpty());
+        assertEquals(List.of(t2), trocaRepository.buscarAtivas(new FiltroBuscaTrocas().comTipo("Psiquico"), null, 10).getItens());
+    }
+
+    // --- Testes das Facetas ---
+
+    @Test
+    void contarFacetasAtivas_DeveAcompanharCriacaoEConclusaoDeTrocas() {
+        Troca charizard = salvarTrocaAtiva(1, "Charizard", "Fogo/Voador", 3);
+        salvarTrocaAtiva(2, "Charmander", "Fogo", 1);
+        salvarTrocaAtiva(3, "Charmander", "Fogo", 1);
+
+        FacetasMarketplace antes = trocaRepository.contarFacetasAtivas();
+        trocaRepository.compareAndSetStatus(charizard.getIdTroca(), "Ativa", "Concluída");
+        FacetasMarketplace depois = trocaRepository.contarFacetasAtivas();
+
+        assertEquals(Map.of("fogo", 3, "voador", 1), antes.getPorTipo());
+        assertEquals(Map.of(1, 2, 3, 1), antes.getPorRaridade());
+        assertEquals(Map.of("charizard", 1, "charmander", 2), antes.getPorEspecie());
+        assertEquals(Map.of("fogo", 2), depois.getPorTipo());
+        assertEquals(Map.of(1, 2), depois.getPorRaridade());
+    }
+
+    // --- Testes dos Feeds Top-K ---
+
+    @Test
+    void findAtivasMaisRecentes_DeveRetornarAsKMaisNovasSemAsConcluidas() {
+        Troca t1 = salvarTrocaAtiva(1, "Bulbasaur", "Planta", 1);
+        Troca t2 = salvarTrocaAtiva(1, "Squirtle", "Agua", 1);
+        Troca t3 = salvarTrocaAtiva(1, "Charmander", "Fogo", 1);
+        t1.setDataCriacao(new Date(1000));
+        t2.setDataCriacao(new Date(2000));
+        t3.setDataCriacao(new Date(3000));
+        trocaRepository.updateAll(List.of(t1, t2, t3));
+
+        trocaRepository.compareAndSetStatus(t3.getIdTroca(), "Ativa", "Concluída");
+
+        assertEquals(List.of(t2, t1), trocaRepository.findAtivasMaisRecentes(5));
+        assertEquals(List.of(t2), trocaRepository.findAtivasMaisRecentes(1));
+    }
+
+    @Test
+    void findAtivasMaisRaras_DeveOrdenarPelaMaiorRaridadeOfertada() {
+        Troca comum = salvarTrocaAtiva(1, "Rattata", "Normal", 1);
+        Troca lendaria = salvarTrocaAtiva(2, "Mewtwo", "Psiquico", 5);
+        Troca mista = new Troca(3, "Ativa");
+        mista.adicionarPokemonOfertado(new Pokemon(0, "Pidgey", "Normal/Voador", "url", 1, 3));
+        mista.adicionarPokemonOfertado(new Pokemon(0, "Dragonite", "Dragao/Voador", "url", 4, 3));
+        trocaRepository.save(mista);
+        Troca outraLendaria = salvarTrocaAtiva(4, "Mew", "Psiquico", 5);
+
+        trocaRepository.delete(lendaria.getIdTroca());
+
+        assertEquals(List.of(outraLendaria, mista, comum), trocaRepository.findAtivasMaisRaras(10));
+        assertEquals(List.of(outraLendaria, mista), trocaRepository.findAtivasMaisRaras(2));
+    }
+
+    @Test
+    void saveAll_ComIdsExplicitosENovosNoMesmoLote_NaoDeveReservarIdExplicito() {
+        Troca explicita = new Troca(1, "Ativa");
+        explicita.setIdTroca(2);
+        List<Troca> lote = List.of(new Troca(1, "Ativa"), explicita, new Troca(2, "Ativa"));
+
+        trocaRepository.saveAll(lote);
+
+        assertEquals(3, lote.stream().mapToInt(Troca::getIdTroca).distinct().count());
+        assertEquals(2, explicita.getIdTroca());
+        for (Troca troca : lote) {
+            assertSame(troca, trocaRepository.findById(troca.getIdTroca()));
+        }
+        assertEquals(3, trocaRepository.findByStatus("Ativa").size());
+    }
+}
@@ -0,0 +1,70 @@
+package br.inatel.dexmarket.service;
+
+import br.inatel.dexmarket.model.ModeloNotificacao;
+import br.inatel.dexmarket.model.Notificacao;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AgrupadorNotificacoesTest {
+
+    private final List<Notificacao> emitidas = new CopyOnWriteArrayList<>();
+
+    private AgrupadorNotificacoes criarAgrupador(long janela, TimeUnit unidade) {
+        return new AgrupadorNotificacoes(emitidas::add, janela, unidade);
+    }
+
+    @Test
+    void mesmaChaveNaJanela_DeveVirarUmaNotificacaoComQuantidade() {
+        try (AgrupadorNotificacoes agrupador = criarAgrupador(1, TimeUnit.MINUTES)) {
+            for (int i = 1; i <= 37; i++) {
+                agrupador.adicionar(new Notificacao(1, ModeloNotificacao.NOVA_PROPOSTA, 12, i, null));
+            }
+            agrupador.adicionar(new Notificacao(1, "NovaPropostaRecebida", "nova proposta", 13));
+            agrupador.adicionar(new Notificacao(2, "NovaPropostaRecebida", "nova proposta", 12));
+            agrupador.adicionar(new Notificacao(1, "AtualizacaoTroca", "status", 12));
+
+            agrupador.descarregar();
+
+            assertEquals(4, emitidas.size());
+            Notificacao agrupada = emitidas.stream()
+                    .filter(n -> n.getIdDestinatario() == 1 && n.getIdTroca() == 12 && "NovaPropostaRecebida".equals(n.getTipo()))
+                    .findFirst().orElseThrow();
+            assertEquals(37, agrupada.getQuantidade());
+            assertEquals("Você recebeu 37 novas propostas para a troca #12", agrupada.getMensagem());
+            assertEquals(40, agrupador.getRecebidas());
+            assertEquals(4, agrupador.getEmitidas());
+        }
+    }
+
+    @Test
+    void notificacaoSemTroca_DeveSerRepassadaNaHora() {
+        try (AgrupadorNotificacoes agrupador = criarAgrupador(1, TimeUnit.MINUTES)) {
+            agrupador.adicionar(new Notificacao(1, "Aviso", "manutenção"));
+
+            assertEquals(1, emitidas.size());
+            assertEquals(1, emitidas.get(0).getQuantidade());
+            assertEquals("manutenção", emitidas.get(0).getMensagem());
+        }
+    }
+
+    @Test
+    void fimDaJanela_DeveRepassarSemDescarregar() throws InterruptedException {
+        try (AgrupadorNotificacoes agrupador = criarAgrupador(20, TimeUnit.MILLISECONDS)) {
+            agrupador.adicionar(new Notificacao(1, "NovaPropostaRecebida", "nova proposta", 5));
+            agrupador.adicionar(new Notificacao(1, "NovaPropostaRecebida", "nova proposta", 5));
+
+            long limite = System.currentTimeMillis() + 5000;
+            while (emitidas.isEmpty() && System.currentTimeMillis() < limite) {
+                Thread.sleep(5);
+            }
+
+            assertEquals(1, emitidas.size());
+            assertEquals(2, emitidas.get(0).getQuantidade());
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package br.inatel.dexmarket.service;
+
+import br.inatel.dexmarket.model.Notificacao;
+import br.inatel.dexmarket.repository.NotificacaoRepositoryImpl;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EscritorNotificacoesEmLoteTest {
+
+    /**
+     * Repositório que registra o tamanho de cada saveAll.
+     */
+    private static class RepositorioContandoLotes extends NotificacaoRepositoryImpl {
+        final List<Integer> tamanhosDosLotes = new CopyOnWriteArrayList<>();
+
+        @Override
+        public List<Notificacao> saveAll(List<Notificacao> notificacoes) {
+            tamanhosDosLotes.add(notificacoes.size());
+            return super.saveAll(notificacoes);
+        }
+    }
+
+    @Test
+    void variasThreads_DevemGravarTudoEmLotesLimitadosPorQuantidade() throws InterruptedException {
+        RepositorioContandoLotes repositorio = new RepositorioContandoLotes();
+        try (EscritorNotificacoesEmLote escritor = new EscritorNotificacoesEmLote(repositorio, 50, 1, TimeUnit.SECONDS)) {
+            Thread[] threads = new Thread[4];
+            for (int t = 0; t < threads.length; t++) {
+                int idDestinatario = t + 1;
+                threads[t] = new Thread(() -> {
+                    for (int i = 0; i < 250; i++) {
+                        escritor.enfileirar(new Notificacao(idDestinatario, "AtualizacaoTroca", "mensagem " + i));
+                    }
+                });
+                threads[t].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            escritor.descarregar();
+
+            assertEquals(1000, repositorio.findAll().size());
+            assertEquals(1000, escritor.getNotificacoesGravadas());
+            assertEquals(repositorio.tamanhosDosLotes.size(), escritor.getLotesGravados());
+            assertTrue(repositorio.tamanhosDosLotes.stream().allMatch(tamanho -> tamanho <= 50));
+            assertTrue(escritor.getLotesGravados() < 1000);
+            assertEquals(250, repositorio.findByIdDestinatario(3).size());
+        }
+    }
+
+    @Test
+    void loteIncompleto_DeveSerGravadoAoFimDaEsperaMaxima() throws Exception {
+        RepositorioContandoLotes repositorio = new RepositorioContandoLotes();
+        try (EscritorNotificacoesEmLote escritor = new EscritorNotificacoesEmLote(repositorio, 1000, 20, TimeUnit.MILLISECONDS)) {
+            CompletableFuture<Notificacao> salva = escritor.enfileirar(new Notificacao(1, "AtualizacaoTroca", "mensagem"));
+
+            Notificacao notificacao = salva.get(5, TimeUnit.SECONDS);
+
+            assertTrue(notificacao.getIdNotificacao() > 0);
+            assertSame(notificacao, repositorio.findById(notificacao.getIdNotificacao()));
+            assertEquals(List.of(1), repositorio.tamanhosDosLotes);
+            assertTrue(escritor.getLatenciaMaximaMicros() >= TimeUnit.MILLISECONDS.toMicros(20));
+        }
+    }
+
+    @Test
+    void enviarNotificacao_DeveRetornarNotificacaoJaGravada() {
+        NotificacaoRepositoryImpl repositorio = new NotificacaoRepositoryImpl();
+        NotificacaoService service = new NotificacaoService(repositorio,
+                new EscritorNotificacoesEmLote(repositorio, 16, 1, TimeUnit.SECONDS));
+
+        Notificacao notificacao = service.enviarNotificacao(2, "PropostaAceita", "Sua proposta #1 foi aceita!");
+
+        assertTrue(notificacao.getIdNotificacao() > 0);
+        assertEquals(1, service.contarNotificacoesNaoLidas(2));
+    }
+
+    @Test
+    void close_DeveGravarPendentesERecusarNovas() {
+        RepositorioContandoLotes repositorio = new RepositorioContandoLotes();
+        EscritorNotificacoesEmLote escritor = new EscritorNotificacoesEmLote(repositorio, 1000, 1, TimeUnit.MINUTES);
+        for (int i = 0; i < 10; i++) {
+            escritor.enfileirar(new Notificacao(1, "AtualizacaoTroca", "mensagem " + i));
+        }
+
+        escritor.close();
+
+        assertEquals(10, repositorio.findAll().size());
+        assertThrows(IllegalStateException.class, () -> escritor.enfileirar(new Notificacao(1, "AtualizacaoTroca", "tarde")));
+    }
+}
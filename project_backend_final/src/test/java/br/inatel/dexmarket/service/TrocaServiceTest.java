@@ -4,15 +4,25 @@ import br.inatel.dexmarket.model.Pokemon;
 import br.inatel.dexmarket.model.Proposta;
 import br.inatel.dexmarket.model.PropostaSimples;
 import br.inatel.dexmarket.model.Troca;
+import br.inatel.dexmarket.observer.BarramentoEventos;
+import br.inatel.dexmarket.observer.EventoTroca;
 import br.inatel.dexmarket.repository.PropostaRepository;
 import br.inatel.dexmarket.repository.PropostaRepositoryImpl;
 import br.inatel.dexmarket.repository.TrocaRepository;
 import br.inatel.dexmarket.repository.TrocaRepositoryImpl;
 import br.inatel.dexmarket.strategy.ValidacaoTrocaRara;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -21,13 +31,20 @@ public class TrocaServiceTest {
     private TrocaService trocaService;
     private TrocaRepository trocaRepository;
     private PropostaRepository propostaRepository;
+    private BarramentoEventos barramento;
 
     @BeforeEach
     void setUp() {
         // Inicializa repositórios em memória para cada teste
         trocaRepository = new TrocaRepositoryImpl();
         propostaRepository = new PropostaRepositoryImpl();
-        trocaService = new TrocaService(trocaRepository, propostaRepository);
+        barramento = new BarramentoEventos(1, 64, BarramentoEventos.PoliticaCheia.BLOQUEAR);
+        trocaService = new TrocaService(trocaRepository, propostaRepository, barramento);
+    }
+
+    @AfterEach
+    void tearDown() {
+        barramento.close();
     }
 
     // --- Dados Mock ---
@@ -75,6 +92,34 @@ public class TrocaServiceTest {
         });
     }
 
+    @Test
+    void criarTrocas_LoteValido_DeveSalvarTodas() {
+        List<Troca> lote = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            Troca troca = new Troca(i, "Ativa");
+            troca.adicionarPokemonOfertado(getPokemon(i, "Pikachu", 1, i));
+            troca.adicionarPokemonDesejado(getPokemon(i + 10, "Charmander", 1, i + 10));
+            lote.add(troca);
+        }
+
+        List<Troca> criadas = trocaService.criarTrocas(lote);
+
+        assertEquals(5, criadas.size());
+        assertTrue(criadas.stream().allMatch(t -> t.getIdTroca() > 0));
+        assertEquals(5, trocaService.listarTrocasAtivas().size());
+    }
+
+    @Test
+    void criarTrocas_LoteComTrocaInvalida_NaoDeveSalvarNenhuma() {
+        Troca valida = new Troca(1, "Ativa");
+        valida.adicionarPokemonOfertado(getPokemon(1, "Pikachu", 1, 1));
+        valida.adicionarPokemonDesejado(getPokemon(2, "Charmander", 1, 2));
+        Troca semPokemons = new Troca(2, "Ativa");
+
+        assertThrows(IllegalArgumentException.class, () -> trocaService.criarTrocas(List.of(valida, semPokemons)));
+        assertTrue(trocaService.listarTrocasAtivas().isEmpty());
+    }
+
     // --- Testes de Listar Trocas ---
 
     @Test
@@ -127,6 +172,33 @@ public class TrocaServiceTest {
         assertEquals("Concluída", trocaConcluida.getStatus());
     }
 
+    @Test
+    void processarProposta_AceitarProposta_DevePublicarStatusEAceiteForaDaThreadQueAceitou() {
+        Pokemon p1 = getPokemon(1, "Pikachu", 1, 1);
+        Pokemon p2 = getPokemon(2, "Charmander", 1, 2);
+        Troca troca = criarTrocaAtiva(1, p1, p2);
+        Proposta proposta = new PropostaSimples(troca.getIdTroca(), 2);
+        proposta.adicionarPokemonOfertado(getPokemon(3, "Squirtle", 1, 2));
+        Proposta propostaCriada = propostaRepository.save(proposta);
+        List<EventoTroca> eventos = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+        barramento.assinar(evento -> {
+            eventos.add(evento);
+            threads.add(Thread.currentThread());
+        });
+
+        trocaService.processarProposta(propostaCriada.getIdProposta(), true);
+
+        assertTrue(barramento.aguardarEntregas(5, TimeUnit.SECONDS));
+        assertEquals(2, eventos.size());
+        assertEquals(EventoTroca.Tipo.STATUS_ALTERADO, eventos.get(0).getTipo());
+        assertEquals("Ativa", eventos.get(0).getStatusAnterior());
+        assertEquals("Concluída", eventos.get(0).getStatusNovo());
+        assertEquals(EventoTroca.Tipo.PROPOSTA_ACEITA, eventos.get(1).getTipo());
+        assertEquals(propostaCriada.getIdProposta(), eventos.get(1).getIdProposta());
+        assertFalse(threads.contains(Thread.currentThread()));
+    }
+
     @Test
     void processarProposta_RejeitarProposta_DeveRejeitarPropostaENaoAlterarTroca() {
         Pokemon p1 = getPokemon(1, "Pikachu", 1, 1);
@@ -144,6 +216,163 @@ public class TrocaServiceTest {
         assertEquals("Ativa", trocaOriginal.getStatus());
     }
 
+    @Test
+    void processarProposta_AceitarSegundaProposta_DeveLancarExcecaoERejeitarProposta() {
+        Pokemon p1 = getPokemon(1, "Pikachu", 1, 1);
+        Pokemon p2 = getPokemon(2, "Charmander", 1, 2);
+        Troca troca = criarTrocaAtiva(1, p1, p2);
+
+        Proposta proposta1 = propostaRepository.save(new PropostaSimples(troca.getIdTroca(), 2));
+        Proposta proposta2 = propostaRepository.save(new PropostaSimples(troca.getIdTroca(), 3));
+
+        trocaService.processarProposta(proposta1.getIdProposta(), true);
+
+        // A segunda proposta já foi rejeitada em lote quando a primeira venceu
+        assertEquals("Rejeitada", proposta2.getStatus());
+        assertThrows(IllegalStateException.class, () -> {
+            trocaService.processarProposta(proposta2.getIdProposta(), true);
+        });
+        assertEquals("Aceita", proposta1.getStatus());
+        assertEquals("Rejeitada", proposta2.getStatus());
+    }
+
+    @Test
+    void processarProposta_AceitarMesmaPropostaDuasVezes_DeveManterAVencedoraAceita() {
+        Troca troca = criarTrocaAtiva(1, getPokemon(1, "Pikachu", 1, 1), getPokemon(2, "Charmander", 1, 2));
+        Proposta proposta = propostaRepository.save(new PropostaSimples(troca.getIdTroca(), 2));
+
+        trocaService.processarProposta(proposta.getIdProposta(), true);
+
+        // Retry ou clique duplo: falha sem rejeitar a proposta que venceu
+        assertThrows(IllegalStateException.class, () -> trocaService.processarProposta(proposta.getIdProposta(), true));
+        assertEquals("Aceita", propostaRepository.findById(proposta.getIdProposta()).getStatus());
+        assertEquals("Concluída", trocaService.buscarTroca(troca.getIdTroca()).getStatus());
+    }
+
+    @Test
+    void processarProposta_RejeitarPropostaAceita_NaoDeveAlterarNemNotificar() {
+        Troca troca = criarTrocaAtiva(1, getPokemon(1, "Pikachu", 1, 1), getPokemon(2, "Charmander", 1, 2));
+        Proposta proposta = propostaRepository.save(new PropostaSimples(troca.getIdTroca(), 2));
+        trocaService.processarProposta(proposta.getIdProposta(), true);
+        assertTrue(barramento.aguardarEntregas(5, TimeUnit.SECONDS));
+        List<EventoTroca> eventos = Collections.synchronizedList(new ArrayList<>());
+        barramento.assinar(eventos::add);
+
+        assertThrows(IllegalStateException.class, () -> trocaService.processarProposta(proposta.getIdProposta(), false));
+
+        assertTrue(barramento.aguardarEntregas(5, TimeUnit.SECONDS));
+        assertTrue(eventos.isEmpty());
+        assertEquals("Aceita", propostaRepository.findById(proposta.getIdProposta()).getStatus());
+    }
+
+    @Test
+    void processarProposta_AceitarPropostaRejeitadaComTrocaAtiva_DeveLancarExcecao() {
+        Troca troca = criarTrocaAtiva(1, getPokemon(1, "Pikachu", 1, 1), getPokemon(2, "Charmander", 1, 2));
+        Proposta proposta = propostaRepository.save(new PropostaSimples(troca.getIdTroca(), 2));
+        trocaService.processarProposta(proposta.getIdProposta(), false);
+
+        assertThrows(IllegalStateException.class, () -> trocaService.processarProposta(proposta.getIdProposta(), true));
+        assertEquals("Rejeitada", proposta.getStatus());
+        assertEquals("Ativa", trocaService.buscarTroca(troca.getIdTroca()).getStatus());
+    }
+
+    @Test
+    void processarProposta_AceitesConcorrentes_ApenasUmaPropostaDeveVencer() throws Exception {
+        Pokemon p1 = getPokemon(1, "Pikachu", 1, 1);
+        Pokemon p2 = getPokemon(2, "Charmander", 1, 2);
+        Troca troca = criarTrocaAtiva(1, p1, p2);
+
+        int quantidade = 32;
+        List<Proposta> propostas = new ArrayList<>();
+        for (int i = 0; i < quantidade; i++) {
+            propostas.add(propostaRepository.save(new PropostaSimples(troca.getIdTroca(), i + 2)));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(quantidade);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Boolean>> resultados = new ArrayList<>();
+        for (Proposta proposta : propostas) {
+            resultados.add(executor.submit(() -> {
+                largada.await();
+                try {
+                    trocaService.processarProposta(proposta.getIdProposta(), true);
+                    return true;
+                } catch (IllegalStateException e) {
+                    return false;
+                }
+            }));
+        }
+        largada.countDown();
+        int vencedoras = 0;
+        for (Future<Boolean> resultado : resultados) {
+            if (resultado.get(30, TimeUnit.SECONDS)) {
+                vencedoras++;
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(1, vencedoras);
+        assertEquals(1, propostas.stream().filter(p -> "Aceita".equals(p.getStatus())).count());
+        assertEquals(quantidade - 1, propostas.stream().filter(p -> "Rejeitada".equals(p.getStatus())).count());
+        assertEquals("Concluída", trocaService.buscarTroca(troca.getIdTroca()).getStatus());
+    }
+
+    @Test
+    void enviarProposta_TrocaConcluida_DeveRecusarSemSalvar() {
+        PropostaService propostaService = new PropostaService(propostaRepository, trocaRepository, barramento);
+        Troca troca = criarTrocaAtiva(1, getPokemon(1, "Pikachu", 1, 1), getPokemon(2, "Charmander", 1, 2));
+        Proposta vencedora = new PropostaSimples(troca.getIdTroca(), 2);
+        vencedora.adicionarPokemonOfertado(getPokemon(3, "Squirtle", 1, 2));
+        trocaService.processarProposta(propostaService.enviarProposta(vencedora).getIdProposta(), true);
+
+        Proposta atrasada = new PropostaSimples(troca.getIdTroca(), 3);
+        atrasada.adicionarPokemonOfertado(getPokemon(4, "Bulbasaur", 1, 3));
+
+        assertThrows(IllegalStateException.class, () -> propostaService.enviarProposta(atrasada));
+        assertEquals(1, trocaService.listarPropostasPorTroca(troca.getIdTroca()).size());
+        Proposta semTroca = new PropostaSimples(999, 3);
+        semTroca.adicionarPokemonOfertado(getPokemon(5, "Eevee", 1, 3));
+        assertThrows(IllegalArgumentException.class, () -> propostaService.enviarProposta(semTroca));
+    }
+
+    @Test
+    void enviarProposta_ConcorrenteComAceite_NenhumaPropostaFicaPendente() throws Exception {
+        PropostaService propostaService = new PropostaService(propostaRepository, trocaRepository, barramento);
+        Troca troca = criarTrocaAtiva(1, getPokemon(1, "Pikachu", 1, 1), getPokemon(2, "Charmander", 1, 2));
+        Proposta vencedora = new PropostaSimples(troca.getIdTroca(), 2);
+        vencedora.adicionarPokemonOfertado(getPokemon(3, "Squirtle", 1, 2));
+        int idVencedora = propostaService.enviarProposta(vencedora).getIdProposta();
+
+        int enviadas = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<?>> envios = new ArrayList<>();
+        for (int i = 0; i < enviadas; i++) {
+            int proponente = 10 + i;
+            envios.add(executor.submit(() -> {
+                largada.await();
+                Proposta proposta = new PropostaSimples(troca.getIdTroca(), proponente);
+                proposta.adicionarPokemonOfertado(getPokemon(proponente, "Eevee", 1, proponente));
+                try {
+                    propostaService.enviarProposta(proposta);
+                } catch (IllegalStateException recusada) {
+                    // Chegou depois do aceite
+                }
+                return null;
+            }));
+        }
+        largada.countDown();
+        trocaService.processarProposta(idVencedora, true);
+        for (Future<?> envio : envios) {
+            envio.get(5, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        List<Proposta> propostas = trocaService.listarPropostasPorTroca(troca.getIdTroca());
+        assertTrue(propostas.stream().noneMatch(p -> "Pendente".equals(p.getStatus())));
+        assertEquals(1, propostas.stream().filter(p -> "Aceita".equals(p.getStatus())).count());
+    }
+
     @Test
     void listarPropostasPorTroca_DeveRetornarPropostasCorretas() {
         Pokemon p1 = getPokemon(1, "Pikachu", 1, 1);